@@ -0,0 +1,33 @@
+package Benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ponto de entrada do {@code benchmarks.jar}: aceita as mesmas opções de linha de comando do
+ * JMH, mas grava os resultados em JSON ({@code jmh-result.json}) quando {@code -rf}/{@code -rff}
+ * não são informados, para que possam ser comparados entre versões.
+ *
+ * <p>Exemplos: {@code java -jar benchmarks.jar}, {@code java -jar benchmarks.jar Search -p size=10000}.</p>
+ */
+public final class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
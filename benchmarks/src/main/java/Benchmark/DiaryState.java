@@ -0,0 +1,73 @@
+package Benchmark;
+
+import Control.WorkManager;
+import Control.io.codec.DiarySnapshot;
+import Control.io.codec.SnapshotFormat;
+import Module.Genre;
+import Module.Media;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Estado compartilhado dos benchmarks: uma biblioteca sintética gravada em um snapshot
+ * temporário e um {@link WorkManager} aberto sobre ele, como na inicialização do aplicativo.
+ *
+ * <p>Antes das medições, todas as mídias são decodificadas e o índice de busca é construído,
+ * para que os benchmarks meçam o regime estável e não o primeiro acesso.</p>
+ */
+@State(Scope.Benchmark)
+public class DiaryState {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    /** Expoente de Zipf do gerador (0 = uniforme). */
+    @Param({"0.0", "1.2"})
+    public double skew;
+
+    public File directory;
+    public File dataFile;
+    public DiarySnapshot snapshot;
+    public WorkManager workManager;
+    /** Gênero mais frequente quando há assimetria. */
+    public Genre genre;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("diary-bench").toFile();
+        dataFile = new File(directory, "cultural_diary.dat");
+        snapshot = new SyntheticLibrary(42L, skew).generate(size);
+        SnapshotFormat.write(dataFile, snapshot);
+
+        workManager = new WorkManager(dataFile.getPath());
+        for (Media media : workManager.listMediaAlphabetically()) {
+            media.getTitle(); // Decode every record of the mapped snapshot
+        }
+        workManager.searchByTitle(SyntheticLibrary.TITLE_WORDS[0]); // Build the search index
+        genre = snapshot.getGenres().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workManager.close();
+        deleteRecursively(directory);
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,80 @@
+package Benchmark;
+
+import Control.WorkManager;
+import Control.io.codec.DiarySnapshot;
+import Control.io.codec.SnapshotFormat;
+import Module.Media;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação e carregamento do snapshot.
+ *
+ * <p>{@code saveData} do {@code WorkManager} é privado (chamado na compactação do journal);
+ * {@link #saveData(DiaryState)} mede o mesmo trabalho: codificar a biblioteca e gravá-la com
+ * {@link SnapshotFormat#write(File, DiarySnapshot)} (arquivo temporário, {@code force} e rename).
+ * {@link #loadData(DiaryState)} mede a abertura de um {@code WorkManager} sobre o snapshot, que
+ * só mapeia o arquivo, e {@link #loadDataAndDecode(DiaryState, Blackhole)} inclui a decodificação
+ * de todas as mídias.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistenceBenchmark {
+
+    private File directory;
+    private File saveTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("diary-bench-save").toFile();
+        saveTarget = new File(directory, "cultural_diary.dat");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DiaryState.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void saveData(DiaryState diary) throws IOException {
+        SnapshotFormat.write(saveTarget, diary.snapshot);
+    }
+
+    @Benchmark
+    public WorkManager loadData(DiaryState diary) {
+        WorkManager workManager = new WorkManager(diary.dataFile.getPath());
+        workManager.close();
+        return workManager;
+    }
+
+    @Benchmark
+    public void loadDataAndDecode(DiaryState diary, Blackhole blackhole) {
+        WorkManager workManager = new WorkManager(diary.dataFile.getPath());
+        List<Media> all = workManager.listMediaAlphabetically();
+        for (Media media : all) {
+            blackhole.consume(media.getReviewCount());
+        }
+        workManager.close();
+    }
+}
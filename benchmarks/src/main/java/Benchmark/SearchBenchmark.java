@@ -0,0 +1,58 @@
+package Benchmark;
+
+import Control.TitleMatch;
+import Module.Media;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buscas por texto do {@code WorkManager}. Com assimetria, {@code "amor"} e {@code "Gênero 0"}
+ * são os termos mais frequentes (pior caso) e {@code "vento"} e {@code "Gênero 39"} os mais raros.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"amor", "vento", "me"})
+    public String titleQuery;
+
+    @Param({"Gênero 0", "Gênero 39"})
+    public String genreQuery;
+
+    @Benchmark
+    public List<Media> searchByTitle(DiaryState diary) {
+        return diary.workManager.searchByTitle(titleQuery);
+    }
+
+    /** Busca aproximada com um erro de digitação (a meta é ficar abaixo de 5 ms com 100 mil títulos). */
+    @Benchmark
+    public List<TitleMatch> searchByTitleFuzzy(DiaryState diary) {
+        return diary.workManager.searchByTitleFuzzy(titleQuery + "s", 20);
+    }
+
+    /** Sugestões do autocompletar de títulos de filmes (uma por tecla digitada). */
+    @Benchmark
+    public List<String> completeFilmTitles(DiaryState diary) {
+        return diary.workManager.completeFilmTitles(titleQuery, 15);
+    }
+
+    @Benchmark
+    public List<Media> searchByGenre(DiaryState diary) {
+        return diary.workManager.searchByGenre(genreQuery);
+    }
+}
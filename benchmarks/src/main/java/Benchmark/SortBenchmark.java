@@ -0,0 +1,75 @@
+package Benchmark;
+
+import Control.WorkManager;
+import Module.Media;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem filtrada e ordenada ({@code getFilteredAndSortedMedia}), a listagem alfabética
+ * (completa e por página), as mais bem avaliadas e o cálculo da avaliação
+ * usado pelas ordenações e pela coluna de nota da interface.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    /** 1 = nota decrescente, 2 = nota crescente, 3 = alfabética. */
+    @Param({"1", "2", "3"})
+    public int sortOption;
+
+    @Benchmark
+    public List<Media> getFilteredAndSortedMedia(DiaryState diary) {
+        return diary.workManager.getFilteredAndSortedMedia(null, null, sortOption);
+    }
+
+    @Benchmark
+    public List<Media> getFilteredAndSortedMediaByGenre(DiaryState diary) {
+        return diary.workManager.getFilteredAndSortedMedia(null, diary.genre, sortOption);
+    }
+
+    @Benchmark
+    public List<Media> listMediaAlphabetically(DiaryState diary) {
+        return diary.workManager.listMediaAlphabetically();
+    }
+
+    @Benchmark
+    public List<Media> listMediaPage(DiaryState diary) {
+        return diary.workManager.listMediaPage("m", 50);
+    }
+
+    @Benchmark
+    public List<Media> getTopRated(DiaryState diary) {
+        return diary.workManager.getTopRated(50);
+    }
+
+    /** Avaliação de todas as mídias da biblioteca (divida pelo tamanho para o custo por mídia). */
+    @Benchmark
+    public void calculateAverage(DiaryState diary, Blackhole blackhole) {
+        for (Media media : diary.snapshot.getBooks()) {
+            blackhole.consume(WorkManager.calculateAverage(media));
+        }
+        for (Media media : diary.snapshot.getFilms()) {
+            blackhole.consume(WorkManager.calculateAverage(media));
+        }
+        for (Media media : diary.snapshot.getShows()) {
+            blackhole.consume(WorkManager.calculateAverage(media));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package Benchmark;
+
+import Control.io.codec.DiarySnapshot;
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Review;
+import Module.Season;
+import Module.Show;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Gerador de bibliotecas sintéticas para os benchmarks: livros, filmes e séries (com
+ * temporadas) e suas reviews, de forma reproduzível a partir de uma semente.
+ *
+ * <p>O parâmetro {@code skew} controla o quanto os dados se concentram em poucos valores:
+ * gêneros, palavras dos títulos, autores, diretores, elenco e a quantidade de reviews são
+ * sorteados com uma distribuição de Zipf com esse expoente. Com {@code skew = 0} a escolha é
+ * uniforme; com valores maiores (ex.: 1.2) alguns gêneros e palavras aparecem na maior parte
+ * das mídias, como em uma biblioteca real, o que torna as buscas por esses termos mais caras.</p>
+ */
+public class SyntheticLibrary {
+
+    /** Palavras usadas para compor os títulos, da mais à menos frequente quando há assimetria. */
+    static final String[] TITLE_WORDS = {
+            "amor", "noite", "casa", "guerra", "mar", "tempo", "cidade", "sombra", "vida", "rei",
+            "estrela", "sangue", "jardim", "segredo", "viagem", "fogo", "caminho", "sonho", "lua", "rio",
+            "memória", "inverno", "ilha", "coração", "floresta", "verão", "destino", "silêncio", "ponte", "vento"
+    };
+    static final int GENRE_COUNT = 40;
+    private static final int MAX_SEASONS = 6;
+    private static final int MAX_REVIEWS = 5;
+
+    private final Random random;
+    private final double skew;
+    private final Zipf genrePicker;
+    private final Zipf wordPicker;
+    private final Zipf reviewCountPicker;
+
+    /**
+     * @param seed A semente do gerador.
+     * @param skew O expoente da distribuição de Zipf (0 para distribuição uniforme).
+     */
+    public SyntheticLibrary(long seed, double skew) {
+        this.random = new Random(seed);
+        this.skew = skew;
+        this.genrePicker = new Zipf(GENRE_COUNT, skew);
+        this.wordPicker = new Zipf(TITLE_WORDS.length, skew);
+        this.reviewCountPicker = new Zipf(MAX_REVIEWS + 1, skew);
+    }
+
+    /**
+     * Gera uma biblioteca com a proporção de 50% livros, 30% filmes e 20% séries.
+     *
+     * @param size A quantidade total de mídias.
+     * @return O snapshot gerado.
+     */
+    public DiarySnapshot generate(int size) {
+        int books = size / 2;
+        int films = size * 3 / 10;
+        return generate(books, films, size - books - films);
+    }
+
+    /**
+     * Gera uma biblioteca com as quantidades informadas de cada tipo de mídia.
+     *
+     * @param bookCount A quantidade de livros.
+     * @param filmCount A quantidade de filmes.
+     * @param showCount A quantidade de séries (cada uma com 1 a {@value #MAX_SEASONS} temporadas).
+     * @return O snapshot gerado.
+     */
+    public DiarySnapshot generate(int bookCount, int filmCount, int showCount) {
+        List<Genre> genres = new ArrayList<>();
+        for (int i = 0; i < GENRE_COUNT; i++) {
+            genres.add(new Genre("Gênero " + i));
+        }
+        int people = Math.max(1, (bookCount + filmCount + showCount) / 4);
+        Zipf personPicker = new Zipf(people, skew);
+
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            Book book = new Book(random.nextBoolean(), title("Livro", i), pickGenres(genres), year(),
+                    "Autor " + personPicker.next(random), "Editora " + random.nextInt(50),
+                    String.format("978%010d", i), random.nextBoolean());
+            addReviews(book.getTitle(), book::addReview);
+            books.add(book);
+        }
+
+        List<Films> films = new ArrayList<>(filmCount);
+        for (int i = 0; i < filmCount; i++) {
+            Films film = new Films(cast(personPicker), random.nextBoolean(), title("Filme", i), pickGenres(genres), year(),
+                    "Original Film " + i, Arrays.asList("Netflix", "Cinema"), "Diretor " + personPicker.next(random),
+                    80 + random.nextInt(100), "Roteirista " + personPicker.next(random));
+            addReviews(film.getTitle(), film::addReview);
+            films.add(film);
+        }
+
+        List<Show> shows = new ArrayList<>(showCount);
+        for (int i = 0; i < showCount; i++) {
+            int year = year();
+            Show show = new Show(cast(personPicker), random.nextBoolean(), title("Série", i), pickGenres(genres), year,
+                    "Original Show " + i, Arrays.asList("HBO Max"), year + random.nextInt(8));
+            int seasons = 1 + random.nextInt(MAX_SEASONS);
+            for (int s = 1; s <= seasons; s++) {
+                Season season = new Season(s, 6 + random.nextInt(18), "01/01/" + (year + s));
+                addReviews(show.getTitle() + " T" + s, season::addReview);
+                show.addSeason(season);
+            }
+            shows.add(show);
+        }
+        return new DiarySnapshot(genres, books, films, shows, 1L);
+    }
+
+    /** Título único: duas palavras sorteadas seguidas do tipo e do número da mídia. */
+    private String title(String kind, int number) {
+        return TITLE_WORDS[wordPicker.next(random)] + " " + TITLE_WORDS[wordPicker.next(random)] + " " + kind + " " + number;
+    }
+
+    private List<Genre> pickGenres(List<Genre> genres) {
+        int first = genrePicker.next(random);
+        int second = genrePicker.next(random);
+        return first == second ? Collections.singletonList(genres.get(first)) : Arrays.asList(genres.get(first), genres.get(second));
+    }
+
+    private List<String> cast(Zipf personPicker) {
+        return Arrays.asList("Ator " + personPicker.next(random), "Atriz " + personPicker.next(random));
+    }
+
+    private int year() {
+        return 1950 + random.nextInt(75);
+    }
+
+    private interface ReviewSink {
+        void add(Review review);
+    }
+
+    private void addReviews(String title, ReviewSink sink) {
+        int reviews = reviewCountPicker.next(random);
+        for (int r = 0; r < reviews; r++) {
+            sink.add(new Review("Comentário sobre " + title, 1 + random.nextInt(5), "10/05/2024"));
+        }
+    }
+
+    /** Sorteio de posições {@code 0..n-1} com probabilidade proporcional a {@code 1 / (posição + 1)^s}. */
+    static class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        int next(Random random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package Control;
+
+import Module.Genre;
+import Module.Media;
+import Module.Review;
+import Module.Season;
+import Module.Show;
+
+/**
+ * Mudança na biblioteca do {@link WorkManager}, entregue aos {@link LibraryListener}s depois que
+ * a mutação é confirmada: uma mídia, review, temporada ou gênero cadastrado.
+ *
+ * <p>Cada evento traz o que mudou, para que uma tela possa se atualizar só naquele ponto (inserir
+ * uma linha, um item de lista) em vez de recarregar tudo, e a versão do {@link LibrarySnapshot}
+ * em que a mudança aparece pela primeira vez.</p>
+ */
+public abstract class LibraryEvent {
+
+    private final long version;
+
+    LibraryEvent(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Retorna a versão do retrato ({@link LibrarySnapshot#getVersion()}) que já contém esta mudança.
+     *
+     * @return A versão.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Um livro, filme ou série foi cadastrado. */
+    public static final class MediaAdded extends LibraryEvent {
+        private final Media media;
+
+        MediaAdded(long version, Media media) {
+            super(version);
+            this.media = media;
+        }
+
+        /**
+         * Retorna a mídia cadastrada.
+         *
+         * @return A mídia.
+         */
+        public Media getMedia() {
+            return media;
+        }
+
+        @Override
+        public String toString() {
+            return "MediaAdded(" + media.getTitle() + ")";
+        }
+    }
+
+    /** Uma review foi acrescentada a um livro, a um filme ou a uma temporada de série (a média da mídia mudou). */
+    public static final class ReviewAdded extends LibraryEvent {
+        private final Media media;
+        private final Season season;
+        private final Review review;
+
+        ReviewAdded(long version, Media media, Season season, Review review) {
+            super(version);
+            this.media = media;
+            this.season = season;
+            this.review = review;
+        }
+
+        /**
+         * Retorna a mídia avaliada (a série, no caso de uma temporada).
+         *
+         * @return A mídia.
+         */
+        public Media getMedia() {
+            return media;
+        }
+
+        /**
+         * Retorna a temporada avaliada.
+         *
+         * @return A temporada, ou {@code null} para a review de um livro ou filme.
+         */
+        public Season getSeason() {
+            return season;
+        }
+
+        /**
+         * Retorna a review acrescentada.
+         *
+         * @return A review.
+         */
+        public Review getReview() {
+            return review;
+        }
+
+        @Override
+        public String toString() {
+            return "ReviewAdded(" + media.getTitle() + (season != null ? ", season " + season.getSeasonNumber() : "") + ")";
+        }
+    }
+
+    /** Uma temporada foi acrescentada a uma série. */
+    public static final class SeasonAdded extends LibraryEvent {
+        private final Show show;
+        private final Season season;
+
+        SeasonAdded(long version, Show show, Season season) {
+            super(version);
+            this.show = show;
+            this.season = season;
+        }
+
+        /**
+         * Retorna a série.
+         *
+         * @return A série.
+         */
+        public Show getShow() {
+            return show;
+        }
+
+        /**
+         * Retorna a temporada acrescentada.
+         *
+         * @return A temporada.
+         */
+        public Season getSeason() {
+            return season;
+        }
+
+        @Override
+        public String toString() {
+            return "SeasonAdded(" + show.getTitle() + ", season " + season.getSeasonNumber() + ")";
+        }
+    }
+
+    /** Um gênero foi cadastrado. */
+    public static final class GenreAdded extends LibraryEvent {
+        private final Genre genre;
+
+        GenreAdded(long version, Genre genre) {
+            super(version);
+            this.genre = genre;
+        }
+
+        /**
+         * Retorna o gênero cadastrado.
+         *
+         * @return O gênero.
+         */
+        public Genre getGenre() {
+            return genre;
+        }
+
+        @Override
+        public String toString() {
+            return "GenreAdded(" + genre.getGenre() + ")";
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package Control;
+
+import java.util.List;
+
+/**
+ * Recebe as mudanças da biblioteca de um {@link WorkManager} (veja
+ * {@link WorkManager#addListener(LibraryListener)}).
+ *
+ * <p>O WorkManager chama o ouvinte na thread que fez a mutação, depois de soltar a sua trava e de
+ * publicar o novo {@link LibrarySnapshot}: o ouvinte pode consultar o WorkManager, mas deve
+ * retornar logo (uma tela repassa os eventos para a sua própria thread). As entregas não se
+ * sobrepõem e seguem a ordem das mutações.</p>
+ */
+@FunctionalInterface
+public interface LibraryListener {
+
+    /**
+     * Chamado com as mudanças confirmadas desde a última entrega: as de uma mutação, as de um lote
+     * inteiro ({@link WorkManager#commit()}) ou as de várias mutações seguidas de outras threads.
+     *
+     * @param events Os eventos, na ordem em que aconteceram (lista não modificável, nunca vazia).
+     */
+    void libraryChanged(List<LibraryEvent> events);
+}
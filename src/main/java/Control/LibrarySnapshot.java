@@ -0,0 +1,141 @@
+package Control;
+
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Media;
+import Module.Show;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Retrato imutável das bibliotecas do {@link WorkManager} em um instante: gêneros, livros,
+ * filmes, séries e a lista agregada de mídias, todos na mesma versão.
+ *
+ * <p>O WorkManager publica um novo retrato a cada mutação confirmada (ou no commit de um lote)
+ * e o entrega por {@link WorkManager#snapshot()} sem trava e sem cópia: quem o recebe pode
+ * percorrê-lo de qualquer thread, pelo tempo que quiser, e vê sempre o mesmo conteúdo, mesmo
+ * que novas mídias sejam cadastradas no meio. As listas de mídias são {@link PersistentList}s:
+ * cada cadastro cria um retrato novo que compartilha com o anterior quase toda a estrutura,
+ * copiando só o caminho até a nova posição. Os gêneros, poucos, são copiados a cada gênero novo.</p>
+ *
+ * <p>As mídias em si são os objetos do WorkManager: o retrato fixa quais mídias existem, não
+ * as reviews e temporadas acrescentadas a elas depois. Essas listas ({@link Media#getReviews()},
+ * {@link Show#getSeasons()}, {@link Module.Season#getReviews()}) também são copiadas a cada
+ * inclusão e nunca alteradas: percorrê-las sem trava é seguro, e cada uma mostra a mídia no
+ * instante em que foi lida.</p>
+ */
+public final class LibrarySnapshot {
+
+    private final long version;
+    private final List<Genre> genres;
+    private final PersistentList<Book> books;
+    private final PersistentList<Films> films;
+    private final PersistentList<Show> shows;
+    private final PersistentList<Media> media;
+
+    private LibrarySnapshot(long version, List<Genre> genres, PersistentList<Book> books, PersistentList<Films> films,
+                            PersistentList<Show> shows, PersistentList<Media> media) {
+        this.version = version;
+        this.genres = genres;
+        this.books = books;
+        this.films = films;
+        this.shows = shows;
+        this.media = media;
+    }
+
+    /**
+     * Cria o retrato inicial (versão 0) das bibliotecas carregadas, sem decodificar as mídias
+     * do snapshot em disco (veja {@link PersistentList#of(List)}).
+     */
+    static LibrarySnapshot of(List<Genre> genres, List<Book> books, List<Films> films, List<Show> shows, List<Media> media) {
+        return new LibrarySnapshot(0, copyOf(genres), PersistentList.of(books), PersistentList.of(films),
+                PersistentList.of(shows), PersistentList.of(media));
+    }
+
+    /** Retorna o retrato seguinte, com o livro acrescentado. */
+    LibrarySnapshot withBook(Book book) {
+        return new LibrarySnapshot(version + 1, genres, books.plus(book), films, shows, media.plus(book));
+    }
+
+    /** Retorna o retrato seguinte, com o filme acrescentado. */
+    LibrarySnapshot withFilm(Films film) {
+        return new LibrarySnapshot(version + 1, genres, books, films.plus(film), shows, media.plus(film));
+    }
+
+    /** Retorna o retrato seguinte, com a série acrescentada. */
+    LibrarySnapshot withShow(Show show) {
+        return new LibrarySnapshot(version + 1, genres, books, films, shows.plus(show), media.plus(show));
+    }
+
+    /** Retorna o retrato seguinte, com uma cópia da lista de gêneros. */
+    LibrarySnapshot withGenres(List<Genre> genres) {
+        return new LibrarySnapshot(version + 1, copyOf(genres), books, films, shows, media);
+    }
+
+    /** Retorna o retrato seguinte, com as mesmas listas: uma review ou temporada foi acrescentada. */
+    LibrarySnapshot changed() {
+        return new LibrarySnapshot(version + 1, genres, books, films, shows, media);
+    }
+
+    private static <T> List<T> copyOf(List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * Retorna a versão do retrato, que cresce a cada mutação (cadastro, review, temporada ou gênero).
+     * Dois retratos com a mesma versão têm o mesmo conteúdo.
+     *
+     * @return A versão.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retorna os gêneros cadastrados, em ordem alfabética.
+     *
+     * @return Uma lista não modificável.
+     */
+    public List<Genre> getGenres() {
+        return genres;
+    }
+
+    /**
+     * Retorna os livros cadastrados, na ordem de cadastro.
+     *
+     * @return Uma lista não modificável.
+     */
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    /**
+     * Retorna os filmes cadastrados, na ordem de cadastro.
+     *
+     * @return Uma lista não modificável.
+     */
+    public List<Films> getFilms() {
+        return films;
+    }
+
+    /**
+     * Retorna as séries cadastradas, na ordem de cadastro.
+     *
+     * @return Uma lista não modificável.
+     */
+    public List<Show> getShows() {
+        return shows;
+    }
+
+    /**
+     * Retorna todas as mídias (livros, filmes e séries), na ordem de cadastro.
+     *
+     * @return Uma lista não modificável.
+     */
+    public List<Media> getMedia() {
+        return media;
+    }
+}
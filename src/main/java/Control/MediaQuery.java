@@ -0,0 +1,477 @@
+package Control;
+
+import Control.search.PersonIndex;
+import Module.AudioVisualMedia;
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Media;
+import Module.Show;
+import Module.TextFolding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Consulta de listagem de mídias: os filtros (título/ISBN, ano ou intervalo de anos, gêneros, pessoa e tipo) e a
+ * ordenação usados pela listagem avançada do console ({@code View.Search}) e pela tela de busca
+ * do JavaFX. Critérios não informados não filtram nada.
+ *
+ * <p>A consulta é montada com os métodos encadeáveis e executada por
+ * {@link WorkManager#query(MediaQuery)}. Os filtros são compilados ({@link #compile()}) em um
+ * único predicado, com os termos já normalizados ({@link TextFolding}) e os gêneros em um {@link HashSet}, que testa
+ * primeiro os critérios mais baratos e seletivos (tipo, ano, gênero) e só então os de texto, comparados
+ * com as chaves normalizadas guardadas nas mídias; a lista é percorrida uma única vez, sem listas
+ * intermediárias nem conversões por mídia.</p>
+ */
+public class MediaQuery {
+
+    /** Avaliação decrescente (maior para menor). */
+    public static final int SORT_RATING_DESC = 1;
+    /** Avaliação crescente (menor para maior). */
+    public static final int SORT_RATING_ASC = 2;
+    /** Alfabética por título (A-Z, ignorando acentos e maiúsculas/minúsculas). */
+    public static final int SORT_TITLE = 3;
+    /** Mantém a ordem de relevância (similaridade, na busca aproximada de títulos). */
+    public static final int SORT_RELEVANCE = 4;
+
+    /** Quantidade de mídias testadas entre duas verificações de cancelamento. */
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+    /** Um ano, ou dois separados por {@code -}, {@code –} ou {@code ..} (qualquer um pode faltar). */
+    private static final Pattern YEAR_RANGE = Pattern.compile("(\\d{1,4})?\\s*(?:(-|–|\\.\\.)\\s*(\\d{1,4})?)?");
+
+    private String titleOrIsbn;
+    private boolean fuzzyTitle;
+    private int yearFrom = Integer.MIN_VALUE;
+    private int yearTo = Integer.MAX_VALUE;
+    private final Set<String> genreNames = new HashSet<>();
+    private boolean allGenres;
+    private String person;
+    private boolean books;
+    private boolean films;
+    private boolean shows;
+    private int sortOption = SORT_TITLE;
+
+    /**
+     * Filtra pelas mídias cujo título, ou o ISBN no caso de livros, contém o texto.
+     *
+     * @param text O texto procurado (ignorando acentos e maiúsculas/minúsculas); nulo ou vazio não filtra.
+     * @return Esta consulta.
+     */
+    public MediaQuery titleOrIsbn(String text) {
+        this.titleOrIsbn = foldedOrNull(text);
+        return this;
+    }
+
+    /**
+     * Troca o filtro de {@link #titleOrIsbn(String)} pela busca aproximada de títulos, tolerante a
+     * erros de digitação, no título e no título original
+     * ({@link WorkManager#searchByTitleFuzzy(String, int)}); o ISBN deixa de ser considerado.
+     * A busca aproximada é feita pelo {@link WorkManager#query(MediaQuery)}, que entrega as
+     * mídias em ordem de similaridade (mantida com {@link #SORT_RELEVANCE}).
+     *
+     * @param fuzzy {@code true} para a busca aproximada.
+     * @return Esta consulta.
+     */
+    public MediaQuery fuzzyTitle(boolean fuzzy) {
+        this.fuzzyTitle = fuzzy;
+        return this;
+    }
+
+    /**
+     * Filtra pelo ano de lançamento.
+     *
+     * @param year O ano exato, ou {@code null} para não filtrar (substitui um intervalo definido antes).
+     * @return Esta consulta.
+     */
+    public MediaQuery year(Integer year) {
+        return year == null ? yearRange(null, null) : yearRange(year, year);
+    }
+
+    /**
+     * Filtra por um intervalo de anos de lançamento, com os extremos incluídos.
+     *
+     * @param from O primeiro ano, ou {@code null} para não limitar por baixo.
+     * @param to   O último ano, ou {@code null} para não limitar por cima.
+     * @return Esta consulta.
+     */
+    public MediaQuery yearRange(Integer from, Integer to) {
+        this.yearFrom = from == null ? Integer.MIN_VALUE : from;
+        this.yearTo = to == null ? Integer.MAX_VALUE : to;
+        return this;
+    }
+
+    /**
+     * Filtra pelo ano ou intervalo de anos digitado pelo usuário (veja {@link #parseYearRange(String)}).
+     *
+     * @param text O ano ({@code 2023}) ou intervalo ({@code 1990-1999}); nulo ou vazio não filtra.
+     * @return Esta consulta.
+     * @throws IllegalArgumentException se o texto não for um ano ou intervalo válido.
+     */
+    public MediaQuery yearRange(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return yearRange(null, null);
+        }
+        int[] range = parseYearRange(text);
+        this.yearFrom = range[0];
+        this.yearTo = range[1];
+        return this;
+    }
+
+    /**
+     * Interpreta um ano ou intervalo de anos: {@code 2023}, {@code 1990-1999} (também com
+     * {@code –} ou {@code ..}), {@code 1990-} (a partir de) ou {@code -1999} (até).
+     *
+     * @param text O texto digitado.
+     * @return {@code {primeiro, último}}, com {@link Integer#MIN_VALUE}/{@link Integer#MAX_VALUE} nos extremos abertos.
+     * @throws IllegalArgumentException se o texto não for um ano ou intervalo válido.
+     */
+    public static int[] parseYearRange(String text) {
+        String trimmed = text == null ? "" : text.trim();
+        Matcher matcher = YEAR_RANGE.matcher(trimmed);
+        if (!matcher.matches() || (matcher.group(1) == null && matcher.group(3) == null)) {
+            throw new IllegalArgumentException("Invalid year or year range: '" + trimmed + "'.");
+        }
+        if (matcher.group(2) == null) {
+            int year = Integer.parseInt(matcher.group(1));
+            return new int[]{year, year};
+        }
+        int from = matcher.group(1) == null ? Integer.MIN_VALUE : Integer.parseInt(matcher.group(1));
+        int to = matcher.group(3) == null ? Integer.MAX_VALUE : Integer.parseInt(matcher.group(3));
+        if (from > to) {
+            throw new IllegalArgumentException("The first year must not be after the last: '" + trimmed + "'.");
+        }
+        return new int[]{from, to};
+    }
+
+    /** Primeiro ano aceito ({@link Integer#MIN_VALUE} sem limite). */
+    int yearFrom() {
+        return yearFrom;
+    }
+
+    /** Último ano aceito ({@link Integer#MAX_VALUE} sem limite). */
+    int yearTo() {
+        return yearTo;
+    }
+
+    /** Indica se a consulta filtra por gênero, caso em que o {@code WorkManager} parte dos bitmaps de gênero. */
+    boolean hasGenreFilter() {
+        return !genreNames.isEmpty();
+    }
+
+    /** Os gêneros aceitos, normalizados como {@link Genre#getKey()}. */
+    Set<String> genreKeys() {
+        return genreNames;
+    }
+
+    /** Indica se a mídia precisa ter todos os gêneros aceitos (e não só um deles). */
+    boolean matchesAllGenres() {
+        return allGenres;
+    }
+
+    /** Indica se o título é buscado de forma aproximada (e não por substring). */
+    boolean isFuzzyTitle() {
+        return fuzzyTitle && titleOrIsbn != null;
+    }
+
+    /** O texto de título/ISBN procurado, normalizado. */
+    String titleKey() {
+        return titleOrIsbn;
+    }
+
+    /** Indica se a consulta filtra por pessoa, caso em que o {@code WorkManager} parte do índice de pessoas. */
+    boolean hasPersonFilter() {
+        return person != null;
+    }
+
+    /** O nome procurado, normalizado com {@link PersonIndex#normalize(String)}. */
+    String personKey() {
+        return person;
+    }
+
+    /** A ordenação pedida ({@link #SORT_RATING_DESC}, {@link #SORT_RATING_ASC}, ...). */
+    int sortOption() {
+        return sortOption;
+    }
+
+    /** Indica se o resultado é ordenado por título (qualquer opção que não seja por avaliação ou relevância). */
+    boolean sortsByTitle() {
+        return sortOption != SORT_RATING_DESC && sortOption != SORT_RATING_ASC && sortOption != SORT_RELEVANCE;
+    }
+
+    /**
+     * Indica se esta consulta só aceita mídias que a outra também aceita, de modo que pode ser
+     * executada sobre o resultado dela: os mesmos filtros de tipo, ano e gênero, um título/ISBN
+     * que contém o anterior e um nome que começa com o anterior (como ao continuar digitando).
+     * A busca aproximada de títulos nunca refina um resultado.
+     */
+    boolean narrows(MediaQuery previous) {
+        return !fuzzyTitle && !previous.fuzzyTitle
+                && books == previous.books && films == previous.films && shows == previous.shows
+                && yearFrom == previous.yearFrom && yearTo == previous.yearTo
+                && allGenres == previous.allGenres && genreNames.equals(previous.genreNames)
+                && (previous.titleOrIsbn == null || (titleOrIsbn != null && titleOrIsbn.contains(previous.titleOrIsbn)))
+                && (previous.person == null || (person != null && person.startsWith(previous.person)));
+    }
+
+    /** Indica se a consulta filtra por ano, caso em que o {@code WorkManager} parte do índice por ano. */
+    boolean hasYearFilter() {
+        return yearFrom != Integer.MIN_VALUE || yearTo != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Acrescenta um gênero aos gêneros aceitos: a mídia precisa ter ao menos um deles, ou todos
+     * com {@link #matchAllGenres(boolean)}.
+     *
+     * @param genre O gênero; {@code null} é ignorado.
+     * @return Esta consulta.
+     */
+    public MediaQuery genre(Genre genre) {
+        if (genre != null) {
+            genreNames.add(genre.getKey());
+        }
+        return this;
+    }
+
+    /**
+     * Acrescenta gêneros, pelo nome, aos gêneros aceitos.
+     *
+     * @param names Os nomes dos gêneros (ignorando acentos e maiúsculas/minúsculas).
+     * @return Esta consulta.
+     */
+    public MediaQuery genreNames(Collection<String> names) {
+        for (String name : names) {
+            if (name != null) {
+                genreNames.add(TextFolding.fold(name.trim()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Define como os gêneros aceitos se combinam.
+     *
+     * @param all {@code true} para exigir todos os gêneros; {@code false} (padrão) para aceitar
+     *            as mídias com qualquer um deles.
+     * @return Esta consulta.
+     */
+    public MediaQuery matchAllGenres(boolean all) {
+        this.allGenres = all;
+        return this;
+    }
+
+    /**
+     * Filtra pelas mídias em que alguma palavra do autor (livros), do diretor ou do roteirista
+     * (filmes) ou de alguém do elenco (filmes e séries) começa com o texto — a mesma regra do
+     * {@link PersonIndex}.
+     *
+     * @param text O início do nome (ignorando acentos e maiúsculas/minúsculas); nulo ou vazio não filtra.
+     * @return Esta consulta.
+     */
+    public MediaQuery person(String text) {
+        String key = PersonIndex.normalize(text);
+        this.person = key.isEmpty() ? null : key;
+        return this;
+    }
+
+    /**
+     * Restringe os tipos de mídia; se nenhum for marcado, todos os tipos são aceitos.
+     *
+     * @param books {@code true} para aceitar livros.
+     * @param films {@code true} para aceitar filmes.
+     * @param shows {@code true} para aceitar séries.
+     * @return Esta consulta.
+     */
+    public MediaQuery types(boolean books, boolean films, boolean shows) {
+        this.books = books;
+        this.films = films;
+        this.shows = shows;
+        return this;
+    }
+
+    /**
+     * Define a ordenação do resultado.
+     *
+     * @param sortOption {@link #SORT_RATING_DESC}, {@link #SORT_RATING_ASC}, {@link #SORT_TITLE} ou
+     *                   {@link #SORT_RELEVANCE} (qualquer outro valor ordena por título).
+     * @return Esta consulta.
+     */
+    public MediaQuery sort(int sortOption) {
+        this.sortOption = sortOption;
+        return this;
+    }
+
+    /**
+     * Compila os filtros em um único predicado. Os valores da consulta são copiados: alterar a
+     * consulta depois não altera o predicado.
+     *
+     * @return O predicado que aceita as mídias que atendem a todos os critérios.
+     */
+    public Predicate<Media> compile() {
+        boolean anyType = !books && !films && !shows;
+        boolean acceptBooks = anyType || books;
+        boolean acceptFilms = anyType || films;
+        boolean acceptShows = anyType || shows;
+        boolean filterYear = hasYearFilter();
+        int from = yearFrom;
+        int to = yearTo;
+        Set<String> genres = genreNames.isEmpty() ? null : new HashSet<>(genreNames);
+        boolean all = allGenres;
+        String text = fuzzyTitle ? null : titleOrIsbn; // Fuzzy matching is done by WorkManager.query
+        String who = person;
+
+        return media -> {
+            if (!anyType && !(media instanceof Book ? acceptBooks
+                    : media instanceof Films ? acceptFilms
+                    : media instanceof Show && acceptShows)) {
+                return false;
+            }
+            if (filterYear && (media.getYearRelease() < from || media.getYearRelease() > to)) {
+                return false;
+            }
+            if (genres != null && !(all ? hasAllGenres(media, genres) : hasAnyGenre(media, genres))) {
+                return false;
+            }
+            if (text != null && !matchesTitleOrIsbn(media, text)) {
+                return false;
+            }
+            return who == null || matchesPerson(media, who);
+        };
+    }
+
+    /**
+     * Executa a consulta sobre uma lista de mídias: filtra em uma passada e ordena.
+     *
+     * @param source    As mídias consultadas (não é modificada).
+     * @param cancelled Consultado periodicamente; quando retorna {@code true}, a execução é interrompida.
+     * @return As mídias encontradas, ordenadas; ou {@code null} se a consulta foi cancelada.
+     */
+    public List<Media> run(List<Media> source, BooleanSupplier cancelled) {
+        Predicate<Media> filter = compile();
+        List<Media> result = new ArrayList<>();
+        int untilCheck = CANCELLATION_CHECK_INTERVAL;
+        for (Media media : source) {
+            if (--untilCheck == 0) {
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+                untilCheck = CANCELLATION_CHECK_INTERVAL;
+            }
+            if (filter.test(media)) {
+                result.add(media);
+            }
+        }
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+        switch (sortOption) {
+            case SORT_RATING_DESC:
+                WorkManager.sortByRating(result, true);
+                break;
+            case SORT_RATING_ASC:
+                WorkManager.sortByRating(result, false);
+                break;
+            case SORT_RELEVANCE:
+                break;
+            case SORT_TITLE:
+            default:
+                result.sort(WorkManager.TITLE_ORDER);
+                break;
+        }
+        return result;
+    }
+
+    private static String foldedOrNull(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return null;
+        }
+        return TextFolding.fold(text.trim());
+    }
+
+    private static boolean hasAnyGenre(Media media, Set<String> genres) {
+        for (Genre genre : media.getGenres()) {
+            if (genre != null && genres.contains(genre.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAllGenres(Media media, Set<String> genres) {
+        for (String wanted : genres) {
+            boolean found = false;
+            for (Genre genre : media.getGenres()) {
+                if (genre != null && genre.getKey().equals(wanted)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesTitleOrIsbn(Media media, String text) {
+        if (media.getTitleKey().contains(text)) {
+            return true;
+        }
+        return media instanceof Book && ((Book) media).getIsbnKey().contains(text);
+    }
+
+    private static boolean matchesPerson(Media media, String prefix) {
+        if (media instanceof Book) {
+            return PersonIndex.keyMatchesPrefix(((Book) media).getAuthorKey(), prefix);
+        }
+        if (media instanceof Films && (PersonIndex.keyMatchesPrefix(((Films) media).getDirectionKey(), prefix)
+                || PersonIndex.keyMatchesPrefix(((Films) media).getScreenplayKey(), prefix))) {
+            return true;
+        }
+        if (media instanceof AudioVisualMedia) {
+            for (String castMember : ((AudioVisualMedia) media).getCastKeys()) {
+                if (PersonIndex.keyMatchesPrefix(castMember, prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resultado de uma consulta feita com {@link WorkManager#refine(MediaQuery, Result, BooleanSupplier)},
+     * guardado por quem repete a consulta a cada tecla digitada: a próxima consulta que só
+     * restringe esta ({@link #narrows(MediaQuery)}) filtra estas mídias em vez de todas.
+     */
+    public static final class Result {
+        final MediaQuery query;
+        final List<Media> media;
+        /** A lista agregada consultada e o tamanho dela na consulta (as mídias seguintes são novas). */
+        final List<Media> source;
+        final int sourceSize;
+
+        Result(MediaQuery query, List<Media> media, List<Media> source, int sourceSize) {
+            this.query = query;
+            this.media = media;
+            this.source = source;
+            this.sourceSize = sourceSize;
+        }
+
+        /**
+         * Retorna as mídias encontradas, já ordenadas.
+         *
+         * @return A lista de mídias (não deve ser modificada).
+         */
+        public List<Media> getMedia() {
+            return media;
+        }
+    }
+}
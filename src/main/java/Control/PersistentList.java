@@ -0,0 +1,164 @@
+package Control;
+
+import Control.io.codec.LazyList;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lista imutável e persistente, usada pelos {@link LibrarySnapshot}s: acrescentar um elemento
+ * ({@link #plus(Object)}) devolve uma nova lista e deixa a anterior intacta, compartilhando com
+ * ela quase toda a estrutura.
+ *
+ * <p>A lista é um prefixo fixo (as mídias do snapshot em disco, decodificadas sob demanda pela
+ * {@link LazyList}) seguido dos elementos acrescentados depois, guardados em uma trie de 32
+ * posições por nó, como os vetores persistentes de Clojure e Scala. Os últimos (até 32)
+ * elementos ficam em um nó separado, a cauda: a maior parte dos acréscimos só copia a cauda, e
+ * a cada 32 a cauda entra na trie copiando apenas o caminho até ela (O(log32 n) nós de 32
+ * referências). O acesso por posição também custa O(log32 n), na prática no máximo 3 ou 4 níveis.</p>
+ *
+ * <p>Como nada é alterado depois de construído, a lista pode ser lida de qualquer thread sem
+ * trava, desde que tenha sido publicada com segurança (o {@code WorkManager} a publica por um
+ * {@link java.util.concurrent.atomic.AtomicReference}).</p>
+ *
+ * @param <E> O tipo dos elementos.
+ */
+final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY = new Object[0];
+
+    /** Prefixo fixo: só as posições {@code [0, baseSize)} são lidas, e elas nunca mudam. */
+    private final List<E> base;
+    private final int baseSize;
+    /** Quantidade de elementos acrescentados depois do prefixo (na trie e na cauda). */
+    private final int count;
+    /** Deslocamento, em bits, do nível da raiz. */
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentList(List<E> base, int baseSize, int count, int shift, Object[] root, Object[] tail) {
+        this.base = base;
+        this.baseSize = baseSize;
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Cria uma lista com os elementos atuais de {@code base} como prefixo. Uma {@link LazyList} é
+     * usada diretamente, sem decodificar nada: as posições já existentes dela nunca mudam e podem
+     * ser lidas de qualquer thread. Outras listas são copiadas.
+     *
+     * @param base Os elementos iniciais.
+     * @param <E>  O tipo dos elementos.
+     * @return A lista.
+     */
+    static <E> PersistentList<E> of(List<E> base) {
+        List<E> prefix = base instanceof LazyList ? base : Collections.unmodifiableList(new ArrayList<>(base));
+        return new PersistentList<>(prefix, prefix.size(), 0, BITS, new Object[WIDTH], EMPTY);
+    }
+
+    /**
+     * Retorna uma nova lista com o elemento acrescentado ao final; esta lista não muda.
+     *
+     * @param element O elemento.
+     * @return A nova lista.
+     */
+    PersistentList<E> plus(E element) {
+        if (count - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentList<>(base, baseSize, count + 1, shift, root, newTail);
+        }
+        // The tail is full: it becomes a leaf of the trie, copying only the path to it
+        Object[] newRoot;
+        int newShift = shift;
+        if ((count >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentList<>(base, baseSize, count + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= baseSize + count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        if (index < baseSize) {
+            return base.get(index);
+        }
+        int position = index - baseSize;
+        int tailOffset = tailOffset();
+        if (position >= tailOffset) {
+            return (E) tail[position - tailOffset];
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(position >>> level) & MASK];
+        }
+        return (E) node[position & MASK];
+    }
+
+    /**
+     * Retorna o elemento de uma posição sem materializá-lo no prefixo (veja {@link LazyList#peek(int)}),
+     * para percorrer a lista inteira sem manter o snapshot decodificado em memória.
+     *
+     * @param index A posição.
+     * @return O elemento.
+     */
+    @SuppressWarnings("unchecked")
+    E peek(int index) {
+        if (index >= 0 && index < baseSize && base instanceof LazyList) {
+            return ((LazyList<E>) base).peek(index);
+        }
+        return get(index);
+    }
+
+    @Override
+    public int size() {
+        return baseSize + count;
+    }
+
+    /** Posição (entre os acrescentados) do primeiro elemento da cauda. */
+    private int tailOffset() {
+        return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int slot = ((count - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        Object[] inserted;
+        if (level == BITS) {
+            inserted = tailNode;
+        } else {
+            Object[] child = (Object[]) parent[slot];
+            inserted = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        copy[slot] = inserted;
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+}
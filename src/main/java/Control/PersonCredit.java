@@ -0,0 +1,53 @@
+package Control;
+
+import Control.search.PersonIndex;
+import Module.Media;
+
+/**
+ * Crédito de uma pessoa em uma mídia: quem, em que papel (autor, diretor, roteirista ou elenco)
+ * e em qual mídia. Resultado da busca por pessoa e da filmografia do {@link WorkManager}.
+ */
+public class PersonCredit {
+
+    private final String person;
+    private final PersonIndex.Role role;
+    private final Media media;
+
+    public PersonCredit(String person, PersonIndex.Role role, Media media) {
+        this.person = person;
+        this.role = role;
+        this.media = media;
+    }
+
+    /**
+     * Retorna o nome da pessoa, como foi cadastrado pela primeira vez.
+     *
+     * @return O nome da pessoa.
+     */
+    public String getPerson() {
+        return person;
+    }
+
+    /**
+     * Retorna o papel da pessoa na mídia.
+     *
+     * @return O papel.
+     */
+    public PersonIndex.Role getRole() {
+        return role;
+    }
+
+    /**
+     * Retorna a mídia creditada.
+     *
+     * @return A mídia.
+     */
+    public Media getMedia() {
+        return media;
+    }
+
+    @Override
+    public String toString() {
+        return person + " (" + role + "): " + media.getTitle();
+    }
+}
@@ -0,0 +1,41 @@
+package Control;
+
+import Module.Media;
+
+/**
+ * Resultado da busca aproximada de títulos do {@link WorkManager}: a mídia e a similaridade do
+ * título (ou do título original) com o termo buscado.
+ */
+public class TitleMatch {
+
+    private final Media media;
+    private final float score;
+
+    public TitleMatch(Media media, float score) {
+        this.media = media;
+        this.score = score;
+    }
+
+    /**
+     * Retorna a mídia encontrada.
+     *
+     * @return A mídia.
+     */
+    public Media getMedia() {
+        return media;
+    }
+
+    /**
+     * Retorna a similaridade com o termo buscado.
+     *
+     * @return Um valor entre 0 e 1 (1 para o título exato).
+     */
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.0f%%)", media.getTitle(), score * 100);
+    }
+}
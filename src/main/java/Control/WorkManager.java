@@ -1,15 +1,43 @@
 package Control;
 
+import Control.io.Journal;
+import Control.io.PersistenceWriter;
+import Control.io.codec.DiarySnapshot;
+import Control.io.codec.LazyList;
+import Control.io.codec.LegacySnapshotReader;
+import Control.io.codec.SnapshotFormat;
+import Control.search.MediaIndex;
+import Control.search.PersonIndex;
+import Control.search.RatingIndex;
+import Control.search.TitleCompleter;
+import Control.search.TitleOrder;
 import Module.*;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Objects;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import java.util.stream.Collectors;
 
@@ -22,10 +50,26 @@ import java.util.stream.Collectors;
  * e a camada de Modelo (Model), que representa os dados. Fornece métodos públicos para
  * criar, buscar, listar, avaliar e gerenciar as mídias culturais e gêneros.</p>
  *
- * <p><b>Importante:</b> Na versão atual, todos os dados são armazenados em listas na memória
- * RAM e são perdidos quando a aplicação é encerrada (dados voláteis). Não há persistência
- * implementada.</p>
+ * <p><b>Persistência:</b> os dados ficam em listas na memória RAM. Cada mutação é anexada
+ * a um {@link Journal} (arquivo {@code <DATA_FILE>.journal}); quando o log acumula
+ * {@link #COMPACTION_THRESHOLD} registros, um snapshot completo é gravado em {@code DATA_FILE}
+ * e o log é descartado. Na inicialização, o snapshot é mapeado em memória (as mídias são
+ * decodificadas sob demanda, no primeiro acesso) e o restante do log é reaplicado por cima dele.
+ * As gravações acontecem em uma thread de persistência ({@link PersistenceWriter}), que agrupa
+ * mutações seguidas em uma única escrita; os métodos de mutação retornam sem esperar o disco
+ * ({@link #flush()} e {@link #awaitDurable(long, TimeUnit)} permitem aguardá-lo).</p>
  *
+ * <p><b>Concorrência:</b> todos os métodos públicos podem ser chamados de qualquer thread
+ * (interface, carregadores em segundo plano, importações). O estado é protegido por um
+ * {@link StampedLock}: as mutações usam a trava de escrita, e as buscas, listagens e consultas
+ * de avaliação usam a trava de leitura, compartilhada entre as consultas (veja
+ * {@link #readLocked(Supplier)}). Quem precisa percorrer as bibliotecas recebe um
+ * {@link LibrarySnapshot} imutável ({@link #snapshot()}), publicado a cada mutação confirmada,
+ * sem trava nem cópia.</p>
+ *
+ * <p><b>Eventos:</b> as telas não precisam reler as listas depois de cada cadastro: um
+ * {@link LibraryListener} registrado com {@link #addListener(LibraryListener)} recebe, a cada
+ * mutação confirmada (ou commit de lote), os {@link LibraryEvent}s do que mudou.</p>
  *
  * @see View.Screen
  * @see View.Create
@@ -37,6 +81,47 @@ import java.util.stream.Collectors;
 public class WorkManager {
 
     private static final String DATA_FILE = "cultural_diary.dat"; // Added for persistence
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String LOCK_SUFFIX = ".lock";
+    /** Quantidade de registros no journal que dispara a gravação de um novo snapshot (compactação). */
+    private static final int COMPACTION_THRESHOLD = 500;
+    /** Janela, em milissegundos, em que mutações seguidas são agrupadas em uma única gravação. */
+    private static final long COALESCE_MILLIS = 50;
+
+    /**
+     * Arquivo base dos snapshots. A compactação grava cada snapshot em um arquivo novo,
+     * {@code dataFile + "." + geração} (veja {@link #snapshotFile(long)}), em vez de substituir o
+     * anterior: o snapshot carregado continua mapeado em memória, e no Windows um arquivo mapeado
+     * não pode ser substituído nem apagado. O próprio {@code dataFile} só é lido (dados de versões
+     * anteriores ou convertidos pelo {@code DatConverter}).
+     */
+    private final File dataFile;
+    /**
+     * Canal do arquivo {@code dataFile + ".lock"}, com uma {@link FileLock} exclusiva enquanto este
+     * WorkManager estiver aberto: duas instâncias sobre os mesmos dados reaplicariam e anexariam ao
+     * mesmo journal, duplicando as mídias. A trava fica em um arquivo próprio porque, no Windows,
+     * travar o journal ou o snapshot impediria a própria instância de gravá-los.
+     */
+    private final FileChannel lockChannel;
+    /** Log das mutações realizadas desde o último snapshot. */
+    private final Journal journal;
+    /** Thread de persistência: grava o journal e os snapshots fora da thread que chamou a mutação. */
+    private final PersistenceWriter writer;
+    /** Geração do journal ativo; o snapshot grava a geração do log que deve segui-lo. */
+    private long journalGeneration;
+    /** Verdadeiro enquanto o journal está sendo reaplicado, para não registrar as mutações de novo. */
+    private boolean replaying;
+    /** Quantidade de lotes abertos com {@link #beginBatch()} e ainda não confirmados. */
+    private int batchDepth;
+    /** Thread que abriu o lote em andamento; as mutações de outras threads esperam o seu commit. */
+    private Thread batchOwner;
+    /** Lotes já confirmados, avisados em {@code batchClosed} para quem espera o fim do lote em andamento. */
+    private long batchesClosed;
+    private final Object batchClosed = new Object();
+    /** Compactação pedida por {@link #compact()} e ainda não feita (adiada enquanto houver um lote aberto). */
+    private volatile boolean compactionRequested;
+    /** Gravações no journal adiadas pelo lote aberto, enviadas juntas em {@link #commit()}. */
+    private final List<PersistenceWriter.Task> batchTasks = new ArrayList<>();
 
     /** Lista para armazenar todos os objetos {@link Genre} cadastrados. Mantida ordenada alfabeticamente. */
     private List<Genre> genreLibrary; // Removed final
@@ -50,16 +135,80 @@ public class WorkManager {
     private List<Show> showLibrary; // Removed final
     /** Lista agregada contendo referências a todos os objetos {@link Media} (Book, Films, Show)
      * para facilitar buscas e listagens gerais que abrangem todos os tipos de mídia. */
-    private final List<Media> media; // This will be repopulated after loading
+    private List<Media> media; // This will be repopulated after loading
+    /** Índice de texto das mídias; construído na primeira busca e mantido pelos métodos {@code create*}. */
+    private MediaIndex index;
+    /**
+     * Ordem alfabética dos títulos pela chave normalizada ({@link Media#getTitleKey()}), sem
+     * converter os títulos a cada comparação; "Ágata" fica entre os títulos com A.
+     */
+    static final Comparator<Media> TITLE_ORDER = Comparator.comparing(Media::getTitleKey).thenComparing(Media::getTitle);
+    /**
+     * Índices por chave primária (título normalizado → mídia e ISBN normalizado → livro).
+     * Em caso de títulos repetidos vale a primeira mídia cadastrada, como na busca linear.
+     * Construídos no primeiro uso (para não decodificar o snapshot inteiro na inicialização)
+     * e mantidos pelos métodos {@code create*}; {@code null} enquanto não construídos.
+     */
+    private Map<String, Book> booksByTitle;
+    private Map<String, Films> filmsByTitle;
+    private Map<String, Show> showsByTitle;
+    private Map<String, Book> booksByIsbn;
+    /** Todas as mídias em ordem de avaliação (atualizada a cada review); construída no primeiro uso, {@code null} até lá. */
+    private RatingIndex ratingIndex;
+    /** Todas as mídias em ordem alfabética de título; construída no primeiro uso, {@code null} até lá. */
+    private TitleOrder titleOrder;
+    /** Autocompletar de títulos de cada biblioteca; construídos no primeiro uso, {@code null} até lá. */
+    private TitleCompleter bookTitles;
+    private TitleCompleter filmTitles;
+    private TitleCompleter showTitles;
+    /** Gêneros pelo nome normalizado; construído no primeiro uso, {@code null} até lá. */
+    private Map<String, Genre> genresByName;
+    /**
+     * Trava do estado em memória: de escrita nas mutações, de leitura nas consultas (veja
+     * {@link #readLocked(Supplier)}).
+     */
+    private final StampedLock lock = new StampedLock();
+    /** Thread que detém a trava de escrita, para que uma mutação possa chamar outros métodos públicos. */
+    private Thread writeOwner;
+    /** Retrato das bibliotecas com as mutações já aplicadas, inclusive as de um lote aberto. */
+    private LibrarySnapshot library;
+    /** Último retrato confirmado, lido sem trava por {@link #snapshot()}. */
+    private final AtomicReference<LibrarySnapshot> published = new AtomicReference<>();
+    /** Ouvintes das mudanças da biblioteca (veja {@link #addListener(LibraryListener)}). */
+    private final List<LibraryListener> listeners = new CopyOnWriteArrayList<>();
+    /** Eventos das mutações ainda não publicadas (a mutação em andamento ou um lote aberto); guardados com a trava de escrita. */
+    private final List<LibraryEvent> pendingEvents = new ArrayList<>();
+    /** Eventos já publicados e ainda não entregues, na ordem de publicação. */
+    private final Queue<LibraryEvent> undeliveredEvents = new ConcurrentLinkedQueue<>();
+    /** Trava das entregas: uma de cada vez, para que os ouvintes recebam os eventos na ordem. */
+    private final Object deliveryLock = new Object();
+    /** Thread que está entregando eventos; guardada com {@code deliveryLock}. */
+    private Thread deliveringThread;
 
+    /**
+     * Construtor padrão do WorkManager, usando o arquivo de dados {@code DATA_FILE}
+     * no diretório de trabalho.
+     *
+     * @see #WorkManager(String)
+     */
+    public WorkManager() {
+        this(DATA_FILE);
+    }
 
     /**
-     * Construtor padrão do WorkManager.
+     * Construtor do WorkManager com um arquivo de dados específico.
      * Inicializa todas as listas de dados (`genreLibrary`, `reviewLibrary`, `bookLibrary`,
-     * `filmLibrary`, `showLibrary`, `media`) como {@link ArrayList}s vazias.
-     * Tries to load data from file, otherwise initializes with example data.
+     * `filmLibrary`, `showLibrary`, `media`) como {@link ArrayList}s vazias, carrega o snapshot
+     * e reaplica o journal. Se não houver nenhum dado salvo, inicializa com os dados de exemplo.
+     * Inicia a thread de persistência; use {@link #close()} para encerrá-la gravando o que estiver pendente.
+     * Os dados ficam travados para este WorkManager até o {@link #close()}.
+     *
+     * @param dataFile O caminho do arquivo de snapshot; o journal fica em {@code dataFile + ".journal"}.
+     * @throws IllegalStateException se os mesmos dados já estiverem abertos em outro WorkManager
+     *                               (deste ou de outro processo).
      */
-    public WorkManager() {
+    public WorkManager(String dataFile) {
+        this.lockChannel = lockDataFile(new File(dataFile + LOCK_SUFFIX));
         // Initialize lists first
         this.genreLibrary = new ArrayList<>();
         this.reviewLibrary = new ArrayList<>(); // Consider if this is truly needed for persistence or can be reconstructed
@@ -67,32 +216,90 @@ public class WorkManager {
         this.filmLibrary = new ArrayList<>();
         this.showLibrary = new ArrayList<>();
         this.media = new ArrayList<>();
-        initializeExampleData();
-
+        this.dataFile = new File(dataFile);
+        this.journal = new Journal(new File(dataFile + JOURNAL_SUFFIX));
+        this.library = LibrarySnapshot.of(genreLibrary, bookLibrary, filmLibrary, showLibrary, media);
+        this.published.set(library);
+        this.writer = new PersistenceWriter(journal, this::compactIfNeeded, COALESCE_MILLIS);
+
+        boolean loaded = loadData();
+        int replayed = replayJournal();
+        writer.start();
+        if (!loaded && replayed == 0) {
+            inTransaction(manager -> initializeExampleData());
+        }
     }
 
 
 
 
     // --- Persistence Methods ---
-    @SuppressWarnings("unchecked")
+
+    /**
+     * Trava os dados para esta instância, sem esperar: se outra já os tiver aberto, falha na hora.
+     *
+     * @param lockFile O arquivo de trava (criado se não existir).
+     * @return O canal que mantém a trava, fechado em {@link #close()}.
+     * @throws IllegalStateException se a trava pertencer a outra instância ou não puder ser obtida.
+     */
+    private static FileChannel lockDataFile(File lockFile) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.tryLock() != null) {
+                return channel;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Held by another WorkManager of this JVM
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new IllegalStateException("Could not lock " + lockFile + ": " + e.getMessage(), e);
+        }
+        closeQuietly(channel);
+        throw new IllegalStateException("The diary data is already open elsewhere (locked by " + lockFile + ").");
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+    /**
+     * Carrega o snapshot mais recente ({@link #latestSnapshotFile()}), detectando o formato pelo cabeçalho: o formato
+     * binário de {@link SnapshotFormat} ou o formato antigo de serialização padrão do Java
+     * (lido por {@link LegacySnapshotReader} e regravado em binário na próxima compactação).
+     * O snapshot binário é mapeado em memória ({@link SnapshotFormat#open(File)}): apenas os
+     * gêneros são lidos aqui, e cada livro, filme ou série é decodificado no primeiro acesso.
+     * Snapshots antigos que ficaram para trás (não puderam ser apagados enquanto mapeados) são
+     * apagados antes.
+     *
+     * @return {@code true} se algum snapshot foi carregado.
+     */
     private boolean loadData() {
-        File file = new File(DATA_FILE);
+        File file = latestSnapshotFile();
         if (!file.exists()) {
             return false;
         }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(DATA_FILE))) {
-            this.genreLibrary = (List<Genre>) ois.readObject();
-            this.bookLibrary = (List<Book>) ois.readObject();
-            this.filmLibrary = (List<Films>) ois.readObject();
-            this.showLibrary = (List<Show>) ois.readObject();
-            // Note: reviewLibrary and media list will be repopulated
-            System.out.println("Data loaded from " + DATA_FILE);
+        deleteSnapshotsOlderThan(file);
+        try {
+            DiarySnapshot snapshot = SnapshotFormat.isBinary(file)
+                    ? SnapshotFormat.open(file)
+                    : LegacySnapshotReader.read(file);
+            this.genreLibrary = new ArrayList<>(snapshot.getGenres());
+            Collections.sort(this.genreLibrary); // addGenre inserts by binary search
+            this.bookLibrary = snapshot.getBooks();
+            this.filmLibrary = snapshot.getFilms();
+            this.showLibrary = snapshot.getShows();
+            this.journalGeneration = snapshot.getJournalGeneration();
+            rebuildDerivedLists();
+            System.out.println("Data loaded from " + file);
             return true;
-        } catch (FileNotFoundException e) {
-            System.err.println("Data file not found (should have been caught by exists()): " + e.getMessage());
-            return false; // File does not exist
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             System.err.println("Error loading data: " + e.getMessage());
             e.printStackTrace(); // For debugging
             // Consider deleting the corrupt file here or backing it up
@@ -101,10 +308,577 @@ public class WorkManager {
         }
     }
 
+    /**
+     * Reconstrói a lista derivada {@code media} a partir das bibliotecas específicas de cada
+     * tipo, após um carregamento. A lista é uma {@link LazyList} sobre as bibliotecas, para
+     * não decodificar nenhum registro do snapshot antes do primeiro acesso; mídias criadas
+     * depois são acrescentadas ao final, como antes.
+     * As reviews das mídias carregadas continuam apenas aninhadas nelas: copiá-las para
+     * {@code reviewLibrary} exigiria decodificar todo o snapshot na inicialização.
+     */
+    private void rebuildDerivedLists() {
+        List<Book> books = bookLibrary;
+        List<Films> films = filmLibrary;
+        List<Show> shows = showLibrary;
+        int bookCount = books.size();
+        int filmCount = films.size();
+        media = new LazyList<>(bookCount + filmCount + shows.size(), i -> {
+            if (i < bookCount) {
+                return books.get(i);
+            }
+            if (i < bookCount + filmCount) {
+                return films.get(i - bookCount);
+            }
+            return shows.get(i - bookCount - filmCount);
+        });
+        reviewLibrary.clear();
+        index = null;
+        titleOrder = null;
+        ratingIndex = null;
+        booksByTitle = null; // Rebuilt on first lookup
+        bookTitles = null;
+        filmTitles = null;
+        showTitles = null;
+        genresByName = null;
+        library = LibrarySnapshot.of(genreLibrary, books, films, shows, media);
+        published.set(library);
+    }
+
+    /**
+     * Reaplica sobre os dados carregados as mutações registradas no journal desde o último snapshot.
+     *
+     * @return O número de registros reaplicados (0 se não houver journal ou se ele não puder ser lido).
+     */
+    private int replayJournal() {
+        replaying = true;
+        try {
+            int replayed = journal.replay(journalGeneration, new JournalReplay());
+            journalGeneration = journal.getGeneration();
+            if (replayed > 0) {
+                System.out.println(replayed + " journal records replayed.");
+            }
+            return replayed;
+        } catch (IOException e) {
+            System.err.println("Error replaying journal: " + e.getMessage());
+            e.printStackTrace(); // For debugging
+            return 0;
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /**
+     * Enfileira o registro de uma mutação no journal (exceto durante o replay). A gravação
+     * acontece na thread de persistência, agrupada com as mutações seguidas; dentro de um lote
+     * ({@link #beginBatch()}), o registro só é enfileirado no {@link #commit()}.
+     * Deve ser chamado com a trava de escrita (dentro de um método de mutação), para que a ordem
+     * da fila seja a ordem das mutações.
+     *
+     * @param task A escrita do registro correspondente à mutação.
+     */
+    private void journal(PersistenceWriter.Task task) {
+        if (replaying) {
+            return;
+        }
+        if (batchDepth > 0) {
+            batchTasks.add(task);
+            return;
+        }
+        submit(task);
+    }
+
+    private void submit(PersistenceWriter.Task task) {
+        try {
+            writer.submit(task);
+        } catch (IllegalStateException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Chamado pela thread de persistência após cada lote: quando o journal atinge
+     * {@link #COMPACTION_THRESHOLD} registros, grava um snapshot completo e inicia uma nova
+     * geração do journal, descartando os registros que o snapshot já contém. Também compacta
+     * quando pedido por {@link #compact()} e depois de uma falha de gravação, em que o snapshot
+     * recupera as mutações que não chegaram ao journal.
+     *
+     * @param journal O journal (usado apenas pela thread de persistência).
+     * @param force   Verdadeiro se o journal está incompleto por uma falha de gravação.
+     * @return {@code true} se o snapshot foi gravado e o journal reiniciado.
+     * @throws IOException se o journal não puder ser reiniciado.
+     */
+    private boolean compactIfNeeded(Journal journal, boolean force) throws IOException {
+        if (journal.getRecordCount() < COMPACTION_THRESHOLD && !compactionRequested && !force) {
+            return false;
+        }
+        long nextGeneration = journalGeneration + 1;
+        if (!saveData(nextGeneration)) {
+            return false;
+        }
+        journal.reset(nextGeneration);
+        journalGeneration = nextGeneration;
+        compactionRequested = false;
+        return true;
+    }
+
+    /**
+     * Grava agora um snapshot completo e inicia uma nova geração do journal, sem esperar que ele
+     * acumule {@link #COMPACTION_THRESHOLD} registros (por exemplo, antes de copiar o arquivo de
+     * dados). Retorna depois da tentativa. Com um lote aberto, a compactação fica para o
+     * {@link #commit()}: o snapshot conteria as mutações do lote, que o journal só recebe no commit.
+     * Não deve ser chamado de dentro de uma mutação.
+     */
+    public void compact() {
+        compactionRequested = true;
+        try {
+            writer.runCompactor();
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error compacting journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava imediatamente todas as mutações pendentes e aguarda até que estejam no disco.
+     * Útil antes de encerrar a aplicação ou em testes que reabrem o arquivo de dados.
+     */
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+            e.printStackTrace(); // For debugging
+        }
+    }
+
+    /**
+     * Aguarda, sem antecipar a gravação agrupada, até que todas as mutações feitas até agora
+     * estejam no disco.
+     *
+     * @param timeout O tempo máximo de espera.
+     * @param unit    A unidade de {@code timeout}.
+     * @return {@code true} se as mutações estão no disco; {@code false} se o tempo acabou,
+     *         a espera foi interrompida ou a gravação falhou.
+     */
+    public boolean awaitDurable(long timeout, TimeUnit unit) {
+        try {
+            return writer.awaitDurable(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+            e.printStackTrace(); // For debugging
+            return false;
+        }
+    }
+
+    /**
+     * Grava as mutações pendentes (inclusive as de um lote ainda aberto), encerra a thread de
+     * persistência e solta a trava dos dados. Mutações feitas depois disso não são mais registradas.
+     */
+    public void close() {
+        mutate(() -> {
+            if (!batchTasks.isEmpty()) {
+                submitBatch();
+            }
+        });
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+            e.printStackTrace(); // For debugging
+        } finally {
+            closeQuietly(lockChannel); // Releases the lock
+        }
+    }
+
+    // --- Batches ---
+
+    /**
+     * Abre um lote de mutações: até o {@link #commit()} correspondente, as mutações são
+     * aplicadas normalmente em memória, mas nada é enviado para o journal e o índice de texto
+     * deixa de ser atualizado a cada cadastro (é reconstruído na próxima busca). No commit,
+     * todas as mutações do lote são gravadas de uma vez. Lotes podem ser aninhados; só o
+     * commit mais externo persiste.
+     * Não há rollback: se o lote for interrompido, o que já foi aplicado em memória é persistido
+     * no commit, para que memória e disco continuem iguais.
+     * O lote pertence à thread que o abriu: mutações de outras threads (a interface durante uma
+     * importação) esperam o commit em vez de entrar no lote, e são publicadas e gravadas depois dele.
+     */
+    public void beginBatch() {
+        mutate(() -> {
+            if (batchDepth++ == 0) {
+                batchOwner = Thread.currentThread();
+            }
+        });
+    }
+
+    /**
+     * Fecha o lote aberto por {@link #beginBatch()}; no lote mais externo, envia todas as
+     * mutações do lote para o journal como uma única gravação.
+     *
+     * @throws IllegalStateException se não houver lote aberto.
+     */
+    public void commit() {
+        mutate(() -> {
+            if (batchDepth == 0) {
+                throw new IllegalStateException("commit() called without beginBatch().");
+            }
+            if (--batchDepth == 0) {
+                if (!batchTasks.isEmpty()) {
+                    submitBatch();
+                }
+                batchOwner = null;
+                synchronized (batchClosed) {
+                    batchesClosed++;
+                    batchClosed.notifyAll();
+                }
+            }
+        });
+    }
+
+    /**
+     * Executa um bloco de mutações como um lote ({@link #beginBatch()} / {@link #commit()}).
+     * O commit acontece mesmo que o bloco lance uma exceção, que é então repassada.
+     *
+     * @param work O bloco, que recebe este WorkManager.
+     */
+    public void inTransaction(Consumer<WorkManager> work) {
+        beginBatch();
+        try {
+            work.accept(this);
+        } finally {
+            commit();
+        }
+    }
+
+    private void submitBatch() {
+        List<PersistenceWriter.Task> tasks = new ArrayList<>(batchTasks);
+        batchTasks.clear();
+        submit(journal -> {
+            for (PersistenceWriter.Task task : tasks) {
+                task.run(journal);
+            }
+        });
+    }
+
+    // --- Locking ---
+
+    /**
+     * Sinaliza, durante uma consulta, que uma estrutura derivada ainda não foi construída; a
+     * consulta é então refeita com a trava de escrita, que a constrói. Sem stack trace: é só um
+     * desvio de fluxo.
+     */
+    private static final class NotBuilt extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final NotBuilt INSTANCE = new NotBuilt();
+
+        private NotBuilt() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Executa uma mutação com a trava de escrita. Reentrante para a thread que já a detém, para
+     * que uma mutação possa chamar outras (como {@link #resolveGenre(String)} chama {@link #addGenre(String)}).
+     * Fora de um lote, publica o retrato resultante ({@link #snapshot()}) e os eventos da mutação
+     * antes de soltar a trava, e os entrega aos ouvintes depois de soltá-la. Se outra thread tiver
+     * um lote aberto, espera o commit dele antes de mutar.
+     */
+    private <T> T write(Supplier<T> mutation) {
+        return writeLocked(mutation, true);
+    }
+
+    /**
+     * Executa uma ação com a trava de escrita (veja {@link #write(Supplier)}).
+     *
+     * @param waitForBatch Se deve esperar o commit de um lote aberto por outra thread: sim para as
+     *                     mutações; não para a construção de estruturas derivadas por uma consulta,
+     *                     que não muda a biblioteca e não deve travar uma tela durante uma importação.
+     */
+    private <T> T writeLocked(Supplier<T> action, boolean waitForBatch) {
+        if (writeOwner == Thread.currentThread()) {
+            return action.get();
+        }
+        long stamp = lock.writeLock();
+        while (waitForBatch && batchDepth > 0 && batchOwner != Thread.currentThread()) {
+            long closed = batchesClosed;
+            lock.unlockWrite(stamp);
+            awaitBatchClosed(closed);
+            stamp = lock.writeLock();
+        }
+        writeOwner = Thread.currentThread();
+        try {
+            return action.get();
+        } finally {
+            if (batchDepth == 0) {
+                published.set(library);
+                if (!pendingEvents.isEmpty()) {
+                    undeliveredEvents.addAll(pendingEvents); // Under the write lock, so in mutation order
+                    pendingEvents.clear();
+                }
+            }
+            writeOwner = null;
+            lock.unlockWrite(stamp);
+            deliverEvents();
+        }
+    }
+
+    /** Espera, sem a trava de escrita, até que um lote seja confirmado depois de {@code closed}. */
+    private void awaitBatchClosed(long closed) {
+        boolean interrupted = false;
+        synchronized (batchClosed) {
+            while (batchesClosed == closed) {
+                try {
+                    batchClosed.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // The mutation still has to run; the flag is restored below
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void mutate(Runnable mutation) {
+        write(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa uma consulta com a trava de leitura, compartilhada entre as consultas e exclusiva em
+     * relação às mutações. Todas as consultas passam por aqui: as estruturas que elas percorrem
+     * (tabelas de hash, listas, a {@code GramTable} do índice e as árvores de {@link TitleOrder} e
+     * {@link RatingIndex}) não são seguras para leitura no meio de uma mutação, e um resultado lido
+     * sem trava poderia sair errado sem lançar nada.
+     */
+    private <T> T readLocked(Supplier<T> reader) {
+        if (writeOwner == Thread.currentThread()) {
+            return reader.get();
+        }
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } catch (NotBuilt e) {
+            // Built below, under the write lock
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return writeLocked(reader, false);
+    }
+
+    /** Chamado antes de construir uma estrutura derivada, o que só pode ser feito com a trava de escrita. */
+    private void requireWriteLock() {
+        if (writeOwner != Thread.currentThread()) {
+            throw NotBuilt.INSTANCE;
+        }
+    }
+
+    /**
+     * Retorna o retrato imutável das bibliotecas publicado pela última mutação confirmada (ou
+     * pelo último commit de um lote; as mutações de um lote aberto ainda não aparecem). Não trava
+     * nem copia nada: o retrato pode ser percorrido de qualquer thread, do começo ao fim, sem
+     * ver cadastros feitos no meio do percurso. Chamadas seguidas sem mutação no meio retornam o
+     * mesmo objeto.
+     *
+     * @return O retrato atual.
+     */
+    public LibrarySnapshot snapshot() {
+        return published.get();
+    }
+
+    // --- Change events ---
+
+    /**
+     * Registra um ouvinte das mudanças da biblioteca: a cada mutação confirmada (ou a cada commit
+     * de um lote), ele recebe os {@link LibraryEvent}s correspondentes, para que uma tela se
+     * atualize só no que mudou em vez de reler as listas. Mutações feitas antes do registro não
+     * são entregues; quem se registra lê o estado atual e passa a acompanhar as mudanças.
+     *
+     * @param listener O ouvinte (veja {@link LibraryListener} sobre a thread da entrega).
+     */
+    public void addListener(LibraryListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Remove um ouvinte registrado por {@link #addListener(LibraryListener)}; ele não recebe as
+     * entregas que começarem depois.
+     *
+     * @param listener O ouvinte; um ouvinte não registrado é ignorado.
+     */
+    public void removeListener(LibraryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Guarda um evento da mutação em andamento; chamado com a trava de escrita. Sem ouvintes, nada é guardado. */
+    private void emit(LibraryEvent event) {
+        if (!listeners.isEmpty()) {
+            pendingEvents.add(event);
+        }
+    }
+
+    /**
+     * Entrega aos ouvintes os eventos publicados, fora da trava de escrita. As entregas são
+     * serializadas; quem encontra outra em andamento espera e entrega o que sobrar (quase sempre
+     * nada), de modo que a ordem é a de publicação. Uma mutação feita por um ouvinte durante a
+     * entrega é entregue pelo laço em andamento, depois dos eventos atuais.
+     */
+    private void deliverEvents() {
+        if (undeliveredEvents.isEmpty()) {
+            return;
+        }
+        synchronized (deliveryLock) {
+            if (deliveringThread == Thread.currentThread()) {
+                return;
+            }
+            deliveringThread = Thread.currentThread();
+            try {
+                List<LibraryEvent> events = new ArrayList<>();
+                for (LibraryEvent event; (event = undeliveredEvents.poll()) != null; ) {
+                    events.add(event);
+                }
+                while (!events.isEmpty()) {
+                    List<LibraryEvent> delivered = Collections.unmodifiableList(events);
+                    for (LibraryListener listener : listeners) {
+                        try {
+                            listener.libraryChanged(delivered);
+                        } catch (RuntimeException e) {
+                            System.err.println("Erro em um ouvinte da biblioteca: " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    }
+                    events = new ArrayList<>();
+                    for (LibraryEvent event; (event = undeliveredEvents.poll()) != null; ) {
+                        events.add(event);
+                    }
+                }
+            } finally {
+                deliveringThread = null;
+            }
+        }
+    }
+
+    // --- Primary-key indexes ---
+
+    /**
+     * Chave dos índices por título, ISBN e nome de gênero: o texto normalizado, igual às chaves
+     * guardadas nas entidades ({@link Media#getTitleKey()}, {@link Book#getIsbnKey()},
+     * {@link Genre#getKey()}), de modo que "Solidão" e "SOLIDAO" sejam o mesmo título.
+     */
+    private static String keyOf(String value) {
+        return value == null ? null : TextFolding.fold(value.trim());
+    }
+
+    /** Constrói os índices por chave primária, se ainda não existirem. */
+    private void ensureKeyIndexes() {
+        if (booksByTitle != null) {
+            return;
+        }
+        requireWriteLock();
+        Map<String, Book> books = new HashMap<>();
+        Map<String, Book> isbns = new HashMap<>();
+        for (Book book : bookLibrary) {
+            books.putIfAbsent(book.getTitleKey(), book);
+            isbns.putIfAbsent(book.getIsbnKey(), book);
+        }
+        Map<String, Films> films = new HashMap<>();
+        for (Films film : filmLibrary) {
+            films.putIfAbsent(film.getTitleKey(), film);
+        }
+        Map<String, Show> shows = new HashMap<>();
+        for (Show show : showLibrary) {
+            shows.putIfAbsent(show.getTitleKey(), show);
+        }
+        booksByIsbn = isbns;
+        filmsByTitle = films;
+        showsByTitle = shows;
+        booksByTitle = books;
+    }
+
+    private Book findBook(String title) {
+        ensureKeyIndexes();
+        return title == null ? null : booksByTitle.get(keyOf(title));
+    }
+
+    private Films findFilm(String title) {
+        ensureKeyIndexes();
+        return title == null ? null : filmsByTitle.get(keyOf(title));
+    }
+
+    private Show findShow(String title) {
+        ensureKeyIndexes();
+        return title == null ? null : showsByTitle.get(keyOf(title));
+    }
+
+    private static List<String> genreNames(List<Genre> genres) {
+        return genres.stream().map(Genre::getGenre).collect(Collectors.toList());
+    }
+
+    /**
+     * Resolve um gênero gravado no journal pelo nome. Usa o objeto da biblioteca quando
+     * existir; caso contrário recria o gênero sem adicioná-lo (como na chamada original).
+     */
+    private Genre journalGenre(String name) {
+        Genre genre = genresByName().get(keyOf(name));
+        return genre != null ? genre : new Genre(name);
+    }
+
+    private List<Genre> resolveGenres(List<String> names) {
+        return write(() -> names.stream().map(this::journalGenre).collect(Collectors.toList()));
+    }
+
+    /** Reaplica os registros do journal chamando os mesmos métodos públicos que os geraram. */
+    private class JournalReplay implements Journal.Handler {
+        @Override
+        public void genre(String name) {
+            addGenre(name);
+        }
+
+        @Override
+        public void book(boolean seen, String title, List<String> genres, int yearRelease, String author, String publisher, String isbn, boolean copy) {
+            createBook(seen, title, resolveGenres(genres), yearRelease, author, publisher, isbn, copy);
+        }
+
+        @Override
+        public void film(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, String direction, int runningtime, String screenplay) {
+            createFilm(cast, seen, title, resolveGenres(genres), yearRelease, originalTitle, whereWatch, direction, runningtime, screenplay);
+        }
+
+        @Override
+        public void show(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, int yearEnd) {
+            createShow(cast, seen, title, resolveGenres(genres), yearRelease, originalTitle, whereWatch, yearEnd);
+        }
+
+        @Override
+        public void season(String showTitle, int seasonNumber, int episodeCount, String releaseDate) {
+            createSeason(showTitle, seasonNumber, episodeCount, releaseDate);
+        }
+
+        @Override
+        public void bookReview(String title, String comment, int stars, String reviewDate) {
+            createReviewBook(title, comment, stars, reviewDate);
+        }
+
+        @Override
+        public void filmReview(String title, String comment, int stars, String reviewDate) {
+            createReviewFilm(title, comment, stars, reviewDate);
+        }
+
+        @Override
+        public void showReview(String showTitle, int seasonNumber, String comment, int stars, String reviewDate) {
+            createReviewShow(showTitle, seasonNumber, comment, stars, reviewDate);
+        }
+    }
+
     /**
      * Salva os dados atuais das bibliotecas principais (gêneros, livros, filmes e séries)
-     * em um arquivo binário especificado pela constante {@code DATA_FILE}.
-     * Utiliza a serialização de objetos Java para persistir as listas:
+     * no arquivo de snapshot ({@code DATA_FILE} por padrão).
+     * Utiliza o formato binário de {@link SnapshotFormat} (um {@link Control.io.codec.MediaCodec}
+     * por tipo, gêneros referenciados por id) para persistir as listas:
      * <ul>
      * <li>{@code genreLibrary}</li>
      * <li>{@code bookLibrary}</li>
@@ -121,29 +895,128 @@ public class WorkManager {
      * uma mensagem de erro é impressa no console de erro padrão, juntamente com o
      * rastreamento da pilha da exceção para fins de depuração.
      * </p>
-     * Este método é chamado internamente após operações que modificam
-     * os dados principais (como adição de novas mídias, gêneros, temporadas ou reviews)
-     * para garantir a persistência das alterações.
+     * Junto com as listas é gravada a geração do journal que deve seguir este snapshot.
+     * Este método é chamado pela compactação do journal, na thread de persistência; as
+     * mutações individuais são registradas apenas no journal. O estado é capturado com a
+     * trava de leitura, depois de gravar no journal as mutações ainda na fila, de modo que o
+     * snapshot contenha exatamente o que está no journal; o arquivo é gravado fora da trava, em
+     * um arquivo novo da geração seguinte ({@link #snapshotFile(long)}), e os anteriores são
+     * apagados quando possível. Nenhum arquivo mapeado é substituído.
+     * Codificar o snapshot decodifica todas as mídias ainda não acessadas do snapshot carregado,
+     * que passam a ficar em memória: a carga preguiçosa só vale até a primeira compactação. Essa
+     * decodificação é feita antes de tomar a trava, para não bloquear as mutações por ela.
+     * Com um lote aberto, nada é gravado: as mutações do lote já estão na memória, mas seus
+     * registros só vão para o journal no commit, e seriam reaplicados por cima do snapshot.
+     * A compactação é tentada de novo depois do commit, quando o lote chega ao journal.
      *
+     * @param nextJournalGeneration A geração do journal que passará a valer após este snapshot.
+     * @return {@code true} se o snapshot foi gravado com sucesso; {@code false} se falhou ou foi adiado.
      * @see #loadData()
-     * @see #DATA_FILE
+     * @see #compactIfNeeded(Journal)
+     */
+
+    private boolean saveData(long nextJournalGeneration) {
+        try {
+            materializeLoaded(bookLibrary);
+            materializeLoaded(filmLibrary);
+            materializeLoaded(showLibrary);
+            byte[] snapshot;
+            long stamp = lock.readLock();
+            try {
+                if (batchDepth > 0) {
+                    return false; // Only committed mutations may go into the snapshot
+                }
+                writer.drainPending();
+                snapshot = SnapshotFormat.encode(new DiarySnapshot(genreLibrary, bookLibrary, filmLibrary, showLibrary, nextJournalGeneration));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            File target = snapshotFile(nextJournalGeneration);
+            SnapshotFormat.write(target, snapshot);
+            deleteSnapshotsOlderThan(target);
+            // Note: reviewLibrary is not directly saved; it's derived or part of other objects.
+            // The `media` list is also derived.
+            System.out.println("Data saved to " + target);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving data: " + e.getMessage());
+            e.printStackTrace(); // For debugging
+            return false;
+        }
+    }
+
+
+    /** Decodifica, fora da trava, as mídias ainda não acessadas de uma biblioteca carregada preguiçosamente. */
+    private static void materializeLoaded(List<? extends Media> library) {
+        if (library instanceof LazyList) {
+            ((LazyList<? extends Media>) library).materializeLoaded();
+        }
+    }
+
+    /** Arquivo do snapshot gravado pela compactação que inicia a geração {@code generation} do journal. */
+    private File snapshotFile(long generation) {
+        return new File(dataFile.getPath() + "." + generation);
+    }
+
+    /**
+     * Retorna o snapshot mais recente: o de maior geração gravado pela compactação, ou
+     * {@code dataFile} se ainda não houver nenhum.
      */
+    private File latestSnapshotFile() {
+        File latest = dataFile;
+        long latestGeneration = -1;
+        for (File file : snapshotFiles()) {
+            long generation = generationOf(file);
+            if (generation > latestGeneration) {
+                latest = file;
+                latestGeneration = generation;
+            }
+        }
+        return latest;
+    }
 
-    private void saveData() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
-            oos.writeObject(genreLibrary);
-            oos.writeObject(bookLibrary);
-            oos.writeObject(filmLibrary);
-            oos.writeObject(showLibrary);
-            // Note: reviewLibrary is not directly saved; it's derived or part of other objects.
-            // The `media` list is also derived.
-            System.out.println("Data saved to " + DATA_FILE);
-        } catch (IOException e) {
-            System.err.println("Error saving data: " + e.getMessage());
-            e.printStackTrace(); // For debugging
+    /**
+     * Apaga os snapshots anteriores a {@code current} (inclusive {@code dataFile}). Um arquivo
+     * que não pode ser apagado, por ainda estar mapeado, fica para a próxima inicialização.
+     */
+    private void deleteSnapshotsOlderThan(File current) {
+        long currentGeneration = generationOf(current);
+        if (currentGeneration < 0) {
+            return; // Loading dataFile itself: nothing is older
+        }
+        if (dataFile.exists() && !dataFile.delete()) {
+            System.out.println("Old snapshot " + dataFile + " is still in use; it will be deleted on the next start.");
+        }
+        for (File file : snapshotFiles()) {
+            if (generationOf(file) < currentGeneration && !file.delete()) {
+                System.out.println("Old snapshot " + file + " is still in use; it will be deleted on the next start.");
+            }
         }
     }
 
+    /** Os snapshots gravados pela compactação: os arquivos {@code dataFile + "." + geração}. */
+    private File[] snapshotFiles() {
+        File directory = dataFile.getAbsoluteFile().getParentFile();
+        String prefix = dataFile.getName() + ".";
+        File[] files = directory == null ? null
+                : directory.listFiles((dir, name) -> name.startsWith(prefix) && name.length() > prefix.length()
+                        && name.substring(prefix.length()).chars().allMatch(Character::isDigit));
+        return files == null ? new File[0] : files;
+    }
+
+    /** A geração no nome de um arquivo de {@link #snapshotFiles()}, ou -1 para {@code dataFile}. */
+    private long generationOf(File file) {
+        String name = file.getName();
+        String prefix = dataFile.getName() + ".";
+        if (!name.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 
     private void initializeExampleData() {
         System.out.println("--- Inicializando Dados de Exemplo ---");
@@ -233,7 +1106,7 @@ public class WorkManager {
         class GenreFinder { // Helper class, consider moving or making static if used elsewhere
             static Genre find(String name, List<Genre> library) {
                 for (Genre g : library) {
-                    if (g.getGenre().equalsIgnoreCase(name)) {
+                    if (g.getKey().equals(keyOf(name))) {
                         return g;
                     }
                 }
@@ -253,22 +1126,51 @@ public class WorkManager {
     }
 
     private Genre getGenre(String genreName) {
-        return getGenres().stream()
-                .filter(g -> g.getGenre().equalsIgnoreCase(genreName))
-                .findFirst()
-                .orElseGet(() -> {
-                    addGenre(genreName); // Adiciona se não existe
-                    return getGenres().stream()
-                            .filter(g -> g.getGenre().equalsIgnoreCase(genreName))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalStateException("Gênero '" + genreName + "' não pôde ser criado ou encontrado."));
-                });
+        Genre genre = resolveGenre(genreName);
+        if (genre == null) {
+            throw new IllegalStateException("Gênero '" + genreName + "' não pôde ser criado ou encontrado.");
+        }
+        return genre;
+    }
+
+    /**
+     * Retorna o gênero cadastrado com o nome informado (ignorando acentos e maiúsculas/minúsculas),
+     * cadastrando-o com {@link #addGenre(String)} se ainda não existir. A busca é feita em O(1)
+     * em um dicionário de gêneros por nome.
+     *
+     * @param genreName O nome do gênero.
+     * @return O {@link Genre} cadastrado, ou {@code null} se o nome for nulo ou vazio.
+     */
+    public Genre resolveGenre(String genreName) {
+        return write(() -> {
+            if (genreName == null || genreName.trim().isEmpty()) {
+                return null;
+            }
+            Genre genre = genresByName().get(keyOf(genreName));
+            if (genre == null) {
+                addGenre(genreName);
+                genre = genresByName.get(keyOf(genreName));
+            }
+            return genre;
+        });
+    }
+
+    private Map<String, Genre> genresByName() {
+        if (genresByName == null) {
+            requireWriteLock();
+            Map<String, Genre> byName = new HashMap<>();
+            for (Genre genre : genreLibrary) {
+                byName.putIfAbsent(genre.getKey(), genre);
+            }
+            genresByName = byName;
+        }
+        return genresByName;
     }
 
     /**
      * Adiciona um novo gênero à biblioteca (`genreLibrary`).
      * O nome do gênero é tratado para remover espaços extras e a adição é feita
-     * apenas se o gênero (ignorando maiúsculas/minúsculas) ainda não existir.
+     * apenas se o gênero (ignorando acentos e maiúsculas/minúsculas) ainda não existir.
      * A lista de gêneros é mantida ordenada alfabeticamente.
      * Imprime mensagens de feedback no console sobre o resultado da operação.
      *
@@ -281,32 +1183,37 @@ public class WorkManager {
     }
 
     public void addGenre(String genreName){
-        if (genreName == null || genreName.trim().isEmpty()) {
-            System.out.println("Nome do gênero inválido.");
-            return;
-        }
-        Genre newGenre = new Genre(genreName.trim());
-        // Check for duplicates ignoring case
-        boolean exists = genreLibrary.stream().anyMatch(g -> g.getGenre().equalsIgnoreCase(newGenre.getGenre()));
-        if (!exists) {
-            genreLibrary.add(newGenre);
-            Collections.sort(genreLibrary);
-            System.out.println("Gênero '" + newGenre.getGenre() + "' adicionado.");
-            saveData(); // Save after adding
-        } else {
-            System.out.println("Gênero '" + newGenre.getGenre() + "' já existe.");
-        }
+        mutate(() -> {
+            if (genreName == null || genreName.trim().isEmpty()) {
+                System.out.println("Nome do gênero inválido.");
+                return;
+            }
+            Genre newGenre = new Genre(genreName.trim());
+            // Check for duplicates ignoring case
+            boolean exists = genresByName().containsKey(newGenre.getKey());
+            if (!exists) {
+                genresByName.put(newGenre.getKey(), newGenre);
+                int position = Collections.binarySearch(genreLibrary, newGenre);
+                genreLibrary.add(position < 0 ? -position - 1 : position, newGenre); // Keeps the list sorted
+                library = library.withGenres(genreLibrary);
+                emit(new LibraryEvent.GenreAdded(library.getVersion(), newGenre));
+                System.out.println("Gênero '" + newGenre.getGenre() + "' adicionado.");
+                journal(j -> j.appendGenre(newGenre.getGenre()));
+            } else {
+                System.out.println("Gênero '" + newGenre.getGenre() + "' já existe.");
+            }
+        });
     }
 
     /**
-     * Retorna uma visão não modificável da lista completa de gêneros cadastrados
-     * na `genreLibrary`. Isso impede que o código externo altere a lista diretamente.
+     * Retorna a lista não modificável de gêneros cadastrados, do retrato atual ({@link #snapshot()}).
+     * A lista não muda depois de retornada; gêneros cadastrados depois aparecem na próxima chamada.
      *
      * @return Uma {@code List<Genre>} não modificável contendo todos os gêneros cadastrados,
      *         ordenada alfabeticamente.
      */
     public List<Genre> getGenres() {
-        return Collections.unmodifiableList(genreLibrary);
+        return snapshot().getGenres();
     }
 
 
@@ -343,14 +1250,27 @@ public class WorkManager {
      * @param copy        Indica se o usuário possui uma cópia física.
      */
     public void createBook(boolean seen, String title,List<Genre> genres, int yearRelease, String author, String publisher, String isbn, boolean copy){
-        try {
-            Book book = new Book (seen, title, genres, yearRelease, author, publisher, isbn, copy);
-            bookLibrary.add(book);
-            media.add(book); // Also add to aggregated list
-            saveData(); // Save after creation
-        } catch (IllegalArgumentException e) {
-            System.err.println("Erro ao criar livro: " + e.getMessage());
-        }
+        mutate(() -> {
+            try {
+                Book book = new Book (seen, title, genres, yearRelease, author, publisher, isbn, copy);
+                bookLibrary.add(book);
+                media.add(book); // Also add to aggregated list
+                library = library.withBook(book);
+                emit(new LibraryEvent.MediaAdded(library.getVersion(), book));
+                indexMedia(book);
+                if (booksByTitle != null) {
+                    booksByTitle.putIfAbsent(book.getTitleKey(), book);
+                    booksByIsbn.putIfAbsent(book.getIsbnKey(), book);
+                }
+                if (bookTitles != null) {
+                    bookTitles.add(book.getTitle(), book.getTitleKey());
+                }
+                List<String> genreNames = genreNames(book.getGenres()); // Taken now: the caller may reuse its list
+                journal(j -> j.appendBook(seen, title, genreNames, yearRelease, author, publisher, isbn, copy));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Erro ao criar livro: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -373,14 +1293,16 @@ public class WorkManager {
      *         </ul>
      */
     public int createReviewBook(String title, String comment, int stars, String reviewDate) {
-        for (Book book : bookLibrary) {
-            if (book.getTitle().equalsIgnoreCase(title)) {
+        return write(() -> {
+            Book book = findBook(title);
+            if (book != null) {
                 if (book.isSeen()) {
                     try {
                         Review newReview = new Review(comment, stars, reviewDate);
                         book.addReview(newReview); // addReview is now public in Media
                         reviewLibrary.add(newReview); // Keep this for now
-                        saveData(); // Save after adding review
+                        indexReview(book, null, newReview);
+                        journal(j -> j.appendBookReview(title, comment, stars, reviewDate));
                         return 0;
                     } catch (IllegalArgumentException e) {
                         System.err.println("Erro ao criar review: " + e.getMessage());
@@ -390,23 +1312,85 @@ public class WorkManager {
                     return 2; // Not seen
                 }
             }
+            return 1; // Book not found
+        });
+    }
+
+    /**
+     * Sugere títulos de livros para o autocompletar: os que começam com o texto digitado e, em
+     * seguida, os que têm uma palavra que começa com ele, ignorando acentos e maiúsculas/minúsculas.
+     * O autocompletar é construído na primeira chamada e mantido por {@link #createBook}; cada
+     * consulta custa O(log n + limit), sem percorrer nem ordenar a biblioteca.
+     *
+     * @param prefix O texto digitado.
+     * @param limit  A quantidade máxima de sugestões.
+     * @return Os títulos sugeridos, em ordem alfabética.
+     */
+    public List<String> completeBookTitles(String prefix, int limit) {
+        return readLocked(() -> {
+            if (bookTitles == null) {
+                requireWriteLock();
+                bookTitles = titleCompleter(bookLibrary);
+            }
+            return bookTitles.complete(prefix, limit);
+        });
+    }
+
+    /**
+     * Sugere títulos de filmes para o autocompletar (veja {@link #completeBookTitles(String, int)}).
+     *
+     * @param prefix O texto digitado.
+     * @param limit  A quantidade máxima de sugestões.
+     * @return Os títulos sugeridos, em ordem alfabética.
+     */
+    public List<String> completeFilmTitles(String prefix, int limit) {
+        return readLocked(() -> {
+            if (filmTitles == null) {
+                requireWriteLock();
+                filmTitles = titleCompleter(filmLibrary);
+            }
+            return filmTitles.complete(prefix, limit);
+        });
+    }
+
+    /**
+     * Sugere títulos de séries para o autocompletar (veja {@link #completeBookTitles(String, int)}).
+     *
+     * @param prefix O texto digitado.
+     * @param limit  A quantidade máxima de sugestões.
+     * @return Os títulos sugeridos, em ordem alfabética.
+     */
+    public List<String> completeShowTitles(String prefix, int limit) {
+        return readLocked(() -> {
+            if (showTitles == null) {
+                requireWriteLock();
+                showTitles = titleCompleter(showLibrary);
+            }
+            return showTitles.complete(prefix, limit);
+        });
+    }
+
+    private static TitleCompleter titleCompleter(List<? extends Media> library) {
+        TitleCompleter completer = new TitleCompleter();
+        for (Media item : library) {
+            completer.add(item.getTitle(), item.getTitleKey());
         }
-        return 1; // Book not found
+        return completer;
     }
 
     /**
      * Retorna uma lista contendo apenas os títulos de todos os livros presentes
-     * na `bookLibrary`. A lista retornada é ordenada alfabeticamente (ignorando case).
+     * na `bookLibrary`. A lista retornada é ordenada alfabeticamente (ignorando acentos e case), lida
+     * da ordem alfabética mantida pelo WorkManager, sem ordenar a biblioteca a cada chamada.
      * Útil para a camada View apresentar opções de seleção de livros ao usuário.
      *
      * @return Uma {@code List<String>} com os títulos dos livros, ordenada alfabeticamente.
      *         Retorna uma lista vazia se não houver livros cadastrados.
      */
     public List<String> getBooksName() {
-        return bookLibrary.stream()
+        return readLocked(() -> titleOrder().toList(Book.class).stream()
                 .map(Book::getTitle)
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -429,14 +1413,28 @@ public class WorkManager {
      * @param screenplay    O(s) roteirista(s) (pode ser nulo/vazio).
      */
     public void createFilm(List<String> cast, boolean seen, String title, List<Genre> genres, int yearRelease, String originalTitle, List<String> whereWatch, String direction, int runningtime, String screenplay){
-        try {
-            Films film = new Films (cast, seen, title, genres, yearRelease, originalTitle, whereWatch, direction, runningtime, screenplay);
-            filmLibrary.add(film);
-            media.add(film);
-            saveData(); // Save after creation
-        } catch (IllegalArgumentException e) {
-            System.err.println("Erro ao criar filme: " + e.getMessage());
-        }
+        mutate(() -> {
+            try {
+                Films film = new Films (cast, seen, title, genres, yearRelease, originalTitle, whereWatch, direction, runningtime, screenplay);
+                filmLibrary.add(film);
+                media.add(film);
+                library = library.withFilm(film);
+                emit(new LibraryEvent.MediaAdded(library.getVersion(), film));
+                indexMedia(film);
+                if (filmsByTitle != null) {
+                    filmsByTitle.putIfAbsent(film.getTitleKey(), film);
+                }
+                if (filmTitles != null) {
+                    filmTitles.add(film.getTitle(), film.getTitleKey());
+                }
+                List<String> genreNames = genreNames(film.getGenres()); // Taken now: the caller may reuse its lists
+                List<String> castNames = List.copyOf(film.getCast());
+                List<String> platforms = List.copyOf(film.getWhereWatch());
+                journal(j -> j.appendFilm(castNames, seen, title, genreNames, yearRelease, originalTitle, platforms, direction, runningtime, screenplay));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Erro ao criar filme: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -458,14 +1456,16 @@ public class WorkManager {
      *         </ul>
      */
     public int createReviewFilm(String title, String comment, int stars, String reviewDate) {
-        for (Films film : filmLibrary) {
-            if (film.getTitle() != null && film.getTitle().equalsIgnoreCase(title)) {
+        return write(() -> {
+            Films film = findFilm(title);
+            if (film != null) {
                 if (film.isSeen()) {
                     try {
                         Review newReview = new Review(comment, stars, reviewDate);
                         film.addReview(newReview);
                         reviewLibrary.add(newReview);
-                        saveData(); // Save after adding review
+                        indexReview(film, null, newReview);
+                        journal(j -> j.appendFilmReview(title, comment, stars, reviewDate));
                         return 0;
                     } catch (IllegalArgumentException e) {
                         System.err.println("Erro ao criar review: " + e.getMessage());
@@ -475,24 +1475,23 @@ public class WorkManager {
                     return 2; // Not seen
                 }
             }
-        }
-        return 1; // Film not found
+            return 1; // Film not found
+        });
     }
 
     // AUXILIARY METHOD OF "createReviewFilm": SELECT THE CORRESPONDING FILM IN CLASS CREATE REVIEW
     /**
      * Retorna uma lista contendo apenas os títulos de todos os filmes presentes
-     * na `filmLibrary`. A lista é ordenada alfabeticamente (ignorando case).
+     * na `filmLibrary`. A lista é ordenada alfabeticamente (ignorando acentos e case), sem ordenar a cada chamada.
      * Útil para a View apresentar opções de seleção de filmes.
      *
      * @return Uma {@code List<String>} com os títulos dos filmes, ordenada.
      *         Retorna lista vazia se não houver filmes.
      */
     public List<String> getFilmName() {
-        return filmLibrary.stream()
+        return readLocked(() -> titleOrder().toList(Films.class).stream()
                 .map(Films::getTitle)
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // METHODS RELATED TO SHOW/SEASON =============================================================================================================================
@@ -512,14 +1511,28 @@ public class WorkManager {
      * @param yearEnd       O ano de encerramento (0 se não aplicável, deve ser >= yearRelease se > 0).
      */
     public void createShow(List<String> cast, boolean seen, String title, List<Genre> genres, int yearRelease, String originalTitle, List<String> whereWatch, int yearEnd){
-        try {
-            Show show = new Show (cast, seen, title, genres, yearRelease, originalTitle, whereWatch, yearEnd);
-            showLibrary.add(show);
-            media.add(show);
-            saveData(); // Save after creation
-        } catch (IllegalArgumentException e) {
-            System.err.println("Erro ao criar série: " + e.getMessage());
-        }
+        mutate(() -> {
+            try {
+                Show show = new Show (cast, seen, title, genres, yearRelease, originalTitle, whereWatch, yearEnd);
+                showLibrary.add(show);
+                media.add(show);
+                library = library.withShow(show);
+                emit(new LibraryEvent.MediaAdded(library.getVersion(), show));
+                indexMedia(show);
+                if (showsByTitle != null) {
+                    showsByTitle.putIfAbsent(show.getTitleKey(), show);
+                }
+                if (showTitles != null) {
+                    showTitles.add(show.getTitle(), show.getTitleKey());
+                }
+                List<String> genreNames = genreNames(show.getGenres()); // Taken now: the caller may reuse its lists
+                List<String> castNames = List.copyOf(show.getCast());
+                List<String> platforms = List.copyOf(show.getWhereWatch());
+                journal(j -> j.appendShow(castNames, seen, title, genreNames, yearRelease, originalTitle, platforms, yearEnd));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Erro ao criar série: " + e.getMessage());
+            }
+        });
     }
 
 
@@ -543,8 +1556,9 @@ public class WorkManager {
      *         </ul>
      */
     public int createSeason(String title, int seasonNumber, int episodeCount, String releaseDate) {
-        for (Show show : showLibrary) {
-            if (show.getTitle() != null && show.getTitle().equalsIgnoreCase(title)) {
+        return write(() -> {
+            Show show = findShow(title);
+            if (show != null) {
                 // if (show.isSeen()) { // This check might not be relevant for adding a season
                 // Check if season already exists
                 boolean seasonExists = show.getSeasons().stream()
@@ -555,7 +1569,9 @@ public class WorkManager {
                 try {
                     Season newSeason = new Season(seasonNumber, episodeCount, releaseDate);
                     show.addSeason(newSeason);
-                    saveData(); // Save after adding season
+                    library = library.changed();
+                    emit(new LibraryEvent.SeasonAdded(library.getVersion(), show, newSeason));
+                    journal(j -> j.appendSeason(title, seasonNumber, episodeCount, releaseDate));
                     return 0; // Success
                 } catch (IllegalArgumentException e) {
                     System.err.println("Erro ao criar temporada: " + e.getMessage());
@@ -565,24 +1581,23 @@ public class WorkManager {
                 //     return 2; // Show not marked as seen (if this is a requirement)
                 // }
             }
-        }
-        return 1; // Show not found
+            return 1; // Show not found
+        });
     }
 
     // AUXILIARY METHOD OF "createSeason": SELECT THE CORRESPONDING SHOW IN CLASS CREATE
     /**
      * Retorna uma lista contendo apenas os títulos de todas mobilization séries presentes
-     * na `showLibrary`. A lista é ordenada alfabeticamente (ignorando case).
+     * na `showLibrary`. A lista é ordenada alfabeticamente (ignorando acentos e case), sem ordenar a cada chamada.
      * Útil para a View apresentar opções de seleção de séries.
      *
      * @return Uma {@code List<String>} com os títulos das séries, ordenada.
      *         Retorna lista vazia se não houver séries.
      */
     public List<String> getShowName() {
-        return showLibrary.stream()
+        return readLocked(() -> titleOrder().toList(Show.class).stream()
                 .map(Show::getTitle)
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -605,8 +1620,9 @@ public class WorkManager {
      *         </ul>
      */
     public int createReviewShow(String showTitle, int seasonNumber, String comment, int stars, String reviewDate) {
-        for (Show show : showLibrary) {
-            if (show.getTitle().equalsIgnoreCase(showTitle)) {
+        return write(() -> {
+            Show show = findShow(showTitle);
+            if (show != null) {
                 // Find the specific season object to add the review to
                 Season targetSeason = null;
                 for (Season season : show.getSeasons()) { // Iterate over the modifiable list from show
@@ -621,7 +1637,8 @@ public class WorkManager {
                         Review newReview = new Review(comment, stars, reviewDate);
                         targetSeason.addReview(newReview); // Add review to the actual season object
                         reviewLibrary.add(newReview); // Keep this for now
-                        saveData(); // Save after adding review
+                        indexReview(show, targetSeason, newReview);
+                        journal(j -> j.appendShowReview(showTitle, seasonNumber, comment, stars, reviewDate));
                         return 0; // Review created successfully
                     } catch (IllegalArgumentException e) {
                         System.err.println("Erro ao criar review: " + e.getMessage());
@@ -631,8 +1648,8 @@ public class WorkManager {
                     return 3; // Season not found
                 }
             }
-        }
-        return 1; // Show not found
+            return 1; // Show not found
+        });
     }
 
     // AUXILIARY METHOD OF "getSeasonsByShowName": SELECT THE CORRESPONDING SEASON IN CLASS CREATE REVIEW
@@ -646,14 +1663,16 @@ public class WorkManager {
      *         Retorna uma lista vazia se a série não for encontrada ou não tiver temporadas.
      */
     public List<Integer> getSeasonsByShowName(String showTitle) {
-        return showLibrary.stream()
-                .filter(show -> show.getTitle().equalsIgnoreCase(showTitle))
-                .findFirst()
-                .map(show -> show.getSeasons().stream()
-                        .map(Season::getSeasonNumber)
-                        .sorted()
-                        .collect(Collectors.toList()))
-                .orElse(Collections.emptyList());
+        return readLocked(() -> {
+            Show show = findShow(showTitle);
+            if (show == null) {
+                return Collections.emptyList();
+            }
+            return show.getSeasons().stream()
+                    .map(Season::getSeasonNumber)
+                    .sorted()
+                    .collect(Collectors.toList());
+        });
     }
 
     /**
@@ -674,42 +1693,162 @@ public class WorkManager {
 
     // METHODS RELATED TO SEARCH =============================================================================================================================
 
+    /**
+     * Retorna o índice de texto, construindo-o na primeira chamada a partir da lista
+     * {@code media} (o que decodifica as mídias ainda não acessadas do snapshot).
+     */
+    private MediaIndex index() {
+        if (index == null) {
+            requireWriteLock();
+            MediaIndex built = new MediaIndex();
+            for (Media item : media) {
+                built.add(item);
+            }
+            index = built;
+        }
+        return index;
+    }
+
+    /** Retorna a ordem alfabética das mídias, construindo-a se necessário (com a trava de escrita). */
+    private TitleOrder titleOrder() {
+        if (titleOrder == null) {
+            requireWriteLock();
+            TitleOrder built = new TitleOrder();
+            for (Media item : media) {
+                built.add(item);
+            }
+            titleOrder = built;
+        }
+        return titleOrder;
+    }
+
+    /** Retorna a ordem por avaliação das mídias, construindo-a se necessário (com a trava de escrita). */
+    private RatingIndex ratingIndex() {
+        if (ratingIndex == null) {
+            requireWriteLock();
+            RatingIndex built = new RatingIndex();
+            for (Media item : media) {
+                built.add(item, calculateAverage(item));
+            }
+            ratingIndex = built;
+        }
+        return ratingIndex;
+    }
+
+    /**
+     * Indexa uma mídia recém-acrescentada a {@code media} (e a acrescenta às ordens alfabética e
+     * por avaliação), se o índice já tiver sido construído.
+     * Dentro de um lote, o índice é descartado e reconstruído na próxima busca.
+     */
+    private void indexMedia(Media item) {
+        if (titleOrder != null) {
+            titleOrder.add(item); // O(log n), so it is kept up to date even inside a batch
+        }
+        if (ratingIndex != null) {
+            ratingIndex.add(item, calculateAverage(item));
+        }
+        if (batchDepth > 0) {
+            index = null; // Cheaper to rebuild once after the batch than to update per item
+        } else if (index != null) {
+            index.add(item);
+        }
+    }
+
+    /**
+     * Indexa o comentário de uma nova review, se o índice já tiver sido construído, reposiciona
+     * a mídia na ordem por avaliação e registra o evento da review.
+     */
+    private void indexReview(Media item, Season season, Review review) {
+        library = library.changed();
+        emit(new LibraryEvent.ReviewAdded(library.getVersion(), item, season, review));
+        if (ratingIndex != null) {
+            ratingIndex.update(item, calculateAverage(item));
+        }
+        if (batchDepth > 0) {
+            index = null;
+        } else if (index != null) {
+            index.addReview(item, review);
+        }
+    }
+
+    /** Converte os ids retornados pelo índice nas mídias correspondentes, filtrando pelo tipo. */
+    private <T extends Media> List<T> mediaByIds(int[] ids, Class<T> type) {
+        List<T> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Media item = media.get(id);
+            if (type.isInstance(item)) {
+                result.add(type.cast(item));
+            }
+        }
+        return result;
+    }
+
     /**
      * Busca mídias na lista agregada `media` cujo título contenha a {@code String} fornecida,
-     * ignorando diferenças de maiúsculas/minúsculas.
+     * ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
      *
      * @param title O termo de busca para o título. A busca é cancelada se for nulo ou vazio.
      * @return Uma {@code List<Media>} contendo todas as mídias que correspondem ao critério.
      *         Retorna uma lista vazia se nenhum item for encontrado ou se `title` for inválido.
      */
     public List<Media> searchByTitle(String title) {
-        if (title == null || title.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        String searchTerm = title.trim().toLowerCase();
-        return media.stream()
-                .filter(m -> m.getTitle().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            if (title == null || title.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.TITLE, title), Media.class);
+        });
+    }
+
+    /**
+     * Busca aproximada por título, tolerante a erros de digitação, no título e no título original
+     * (filmes e séries). Veja {@link MediaIndex#fuzzySearch(String, float, int)}.
+     *
+     * @param title O termo buscado. Busca cancelada se nulo/vazio.
+     * @param limit A quantidade máxima de resultados.
+     * @return As mídias encontradas com a similaridade de cada uma, da mais para a menos similar.
+     */
+    public List<TitleMatch> searchByTitleFuzzy(String title, int limit) {
+        return readLocked(() -> {
+            List<TitleMatch> matches = new ArrayList<>();
+            if (title == null || title.trim().isEmpty()) {
+                return matches;
+            }
+            for (MediaIndex.Scored scored : index().fuzzySearch(title, MediaIndex.DEFAULT_FUZZY_THRESHOLD, limit)) {
+                matches.add(new TitleMatch(media.get(scored.getId()), scored.getScore()));
+            }
+            return matches;
+        });
     }
 
     /**
-     * Busca mídias na lista agregada `media` cujo ano de lançamento (`yearRelease`)
-     * seja exatamente igual ao ano fornecido.
+     * Busca mídias cujo ano de lançamento (`yearRelease`) seja exatamente igual ao ano
+     * fornecido (consulta ao índice por ano, veja {@link #searchByYearRange(int, int)}).
      *
      * @param year O ano de lançamento inteiro a ser buscado.
      * @return Uma {@code List<Media>} contendo todas as mídias lançadas no ano especificado.
      *         Retorna uma lista vazia se nenhum item for encontrado.
      */
     public List<Media> searchByYear(int year) {
-        return media.stream()
-                .filter(m -> m.getYearRelease() == year)
-                .collect(Collectors.toList());
+        return searchByYearRange(year, year);
+    }
+
+    /**
+     * Busca mídias lançadas em um intervalo de anos, pelo índice por ano do {@link MediaIndex}
+     * (O(log n + k), sem percorrer a biblioteca).
+     *
+     * @param from O primeiro ano (incluído).
+     * @param to   O último ano (incluído).
+     * @return Uma {@code List<Media>} com as mídias encontradas, por ano (vazia se {@code from > to}).
+     */
+    public List<Media> searchByYearRange(int from, int to) {
+        return readLocked(() -> mediaByIds(index().searchYears(from, to), Media.class));
     }
 
 
     /**
      * Busca mídias na lista agregada `media` que possuam pelo menos um {@link Genre}
-     * cujo nome contenha a {@code String} fornecida, ignorando maiúsculas/minúsculas.
+     * cujo nome contenha a {@code String} fornecida, ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
      *
      * @param genreName O nome (ou parte do nome) do gênero a ser buscado. A busca é
      *                  cancelada se for nulo ou vazio.
@@ -718,124 +1857,243 @@ public class WorkManager {
      *         `genreName` for inválido.
      */
     public List<Media> searchByGenre(String genreName) {
-        if (genreName == null || genreName.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        String searchNameLower = genreName.trim().toLowerCase();
-
-        return this.media.stream()
-                .filter(m -> {
-                    List<Genre> genresDaMedia = m.getGenres(); // This is already an unmodifiable list
-                    if (genresDaMedia.isEmpty()) { // No need to check for null if constructor guarantees non-null
-                        return false;
-                    }
-                    return genresDaMedia.stream()
-                            //.filter(Objects::nonNull) // Genre objects in list should not be null
-                            .anyMatch(g -> g.getGenre().toLowerCase().contains(searchNameLower));
-                })
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            if (genreName == null || genreName.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.GENRE, genreName), Media.class);
+        });
     }
 
     /**
      * Busca livros na `bookLibrary` cujo nome do autor contenha a {@code String} fornecida,
-     * ignorando maiúsculas/minúsculas.
+     * ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
      *
      * @param author O nome (ou parte do nome) do autor a ser buscado. Busca cancelada se nulo/vazio.
      * @return Uma {@code List<Book>} contendo os livros correspondentes. Lista vazia se nada encontrado.
      */
     public List<Book> searchBooksByAuthor(String author) {
-        if (author == null || author.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        String searchTerm = author.trim().toLowerCase();
-        return bookLibrary.stream()
-                .filter(b -> b.getAuthor().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            if (author == null || author.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.AUTHOR, author), Book.class);
+        });
     }
 
     /**
      * Busca livros na `bookLibrary` cujo ISBN seja exatamente igual à {@code String} fornecida,
-     * ignorando maiúsculas/minúsculas.
+     * ignorando acentos e maiúsculas/minúsculas. A consulta é feita em O(1) no índice por ISBN; se houver
+     * ISBNs repetidos, retorna o primeiro livro cadastrado.
      *
      * @param isbn O ISBN exato a ser buscado. Busca cancelada se nulo/vazio.
-     * @return Uma {@code List<Book>} contendo o livro correspondente (geralmente 0 ou 1 item).
+     * @return Uma {@code List<Book>} contendo o livro correspondente (0 ou 1 item).
      */
     public List<Book> searchBooksByISBN(String isbn) {
-        if (isbn == null || isbn.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        String searchTerm = isbn.trim();
-        return bookLibrary.stream()
-                .filter(b -> b.getIsbn().equalsIgnoreCase(searchTerm))
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            if (isbn == null || isbn.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            ensureKeyIndexes();
+            Book book = booksByIsbn.get(keyOf(isbn));
+            return book == null ? Collections.emptyList() : Collections.singletonList(book);
+        });
     }
 
     /**
      * Busca filmes na `filmLibrary` cujo nome do(s) diretor(es) contenha a {@code String} fornecida,
-     * ignorando maiúsculas/minúsculas.
+     * ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
      *
      * @param director O nome (ou parte do nome) do diretor. Busca cancelada se nulo/vazio.
      * @return Uma {@code List<Films>} contendo os filmes correspondentes.
      */
     public List<Films> searchFilmsByDirector(String director) {
-        if (director == null || director.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        String searchTerm = director.trim().toLowerCase();
-        return filmLibrary.stream()
-                .filter(f -> f.getDirection().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            if (director == null || director.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.DIRECTOR, director), Films.class);
+        });
     }
 
     /**
      * Busca filmes na `filmLibrary` cuja lista de elenco (`cast`) contenha pelo menos um nome
-     * que contenha a {@code String} fornecida, ignorando maiúsculas/minúsculas.
+     * que contenha a {@code String} fornecida, ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
      *
      * @param actor O nome (ou parte do nome) do ator/atriz a ser buscado no elenco.
      *              Busca cancelada se nulo/vazio.
      * @return Uma {@code List<Films>} contendo os filmes que têm a pessoa no elenco.
      */
     public List<Films> searchFilmsByCast(String actor) {
-        if (actor == null || actor.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        String searchTerm = actor.trim().toLowerCase();
-        return filmLibrary.stream()
-                .filter(f -> f.getCast().stream().anyMatch(a -> a.toLowerCase().contains(searchTerm)))
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            if (actor == null || actor.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.CAST, actor), Films.class);
+        });
     }
 
 
     /**
      * Busca séries na `showLibrary` cuja lista de elenco (`cast`) contenha pelo menos um nome
-     * que contenha a {@code String} fornecida, ignorando maiúsculas/minúsculas.
+     * que contenha a {@code String} fornecida, ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
      *
      * @param actor O nome (ou parte do nome) do ator/atriz a ser buscado no elenco.
      *              Busca cancelada se nulo/vazio.
      * @return Uma {@code List<Show>} contendo as séries que têm a pessoa no elenco.
      */
     public List<Show> searchShowsByCast(String actor) {
-        if (actor == null || actor.trim().isEmpty()) {
-            return Collections.emptyList();
+        return readLocked(() -> {
+            if (actor == null || actor.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.CAST, actor), Show.class);
+        });
+    }
+
+    /**
+     * Busca pessoas (autores, diretores, roteiristas e elenco) em uma única consulta ao
+     * {@link PersonIndex}: alguma palavra do nome deve começar com o texto, ignorando acentos e
+     * maiúsculas/minúsculas ("herb" encontra Frank Herbert).
+     *
+     * @param namePrefix O início do nome ou de uma palavra do nome. Busca cancelada se nulo/vazio.
+     * @return Os créditos encontrados, com o papel de cada pessoa, por pessoa (em ordem alfabética)
+     *         e pela ordem de cadastro das mídias.
+     */
+    public List<PersonCredit> searchPeople(String namePrefix) {
+        return readLocked(() -> {
+            List<PersonCredit> credits = new ArrayList<>();
+            if (namePrefix != null && !namePrefix.trim().isEmpty()) {
+                index().people().lookup(namePrefix, (person, role, id) -> credits.add(new PersonCredit(person, role, media.get(id))));
+            }
+            return credits;
+        });
+    }
+
+    /**
+     * Retorna os nomes das pessoas encontradas por {@link #searchPeople(String)}, sem repetição.
+     *
+     * @param namePrefix O início do nome ou de uma palavra do nome.
+     * @return Os nomes, em ordem alfabética.
+     */
+    public List<String> searchPersonNames(String namePrefix) {
+        return readLocked(() -> {
+            if (namePrefix == null || namePrefix.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return index().people().names(namePrefix);
+        });
+    }
+
+    /**
+     * Retorna a filmografia (no sentido amplo: livros, filmes e séries) de uma pessoa.
+     *
+     * @param person O nome completo da pessoa (ignorando acentos, maiúsculas/minúsculas e espaços extras).
+     * @return Os créditos da pessoa, pela ordem de cadastro das mídias; vazia se a pessoa não for encontrada.
+     */
+    public List<PersonCredit> getFilmography(String person) {
+        return readLocked(() -> {
+            List<PersonCredit> credits = new ArrayList<>();
+            if (person != null) {
+                index().people().credits(person, (name, role, id) -> credits.add(new PersonCredit(name, role, media.get(id))));
+            }
+            return credits;
+        });
+    }
+
+    /**
+     * Busca mídias com alguma review (de livro, filme ou temporada de série) cujo comentário
+     * contenha a {@code String} fornecida, ignorando acentos e maiúsculas/minúsculas (consulta ao {@link MediaIndex}).
+     *
+     * @param text O trecho do comentário. Busca cancelada se nulo/vazio.
+     * @return Uma {@code List<Media>} com as mídias encontradas (para séries, a série avaliada).
+     */
+    public List<Media> searchByReviewComment(String text) {
+        return readLocked(() -> {
+            if (text == null || text.trim().isEmpty()) {
+                return Collections.emptyList();
+            }
+            return mediaByIds(index().search(MediaIndex.Field.COMMENT, text), Media.class);
+        });
+    }
+
+    /**
+     * Percorre os livros cadastrados, na ordem de cadastro, sem copiar a biblioteca.
+     *
+     * @param action Chamada para cada livro, fora das travas do WorkManager.
+     * @see #forEachOf(List, Consumer)
+     */
+    public void forEachBook(Consumer<? super Book> action) {
+        forEachOf(snapshot().getBooks(), action);
+    }
+
+    /**
+     * Percorre os filmes cadastrados, na ordem de cadastro, sem copiar a biblioteca.
+     *
+     * @param action Chamada para cada filme, fora das travas do WorkManager.
+     * @see #forEachOf(List, Consumer)
+     */
+    public void forEachFilm(Consumer<? super Films> action) {
+        forEachOf(snapshot().getFilms(), action);
+    }
+
+    /**
+     * Percorre as séries cadastradas, na ordem de cadastro, sem copiar a biblioteca.
+     *
+     * @param action Chamada para cada série, fora das travas do WorkManager.
+     * @see #forEachOf(List, Consumer)
+     */
+    public void forEachShow(Consumer<? super Show> action) {
+        forEachOf(snapshot().getShows(), action);
+    }
+
+    /**
+     * Percorre uma biblioteca do retrato atual ({@link #snapshot()}), por posição: o percurso vê
+     * exatamente as mídias cadastradas até o início, sem trava e sem cópia, e a ação roda fora de
+     * qualquer trava, para não travar a interface durante exportações longas. Mídias do snapshot
+     * ainda não acessadas são decodificadas sem ficar em memória ({@link LazyList#peek(int)}).
+     */
+    private <T extends Media> void forEachOf(List<T> items, Consumer<? super T> action) {
+        PersistentList<T> list = (PersistentList<T>) items;
+        for (int i = 0; i < list.size(); i++) {
+            action.accept(list.peek(i));
         }
-        String searchTerm = actor.trim().toLowerCase();
-        return showLibrary.stream()
-                .filter(s -> s.getCast().stream().anyMatch(a -> a.toLowerCase().contains(searchTerm)))
-                .collect(Collectors.toList());
     }
 
     /**
      * Retorna a lista agregada `media` completa, ordenada alfabeticamente pelo título
-     * (A-Z, ignorando maiúsculas/minúsculas). Filtra itens nulos por segurança.
+     * (A-Z, ignorando acentos e maiúsculas/minúsculas). A ordem é mantida a cada cadastro
+     * ({@link TitleOrder}), então a listagem é só uma cópia em O(n). Pode ser chamado de qualquer thread.
      *
      * @return Uma nova {@code List<Media>} contendo todos os objetos Media cadastrados,
      *         ordenados por título.
      */
     public List<Media> listMediaAlphabetically() {
-        return media.stream()
-                // .filter(Objects::nonNull) // Should not be necessary if media list is well-managed
-                .sorted(Comparator.comparing(Media::getTitle, String.CASE_INSENSITIVE_ORDER))
-                .collect(Collectors.toList());
+        return readLocked(() -> titleOrder().toList(Media.class));
+    }
+
+    /**
+     * Retorna uma página da listagem alfabética, a partir do primeiro título que não vem antes do
+     * texto informado (por exemplo, "M" começa nos títulos com M). Custa O(log n + limit).
+     *
+     * @param fromTitle O início da página (ignorando acentos e maiúsculas/minúsculas); vazio começa do primeiro título.
+     * @param limit     O tamanho máximo da página.
+     * @return As mídias da página, em ordem alfabética.
+     */
+    public List<Media> listMediaPage(String fromTitle, int limit) {
+        return readLocked(() -> titleOrder().pageFrom(fromTitle, limit));
+    }
+
+    /**
+     * Retorna a página da listagem alfabética seguinte a uma mídia (a última da página anterior),
+     * para percorrer a lista página a página. Custa O(log n + limit).
+     *
+     * @param last  A última mídia da página anterior, ou {@code null} para a primeira página.
+     * @param limit O tamanho máximo da página.
+     * @return As mídias da página, em ordem alfabética (vazia no fim da lista).
+     */
+    public List<Media> listMediaPageAfter(Media last, int limit) {
+        return readLocked(() -> titleOrder().pageAfter(last, limit));
     }
 
     /**
@@ -845,6 +2103,8 @@ public class WorkManager {
      * - Para {@link Show}: Retorna a <b>média</b> das notas de todas as reviews de todas as suas temporadas (ou 0.0f se não houver reviews/temporadas).
      * - Para outros tipos ou {@code null}: Retorna 0.0f.
      * </p>
+     * Usa os agregados mantidos por {@link Media#addReview(Review)} e {@link Season#addReview(Review)},
+     * sem percorrer as reviews: O(1) para livros e filmes e O(temporadas) para séries.
      * Este método é estático pois seu cálculo depende apenas do objeto {@link Media} passado como argumento.
      *
      * @param m O objeto {@link Media} cuja avaliação deve ser calculada.
@@ -856,51 +2116,99 @@ public class WorkManager {
         }
 
         if (m instanceof Book || m instanceof Films) {
-            List<Review> reviews = m.getReviews(); // This is an unmodifiable list
-            if (reviews.isEmpty()) { // No need to check for null
-                return 0f;
-            }
-            // To get the truly last added, we'd need the original modifiable list or a timestamp.
-            // Assuming the unmodifiable list maintains insertion order.
-            Review lastReview = reviews.get(reviews.size() - 1);
-            return lastReview.getStars(); // Review constructor ensures stars is valid
+            return m.getLastStars(); // 0.0f when there are no reviews
         }
 
         else if (m instanceof Show) {
-            Show show = (Show) m;
-            List<Season> seasons = show.getSeasons(); // This is an unmodifiable list
-            if (seasons.isEmpty()) {
-                return 0f;
-            }
-
-            float totalStarsSum = 0;
+            double totalStarsSum = 0;
             int totalReviewCount = 0;
-
-            for (Season season : seasons) {
-                // season objects themselves should be non-null if list management is correct
-                List<Review> seasonReviews = season.getReviews(); // Unmodifiable
-                if (!seasonReviews.isEmpty()) {
-                    for (Review review : seasonReviews) {
-                        // review objects should be non-null
-                        totalStarsSum += review.getStars();
-                        totalReviewCount++;
-                    }
-                }
+            for (Season season : ((Show) m).getSeasons()) {
+                totalStarsSum += season.getStarsSum();
+                totalReviewCount += season.getReviewCount();
             }
 
             if (totalReviewCount == 0) {
                 return 0f;
             }
-            return totalStarsSum / totalReviewCount;
+            return (float) (totalStarsSum / totalReviewCount);
         }
         else { // Should not happen with current class hierarchy
             return 0f;
         }
     }
 
+    /**
+     * Retorna as mídias mais bem avaliadas, na ordem de {@link #sortByRating(List, boolean)}.
+     * A ordem por avaliação é mantida a cada review ({@link RatingIndex}), então o custo é
+     * O(limit · log n), sem ordenar a biblioteca.
+     *
+     * @param limit A quantidade máxima de mídias (por exemplo, 50 para o "top 50").
+     * @return As mídias, da maior para a menor nota.
+     */
+    public List<Media> getTopRated(int limit) {
+        return readLocked(() -> ratingIndex().page(true, 0, limit));
+    }
+
+    /**
+     * Retorna uma página da listagem por avaliação, em O(limit · log n).
+     *
+     * @param descending {@code true} para maior nota primeiro; {@code false} para menor nota primeiro.
+     * @param offset     A posição da primeira mídia da página (0 é a primeira).
+     * @param limit      O tamanho máximo da página.
+     * @return As mídias da página (vazia além do fim).
+     */
+    public List<Media> listByRating(boolean descending, int offset, int limit) {
+        return readLocked(() -> ratingIndex().page(descending, offset, limit));
+    }
+
+    /**
+     * Retorna a posição de uma mídia na listagem por avaliação, em O(log n).
+     *
+     * @param item       A mídia.
+     * @param descending {@code true} para a listagem com maior nota primeiro.
+     * @return A posição (0 é a primeira), ou -1 se a mídia não estiver cadastrada.
+     */
+    public int getRatingRank(Media item, boolean descending) {
+        return readLocked(() -> ratingIndex().rank(item, descending));
+    }
+
+    /**
+     * Ordena uma lista de mídias pela avaliação de {@link #calculateAverage(Media)}, calculando
+     * a nota de cada mídia uma única vez (em vez de a cada comparação). Mídias com a mesma nota
+     * ficam em ordem alfabética de título.
+     *
+     * @param list       A lista a ser ordenada (modificada no lugar).
+     * @param descending {@code true} para maior nota primeiro; {@code false} para menor nota primeiro.
+     */
+    public static void sortByRating(List<Media> list, boolean descending) {
+        RatedMedia[] decorated = new RatedMedia[list.size()];
+        for (int i = 0; i < decorated.length; i++) {
+            Media m = list.get(i);
+            decorated[i] = new RatedMedia(calculateAverage(m), m);
+        }
+        Comparator<RatedMedia> byRating = Comparator.comparingDouble(r -> r.rating);
+        Comparator<RatedMedia> byTitle = (a, b) -> TITLE_ORDER.compare(a.media, b.media);
+        Arrays.sort(decorated, (descending ? byRating.reversed() : byRating).thenComparing(byTitle));
+        for (int i = 0; i < decorated.length; i++) {
+            list.set(i, decorated[i].media);
+        }
+    }
+
+    /** Mídia acompanhada da nota já calculada, usada por {@link #sortByRating(List, boolean)}. */
+    private static class RatedMedia {
+        final float rating;
+        final Media media;
+
+        RatedMedia(float rating, Media media) {
+            this.rating = rating;
+            this.media = media;
+        }
+    }
+
     /**
      * Filtra a lista agregada de mídias ({@code media}) com base em um ano e/ou gênero opcional,
      * e então ordena a lista resultante de acordo com a opção de ordenação fornecida.
+     * Equivale a {@link #query(MediaQuery)} com esses dois filtros.
      *
      * @param filterYear  O ano para filtrar (ou {@code null} para não filtrar por ano).
      * @param filterGenre O {@link Genre} para filtrar (ou {@code null} para não filtrar por gênero).
@@ -913,27 +2221,111 @@ public class WorkManager {
      * @return Uma nova {@code List<Media>} contendo as mídias filtradas e ordenadas.
      */
     public List<Media> getFilteredAndSortedMedia(Integer filterYear, Genre filterGenre, int sortOption) {
-        List<Media> filteredList = this.media.stream()
-                .filter(m -> filterYear == null || m.getYearRelease() == filterYear)
-                .filter(m -> filterGenre == null || m.getGenres().stream() // m.getGenres() is unmodifiable
-                        .anyMatch(g -> g.equals(filterGenre))) // Use .equals for Genre comparison
-                .collect(Collectors.toList());
-
-        Comparator<Media> comparator;
-        switch (sortOption) {
-            case 1: // Highest to lowest rating
-                comparator = Comparator.comparingDouble((Media m) -> calculateAverage(m)).reversed();
-                break;
-            case 2: // Lowest to highest rating
-                comparator = Comparator.comparingDouble((Media m) -> calculateAverage(m));
-                break;
-            case 3: // Alphabetical (A-Z)
-            default:
-                comparator = Comparator.comparing(Media::getTitle, String.CASE_INSENSITIVE_ORDER);
-                break;
-        }
-        filteredList.sort(comparator);
-        return filteredList;
+        return query(new MediaQuery().year(filterYear).genre(filterGenre).sort(sortOption));
+    }
+
+    /**
+     * Executa uma {@link MediaQuery} sobre todas as mídias cadastradas.
+     *
+     * @param query A consulta (filtros e ordenação).
+     * @return Uma nova {@code List<Media>} com as mídias encontradas, já ordenadas.
+     */
+    public List<Media> query(MediaQuery query) {
+        return query(query, () -> false);
+    }
+
+    /**
+     * Executa uma {@link MediaQuery} que pode ser cancelada, para consultas feitas em segundo plano.
+     * Pode ser chamado de qualquer thread: a lista de mídias é copiada com a trava de leitura e
+     * filtrada fora dela. Com filtro de ano, gênero ou pessoa, só as mídias
+     * apontadas pelos índices são copiadas e filtradas.
+     *
+     * @param query     A consulta (filtros e ordenação).
+     * @param cancelled Consultado periodicamente; quando retorna {@code true}, a consulta é interrompida.
+     * @return As mídias encontradas, ordenadas; ou {@code null} se a consulta foi cancelada.
+     */
+    public List<Media> query(MediaQuery query, BooleanSupplier cancelled) {
+        List<Media> candidates = readLocked(() -> candidates(query));
+        return query.run(candidates, cancelled);
+    }
+
+    /**
+     * Executa uma consulta aproveitando o resultado da anterior, para a busca enquanto o usuário
+     * digita: se a nova consulta só restringe a anterior (o mesmo texto com mais letras, os
+     * mesmos demais filtros), filtra as mídias do resultado anterior e as cadastradas depois
+     * dele, em vez de todas. Caso contrário, equivale a {@link #query(MediaQuery, BooleanSupplier)}.
+     * Pode ser chamado de qualquer thread.
+     *
+     * @param query     A consulta; não deve ser alterada depois, pois fica guardada no resultado.
+     * @param previous  O resultado da consulta anterior, ou {@code null}.
+     * @param cancelled Consultado periodicamente; quando retorna {@code true}, a consulta é interrompida.
+     * @return O resultado, a ser passado como {@code previous} na próxima consulta; ou {@code null}
+     *         se a consulta foi cancelada.
+     */
+    public MediaQuery.Result refine(MediaQuery query, MediaQuery.Result previous, BooleanSupplier cancelled) {
+        MediaQuery.Result start = readLocked(() -> {
+            int size = media.size();
+            // A reload replaces the aggregated list; media is only ever appended otherwise
+            if (previous != null && previous.source == media && query.narrows(previous.query)) {
+                List<Media> candidates = new ArrayList<>(previous.media.size() + size - previous.sourceSize);
+                candidates.addAll(previous.media);
+                candidates.addAll(media.subList(previous.sourceSize, size));
+                return new MediaQuery.Result(query, candidates, media, size);
+            }
+            return new MediaQuery.Result(query, candidates(query), media, size);
+        });
+        List<Media> result = query.run(start.media, cancelled);
+        return result == null ? null : new MediaQuery.Result(query, result, start.source, start.sourceSize);
+    }
+
+    /**
+     * Seleciona as mídias que podem atender à consulta: com filtro de ano, gênero ou pessoa, só
+     * as mídias apontadas pelos índices (intervalo do índice por ano, OU/E dos bitmaps de gênero,
+     * mídias das pessoas encontradas no {@link PersonIndex}, títulos da busca aproximada, em ordem
+     * de similaridade); sem eles, todas. Deve ser chamado com uma trava.
+     */
+    private List<Media> candidates(MediaQuery query) {
+        if (!query.hasYearFilter() && !query.hasGenreFilter() && !query.hasPersonFilter() && !query.isFuzzyTitle()) {
+            // Already in the requested order, so the final sort is a single linear pass
+            switch (query.sortOption()) {
+                case MediaQuery.SORT_RATING_DESC:
+                    return ratingIndex().toList(true);
+                case MediaQuery.SORT_RATING_ASC:
+                    return ratingIndex().toList(false);
+                default:
+                    return query.sortsByTitle() ? titleOrder().toList(Media.class) : new ArrayList<>(media);
+            }
+        }
+        MediaIndex index = index();
+        BitSet allowed = query.hasGenreFilter() ? index.mediaWithGenres(query.genreKeys(), query.matchesAllGenres()) : null;
+        if (query.hasPersonFilter()) {
+            BitSet people = index.people().mediaIds(query.personKey());
+            if (allowed == null) {
+                allowed = people;
+            } else {
+                allowed.and(people);
+            }
+        }
+        List<Media> result = new ArrayList<>();
+        if (query.isFuzzyTitle()) {
+            // Ranked by similarity; the year is checked by the query's predicate
+            for (MediaIndex.Scored scored : index.fuzzySearch(query.titleKey(), MediaIndex.DEFAULT_FUZZY_THRESHOLD, Integer.MAX_VALUE)) {
+                if (allowed == null || allowed.get(scored.getId())) {
+                    result.add(media.get(scored.getId()));
+                }
+            }
+        } else if (query.hasYearFilter()) {
+            for (int id : index.searchYears(query.yearFrom(), query.yearTo())) {
+                if (allowed == null || allowed.get(id)) {
+                    result.add(media.get(id));
+                }
+            }
+        } else {
+            for (int id = allowed.nextSetBit(0); id >= 0; id = allowed.nextSetBit(id + 1)) {
+                result.add(media.get(id));
+            }
+        }
+        return result;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,512 @@
+package Control.io;
+
+import Control.WorkManager;
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Show;
+import Module.TextFolding;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importa catálogos de livros, filmes e séries para o {@link WorkManager} a partir de arquivos
+ * CSV (com cabeçalho) ou NDJSON (um objeto JSON por linha), sem carregar o arquivo inteiro.
+ *
+ * <p>Colunas reconhecidas (sem diferenciar maiúsculas/minúsculas, {@code _} e {@code -}):
+ * {@code type} ({@code book}, {@code film} ou {@code show}), {@code title}, {@code year},
+ * {@code genres}, {@code seen}; para livros {@code author}, {@code publisher}, {@code isbn},
+ * {@code copy}; para filmes e séries {@code original_title}, {@code cast}, {@code where_watch};
+ * para filmes {@code director}, {@code running_time}, {@code screenplay}; para séries
+ * {@code year_end} (padrão: o ano de lançamento). Colunas com vários valores são separadas
+ * por {@code ;} ou {@code |} no CSV e podem ser arrays no NDJSON.</p>
+ *
+ * <p>As linhas são lidas em blocos de {@code chunkSize}; cada bloco é validado em paralelo em
+ * threads de trabalho (tipos, campos obrigatórios e as validações dos construtores do
+ * {@code Module}) e inserido na ordem do arquivo, na thread chamadora. Os gêneros são resolvidos
+ * por um dicionário em memória ({@link WorkManager#resolveGenre(String)} só é chamado para nomes
+ * novos). A importação inteira é um lote do {@code WorkManager} ({@link WorkManager#beginBatch()}),
+ * gravado com uma única persistência no final. Linhas inválidas são rejeitadas e relatadas no
+ * {@link Report}, sem interromper a importação.</p>
+ *
+ * <p>Uso: {@code BulkImporter <catalogo.csv|catalogo.ndjson> [cultural_diary.dat]}.</p>
+ */
+public class BulkImporter {
+
+    /** Quantidade padrão de linhas por bloco de validação. */
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    /** Linha lida do arquivo, ainda sem validação: valores {@code String} ou {@code List<String>}. */
+    static class RawRow {
+        final long line;
+        final Map<String, Object> fields;
+        /** Erro de leitura da linha (JSON malformado, colunas a mais), ou {@code null}. */
+        final String error;
+
+        RawRow(long line, Map<String, Object> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+
+    /** Fonte de linhas de um formato de arquivo. */
+    interface RowSource {
+        /** Retorna a próxima linha, ou {@code null} no fim do arquivo. */
+        RawRow next() throws IOException;
+    }
+
+    /** Linha rejeitada: número da linha no arquivo e motivo. */
+    public static class Rejection {
+        private final long line;
+        private final String reason;
+
+        public Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + reason;
+        }
+    }
+
+    /** Resultado de uma importação. */
+    public static class Report {
+        private long rowsRead;
+        private long imported;
+        private final List<Rejection> rejected = new ArrayList<>();
+        private long elapsedNanos;
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public List<Rejection> getRejected() {
+            return Collections.unmodifiableList(rejected);
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Retorna a vazão da importação (leitura, validação, inserção e persistência).
+         *
+         * @return Linhas lidas por segundo.
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d rows read, %d imported, %d rejected in %.2f s (%.0f rows/s)",
+                    rowsRead, imported, rejected.size(), elapsedNanos / 1_000_000_000.0, getRowsPerSecond());
+        }
+    }
+
+    private enum Kind { BOOK, FILM, SHOW }
+
+    /** Linha validada, pronta para inserir; ou a rejeição correspondente. */
+    private static class ParsedRow {
+        final long line;
+        final String error;
+        Kind kind;
+        String title;
+        int year;
+        List<String> genres;
+        boolean seen;
+        String author;
+        String publisher;
+        String isbn;
+        boolean copy;
+        String originalTitle;
+        List<String> cast;
+        List<String> whereWatch;
+        String director;
+        int runningTime;
+        String screenplay;
+        int yearEnd;
+
+        ParsedRow(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+    }
+
+    private final WorkManager workManager;
+    private final int threads;
+    private final int chunkSize;
+    /** Gêneros já resolvidos, pela chave do nome ({@link Genre#getKey()}); usado apenas pela thread chamadora. */
+    private final Map<String, Genre> genres = new HashMap<>();
+
+    public BulkImporter(WorkManager workManager) {
+        this(workManager, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param workManager Onde as mídias são cadastradas.
+     * @param threads     Quantidade de threads de validação.
+     * @param chunkSize   Quantidade de linhas por bloco de validação.
+     */
+    public BulkImporter(WorkManager workManager, int threads, int chunkSize) {
+        if (threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("threads and chunkSize must be positive.");
+        }
+        this.workManager = workManager;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: BulkImporter <catalog.csv|catalog.ndjson> [cultural_diary.dat]");
+            System.exit(2);
+        }
+        WorkManager workManager = args.length == 2 ? new WorkManager(args[1]) : new WorkManager();
+        try {
+            Report report = new BulkImporter(workManager).importFile(new File(args[0]));
+            System.out.println(report);
+            for (Rejection rejection : report.getRejected()) {
+                System.out.println("  rejected " + rejection);
+            }
+        } catch (IOException e) {
+            System.err.println("Error importing catalog: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            workManager.close();
+        }
+    }
+
+    /**
+     * Importa um arquivo, escolhendo o formato pela extensão: {@code .ndjson}/{@code .jsonl}
+     * para NDJSON, qualquer outra para CSV.
+     *
+     * @param file O arquivo do catálogo (UTF-8).
+     * @return O relatório da importação.
+     * @throws IOException se o arquivo não puder ser lido.
+     */
+    public Report importFile(File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? importNdjson(reader) : importCsv(reader);
+        }
+    }
+
+    /**
+     * Importa um catálogo CSV com linha de cabeçalho.
+     *
+     * @param reader O conteúdo do arquivo (não é fechado).
+     * @return O relatório da importação.
+     * @throws IOException se o conteúdo não puder ser lido.
+     */
+    public Report importCsv(Reader reader) throws IOException {
+        return importRows(new CsvRowSource(reader));
+    }
+
+    /**
+     * Importa um catálogo NDJSON (um objeto por linha; linhas em branco são ignoradas).
+     *
+     * @param reader O conteúdo do arquivo (não é fechado).
+     * @return O relatório da importação.
+     * @throws IOException se o conteúdo não puder ser lido.
+     */
+    public Report importNdjson(Reader reader) throws IOException {
+        return importRows(new NdjsonRowSource(reader));
+    }
+
+    Report importRows(RowSource source) throws IOException {
+        long start = System.nanoTime();
+        Report report = new Report();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Validated chunks waiting to be inserted, in file order; bounded so reading cannot run far ahead
+        Deque<Future<List<ParsedRow>>> inFlight = new ArrayDeque<>();
+        workManager.beginBatch();
+        try {
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            RawRow row;
+            while ((row = source.next()) != null) {
+                report.rowsRead++;
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(workers, chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() > threads * 2) {
+                        insert(inFlight.poll(), report);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(workers, chunk));
+            }
+            while (!inFlight.isEmpty()) {
+                insert(inFlight.poll(), report);
+            }
+        } finally {
+            workers.shutdownNow();
+            workManager.commit();
+        }
+        workManager.flush();
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    // --- Validation (worker threads) ---
+
+    private static Future<List<ParsedRow>> submit(ExecutorService workers, List<RawRow> chunk) {
+        return workers.submit(() -> {
+            List<ParsedRow> parsed = new ArrayList<>(chunk.size());
+            for (RawRow row : chunk) {
+                parsed.add(validate(row));
+            }
+            return parsed;
+        });
+    }
+
+    private static ParsedRow validate(RawRow raw) {
+        if (raw.error != null) {
+            return new ParsedRow(raw.line, raw.error);
+        }
+        try {
+            Map<String, Object> fields = raw.fields;
+            ParsedRow row = new ParsedRow(raw.line, null);
+            row.kind = kind(required(fields, "type"));
+            row.title = required(fields, "title");
+            row.year = integer(fields, "year", null);
+            row.genres = list(fields, "genres");
+            row.seen = bool(fields, "seen");
+            List<Genre> genres = new ArrayList<>(row.genres.size());
+            for (String name : row.genres) {
+                genres.add(new Genre(name)); // Validates the name; the library's instance is used on insert
+            }
+            switch (row.kind) {
+                case BOOK:
+                    row.author = required(fields, "author");
+                    row.publisher = text(fields, "publisher");
+                    row.isbn = required(fields, "isbn");
+                    row.copy = bool(fields, "copy");
+                    new Book(row.seen, row.title, genres, row.year, row.author, row.publisher, row.isbn, row.copy);
+                    break;
+                case FILM:
+                    audioVisual(row, fields);
+                    row.director = text(fields, "director");
+                    if (row.director == null) {
+                        row.director = text(fields, "direction");
+                    }
+                    row.runningTime = integer(fields, "runningtime", null);
+                    row.screenplay = text(fields, "screenplay");
+                    new Films(row.cast, row.seen, row.title, genres, row.year, row.originalTitle, row.whereWatch,
+                            row.director, row.runningTime, row.screenplay);
+                    break;
+                case SHOW:
+                default:
+                    audioVisual(row, fields);
+                    row.yearEnd = integer(fields, "yearend", row.year);
+                    new Show(row.cast, row.seen, row.title, genres, row.year, row.originalTitle, row.whereWatch, row.yearEnd);
+                    break;
+            }
+            return row;
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(raw.line, e.getMessage());
+        }
+    }
+
+    private static void audioVisual(ParsedRow row, Map<String, Object> fields) {
+        row.originalTitle = text(fields, "originaltitle");
+        row.cast = list(fields, "cast");
+        row.whereWatch = list(fields, "wherewatch");
+    }
+
+    private static Kind kind(String type) {
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "book":
+            case "livro":
+                return Kind.BOOK;
+            case "film":
+            case "movie":
+            case "filme":
+                return Kind.FILM;
+            case "show":
+            case "series":
+            case "serie":
+            case "série":
+                return Kind.SHOW;
+            default:
+                throw new IllegalArgumentException("Unknown media type '" + type + "'.");
+        }
+    }
+
+    private static String text(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value instanceof List) {
+            value = String.join(", ", castList(value));
+        }
+        if (value == null || ((String) value).trim().isEmpty()) {
+            return null;
+        }
+        return ((String) value).trim();
+    }
+
+    private static String required(Map<String, Object> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing '" + name + "'.");
+        }
+        return value;
+    }
+
+    private static int integer(Map<String, Object> fields, String name, Integer defaultValue) {
+        String value = text(fields, name);
+        if (value == null) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Missing '" + name + "'.");
+            }
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + name + "' is not a number: " + value);
+        }
+    }
+
+    private static boolean bool(Map<String, Object> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            return false;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "y":
+            case "sim":
+            case "s":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "n":
+            case "não":
+            case "nao":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("'" + name + "' is not a boolean: " + value);
+        }
+    }
+
+    private static List<String> list(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        List<String> items = new ArrayList<>();
+        if (value instanceof List) {
+            for (String item : castList(value)) {
+                if (item != null && !item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+        } else if (value != null) {
+            for (String item : ((String) value).split("[;|]")) {
+                if (!item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castList(Object value) {
+        return (List<String>) value;
+    }
+
+    // --- Insertion (calling thread) ---
+
+    private void insert(Future<List<ParsedRow>> validated, Report report) throws IOException {
+        List<ParsedRow> rows;
+        try {
+            rows = validated.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Row validation failed: " + e.getCause(), e.getCause());
+        }
+        for (ParsedRow row : rows) {
+            if (row.error != null) {
+                report.rejected.add(new Rejection(row.line, row.error));
+                continue;
+            }
+            List<Genre> rowGenres = new ArrayList<>(row.genres.size());
+            for (String name : row.genres) {
+                rowGenres.add(genre(name));
+            }
+            switch (row.kind) {
+                case BOOK:
+                    workManager.createBook(row.seen, row.title, rowGenres, row.year, row.author, row.publisher, row.isbn, row.copy);
+                    break;
+                case FILM:
+                    workManager.createFilm(row.cast, row.seen, row.title, rowGenres, row.year, row.originalTitle, row.whereWatch,
+                            row.director, row.runningTime, row.screenplay);
+                    break;
+                case SHOW:
+                default:
+                    workManager.createShow(row.cast, row.seen, row.title, rowGenres, row.year, row.originalTitle, row.whereWatch, row.yearEnd);
+                    break;
+            }
+            report.imported++;
+        }
+    }
+
+    private Genre genre(String name) {
+        String key = TextFolding.fold(name.trim()); // Same key as Genre.getKey(): "Ação" and "Acao" share one entry
+        Genre genre = genres.get(key);
+        if (genre == null) {
+            genre = workManager.resolveGenre(name);
+            genres.put(key, genre);
+        }
+        return genre;
+    }
+
+    /** Normaliza o nome de uma coluna: minúsculas, sem {@code _}, {@code -} e espaços. */
+    static String columnKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("[_\\-\\s]", "");
+    }
+}
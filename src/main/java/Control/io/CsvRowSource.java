@@ -0,0 +1,115 @@
+package Control.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê um CSV registro a registro (RFC 4180: campos entre aspas podem conter vírgulas, quebras de
+ * linha e aspas duplicadas). O primeiro registro é o cabeçalho; registros em branco são ignorados.
+ */
+class CsvRowSource implements BulkImporter.RowSource {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private List<String> header;
+
+    CsvRowSource(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public BulkImporter.RawRow next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = new ArrayList<>(names.size());
+            for (String name : names) {
+                header.add(BulkImporter.columnKey(name));
+            }
+        }
+        while (true) {
+            long recordLine = line;
+            List<String> values = readRecord();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() == 1 && values.get(0).trim().isEmpty()) {
+                continue;
+            }
+            if (values.size() > header.size()) {
+                return new BulkImporter.RawRow(recordLine, null,
+                        "Expected at most " + header.size() + " columns, found " + values.size() + ".");
+            }
+            Map<String, Object> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new BulkImporter.RawRow(recordLine, fields, null);
+        }
+    }
+
+    /** Lê o próximo registro, ou {@code null} no fim do arquivo. */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break; // Unterminated quote: keep what was read
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                value.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                if (c == '\n') {
+                    line++;
+                }
+                break;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '"' && value.length() == 0) {
+                quoted = true;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = read();
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
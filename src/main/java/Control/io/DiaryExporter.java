@@ -0,0 +1,555 @@
+package Control.io;
+
+import Control.WorkManager;
+import Module.AudioVisualMedia;
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Media;
+import Module.Review;
+import Module.Season;
+import Module.Show;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta o diário inteiro (livros, filmes e séries, com temporadas e reviews) para NDJSON ou
+ * CSV, em formatos legíveis fora do aplicativo.
+ *
+ * <p>As bibliotecas são percorridas com {@link WorkManager#forEachBook(Consumer)} e afins, e cada
+ * mídia é escrita diretamente no {@link Writer}, sem listas ou textos intermediários: a memória
+ * usada não depende do tamanho do diário.</p>
+ *
+ * <ul>
+ *     <li><b>NDJSON:</b> um objeto por mídia, com as reviews (e, nas séries, as temporadas com
+ *     suas reviews) em arrays aninhados.</li>
+ *     <li><b>CSV:</b> um arquivo de mídias, um de temporadas ({@code title,season,episode_count,release_date})
+ *     e um de reviews ({@code type,title,season,stars,review_date,comment}).</li>
+ * </ul>
+ *
+ * <p>As colunas/campos das mídias são os mesmos aceitos pelo {@link BulkImporter}, então um
+ * arquivo exportado pode ser importado em outro diário.</p>
+ *
+ * <p>Uso: {@code DiaryExporter <diretorio> [ndjson|csv] [--gzip] [--parallel] [cultural_diary.dat]}.</p>
+ */
+public class DiaryExporter {
+
+    /** Formato de exportação. */
+    public enum Format {
+        NDJSON(".ndjson"), CSV(".csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private static final String[] MEDIA_COLUMNS = {"type", "title", "year", "genres", "seen", "author", "publisher", "isbn",
+            "copy", "original_title", "cast", "where_watch", "director", "running_time", "screenplay", "year_end"};
+    private static final String[] SEASON_COLUMNS = {"title", "season", "episode_count", "release_date"};
+    private static final String[] REVIEW_COLUMNS = {"type", "title", "season", "stars", "review_date", "comment"};
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private enum Library { BOOKS, FILMS, SHOWS }
+
+    private final WorkManager workManager;
+
+    public DiaryExporter(WorkManager workManager) {
+        this.workManager = workManager;
+    }
+
+    public static void main(String[] args) {
+        File directory = null;
+        Format format = Format.NDJSON;
+        boolean gzip = false;
+        boolean parallel = false;
+        String dataFile = null;
+        for (String arg : args) {
+            if (arg.equals("--gzip")) {
+                gzip = true;
+            } else if (arg.equals("--parallel")) {
+                parallel = true;
+            } else if (arg.equalsIgnoreCase("ndjson") || arg.equalsIgnoreCase("csv")) {
+                format = Format.valueOf(arg.toUpperCase(Locale.ROOT));
+            } else if (directory == null) {
+                directory = new File(arg);
+            } else if (dataFile == null) {
+                dataFile = arg;
+            } else {
+                directory = null;
+                break;
+            }
+        }
+        if (directory == null) {
+            System.err.println("Usage: DiaryExporter <directory> [ndjson|csv] [--gzip] [--parallel] [cultural_diary.dat]");
+            System.exit(2);
+        }
+        WorkManager workManager = dataFile != null ? new WorkManager(dataFile) : new WorkManager();
+        try {
+            long start = System.nanoTime();
+            List<File> files = new DiaryExporter(workManager).exportTo(directory, format, gzip, parallel);
+            System.out.printf(Locale.ROOT, "Exported in %.2f s:%n", (System.nanoTime() - start) / 1_000_000_000.0);
+            for (File file : files) {
+                System.out.println("  " + file + " (" + file.length() + " bytes)");
+            }
+        } catch (IOException e) {
+            System.err.println("Error exporting diary: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            workManager.close();
+        }
+    }
+
+    /**
+     * Exporta o diário para arquivos em um diretório.
+     *
+     * <p>Sem {@code parallel}, tudo vai para {@code diary.ndjson} (ou {@code diary.csv},
+     * {@code diary-seasons.csv} e {@code diary-reviews.csv}). Com {@code parallel}, cada
+     * biblioteca é exportada em uma thread própria para os arquivos {@code books}, {@code films}
+     * e {@code shows}.</p>
+     *
+     * @param directory O diretório de destino (criado se não existir); arquivos existentes são sobrescritos.
+     * @param format    O formato.
+     * @param gzip      {@code true} para comprimir os arquivos ({@code .gz}).
+     * @param parallel  {@code true} para exportar as bibliotecas em paralelo, uma parte por biblioteca.
+     * @return Os arquivos gravados.
+     * @throws IOException se algum arquivo não puder ser gravado.
+     */
+    public List<File> exportTo(File directory, Format format, boolean gzip, boolean parallel) throws IOException {
+        Files.createDirectories(directory.toPath());
+        if (!parallel) {
+            return exportPart(directory, "diary", format, gzip, Library.values());
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(Library.values().length, runnable -> {
+            Thread thread = new Thread(runnable, "diary-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<File>>> parts = new ArrayList<>();
+            for (Library library : Library.values()) {
+                String name = library.name().toLowerCase(Locale.ROOT);
+                parts.add(workers.submit(() -> exportPart(directory, name, format, gzip, library)));
+            }
+            List<File> files = new ArrayList<>();
+            for (Future<List<File>> part : parts) {
+                files.addAll(part.get());
+            }
+            return files;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Export failed: " + e.getCause(), e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private List<File> exportPart(File directory, String name, Format format, boolean gzip, Library... libraries) throws IOException {
+        String suffix = format.extension + (gzip ? ".gz" : "");
+        List<File> files = new ArrayList<>();
+        if (format == Format.NDJSON) {
+            File file = new File(directory, name + suffix);
+            files.add(file);
+            try (Writer out = open(file, gzip)) {
+                walk(new NdjsonSink(out), libraries);
+            }
+            return files;
+        }
+        boolean withShows = false;
+        for (Library library : libraries) {
+            withShows |= library == Library.SHOWS;
+        }
+        File mediaFile = new File(directory, name + suffix);
+        File seasonsFile = withShows ? new File(directory, name + "-seasons" + suffix) : null;
+        File reviewsFile = new File(directory, name + "-reviews" + suffix);
+        files.add(mediaFile);
+        if (withShows) {
+            files.add(seasonsFile);
+        }
+        files.add(reviewsFile);
+        try (Writer media = open(mediaFile, gzip);
+             Writer seasons = withShows ? open(seasonsFile, gzip) : null;
+             Writer reviews = open(reviewsFile, gzip)) {
+            walk(new CsvSink(media, seasons, reviews), libraries);
+        }
+        return files;
+    }
+
+    /**
+     * Escreve o diário inteiro em NDJSON.
+     *
+     * @param out O destino (não é fechado; é esvaziado com {@code flush} ao final).
+     * @return A quantidade de mídias escritas.
+     * @throws IOException se a escrita falhar.
+     */
+    public long writeNdjson(Writer out) throws IOException {
+        long count = walk(new NdjsonSink(out), Library.values());
+        out.flush();
+        return count;
+    }
+
+    /**
+     * Escreve o diário inteiro em CSV, cada arquivo com sua linha de cabeçalho.
+     *
+     * @param media   O destino das mídias.
+     * @param seasons O destino das temporadas das séries.
+     * @param reviews O destino das reviews.
+     * @return A quantidade de mídias escritas.
+     * @throws IOException se a escrita falhar.
+     */
+    public long writeCsv(Writer media, Writer seasons, Writer reviews) throws IOException {
+        long count = walk(new CsvSink(media, seasons, reviews), Library.values());
+        media.flush();
+        seasons.flush();
+        reviews.flush();
+        return count;
+    }
+
+    private static Writer open(File file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file.toPath());
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private long walk(Sink sink, Library... libraries) throws IOException {
+        long[] count = new long[1];
+        Consumer<Media> write = media -> {
+            try {
+                sink.media(media);
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            for (Library library : libraries) {
+                switch (library) {
+                    case BOOKS:
+                        workManager.forEachBook(write);
+                        break;
+                    case FILMS:
+                        workManager.forEachFilm(write);
+                        break;
+                    case SHOWS:
+                    default:
+                        workManager.forEachShow(write);
+                        break;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    private static String typeOf(Media media) {
+        return media instanceof Book ? "book" : media instanceof Films ? "film" : "show";
+    }
+
+    /** Destino das mídias percorridas. */
+    private interface Sink {
+        void media(Media media) throws IOException;
+    }
+
+    // --- NDJSON ---
+
+    private static class NdjsonSink implements Sink {
+        private final Writer out;
+
+        NdjsonSink(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void media(Media media) throws IOException {
+            out.write("{\"type\":\"");
+            out.write(typeOf(media));
+            out.write('"');
+            field("title");
+            string(media.getTitle());
+            field("year");
+            out.write(Integer.toString(media.getYearRelease()));
+            field("genres");
+            out.write('[');
+            List<Genre> genres = media.getGenres();
+            for (int i = 0; i < genres.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                string(genres.get(i).getGenre());
+            }
+            out.write(']');
+            field("seen");
+            out.write(Boolean.toString(media.isSeen()));
+            if (media instanceof Book) {
+                Book book = (Book) media;
+                field("author");
+                string(book.getAuthor());
+                field("publisher");
+                string(book.getPublisher());
+                field("isbn");
+                string(book.getIsbn());
+                field("copy");
+                out.write(Boolean.toString(book.getCopy()));
+            } else {
+                AudioVisualMedia audioVisual = (AudioVisualMedia) media;
+                field("original_title");
+                string(audioVisual.getOriginalTitle());
+                field("cast");
+                strings(audioVisual.getCast());
+                field("where_watch");
+                strings(audioVisual.getWhereWatch());
+                if (media instanceof Films) {
+                    Films film = (Films) media;
+                    field("director");
+                    string(film.getDirection());
+                    field("running_time");
+                    out.write(Integer.toString(film.getRunningtime()));
+                    field("screenplay");
+                    string(film.getScreenplay());
+                } else {
+                    Show show = (Show) media;
+                    field("year_end");
+                    out.write(Integer.toString(show.getYearEnd()));
+                    field("seasons");
+                    out.write('[');
+                    boolean first = true;
+                    for (Season season : show.getSeasons()) {
+                        if (!first) {
+                            out.write(',');
+                        }
+                        first = false;
+                        out.write("{\"number\":");
+                        out.write(Integer.toString(season.getSeasonNumber()));
+                        field("episodes");
+                        out.write(Integer.toString(season.getEpisodeCount()));
+                        field("release_date");
+                        string(season.getReleaseDate());
+                        field("reviews");
+                        reviews(season.getReviews());
+                        out.write('}');
+                    }
+                    out.write(']');
+                }
+            }
+            if (!(media instanceof Show)) {
+                field("reviews");
+                reviews(media.getReviews());
+            }
+            out.write("}\n");
+        }
+
+        private void reviews(List<Review> reviews) throws IOException {
+            out.write('[');
+            for (int i = 0; i < reviews.size(); i++) {
+                Review review = reviews.get(i);
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write("{\"stars\":");
+                out.write(Float.toString(review.getStars()));
+                field("date");
+                string(review.reviewDate);
+                field("comment");
+                string(review.comment);
+                out.write('}');
+            }
+            out.write(']');
+        }
+
+        private void field(String name) throws IOException {
+            out.write(",\"");
+            out.write(name);
+            out.write("\":");
+        }
+
+        private void strings(List<String> values) throws IOException {
+            out.write('[');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                string(values.get(i));
+            }
+            out.write(']');
+        }
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                out.write("null");
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': out.write("\\\""); break;
+                    case '\\': out.write("\\\\"); break;
+                    case '\n': out.write("\\n"); break;
+                    case '\r': out.write("\\r"); break;
+                    case '\t': out.write("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                        break;
+                }
+            }
+            out.write('"');
+        }
+    }
+
+    // --- CSV ---
+
+    private static class CsvSink implements Sink {
+        private final Writer media;
+        private final Writer seasons;
+        private final Writer reviews;
+
+        /** @param seasons O destino das temporadas, ou {@code null} se a parte não tem séries. */
+        CsvSink(Writer media, Writer seasons, Writer reviews) throws IOException {
+            this.media = media;
+            this.seasons = seasons;
+            this.reviews = reviews;
+            header(media, MEDIA_COLUMNS);
+            if (seasons != null) {
+                header(seasons, SEASON_COLUMNS);
+            }
+            header(reviews, REVIEW_COLUMNS);
+        }
+
+        @Override
+        public void media(Media item) throws IOException {
+            String type = typeOf(item);
+            media.write(type);
+            cell(media, item.getTitle());
+            cell(media, Integer.toString(item.getYearRelease()));
+            media.write(',');
+            List<Genre> genres = item.getGenres();
+            StringBuilder names = new StringBuilder();
+            for (int i = 0; i < genres.size(); i++) {
+                if (i > 0) {
+                    names.append(';');
+                }
+                names.append(genres.get(i).getGenre());
+            }
+            value(media, names.toString());
+            cell(media, Boolean.toString(item.isSeen()));
+            if (item instanceof Book) {
+                Book book = (Book) item;
+                cell(media, book.getAuthor());
+                cell(media, book.getPublisher());
+                cell(media, book.getIsbn());
+                cell(media, Boolean.toString(book.getCopy()));
+                media.write(",,,,,,,");
+            } else {
+                AudioVisualMedia audioVisual = (AudioVisualMedia) item;
+                media.write(",,,,");
+                cell(media, audioVisual.getOriginalTitle());
+                cell(media, String.join(";", audioVisual.getCast()));
+                cell(media, String.join(";", audioVisual.getWhereWatch()));
+                if (item instanceof Films) {
+                    Films film = (Films) item;
+                    cell(media, film.getDirection());
+                    cell(media, Integer.toString(film.getRunningtime()));
+                    cell(media, film.getScreenplay());
+                    media.write(',');
+                } else {
+                    media.write(",,,");
+                    cell(media, Integer.toString(((Show) item).getYearEnd()));
+                }
+            }
+            media.write('\n');
+
+            if (item instanceof Show) {
+                for (Season season : ((Show) item).getSeasons()) {
+                    value(seasons, item.getTitle());
+                    cell(seasons, Integer.toString(season.getSeasonNumber()));
+                    cell(seasons, Integer.toString(season.getEpisodeCount()));
+                    cell(seasons, season.getReleaseDate());
+                    seasons.write('\n');
+                    for (Review review : season.getReviews()) {
+                        review(type, item.getTitle(), Integer.toString(season.getSeasonNumber()), review);
+                    }
+                }
+            } else {
+                for (Review review : item.getReviews()) {
+                    review(type, item.getTitle(), "", review);
+                }
+            }
+        }
+
+        private void review(String type, String title, String season, Review review) throws IOException {
+            reviews.write(type);
+            cell(reviews, title);
+            cell(reviews, season);
+            cell(reviews, Float.toString(review.getStars()));
+            cell(reviews, review.reviewDate);
+            cell(reviews, review.comment);
+            reviews.write('\n');
+        }
+
+        private static void header(Writer out, String[] columns) throws IOException {
+            out.write(String.join(",", columns));
+            out.write('\n');
+        }
+
+        private static void cell(Writer out, String value) throws IOException {
+            out.write(',');
+            value(out, value);
+        }
+
+        /** Escreve um valor, entre aspas (com as aspas internas duplicadas) só quando necessário. */
+        private static void value(Writer out, String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+}
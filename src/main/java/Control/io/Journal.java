@@ -0,0 +1,428 @@
+package Control.io;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Log de escrita antecipada (write-ahead journal) das mutações do {@link Control.WorkManager}.
+ *
+ * <p>Cada operação que altera os dados (novo gênero, nova mídia, nova temporada ou nova review)
+ * é anexada ao final do arquivo como um registro pequeno, em vez de regravar todas as
+ * bibliotecas a cada clique. Os registros ficam em buffer até {@link #sync()}. Periodicamente o {@code WorkManager} grava um snapshot completo
+ * e chama {@link #reset(long)}, que descarta o log já incorporado ao snapshot (compactação).</p>
+ *
+ * <p>Formato do arquivo:</p>
+ * <ul>
+ *   <li>Cabeçalho: {@code int} mágico, {@code short} versão e {@code long} geração.</li>
+ *   <li>Registros: {@code int} tamanho, {@code byte} tipo, payload e {@code int} CRC32 de tipo+payload.</li>
+ *   <li>Strings do payload: {@code int} tamanho em bytes (-1 para {@code null}) e os bytes UTF-8, sem limite de tamanho.</li>
+ * </ul>
+ * Um registro incompleto ou corrompido no final (ex: queda de energia durante a escrita)
+ * encerra a leitura; o arquivo é truncado no último registro válido.
+ *
+ * <p>A geração permite saber se o log é posterior ao snapshot: o snapshot grava a geração
+ * do log que deve segui-lo, e um log de geração anterior já está contido no snapshot.</p>
+ */
+public class Journal implements Closeable {
+
+    private static final int MAGIC = 0x43444A4C; // "CDJL"
+    private static final short VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 2 + 8;
+
+    static final byte GENRE = 1;
+    static final byte BOOK = 2;
+    static final byte FILM = 3;
+    static final byte SHOW = 4;
+    static final byte SEASON = 5;
+    static final byte BOOK_REVIEW = 6;
+    static final byte FILM_REVIEW = 7;
+    static final byte SHOW_REVIEW = 8;
+
+    /**
+     * Recebe as mutações lidas do log durante o {@link #replay(long, Handler)}.
+     * Os métodos espelham a API pública de criação do {@code WorkManager};
+     * gêneros são identificados pelo nome.
+     */
+    public interface Handler {
+        void genre(String name);
+        void book(boolean seen, String title, List<String> genres, int yearRelease, String author, String publisher, String isbn, boolean copy);
+        void film(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, String direction, int runningtime, String screenplay);
+        void show(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, int yearEnd);
+        void season(String showTitle, int seasonNumber, int episodeCount, String releaseDate);
+        void bookReview(String title, String comment, int stars, String reviewDate);
+        void filmReview(String title, String comment, int stars, String reviewDate);
+        void showReview(String showTitle, int seasonNumber, String comment, int stars, String reviewDate);
+    }
+
+    private final File file;
+    private long generation;
+    private int recordCount;
+    private DataOutputStream out;
+    private FileOutputStream fileOut;
+
+    /**
+     * Cria um journal associado ao arquivo informado. O arquivo só é criado na primeira escrita.
+     *
+     * @param file O arquivo de log.
+     */
+    public Journal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Retorna a quantidade de registros presentes no log (lidos no replay ou anexados depois).
+     *
+     * @return O número de registros ainda não compactados.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Retorna a geração do log atual.
+     *
+     * @return A geração gravada no cabeçalho.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    // --- Append ---
+
+    public void appendGenre(String name) throws IOException {
+        append(GENRE, data -> writeString(data, name));
+    }
+
+    public void appendBook(boolean seen, String title, List<String> genres, int yearRelease, String author, String publisher, String isbn, boolean copy) throws IOException {
+        append(BOOK, data -> {
+            data.writeBoolean(seen);
+            writeString(data, title);
+            writeList(data, genres);
+            data.writeInt(yearRelease);
+            writeString(data, author);
+            writeString(data, publisher);
+            writeString(data, isbn);
+            data.writeBoolean(copy);
+        });
+    }
+
+    public void appendFilm(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, String direction, int runningtime, String screenplay) throws IOException {
+        append(FILM, data -> {
+            writeList(data, cast);
+            data.writeBoolean(seen);
+            writeString(data, title);
+            writeList(data, genres);
+            data.writeInt(yearRelease);
+            writeString(data, originalTitle);
+            writeList(data, whereWatch);
+            writeString(data, direction);
+            data.writeInt(runningtime);
+            writeString(data, screenplay);
+        });
+    }
+
+    public void appendShow(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, int yearEnd) throws IOException {
+        append(SHOW, data -> {
+            writeList(data, cast);
+            data.writeBoolean(seen);
+            writeString(data, title);
+            writeList(data, genres);
+            data.writeInt(yearRelease);
+            writeString(data, originalTitle);
+            writeList(data, whereWatch);
+            data.writeInt(yearEnd);
+        });
+    }
+
+    public void appendSeason(String showTitle, int seasonNumber, int episodeCount, String releaseDate) throws IOException {
+        append(SEASON, data -> {
+            writeString(data, showTitle);
+            data.writeInt(seasonNumber);
+            data.writeInt(episodeCount);
+            writeString(data, releaseDate);
+        });
+    }
+
+    public void appendBookReview(String title, String comment, int stars, String reviewDate) throws IOException {
+        append(BOOK_REVIEW, data -> writeReview(data, title, comment, stars, reviewDate));
+    }
+
+    public void appendFilmReview(String title, String comment, int stars, String reviewDate) throws IOException {
+        append(FILM_REVIEW, data -> writeReview(data, title, comment, stars, reviewDate));
+    }
+
+    public void appendShowReview(String showTitle, int seasonNumber, String comment, int stars, String reviewDate) throws IOException {
+        append(SHOW_REVIEW, data -> {
+            data.writeInt(seasonNumber);
+            writeReview(data, showTitle, comment, stars, reviewDate);
+        });
+    }
+
+    // --- Replay / compaction ---
+
+    /**
+     * Lê o log e entrega cada registro válido ao {@code handler}, na ordem em que foi gravado.
+     * Se a geração do log for anterior a {@code expectedGeneration}, o log já está contido
+     * no snapshot e é descartado sem replay.
+     *
+     * @param expectedGeneration A geração que o snapshot carregado espera para o log seguinte.
+     * @param handler            Quem aplica as mutações lidas.
+     * @return O número de registros aplicados.
+     * @throws IOException Se o arquivo existir mas não puder ser lido.
+     */
+    public int replay(long expectedGeneration, Handler handler) throws IOException {
+        close();
+        recordCount = 0;
+        generation = expectedGeneration;
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return 0;
+        }
+
+        // The header is read with its own stream, closed before the file is moved or deleted
+        long fileGeneration = readHeader();
+        if (fileGeneration < 0) {
+            System.err.println("Journal " + file + " has an unknown format; moving it aside.");
+            file.renameTo(new File(file.getPath() + ".corrupt"));
+            return 0;
+        }
+        if (fileGeneration < expectedGeneration) {
+            System.out.println("Journal " + file + " already folded into the snapshot; discarding it.");
+            file.delete(); // The next append starts a log of the expected generation
+            return 0;
+        }
+        generation = fileGeneration;
+
+        long validLength = HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.skipNBytes(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] record;
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > file.length()) {
+                        break;
+                    }
+                    record = new byte[length];
+                    in.readFully(record);
+                    int checksum = in.readInt();
+                    crc.reset();
+                    crc.update(record);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break; // Torn tail: the last append did not finish
+                }
+                apply(record, handler);
+                validLength += 4 + record.length + 4;
+                recordCount++;
+            }
+        }
+
+        if (validLength < file.length()) {
+            System.err.println("Journal " + file + " has a damaged tail; truncating to the last valid record.");
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Descarta o conteúdo do log e inicia uma nova geração. Deve ser chamado logo depois
+     * que um snapshot contendo todas as mutações registradas foi gravado com sucesso.
+     *
+     * @param newGeneration A geração do novo log (a mesma gravada no snapshot).
+     * @throws IOException Se o arquivo não puder ser recriado.
+     */
+    public void reset(long newGeneration) throws IOException {
+        try {
+            close();
+        } catch (IOException e) {
+            // A failed append left the stream unusable; the file is rewritten below anyway
+        }
+        generation = newGeneration;
+        recordCount = 0;
+        try (FileOutputStream stream = new FileOutputStream(file, false)) {
+            writeHeader(new DataOutputStream(stream));
+            stream.getFD().sync();
+        }
+    }
+
+    /**
+     * Grava no disco os registros anexados desde a última chamada ({@code fsync}).
+     * Os métodos {@code append*} apenas acumulam os registros em buffer; chamar este método
+     * uma vez por lote de mutações permite que várias delas compartilhem a mesma escrita.
+     *
+     * @throws IOException Se a escrita ou a sincronização falhar.
+     */
+    public void sync() throws IOException {
+        if (out != null) {
+            out.flush();
+            fileOut.getFD().sync();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            try {
+                out.close();
+            } finally {
+                out = null;
+                fileOut = null;
+            }
+        }
+    }
+
+    // --- Internals ---
+
+    private interface Payload {
+        void write(DataOutputStream data) throws IOException;
+    }
+
+    private void append(byte type, Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(type);
+        payload.write(data);
+        data.flush();
+        byte[] record = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(record);
+
+        DataOutputStream stream = openForAppend();
+        stream.writeInt(record.length);
+        stream.write(record);
+        stream.writeInt((int) crc.getValue());
+        recordCount++;
+    }
+
+    private DataOutputStream openForAppend() throws IOException {
+        if (out == null) {
+            boolean fresh = !file.exists() || file.length() < HEADER_SIZE;
+            fileOut = new FileOutputStream(file, !fresh);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            if (fresh) {
+                writeHeader(out);
+            }
+        }
+        return out;
+    }
+
+    /** Retorna a geração gravada no cabeçalho do log, ou -1 se o arquivo não for um log deste formato. */
+    private long readHeader() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return -1;
+            }
+            return in.readLong();
+        }
+    }
+
+    private void writeHeader(DataOutputStream data) throws IOException {
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeLong(generation);
+        data.flush();
+    }
+
+    private static void apply(byte[] record, Handler handler) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = data.readByte();
+        switch (type) {
+            case GENRE:
+                handler.genre(readString(data));
+                break;
+            case BOOK:
+                handler.book(data.readBoolean(), readString(data), readList(data), data.readInt(),
+                        readString(data), readString(data), readString(data), data.readBoolean());
+                break;
+            case FILM:
+                handler.film(readList(data), data.readBoolean(), readString(data), readList(data), data.readInt(),
+                        readString(data), readList(data), readString(data), data.readInt(), readString(data));
+                break;
+            case SHOW:
+                handler.show(readList(data), data.readBoolean(), readString(data), readList(data), data.readInt(),
+                        readString(data), readList(data), data.readInt());
+                break;
+            case SEASON:
+                handler.season(readString(data), data.readInt(), data.readInt(), readString(data));
+                break;
+            case BOOK_REVIEW:
+                handler.bookReview(readString(data), readString(data), data.readInt(), readString(data));
+                break;
+            case FILM_REVIEW:
+                handler.filmReview(readString(data), readString(data), data.readInt(), readString(data));
+                break;
+            case SHOW_REVIEW:
+                int seasonNumber = data.readInt();
+                handler.showReview(readString(data), seasonNumber, readString(data), data.readInt(), readString(data));
+                break;
+            default:
+                System.err.println("Unknown journal record type " + type + "; skipping it.");
+        }
+    }
+
+    private static void writeReview(DataOutputStream data, String title, String comment, int stars, String reviewDate) throws IOException {
+        writeString(data, title);
+        writeString(data, comment);
+        data.writeInt(stars);
+        writeString(data, reviewDate);
+    }
+
+    /**
+     * Grava uma string como {@code int} tamanho em bytes (-1 para {@code null}) seguido dos bytes
+     * UTF-8, como no {@link Control.io.codec.BinaryWriter}: {@code writeUTF} não aceita strings de
+     * mais de 64 KB (uma review longa), e a mutação já teria sido aceita quando a gravação falhasse.
+     */
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeList(DataOutputStream data, List<String> values) throws IOException {
+        if (values == null) {
+            data.writeInt(-1);
+            return;
+        }
+        data.writeInt(values.size());
+        for (String value : values) {
+            writeString(data, value);
+        }
+    }
+
+    private static List<String> readList(DataInputStream data) throws IOException {
+        int size = data.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(data));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,206 @@
+package Control.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê um NDJSON linha a linha. Cada linha deve ser um objeto JSON: os valores podem ser textos,
+ * números, booleanos, {@code null} ou arrays desses valores; objetos e arrays aninhados (como as
+ * temporadas e reviews exportadas pelo {@link DiaryExporter}) são ignorados. Números e booleanos
+ * são entregues como texto, e {@code null} como ausente.
+ */
+class NdjsonRowSource implements BulkImporter.RowSource {
+
+    private final BufferedReader reader;
+    private long line;
+
+    NdjsonRowSource(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public BulkImporter.RawRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                return new BulkImporter.RawRow(line, new Parser(text).object(), null);
+            } catch (IllegalArgumentException e) {
+                return new BulkImporter.RawRow(line, null, "Invalid JSON: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /** Analisador do objeto JSON de uma linha. */
+    private static class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+            } else {
+                do {
+                    skipWhitespace();
+                    String name = string();
+                    expect(':');
+                    Object value = value(true);
+                    if (value != null) {
+                        fields.put(BulkImporter.columnKey(name), value);
+                    }
+                } while (next(',', '}') == ',');
+            }
+            if (peek() != -1) {
+                throw error("unexpected content after the object");
+            }
+            return fields;
+        }
+
+        private Object value(boolean allowArray) {
+            int c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '[' && allowArray) {
+                position++;
+                List<String> items = new ArrayList<>();
+                if (peek() == ']') {
+                    position++;
+                    return items;
+                }
+                do {
+                    Object item = value(false);
+                    if (item != null) {
+                        items.add((String) item);
+                    }
+                } while (next(',', ']') == ',');
+                return items;
+            }
+            if (c == '{' || c == '[') {
+                skipNested();
+                return null;
+            }
+            int start = position;
+            while (position < text.length() && ",}] \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return literal;
+            }
+            throw error("unexpected value '" + literal + "'");
+        }
+
+        /** Pula um objeto ou array aninhado (como as reviews de uma exportação), que não é importado. */
+        private void skipNested() {
+            int depth = 0;
+            do {
+                if (position >= text.length()) {
+                    throw error("unterminated nested value");
+                }
+                char c = text.charAt(position);
+                if (c == '"') {
+                    string();
+                    continue;
+                }
+                position++;
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (position >= text.length()) {
+                    throw error("unterminated string");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    throw error("unterminated string");
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 't': value.append('\t'); break;
+                    case 'r': value.append('\r'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw error("invalid unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("invalid unicode escape");
+                        }
+                        position += 4;
+                        break;
+                    default: value.append(escaped); break;
+                }
+            }
+        }
+
+        private int next(char first, char second) {
+            int c = peek();
+            if (c != first && c != second) {
+                throw error("expected '" + first + "' or '" + second + "'");
+            }
+            position++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        /** Pula os espaços e retorna o próximo caractere sem consumi-lo, ou -1 no fim da linha. */
+        private int peek() {
+            skipWhitespace();
+            return position < text.length() ? text.charAt(position) : -1;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at column " + (position + 1) + ".");
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package Control.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor de persistência do diário: uma thread dedicada que grava as mutações no
+ * {@link Journal} fora da thread que as produziu (no app JavaFX, a FX Application Thread).
+ *
+ * <p>Cada mutação é enfileirada com {@link #submit(Task)}, o que apenas marca o diário como
+ * "sujo" e retorna. A thread de gravação espera {@code coalesceMillis} depois da primeira
+ * mutação pendente e então grava todas as que chegaram nesse intervalo de uma vez, com um
+ * único {@link Journal#sync()} (group commit). Depois de cada lote, o {@link Compactor}
+ * decide se o journal deve ser compactado em um novo snapshot.</p>
+ *
+ * <p>O {@link Journal} passa a ser usado apenas pela thread de gravação (e pelo replay,
+ * antes de {@link #start()}). As tarefas são executadas na ordem em que foram enfileiradas.</p>
+ *
+ * <p>Se uma gravação falhar (ou uma tarefa lançar uma exceção), o journal deixa de estar em dia
+ * com a memória: as tarefas seguintes não são mais anexadas a ele, o erro passa a ser lançado
+ * por {@link #flush()}, {@link #awaitDurable(long, TimeUnit)} e {@link #close()}, e a cada volta o
+ * {@link Compactor} é chamado com {@code force}. O erro só é esquecido quando uma compactação
+ * grava um snapshot completo, que contém também as mutações que não chegaram ao journal.</p>
+ */
+public class PersistenceWriter implements Closeable {
+
+    /** Uma gravação no journal, executada na thread de gravação. */
+    public interface Task {
+        void run(Journal journal) throws IOException;
+    }
+
+    /**
+     * Compactação do journal, chamada pela thread de gravação depois de cada lote e a pedido
+     * de {@link #runCompactor()}.
+     * A implementação pode chamar {@link #drainPending()} para gravar no journal as mutações
+     * enfileiradas antes de capturar o estado do snapshot.
+     */
+    public interface Compactor {
+        /**
+         * @param journal O journal a compactar.
+         * @param force   Verdadeiro depois de uma falha de gravação: o journal está incompleto e só
+         *                um snapshot novo recupera o que faltou, qualquer que seja o seu tamanho.
+         * @return {@code true} se um snapshot com todas as mutações enfileiradas até então foi
+         *         gravado e o journal reiniciado.
+         */
+        boolean compactIfNeeded(Journal journal, boolean force) throws IOException;
+    }
+
+    private final Journal journal;
+    private final Compactor compactor;
+    private final long coalesceMillis;
+    private final Thread thread;
+
+    private final ArrayDeque<Task> pending = new ArrayDeque<>();
+    /** Quantidade de tarefas enfileiradas desde a criação. */
+    private long submitted;
+    /** Quantidade de tarefas gravadas e sincronizadas no disco. */
+    private long durable;
+    /** Quantidade de tarefas retiradas da fila (gravadas ou em gravação). */
+    private long taken;
+    private boolean flushRequested;
+    /** Pedido de {@link #runCompactor()}: a próxima volta do laço chama o compactador mesmo sem tarefas. */
+    private boolean compactorRequested;
+    /** Voltas do laço (gravação e compactação) iniciadas e terminadas, para {@link #runCompactor()} esperar a sua. */
+    private long roundsStarted;
+    private long roundsFinished;
+    private boolean closed;
+    /** Falha de gravação ainda não recuperada por uma compactação; enquanto existir, o journal não recebe nada. */
+    private IOException lastError;
+
+    /**
+     * Cria o executor; a thread só começa a gravar depois de {@link #start()}.
+     *
+     * @param journal        O journal onde as mutações são gravadas.
+     * @param compactor      Quem decide e executa a compactação depois de cada lote.
+     * @param coalesceMillis Quanto esperar, após a primeira mutação pendente, para agrupar as seguintes.
+     */
+    public PersistenceWriter(Journal journal, Compactor compactor, long coalesceMillis) {
+        this.journal = journal;
+        this.compactor = compactor;
+        this.coalesceMillis = coalesceMillis;
+        this.thread = new Thread(this::runLoop, "diary-persistence");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Enfileira uma gravação e retorna imediatamente.
+     *
+     * @param task A gravação a executar na thread de gravação.
+     * @throws IllegalStateException se o executor já foi fechado.
+     */
+    public synchronized void submit(Task task) {
+        if (closed) {
+            throw new IllegalStateException("Persistence writer is closed.");
+        }
+        pending.add(task);
+        submitted++;
+        notifyAll();
+    }
+
+    /**
+     * Grava imediatamente (sem esperar o agrupamento) tudo o que foi enfileirado até agora
+     * e aguarda até que esteja no disco.
+     *
+     * @throws IOException se alguma gravação falhou e ainda não foi recuperada, ou se a thread de
+     *                     gravação não está rodando.
+     */
+    public void flush() throws IOException {
+        long target;
+        synchronized (this) {
+            target = submitted;
+            flushRequested = true;
+            notifyAll();
+        }
+        synchronized (this) {
+            try {
+                while (durable < target && lastError == null && thread.isAlive()) {
+                    wait(100); // Bounded, so a writer thread that died does not leave the caller waiting forever
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throwLastError();
+            throwIfNotDurable(target);
+        }
+    }
+
+    /**
+     * Aguarda, respeitando o agrupamento normal, até que todas as mutações enfileiradas
+     * até agora estejam gravadas no disco.
+     *
+     * @param timeout O tempo máximo de espera.
+     * @param unit    A unidade de {@code timeout}.
+     * @return {@code true} se as mutações estão no disco; {@code false} se o tempo acabou.
+     * @throws IOException          se alguma gravação falhou e ainda não foi recuperada, ou se a
+     *                              thread de gravação não está rodando.
+     * @throws InterruptedException se a thread foi interrompida durante a espera.
+     */
+    public boolean awaitDurable(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        long target;
+        synchronized (this) {
+            target = submitted;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (durable < target && lastError == null && thread.isAlive()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(Math.min(remaining, 100));
+            }
+            throwLastError();
+            throwIfNotDurable(target);
+            return true;
+        }
+    }
+
+    /**
+     * Grava o que estiver pendente, chama o {@link Compactor} em seguida (mesmo sem nada
+     * pendente) e aguarda até que ele termine. Não pode ser chamado pela thread de gravação nem
+     * por quem detém uma trava de que o compactador precise.
+     *
+     * @throws IOException           se a gravação de algum lote pendente falhou.
+     * @throws IllegalStateException se o executor já foi fechado.
+     */
+    public void runCompactor() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Persistence writer is closed.");
+            }
+            long target = roundsStarted + 1; // A round already running may have passed its compaction
+            compactorRequested = true;
+            notifyAll();
+            try {
+                while (roundsFinished < target && thread.isAlive()) {
+                    wait(100); // Bounded, so a writer thread that died does not leave the caller waiting forever
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throwLastError();
+        }
+    }
+
+    /**
+     * Grava no journal, na thread atual, as tarefas ainda na fila e sincroniza o journal.
+     * Só pode ser chamado pela thread de gravação (tipicamente pelo {@link Compactor}, com as
+     * mutações bloqueadas, para que o snapshot contenha exatamente o que está no journal).
+     * Depois de uma falha de gravação, as tarefas são só descartadas: o snapshot que o compactador
+     * vai gravar as contém, e o journal incompleto será reiniciado.
+     *
+     * @throws IOException se a gravação falhar.
+     */
+    public void drainPending() throws IOException {
+        if (Thread.currentThread() != thread) {
+            throw new IllegalStateException("drainPending must run on the persistence thread.");
+        }
+        List<Task> batch = takePending();
+        if (!isFailed()) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Grava tudo o que estiver pendente, encerra a thread de gravação e fecha o journal.
+     *
+     * @throws IOException se a gravação final falhou.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        if (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+        synchronized (this) {
+            throwLastError();
+        }
+    }
+
+    // --- Internals ---
+
+    private void runLoop() {
+        while (true) {
+            boolean stopping;
+            long round;
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty() && !closed && !compactorRequested) {
+                        flushRequested = false;
+                        wait();
+                    }
+                    long deadline = System.currentTimeMillis() + coalesceMillis;
+                    long remaining;
+                    while (!flushRequested && !closed && !compactorRequested
+                            && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                        wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                stopping = closed;
+                flushRequested = false;
+                compactorRequested = false;
+                round = ++roundsStarted;
+            }
+            try {
+                List<Task> batch = takePending();
+                if (!isFailed()) {
+                    writeBatch(batch); // After a failure these reach the disk with the recovery snapshot
+                }
+                if (compactor.compactIfNeeded(journal, isFailed())) {
+                    recovered();
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            } finally {
+                synchronized (this) {
+                    roundsFinished = round;
+                    notifyAll();
+                }
+            }
+            if (stopping) {
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private synchronized List<Task> takePending() {
+        List<Task> batch = new ArrayList<>(pending);
+        pending.clear();
+        taken += batch.size();
+        return batch;
+    }
+
+    private void writeBatch(List<Task> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long batchEnd;
+        synchronized (this) {
+            batchEnd = taken;
+        }
+        for (Task task : batch) {
+            task.run(journal);
+        }
+        journal.sync();
+        synchronized (this) {
+            durable = batchEnd;
+            notifyAll();
+        }
+    }
+
+    private synchronized boolean isFailed() {
+        return lastError != null;
+    }
+
+    /** Registra uma falha: o journal fica incompleto até a próxima compactação bem-sucedida. */
+    private void fail(Exception e) {
+        System.err.println("Error writing persistence batch: " + e.getMessage());
+        e.printStackTrace(); // For debugging
+        synchronized (this) {
+            if (lastError == null) {
+                lastError = e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            notifyAll();
+        }
+    }
+
+    /** Chamado depois de uma compactação: o snapshot contém todas as tarefas retiradas da fila até aqui. */
+    private synchronized void recovered() {
+        lastError = null;
+        durable = taken;
+        notifyAll();
+    }
+
+    private void throwLastError() throws IOException {
+        if (lastError != null) {
+            throw lastError;
+        }
+    }
+
+    private void throwIfNotDurable(long target) throws IOException {
+        if (durable < target) {
+            throw new IOException("The persistence thread is not running; " + (target - durable) + " mutations were not written.");
+        }
+    }
+}
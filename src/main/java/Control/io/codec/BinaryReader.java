@@ -0,0 +1,123 @@
+package Control.io.codec;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Leitor das primitivas gravadas pelo {@link BinaryWriter}, a partir de um {@link ByteBuffer}
+ * (um arquivo lido para a memória ou mapeado).
+ * Dados truncados ou malformados resultam em {@link IOException}.
+ */
+public class BinaryReader {
+
+    private final ByteBuffer buffer;
+
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public int position() {
+        return buffer.position();
+    }
+
+    public void position(int newPosition) {
+        buffer.position(newPosition);
+    }
+
+    public int readByte() throws IOException {
+        try {
+            return buffer.get() & 0xFF;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of data.", e);
+        }
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() throws IOException {
+        int raw = readUnsignedVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public int readUnsignedVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint.");
+    }
+
+    public long readVarLong() throws IOException {
+        long raw = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            raw |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (raw >>> 1) ^ -(raw & 1);
+            }
+        }
+        throw new IOException("Malformed varlong.");
+    }
+
+    public int readFixedInt() throws IOException {
+        try {
+            return buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of data.", e);
+        }
+    }
+
+    public long readFixedLong() throws IOException {
+        try {
+            return buffer.getLong();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of data.", e);
+        }
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readFixedInt());
+    }
+
+    public String readString() throws IOException {
+        int lengthPlusOne = readUnsignedVarInt();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        int length = lengthPlusOne - 1;
+        if (length > buffer.remaining()) {
+            throw new IOException("String length " + length + " exceeds the remaining data.");
+        }
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset() + buffer.position();
+            buffer.position(buffer.position() + length);
+            return new String(buffer.array(), start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public List<String> readStringList() throws IOException {
+        int size = readUnsignedVarInt();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+}
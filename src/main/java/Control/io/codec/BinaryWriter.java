@@ -0,0 +1,144 @@
+package Control.io.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escritor das primitivas do formato binário do diário.
+ * <ul>
+ *   <li>Inteiros são gravados como varint (7 bits por byte) em codificação zigzag,
+ *   de modo que valores pequenos (anos, contagens, ids) ocupem 1 ou 2 bytes.</li>
+ *   <li>Strings são gravadas como varint do tamanho em bytes + 1 (0 indica {@code null}),
+ *   seguido dos bytes UTF-8.</li>
+ * </ul>
+ * Mantém um buffer próprio e conta os bytes gravados, o que permite registrar offsets.
+ */
+public class BinaryWriter implements Closeable {
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[64 * 1024];
+    private int count;
+    private long flushed;
+
+    public BinaryWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Retorna a quantidade de bytes gravados desde a criação deste escritor.
+     *
+     * @return A posição atual no fluxo de saída.
+     */
+    public long position() {
+        return flushed + count;
+    }
+
+    public void writeByte(int value) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    /** Grava um inteiro com sinal como varint zigzag. */
+    public void writeVarInt(int value) throws IOException {
+        writeUnsignedVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /** Grava um inteiro não negativo (tamanho, contagem, id) como varint. */
+    public void writeUnsignedVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        writeByte((int) zigzag);
+    }
+
+    /** Grava um inteiro de 4 bytes (big-endian), usado em campos de tamanho fixo como cabeçalhos. */
+    public void writeFixedInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    /** Grava um inteiro de 8 bytes (big-endian). */
+    public void writeFixedLong(long value) throws IOException {
+        writeFixedInt((int) (value >>> 32));
+        writeFixedInt((int) value);
+    }
+
+    public void writeFloat(float value) throws IOException {
+        writeFixedInt(Float.floatToIntBits(value));
+    }
+
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeUnsignedVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    /** Grava uma lista de strings; uma lista {@code null} é gravada como vazia. */
+    public void writeStringList(List<String> values) throws IOException {
+        if (values == null) {
+            writeUnsignedVarInt(0);
+            return;
+        }
+        writeUnsignedVarInt(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    public void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - count) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                flushed += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            flushed += count;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package Control.io.codec;
+
+import Module.Book;
+import Module.Genre;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Codec de {@link Book}. */
+public class BookCodec implements MediaCodec<Book> {
+
+    @Override
+    public void encode(Book book, BinaryWriter out, GenreDictionary genres) throws IOException {
+        out.writeBoolean(book.isSeen());
+        out.writeString(book.getTitle());
+        MediaFields.writeGenres(book.getGenres(), out, genres);
+        out.writeVarInt(book.getYearRelease());
+        out.writeString(book.getAuthor());
+        out.writeString(book.getPublisher());
+        out.writeString(book.getIsbn());
+        out.writeBoolean(book.getCopy());
+        MediaFields.writeReviews(book.getReviews(), out);
+    }
+
+    @Override
+    public Book decode(BinaryReader in, GenreDictionary genres) throws IOException {
+        boolean seen = in.readBoolean();
+        String title = in.readString();
+        List<Genre> bookGenres = MediaFields.readGenres(in, genres);
+        int yearRelease = in.readVarInt();
+        String author = in.readString();
+        String publisher = in.readString();
+        String isbn = in.readString();
+        boolean copy = in.readBoolean();
+        Book book = MediaFields.build(() -> new Book(seen, title, bookGenres, yearRelease, author, publisher, isbn, copy));
+        book.addReviews(MediaFields.readReviews(in));
+        return book;
+    }
+}
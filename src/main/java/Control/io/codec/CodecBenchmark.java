@@ -0,0 +1,183 @@
+package Control.io.codec;
+
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Review;
+import Module.Season;
+import Module.Show;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara o formato binário de {@link SnapshotFormat} com a serialização padrão do Java
+ * ({@link ObjectOutputStream}) em uma biblioteca sintética: tamanho do snapshot e tempo
+ * médio de gravação e leitura completa (em memória, sem custo de disco), além do tempo de
+ * abertura do arquivo mapeado com {@link SnapshotFormat#open(File)}.
+ *
+ * <p>Uso: {@code CodecBenchmark [quantidade de mídias]} (padrão: 10000).</p>
+ */
+public final class CodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private CodecBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        DiarySnapshot snapshot = syntheticLibrary(size, 42L);
+
+        byte[] serialized = javaSave(snapshot);
+        byte[] binary = binarySave(snapshot);
+        System.out.printf("Library: %d media%n", size);
+        System.out.printf("Size  ObjectOutputStream: %,d bytes | binary: %,d bytes (%.1f%%)%n",
+                serialized.length, binary.length, 100.0 * binary.length / serialized.length);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            javaLoad(javaSave(snapshot));
+            SnapshotFormat.read(ByteBuffer.wrap(binarySave(snapshot)));
+        }
+
+        long javaSave = 0, javaLoad = 0, binarySave = 0, binaryLoad = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            serialized = javaSave(snapshot);
+            javaSave += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            javaLoad(serialized);
+            javaLoad += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            binary = binarySave(snapshot);
+            binarySave += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            SnapshotFormat.read(ByteBuffer.wrap(binary));
+            binaryLoad += System.nanoTime() - start;
+        }
+        System.out.printf("Save  ObjectOutputStream: %.2f ms | binary: %.2f ms%n",
+                millis(javaSave), millis(binarySave));
+        System.out.printf("Load  ObjectInputStream:  %.2f ms | binary: %.2f ms%n",
+                millis(javaLoad), millis(binaryLoad));
+
+        File file = File.createTempFile("codec-benchmark", ".dat");
+        try {
+            SnapshotFormat.write(file, snapshot);
+            long open = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                SnapshotFormat.open(file).getBooks().get(0);
+                open += System.nanoTime() - start;
+            }
+            System.out.printf("Open  mapped (lazy, first record): %.2f ms%n", millis(open));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static double millis(long totalNanos) {
+        return totalNanos / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    private static byte[] javaSave(DiarySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(snapshot.getGenres());
+            oos.writeObject(snapshot.getBooks());
+            oos.writeObject(snapshot.getFilms());
+            oos.writeObject(snapshot.getShows());
+            oos.writeLong(snapshot.getJournalGeneration());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void javaLoad(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            for (int i = 0; i < 4; i++) {
+                ois.readObject();
+            }
+            ois.readLong();
+        }
+    }
+
+    private static byte[] binarySave(DiarySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SnapshotFormat.write(bytes, snapshot);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Gera uma biblioteca sintética com a proporção aproximada de 50% livros, 30% filmes
+     * e 20% séries, cada mídia com alguns gêneros e reviews.
+     *
+     * @param size A quantidade total de mídias.
+     * @param seed A semente do gerador, para resultados reproduzíveis.
+     * @return O snapshot gerado.
+     */
+    static DiarySnapshot syntheticLibrary(int size, long seed) {
+        Random random = new Random(seed);
+        List<Genre> genres = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            genres.add(new Genre("Gênero " + i));
+        }
+        List<Book> books = new ArrayList<>();
+        List<Films> films = new ArrayList<>();
+        List<Show> shows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            List<Genre> mediaGenres = Arrays.asList(genres.get(random.nextInt(genres.size())),
+                    genres.get(random.nextInt(genres.size())));
+            int year = 1950 + random.nextInt(75);
+            int kind = random.nextInt(10);
+            if (kind < 5) {
+                Book book = new Book(random.nextBoolean(), "Livro " + i, mediaGenres, year,
+                        "Autor " + random.nextInt(size / 4 + 1), "Editora " + random.nextInt(50),
+                        String.format("978%010d", i), random.nextBoolean());
+                addReviews(book.getTitle(), random, book::addReview);
+                books.add(book);
+            } else if (kind < 8) {
+                Films film = new Films(Arrays.asList("Ator " + random.nextInt(size), "Atriz " + random.nextInt(size)),
+                        random.nextBoolean(), "Filme " + i, mediaGenres, year, "Original Film " + i,
+                        Arrays.asList("Netflix", "Cinema"), "Diretor " + random.nextInt(size / 10 + 1),
+                        80 + random.nextInt(100), "Roteirista " + random.nextInt(size / 10 + 1));
+                addReviews(film.getTitle(), random, film::addReview);
+                films.add(film);
+            } else {
+                Show show = new Show(Arrays.asList("Ator " + random.nextInt(size), "Atriz " + random.nextInt(size)),
+                        random.nextBoolean(), "Série " + i, mediaGenres, year, "Original Show " + i,
+                        Arrays.asList("HBO Max"), year + random.nextInt(8));
+                int seasons = 1 + random.nextInt(5);
+                for (int s = 1; s <= seasons; s++) {
+                    Season season = new Season(s, 6 + random.nextInt(18), "01/01/" + (year + s));
+                    addReviews(show.getTitle() + " T" + s, random, season::addReview);
+                    show.addSeason(season);
+                }
+                shows.add(show);
+            }
+        }
+        return new DiarySnapshot(genres, books, films, shows, 1L);
+    }
+
+    private interface ReviewSink {
+        void add(Review review);
+    }
+
+    private static void addReviews(String title, Random random, ReviewSink sink) {
+        int reviews = random.nextInt(3);
+        for (int r = 0; r < reviews; r++) {
+            sink.add(new Review("Comentário sobre " + title, 1 + random.nextInt(5), "10/05/2024"));
+        }
+    }
+}
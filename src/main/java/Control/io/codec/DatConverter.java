@@ -0,0 +1,62 @@
+package Control.io.codec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Ferramenta de linha de comando que converte um arquivo {@code .dat} antigo (serialização
+ * padrão do Java) para o formato binário de {@link SnapshotFormat}.
+ *
+ * <p>Uso: {@code DatConverter <entrada.dat> [saida.dat]}. Sem arquivo de saída, o arquivo
+ * é convertido no próprio lugar e o original é mantido como {@code <entrada.dat>.bak}.
+ * O {@code WorkManager} também lê os arquivos antigos diretamente e os regrava no formato
+ * novo na próxima compactação; esta ferramenta serve para migrar os dados de uma vez.</p>
+ */
+public final class DatConverter {
+
+    private DatConverter() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: DatConverter <input.dat> [output.dat]");
+            System.exit(2);
+        }
+        File input = new File(args[0]);
+        File output = args.length == 2 ? new File(args[1]) : null;
+        try {
+            DiarySnapshot snapshot = convert(input, output);
+            System.out.println("Converted " + input + ": " + snapshot.getGenres().size() + " genres, "
+                    + snapshot.getBooks().size() + " books, " + snapshot.getFilms().size() + " films, "
+                    + snapshot.getShows().size() + " shows.");
+        } catch (IOException e) {
+            System.err.println("Error converting data: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converte um snapshot antigo para o formato binário.
+     *
+     * @param input  O arquivo {@code .dat} antigo.
+     * @param output O arquivo de destino, ou {@code null} para converter no próprio lugar
+     *               (mantendo uma cópia {@code .bak} do original).
+     * @return O conteúdo convertido.
+     * @throws IOException se o arquivo já estiver no formato binário ou a conversão falhar.
+     */
+    public static DiarySnapshot convert(File input, File output) throws IOException {
+        if (SnapshotFormat.isBinary(input)) {
+            throw new IOException(input + " is already in the binary format.");
+        }
+        DiarySnapshot snapshot = LegacySnapshotReader.read(input);
+        if (output == null) {
+            File backup = new File(input.getPath() + ".bak");
+            Files.copy(input.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            output = input;
+        }
+        SnapshotFormat.write(output, snapshot);
+        return snapshot;
+    }
+}
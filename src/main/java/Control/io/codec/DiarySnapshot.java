@@ -0,0 +1,49 @@
+package Control.io.codec;
+
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Show;
+
+import java.util.List;
+
+/**
+ * Conteúdo de um snapshot do diário: as bibliotecas persistidas pelo {@code WorkManager}
+ * e a geração do journal que deve ser reaplicado por cima delas.
+ */
+public class DiarySnapshot {
+
+    private final List<Genre> genres;
+    private final List<Book> books;
+    private final List<Films> films;
+    private final List<Show> shows;
+    private final long journalGeneration;
+
+    public DiarySnapshot(List<Genre> genres, List<Book> books, List<Films> films, List<Show> shows, long journalGeneration) {
+        this.genres = genres;
+        this.books = books;
+        this.films = films;
+        this.shows = shows;
+        this.journalGeneration = journalGeneration;
+    }
+
+    public List<Genre> getGenres() {
+        return genres;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public List<Films> getFilms() {
+        return films;
+    }
+
+    public List<Show> getShows() {
+        return shows;
+    }
+
+    public long getJournalGeneration() {
+        return journalGeneration;
+    }
+}
@@ -0,0 +1,43 @@
+package Control.io.codec;
+
+import Module.Films;
+import Module.Genre;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Codec de {@link Films}. */
+public class FilmsCodec implements MediaCodec<Films> {
+
+    @Override
+    public void encode(Films film, BinaryWriter out, GenreDictionary genres) throws IOException {
+        out.writeStringList(film.getCast());
+        out.writeBoolean(film.isSeen());
+        out.writeString(film.getTitle());
+        MediaFields.writeGenres(film.getGenres(), out, genres);
+        out.writeVarInt(film.getYearRelease());
+        out.writeString(film.getOriginalTitle());
+        out.writeStringList(film.getWhereWatch());
+        out.writeString(film.getDirection());
+        out.writeUnsignedVarInt(film.getRunningtime());
+        out.writeString(film.getScreenplay());
+        MediaFields.writeReviews(film.getReviews(), out);
+    }
+
+    @Override
+    public Films decode(BinaryReader in, GenreDictionary genres) throws IOException {
+        List<String> cast = in.readStringList();
+        boolean seen = in.readBoolean();
+        String title = in.readString();
+        List<Genre> filmGenres = MediaFields.readGenres(in, genres);
+        int yearRelease = in.readVarInt();
+        String originalTitle = in.readString();
+        List<String> whereWatch = in.readStringList();
+        String direction = in.readString();
+        int runningtime = in.readUnsignedVarInt();
+        String screenplay = in.readString();
+        Films film = MediaFields.build(() -> new Films(cast, seen, title, filmGenres, yearRelease, originalTitle, whereWatch, direction, runningtime, screenplay));
+        film.addReviews(MediaFields.readReviews(in));
+        return film;
+    }
+}
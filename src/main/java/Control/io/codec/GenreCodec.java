@@ -0,0 +1,20 @@
+package Control.io.codec;
+
+import Module.Genre;
+
+import java.io.IOException;
+
+/** Codec de {@link Genre}: usado para as entradas do {@link GenreDictionary} (apenas o nome). */
+public class GenreCodec implements MediaCodec<Genre> {
+
+    @Override
+    public void encode(Genre genre, BinaryWriter out, GenreDictionary genres) throws IOException {
+        out.writeString(genre.getGenre());
+    }
+
+    @Override
+    public Genre decode(BinaryReader in, GenreDictionary genres) throws IOException {
+        String name = in.readString();
+        return MediaFields.build(() -> new Genre(name));
+    }
+}
@@ -0,0 +1,63 @@
+package Control.io.codec;
+
+import Module.Genre;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dicionário de gêneros de um snapshot binário: cada {@link Genre} distinto recebe um id
+ * sequencial e as mídias passam a referenciar seus gêneros pelo id (um varint), em vez de
+ * repetir o nome em cada registro.
+ */
+public class GenreDictionary {
+
+    private final List<Genre> genres = new ArrayList<>();
+    private final Map<Genre, Integer> ids = new HashMap<>();
+
+    /**
+     * Retorna o id do gênero, registrando-o no dicionário se ainda não existir.
+     *
+     * @param genre O gênero (comparado como em {@link Genre#equals(Object)}).
+     * @return O id do gênero.
+     */
+    public int idOf(Genre genre) {
+        Integer id = ids.get(genre);
+        if (id == null) {
+            id = genres.size();
+            genres.add(genre);
+            ids.put(genre, id);
+        }
+        return id;
+    }
+
+    /**
+     * Retorna o gênero associado a um id.
+     *
+     * @param id O id lido do arquivo.
+     * @return O gênero correspondente.
+     * @throws IllegalArgumentException se o id não existir no dicionário.
+     */
+    public Genre get(int id) {
+        if (id < 0 || id >= genres.size()) {
+            throw new IllegalArgumentException("Unknown genre id " + id + ".");
+        }
+        return genres.get(id);
+    }
+
+    public int size() {
+        return genres.size();
+    }
+
+    /**
+     * Retorna os gêneros na ordem dos ids.
+     *
+     * @return Uma lista não modificável dos gêneros registrados.
+     */
+    public List<Genre> getGenres() {
+        return Collections.unmodifiableList(genres);
+    }
+}
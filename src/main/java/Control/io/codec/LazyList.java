@@ -0,0 +1,109 @@
+package Control.io.codec;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Lista cujos primeiros elementos (os carregados de um snapshot) são materializados sob
+ * demanda, no primeiro acesso a cada posição, e cujos elementos adicionados depois ficam
+ * em uma lista comum.
+ *
+ * <p>Cada posição carregada é materializada no máximo uma vez: acessos concorrentes à
+ * mesma posição recebem sempre o mesmo objeto. Elementos só podem ser acrescentados ao
+ * final; remoção e substituição não são suportadas, como nas bibliotecas do
+ * {@code WorkManager}.</p>
+ *
+ * @param <E> O tipo dos elementos.
+ */
+public class LazyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final int loadedCount;
+    private final IntFunction<? extends E> loader;
+    private final AtomicReferenceArray<E> loaded;
+    private final List<E> appended = new ArrayList<>();
+
+    /**
+     * @param loadedCount A quantidade de elementos carregados sob demanda.
+     * @param loader      Função que materializa o elemento de uma posição em {@code [0, loadedCount)}.
+     */
+    public LazyList(int loadedCount, IntFunction<? extends E> loader) {
+        this.loadedCount = loadedCount;
+        this.loader = loader;
+        this.loaded = new AtomicReferenceArray<>(loadedCount);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index >= loadedCount) {
+            return appended.get(index - loadedCount);
+        }
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        E element = loaded.get(index);
+        if (element == null) {
+            E created = loader.apply(index);
+            element = loaded.compareAndSet(index, null, created) ? created : loaded.get(index);
+        }
+        return element;
+    }
+
+    /**
+     * Retorna o elemento de uma posição sem materializá-lo na lista: se a posição ainda não foi
+     * acessada, o elemento é decodificado e descartado depois do uso. Serve para percorrer uma
+     * lista grande (exportação, por exemplo) sem manter todos os elementos em memória.
+     *
+     * @param index A posição.
+     * @return O elemento já materializado, ou uma cópia recém-decodificada.
+     */
+    public E peek(int index) {
+        if (index >= loadedCount) {
+            return appended.get(index - loadedCount);
+        }
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        E element = loaded.get(index);
+        return element != null ? element : loader.apply(index);
+    }
+
+    /**
+     * Materializa todas as posições carregadas que ainda não foram acessadas. Seguro de qualquer
+     * thread, mesmo com acréscimos concorrentes: só lê as posições carregadas, que nunca mudam.
+     */
+    public void materializeLoaded() {
+        for (int i = 0; i < loadedCount; i++) {
+            get(i);
+        }
+    }
+
+    @Override
+    public boolean add(E element) {
+        modCount++;
+        return appended.add(element);
+    }
+
+    @Override
+    public int size() {
+        return loadedCount + appended.size();
+    }
+
+    /**
+     * Retorna quantos elementos carregados já foram materializados (útil para diagnóstico).
+     *
+     * @return A quantidade de posições carregadas já acessadas.
+     */
+    public int hydratedCount() {
+        int count = 0;
+        for (int i = 0; i < loadedCount; i++) {
+            if (loaded.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,51 @@
+package Control.io.codec;
+
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Show;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.List;
+
+/**
+ * Leitor dos arquivos {@code .dat} gravados com {@link java.io.ObjectOutputStream} pelas
+ * versões anteriores do {@code WorkManager}: as quatro listas serializadas, seguidas
+ * (opcionalmente) da geração do journal.
+ */
+public final class LegacySnapshotReader {
+
+    private LegacySnapshotReader() {
+    }
+
+    /**
+     * Lê um snapshot no formato de serialização padrão do Java.
+     *
+     * @param file O arquivo {@code .dat} antigo.
+     * @return O conteúdo do snapshot.
+     * @throws IOException se o arquivo não puder ser lido ou não contiver as listas esperadas.
+     */
+    @SuppressWarnings("unchecked")
+    public static DiarySnapshot read(File file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            List<Genre> genres = (List<Genre>) ois.readObject();
+            List<Book> books = (List<Book>) ois.readObject();
+            List<Films> films = (List<Films>) ois.readObject();
+            List<Show> shows = (List<Show>) ois.readObject();
+            long journalGeneration;
+            try {
+                journalGeneration = ois.readLong();
+            } catch (EOFException e) {
+                journalGeneration = 0; // Snapshot written before the journal existed
+            }
+            return new DiarySnapshot(genres, books, films, shows, journalGeneration);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid legacy data file: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package Control.io.codec;
+
+import java.io.IOException;
+
+/**
+ * Codificador/decodificador binário de um tipo do pacote {@code Module}.
+ * Cada implementação grava apenas os campos do tipo, na ordem fixa da versão
+ * corrente do formato ({@link SnapshotFormat#VERSION}); gêneros são gravados
+ * pelo id no {@link GenreDictionary}.
+ *
+ * @param <T> O tipo codificado.
+ */
+public interface MediaCodec<T> {
+
+    void encode(T value, BinaryWriter out, GenreDictionary genres) throws IOException;
+
+    T decode(BinaryReader in, GenreDictionary genres) throws IOException;
+}
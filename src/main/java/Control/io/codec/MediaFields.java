@@ -0,0 +1,67 @@
+package Control.io.codec;
+
+import Module.Genre;
+import Module.Review;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/** Campos compartilhados pelos codecs de mídia: gêneros por id e listas de reviews. */
+final class MediaFields {
+
+    private static final ReviewCodec REVIEW_CODEC = new ReviewCodec();
+
+    private MediaFields() {
+    }
+
+    static void writeGenres(List<Genre> genres, BinaryWriter out, GenreDictionary dictionary) throws IOException {
+        out.writeUnsignedVarInt(genres.size());
+        for (Genre genre : genres) {
+            out.writeUnsignedVarInt(dictionary.idOf(genre));
+        }
+    }
+
+    static List<Genre> readGenres(BinaryReader in, GenreDictionary dictionary) throws IOException {
+        int size = in.readUnsignedVarInt();
+        List<Genre> genres = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int id = in.readUnsignedVarInt();
+            genres.add(build(() -> dictionary.get(id)));
+        }
+        return genres;
+    }
+
+    static void writeReviews(List<Review> reviews, BinaryWriter out) throws IOException {
+        out.writeUnsignedVarInt(reviews.size());
+        for (Review review : reviews) {
+            REVIEW_CODEC.encode(review, out, null);
+        }
+    }
+
+    static List<Review> readReviews(BinaryReader in) throws IOException {
+        int size = in.readUnsignedVarInt();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            reviews.add(REVIEW_CODEC.decode(in, null));
+        }
+        return reviews;
+    }
+
+    /**
+     * Executa o construtor de um objeto do modelo, convertendo falhas de validação
+     * ({@link IllegalArgumentException}) em {@link IOException} de dado corrompido.
+     */
+    static <T> T build(Supplier<T> constructor) throws IOException {
+        try {
+            return constructor.get();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid record in binary data: " + e.getMessage(), e);
+        }
+    }
+}
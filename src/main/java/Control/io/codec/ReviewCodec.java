@@ -0,0 +1,24 @@
+package Control.io.codec;
+
+import Module.Review;
+
+import java.io.IOException;
+
+/** Codec de {@link Review}: comentário, nota ({@code float} de 4 bytes) e data. */
+public class ReviewCodec implements MediaCodec<Review> {
+
+    @Override
+    public void encode(Review review, BinaryWriter out, GenreDictionary genres) throws IOException {
+        out.writeString(review.comment);
+        out.writeFloat(review.getStars());
+        out.writeString(review.reviewDate);
+    }
+
+    @Override
+    public Review decode(BinaryReader in, GenreDictionary genres) throws IOException {
+        String comment = in.readString();
+        float stars = in.readFloat();
+        String reviewDate = in.readString();
+        return MediaFields.build(() -> new Review(comment, stars, reviewDate));
+    }
+}
@@ -0,0 +1,27 @@
+package Control.io.codec;
+
+import Module.Season;
+
+import java.io.IOException;
+
+/** Codec de {@link Season}: número, episódios, data de lançamento e reviews da temporada. */
+public class SeasonCodec implements MediaCodec<Season> {
+
+    @Override
+    public void encode(Season season, BinaryWriter out, GenreDictionary genres) throws IOException {
+        out.writeUnsignedVarInt(season.getSeasonNumber());
+        out.writeUnsignedVarInt(season.getEpisodeCount());
+        out.writeString(season.getReleaseDate());
+        MediaFields.writeReviews(season.getReviews(), out);
+    }
+
+    @Override
+    public Season decode(BinaryReader in, GenreDictionary genres) throws IOException {
+        int seasonNumber = in.readUnsignedVarInt();
+        int episodeCount = in.readUnsignedVarInt();
+        String releaseDate = in.readString();
+        Season season = MediaFields.build(() -> new Season(seasonNumber, episodeCount, releaseDate));
+        season.addReviews(MediaFields.readReviews(in));
+        return season;
+    }
+}
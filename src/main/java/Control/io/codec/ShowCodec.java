@@ -0,0 +1,53 @@
+package Control.io.codec;
+
+import Module.Genre;
+import Module.Season;
+import Module.Show;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Codec de {@link Show}, incluindo as temporadas (via {@link SeasonCodec}) e suas reviews. */
+public class ShowCodec implements MediaCodec<Show> {
+
+    private final SeasonCodec seasonCodec = new SeasonCodec();
+
+    @Override
+    public void encode(Show show, BinaryWriter out, GenreDictionary genres) throws IOException {
+        out.writeStringList(show.getCast());
+        out.writeBoolean(show.isSeen());
+        out.writeString(show.getTitle());
+        MediaFields.writeGenres(show.getGenres(), out, genres);
+        out.writeVarInt(show.getYearRelease());
+        out.writeString(show.getOriginalTitle());
+        out.writeStringList(show.getWhereWatch());
+        out.writeVarInt(show.getYearEnd());
+        MediaFields.writeReviews(show.getReviews(), out);
+
+        List<Season> seasons = show.getSeasons();
+        out.writeUnsignedVarInt(seasons.size());
+        for (Season season : seasons) {
+            seasonCodec.encode(season, out, genres);
+        }
+    }
+
+    @Override
+    public Show decode(BinaryReader in, GenreDictionary genres) throws IOException {
+        List<String> cast = in.readStringList();
+        boolean seen = in.readBoolean();
+        String title = in.readString();
+        List<Genre> showGenres = MediaFields.readGenres(in, genres);
+        int yearRelease = in.readVarInt();
+        String originalTitle = in.readString();
+        List<String> whereWatch = in.readStringList();
+        int yearEnd = in.readVarInt();
+        Show show = MediaFields.build(() -> new Show(cast, seen, title, showGenres, yearRelease, originalTitle, whereWatch, yearEnd));
+        show.addReviews(MediaFields.readReviews(in));
+
+        int seasonCount = in.readUnsignedVarInt();
+        for (int i = 0; i < seasonCount; i++) {
+            show.addSeason(seasonCodec.decode(in, genres));
+        }
+        return show;
+    }
+}
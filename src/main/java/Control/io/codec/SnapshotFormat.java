@@ -0,0 +1,381 @@
+package Control.io.codec;
+
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Media;
+import Module.Show;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binário versionado do snapshot do diário, em substituição à serialização padrão
+ * do Java ({@link java.io.ObjectOutputStream}).
+ *
+ * <p>Layout do arquivo (versão 2):</p>
+ * <pre>
+ * int      MAGIC ("CDSB")
+ * varint   versão do formato (1 byte)
+ * long     geração do journal
+ * int      offset da seção de gêneros
+ * int, int offset do índice e quantidade de livros
+ * int, int offset do índice e quantidade de filmes
+ * int, int offset do índice e quantidade de séries
+ * -- seção de gêneros --
+ * varint   n. de gêneros no dicionário, seguido dos nomes
+ * varint   n. de gêneros da biblioteca, seguido dos ids
+ * -- para cada biblioteca (livros, filmes, séries) --
+ * registros ({@link BookCodec}, {@link FilmsCodec}, {@link ShowCodec}), um após o outro
+ * int[]    índice: o offset de cada registro
+ * </pre>
+ * O cabeçalho tem tamanho fixo ({@link #HEADER_SIZE}) e os índices permitem localizar
+ * qualquer registro sem ler os anteriores; assim {@link #open(File)} mapeia o arquivo com
+ * {@link FileChannel#map} e cada mídia só é decodificada no primeiro acesso.
+ * O dicionário contém primeiro os gêneros da biblioteca e depois os gêneros usados por
+ * mídias que não estão na biblioteca, de modo que cada mídia referencia seus gêneros
+ * apenas pelo id.
+ */
+public final class SnapshotFormat {
+
+    /** Assinatura do arquivo: "CDSB" (Cultural Diary Snapshot Binary). */
+    public static final int MAGIC = 0x43445342;
+    /** Versão corrente do layout; incrementada a cada mudança na ordem ou no tipo dos campos. */
+    public static final int VERSION = 2;
+    /** Tamanho em bytes do cabeçalho da versão 2. */
+    public static final int HEADER_SIZE = 4 + 1 + 8 + 4 + 3 * 8;
+
+    private static final GenreCodec GENRE_CODEC = new GenreCodec();
+    private static final BookCodec BOOK_CODEC = new BookCodec();
+    private static final FilmsCodec FILMS_CODEC = new FilmsCodec();
+    private static final ShowCodec SHOW_CODEC = new ShowCodec();
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Verifica se o arquivo começa com a assinatura do formato binário.
+     *
+     * @param file O arquivo de snapshot.
+     * @return {@code true} se for um snapshot binário; {@code false} para arquivos
+     * antigos gravados com {@link java.io.ObjectOutputStream} (ou vazios).
+     * @throws IOException se o arquivo não puder ser lido.
+     */
+    public static boolean isBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Abre um snapshot binário mapeando o arquivo em memória. Apenas o cabeçalho e os
+     * gêneros são lidos; livros, filmes e séries são devolvidos como {@link LazyList}s que
+     * decodificam cada registro no primeiro acesso. As listas aceitam novos elementos no final.
+     *
+     * <p>O arquivo não deve ser alterado, substituído nem apagado enquanto estiver aberto, o que
+     * inclui gravar outro snapshot no mesmo caminho com {@link #write(File, DiarySnapshot)}: o
+     * mapeamento só é liberado quando as listas são coletadas, e no Windows um arquivo mapeado
+     * não pode ser renomeado por cima nem apagado. Grave os snapshots seguintes em outro arquivo
+     * (o {@code WorkManager} usa um arquivo por geração do journal).
+     * Snapshots da versão 1 são lidos por completo.</p>
+     *
+     * @param file O arquivo gravado por {@link #write(File, DiarySnapshot)}.
+     * @return O conteúdo do snapshot.
+     * @throws IOException se o arquivo não puder ser lido, tiver outra versão ou estiver corrompido.
+     */
+    public static DiarySnapshot open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + channel.size() + " bytes.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return open(buffer);
+    }
+
+    /**
+     * Lê um snapshot binário completo, decodificando todos os registros.
+     *
+     * @param file O arquivo gravado por {@link #write(File, DiarySnapshot)}.
+     * @return O conteúdo do snapshot.
+     * @throws IOException se o arquivo não puder ser lido, tiver outra versão ou estiver corrompido.
+     */
+    public static DiarySnapshot read(File file) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * Lê um snapshot binário completo a partir de um buffer com o conteúdo do arquivo.
+     *
+     * @param buffer O conteúdo do arquivo, a partir da posição 0.
+     * @return O conteúdo do snapshot, com todos os registros decodificados.
+     * @throws IOException se o buffer tiver outra versão ou estiver corrompido.
+     */
+    public static DiarySnapshot read(ByteBuffer buffer) throws IOException {
+        DiarySnapshot snapshot = open(buffer);
+        try {
+            return new DiarySnapshot(snapshot.getGenres(), new ArrayList<>(snapshot.getBooks()),
+                    new ArrayList<>(snapshot.getFilms()), new ArrayList<>(snapshot.getShows()),
+                    snapshot.getJournalGeneration());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static DiarySnapshot open(ByteBuffer buffer) throws IOException {
+        BinaryReader in = new BinaryReader(buffer);
+        if (in.readFixedInt() != MAGIC) {
+            throw new IOException("Not a binary diary snapshot.");
+        }
+        int version = in.readUnsignedVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ".");
+        }
+        long journalGeneration = in.readFixedLong();
+        int genresOffset = in.readFixedInt();
+        int booksIndex = in.readFixedInt();
+        int bookCount = in.readFixedInt();
+        int filmsIndex = in.readFixedInt();
+        int filmCount = in.readFixedInt();
+        int showsIndex = in.readFixedInt();
+        int showCount = in.readFixedInt();
+
+        in.position(checkOffset(buffer, genresOffset, 0));
+        GenreDictionary dictionary = new GenreDictionary();
+        List<Genre> genres = readGenres(in, dictionary);
+
+        List<Book> books = lazyRecords(buffer, checkOffset(buffer, booksIndex, bookCount), bookCount, BOOK_CODEC, dictionary);
+        List<Films> films = lazyRecords(buffer, checkOffset(buffer, filmsIndex, filmCount), filmCount, FILMS_CODEC, dictionary);
+        List<Show> shows = lazyRecords(buffer, checkOffset(buffer, showsIndex, showCount), showCount, SHOW_CODEC, dictionary);
+        return new DiarySnapshot(genres, books, films, shows, journalGeneration);
+    }
+
+    private static int checkOffset(ByteBuffer buffer, int offset, int indexEntries) throws IOException {
+        if (offset < HEADER_SIZE || indexEntries < 0 || (long) offset + 4L * indexEntries > buffer.limit()) {
+            throw new IOException("Invalid offset in snapshot header.");
+        }
+        return offset;
+    }
+
+    /**
+     * Cria a lista preguiçosa de uma biblioteca. Falhas de decodificação no acesso a um
+     * registro são lançadas como {@link UncheckedIOException}.
+     */
+    private static <T> List<T> lazyRecords(ByteBuffer buffer, int indexOffset, int count,
+                                           MediaCodec<T> codec, GenreDictionary dictionary) {
+        return new LazyList<>(count, i -> {
+            ByteBuffer view = buffer.duplicate();
+            int recordOffset = view.getInt(indexOffset + 4 * i);
+            try {
+                if (recordOffset < HEADER_SIZE || recordOffset >= indexOffset) {
+                    throw new IOException("Invalid record offset " + recordOffset + ".");
+                }
+                view.position(recordOffset);
+                return codec.decode(new BinaryReader(view), dictionary);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static List<Genre> readGenres(BinaryReader in, GenreDictionary dictionary) throws IOException {
+        int dictionarySize = in.readUnsignedVarInt();
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary.idOf(GENRE_CODEC.decode(in, dictionary));
+        }
+        if (dictionary.size() != dictionarySize) {
+            throw new IOException("Duplicate genre in snapshot dictionary.");
+        }
+
+        int genreCount = in.readUnsignedVarInt();
+        List<Genre> genres = new ArrayList<>(genreCount);
+        for (int i = 0; i < genreCount; i++) {
+            int id = in.readUnsignedVarInt();
+            genres.add(MediaFields.build(() -> dictionary.get(id)));
+        }
+        return genres;
+    }
+
+    /**
+     * Grava um snapshot binário completo. O conteúdo é gravado em um arquivo temporário no
+     * mesmo diretório, que então substitui o destino por renomeação; assim uma falha no meio da
+     * gravação não corrompe o arquivo anterior. O destino não deve estar aberto com
+     * {@link #open(File)} (veja a observação sobre o mapeamento lá).
+     *
+     * @param file     O arquivo de destino.
+     * @param snapshot O conteúdo a gravar.
+     * @throws IOException se a gravação falhar.
+     */
+    public static void write(File file, DiarySnapshot snapshot) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = temporaryFile(target);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BinaryWriter out = new BinaryWriter(Channels.newOutputStream(channel));
+            byte[] header = writeBody(out, snapshot);
+            out.flush();
+            channel.write(ByteBuffer.wrap(header), 0);
+            channel.force(true);
+        }
+        replace(temp, target);
+    }
+
+    /**
+     * Grava um snapshot já codificado por {@link #encode(DiarySnapshot)}, com a mesma troca
+     * atômica (arquivo temporário + renomeação) de {@link #write(File, DiarySnapshot)}.
+     *
+     * @param file    O arquivo de destino.
+     * @param encoded O conteúdo codificado.
+     * @throws IOException se a gravação falhar.
+     */
+    public static void write(File file, byte[] encoded) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = temporaryFile(target);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(encoded);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        replace(temp, target);
+    }
+
+    /**
+     * Grava um snapshot binário em um fluxo de saída (que não é fechado).
+     *
+     * @param stream   O fluxo de destino.
+     * @param snapshot O conteúdo a gravar.
+     * @throws IOException se a gravação falhar.
+     */
+    public static void write(OutputStream stream, DiarySnapshot snapshot) throws IOException {
+        stream.write(encode(snapshot));
+        stream.flush();
+    }
+
+    /**
+     * Codifica um snapshot completo em memória. Permite capturar o estado rapidamente (por
+     * exemplo, com as mutações bloqueadas) e gravar o arquivo depois, fora do bloqueio.
+     *
+     * @param snapshot O conteúdo a codificar.
+     * @return Os bytes do arquivo.
+     * @throws IOException se algum registro não puder ser codificado.
+     */
+    public static byte[] encode(DiarySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryWriter out = new BinaryWriter(bytes);
+        byte[] header = writeBody(out, snapshot);
+        out.flush();
+        byte[] content = bytes.toByteArray();
+        System.arraycopy(header, 0, content, 0, header.length);
+        return content;
+    }
+
+    private static Path temporaryFile(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Grava um espaço reservado para o cabeçalho seguido do corpo do snapshot e retorna o
+     * cabeçalho definitivo, que deve ser gravado na posição 0.
+     */
+    private static byte[] writeBody(BinaryWriter out, DiarySnapshot snapshot) throws IOException {
+        GenreDictionary dictionary = new GenreDictionary();
+        for (Genre genre : snapshot.getGenres()) {
+            dictionary.idOf(genre);
+        }
+        registerGenres(snapshot.getBooks(), dictionary);
+        registerGenres(snapshot.getFilms(), dictionary);
+        registerGenres(snapshot.getShows(), dictionary);
+
+        out.writeBytes(new byte[HEADER_SIZE]);
+
+        int genresOffset = offset(out);
+        out.writeUnsignedVarInt(dictionary.size());
+        for (Genre genre : dictionary.getGenres()) {
+            GENRE_CODEC.encode(genre, out, dictionary);
+        }
+        out.writeUnsignedVarInt(snapshot.getGenres().size());
+        for (Genre genre : snapshot.getGenres()) {
+            out.writeUnsignedVarInt(dictionary.idOf(genre));
+        }
+
+        int booksIndex = writeRecords(out, snapshot.getBooks(), BOOK_CODEC, dictionary);
+        int filmsIndex = writeRecords(out, snapshot.getFilms(), FILMS_CODEC, dictionary);
+        int showsIndex = writeRecords(out, snapshot.getShows(), SHOW_CODEC, dictionary);
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(HEADER_SIZE);
+        BinaryWriter header = new BinaryWriter(headerBytes);
+        header.writeFixedInt(MAGIC);
+        header.writeUnsignedVarInt(VERSION);
+        header.writeFixedLong(snapshot.getJournalGeneration());
+        header.writeFixedInt(genresOffset);
+        header.writeFixedInt(booksIndex);
+        header.writeFixedInt(snapshot.getBooks().size());
+        header.writeFixedInt(filmsIndex);
+        header.writeFixedInt(snapshot.getFilms().size());
+        header.writeFixedInt(showsIndex);
+        header.writeFixedInt(snapshot.getShows().size());
+        header.flush();
+        return headerBytes.toByteArray();
+    }
+
+    /** Grava os registros de uma biblioteca seguidos do índice de offsets; retorna o offset do índice. */
+    private static <T> int writeRecords(BinaryWriter out, List<T> records, MediaCodec<T> codec,
+                                        GenreDictionary dictionary) throws IOException {
+        int[] offsets = new int[records.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offset(out);
+            codec.encode(records.get(i), out, dictionary);
+        }
+        int indexOffset = offset(out);
+        for (int recordOffset : offsets) {
+            out.writeFixedInt(recordOffset);
+        }
+        return indexOffset;
+    }
+
+    private static int offset(BinaryWriter out) throws IOException {
+        long position = out.position();
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds the 2 GB limit of the binary format.");
+        }
+        return (int) position;
+    }
+
+    private static void registerGenres(List<? extends Media> items, GenreDictionary dictionary) {
+        for (Media item : items) {
+            for (Genre genre : item.getGenres()) {
+                dictionary.idOf(genre);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package Control.search;
+
+/**
+ * Mapa de n-gramas (até 3 caracteres, codificados em um {@code long}) para listas de
+ * postings, com endereçamento aberto: evita criar uma {@code String} e um objeto de chave
+ * para cada n-grama ao indexar.
+ */
+class GramTable {
+
+    private static final long EMPTY = 0L; // Never a valid key: every key carries its length
+
+    private long[] keys = new long[1024];
+    private IntList[] lists = new IntList[1024];
+    private int size;
+
+    /**
+     * Codifica os {@code length} caracteres de {@code text} a partir de {@code start}.
+     * O tamanho ocupa os bits mais altos, de modo que "a" e "a\0" não colidam.
+     */
+    static long key(CharSequence text, int start, int length) {
+        long key = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            key |= (long) text.charAt(start + i) << (16 * (2 - i));
+        }
+        return key;
+    }
+
+    IntList get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return lists[slot];
+            }
+        }
+        return null;
+    }
+
+    IntList getOrCreate(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return lists[slot];
+            }
+        }
+        IntList list = new IntList();
+        keys[slot] = key;
+        lists[slot] = list;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return list;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        IntList[] oldLists = lists;
+        keys = new long[oldKeys.length * 2];
+        lists = new IntList[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                lists[slot] = oldLists[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key ^ (key >>> 33); // MurmurHash3 finalizer: the key bits are concentrated in the high half
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
@@ -0,0 +1,91 @@
+package Control.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista crescente de inteiros sem boxing, usada como lista de postings (ids de mídia
+ * em ordem crescente) pelos índices de busca.
+ */
+public class IntList {
+
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(4);
+    }
+
+    public IntList(int capacity) {
+        this.values = new int[Math.max(1, capacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return values[index];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Insere um valor mantendo a lista ordenada; valores repetidos não são inseridos de novo.
+     *
+     * @param value O valor a inserir.
+     */
+    public void addSorted(int value) {
+        if (size == 0 || values[size - 1] < value) {
+            add(value); // Common case: ids are indexed in increasing order
+            return;
+        }
+        if (values[size - 1] == value) {
+            return; // Same id indexed again (repeated n-gram in the same text)
+        }
+        int position = Arrays.binarySearch(values, 0, size, value);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = value;
+        size++;
+    }
+
+    /**
+     * Verifica se a lista (ordenada) contém o valor, por busca binária.
+     *
+     * @param value O valor procurado.
+     * @return {@code true} se o valor estiver na lista.
+     */
+    public boolean containsSorted(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * Copia os valores para um array.
+     *
+     * @param target   O array de destino.
+     * @param position A posição do primeiro valor copiado em {@code target}.
+     * @return A posição seguinte ao último valor copiado.
+     */
+    public int copyTo(int[] target, int position) {
+        System.arraycopy(values, 0, target, position, size);
+        return position + size;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,487 @@
+package Control.search;
+
+import Module.AudioVisualMedia;
+import Module.Book;
+import Module.Films;
+import Module.Genre;
+import Module.Media;
+import Module.Review;
+import Module.Season;
+import Module.Show;
+import Module.TextFolding;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido de texto das mídias, para as buscas por substring do {@code WorkManager}
+ * (título, título original, gênero, autor, diretor, elenco e comentários das reviews).
+ *
+ * <p>Cada mídia recebe um id sequencial, igual à sua posição na lista agregada {@code media}
+ * do {@code WorkManager}. Para cada campo, o texto é normalizado com {@link TextFolding}
+ * (sem acentos, em minúsculas) e cada trigrama aponta para a lista crescente dos ids que o
+ * contêm. Uma busca intersecta as listas dos trigramas do termo e confirma cada candidato
+ * contra o texto normalizado guardado do campo; um termo de 1 ou 2 caracteres, que casaria
+ * com quase todas as mídias, é comparado direto com esses textos (sem normalizar nada na consulta).</p>
+ *
+ * <p>Os mesmos trigramas servem à busca aproximada de títulos ({@link #fuzzySearch(String, float, int)}),
+ * que ordena as mídias pela similaridade com o termo.</p>
+ *
+ * <p>Os anos de lançamento ficam em um {@link TreeMap} de ano para a lista de ids, para buscas
+ * por ano exato ou intervalo de anos em O(log n + k) ({@link #searchYears(int, int)}).</p>
+ *
+ * <p>Cada gênero (pela chave normalizada, {@link Genre#getKey()}) recebe um id denso e um
+ * {@link BitSet} das mídias que o têm, para que filtros por vários gêneros sejam operações
+ * de bits: OU para "qualquer um" e E para "todos" ({@link #mediaWithGenres(Collection, boolean)}).</p>
+ *
+ * <p>As pessoas citadas (autor, diretor, roteirista e elenco) ficam também em um
+ * {@link PersonIndex}, que guarda o papel de cada uma e permite busca por prefixo.</p>
+ *
+ * <p>O índice é atualizado incrementalmente ({@link #add(Media)} e {@link #addReview(Media, Review)})
+ * e não é thread-safe: as alterações devem ser feitas com a trava de escrita do {@code WorkManager}.</p>
+ */
+public class MediaIndex {
+
+    /** Campos indexados. */
+    public enum Field {
+        TITLE, ORIGINAL_TITLE, GENRE, AUTHOR, DIRECTOR, CAST, COMMENT
+    }
+
+    /** Resultado da busca aproximada: o id da mídia e a similaridade com o termo (0 a 1). */
+    public static final class Scored {
+        private final int id;
+        private final float score;
+
+        Scored(int id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    /** Similaridade mínima padrão da busca aproximada. */
+    public static final float DEFAULT_FUZZY_THRESHOLD = 0.45f;
+
+    /** Tamanho dos n-gramas indexados. */
+    private static final int GRAM = 3;
+    /** Separa os valores de um campo com vários valores (elenco, gêneros, comentários). */
+    private static final char SEPARATOR = '\n';
+    private static final int[] NO_IDS = new int[0];
+
+    /** Postings e texto normalizado de um campo. */
+    private static class FieldIndex {
+        final GramTable postings = new GramTable();
+        /**
+         * Texto normalizado do campo por id ({@code null} quando a mídia não tem o campo): um
+         * {@link String} para um valor e, a partir do segundo (elenco, gêneros, comentários), um
+         * {@link StringBuilder} ao qual os seguintes são anexados, para que cada review nova custe
+         * o próprio comentário e não uma cópia de todos os anteriores.
+         */
+        final List<CharSequence> values = new ArrayList<>();
+
+        void append(int id, String folded) {
+            while (values.size() <= id) {
+                values.add(null);
+            }
+            CharSequence current = values.get(id);
+            if (current == null) {
+                values.set(id, folded);
+            } else if (current instanceof StringBuilder) {
+                ((StringBuilder) current).append(SEPARATOR).append(folded);
+            } else {
+                values.set(id, new StringBuilder(current.length() + 1 + folded.length())
+                        .append(current).append(SEPARATOR).append(folded));
+            }
+            for (int i = 0; i + GRAM <= folded.length(); i++) {
+                postings.getOrCreate(GramTable.key(folded, i, GRAM)).addSorted(id);
+            }
+        }
+
+        CharSequence value(int id) {
+            return id < values.size() ? values.get(id) : null;
+        }
+
+        /** Se algum valor do campo na mídia contém o texto normalizado. */
+        boolean contains(int id, String folded) {
+            CharSequence value = value(id);
+            if (value instanceof StringBuilder) {
+                return ((StringBuilder) value).indexOf(folded) >= 0;
+            }
+            return value != null && ((String) value).contains(folded);
+        }
+    }
+
+    private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+    private final Map<Media, Integer> ids = new IdentityHashMap<>();
+    /** Ids das mídias por ano de lançamento, em ordem crescente em cada ano. */
+    private final NavigableMap<Integer, IntList> byYear = new TreeMap<>();
+    /** Id denso de cada gênero, pelo nome em minúsculas, na ordem em que aparecem. */
+    private final Map<String, Integer> genreIds = new HashMap<>();
+    /** Mídias de cada gênero, por id do gênero: o bit {@code i} marca a mídia de id {@code i}. */
+    private final List<BitSet> genreMedia = new ArrayList<>();
+    private final PersonIndex people = new PersonIndex();
+    private int size;
+
+    public MediaIndex() {
+        for (Field field : Field.values()) {
+            fields.put(field, new FieldIndex());
+        }
+    }
+
+    /**
+     * Indexa uma nova mídia (com as reviews que ela já tiver) com o próximo id.
+     *
+     * @param media A mídia, acrescentada ao final da lista agregada.
+     * @return O id atribuído.
+     */
+    public int add(Media media) {
+        int id = size++;
+        ids.put(media, id);
+        byYear.computeIfAbsent(media.getYearRelease(), year -> new IntList()).add(id);
+
+        indexKey(Field.TITLE, id, media.getTitleKey());
+        for (Genre genre : media.getGenres()) {
+            String key = genre.getKey();
+            indexKey(Field.GENRE, id, key);
+            Integer genreId = genreIds.get(key);
+            if (genreId == null) {
+                genreId = genreMedia.size();
+                genreIds.put(key, genreId);
+                genreMedia.add(new BitSet());
+            }
+            genreMedia.get(genreId).set(id);
+        }
+        if (media instanceof Book) {
+            Book book = (Book) media;
+            indexKey(Field.AUTHOR, id, book.getAuthorKey());
+            people.add(book.getAuthor(), book.getAuthorKey(), PersonIndex.Role.AUTHOR, id);
+        }
+        if (media instanceof Films) {
+            Films film = (Films) media;
+            indexKey(Field.DIRECTOR, id, film.getDirectionKey());
+            people.add(film.getDirection(), film.getDirectionKey(), PersonIndex.Role.DIRECTOR, id);
+            people.add(film.getScreenplay(), film.getScreenplayKey(), PersonIndex.Role.SCREENPLAY, id);
+        }
+        if (media instanceof AudioVisualMedia) {
+            AudioVisualMedia audioVisual = (AudioVisualMedia) media;
+            indexKey(Field.ORIGINAL_TITLE, id, audioVisual.getOriginalTitleKey());
+            List<String> cast = audioVisual.getCast();
+            List<String> castKeys = audioVisual.getCastKeys();
+            for (int i = 0; i < cast.size(); i++) {
+                indexKey(Field.CAST, id, castKeys.get(i));
+                people.add(cast.get(i), castKeys.get(i), PersonIndex.Role.CAST, id);
+            }
+        }
+        for (Review review : media.getReviews()) {
+            index(Field.COMMENT, id, review.comment);
+        }
+        if (media instanceof Show) {
+            for (Season season : ((Show) media).getSeasons()) {
+                for (Review review : season.getReviews()) {
+                    index(Field.COMMENT, id, review.comment);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Indexa o comentário de uma nova review de uma mídia já indexada (para séries, a review
+     * de qualquer temporada é associada à série).
+     *
+     * @param media  A mídia avaliada.
+     * @param review A review adicionada.
+     */
+    public void addReview(Media media, Review review) {
+        Integer id = ids.get(media);
+        if (id != null) {
+            index(Field.COMMENT, id, review.comment);
+        }
+    }
+
+    /**
+     * Busca as mídias cujo campo contém o texto (ignorando acentos e maiúsculas/minúsculas).
+     *
+     * @param field O campo pesquisado.
+     * @param query O texto procurado; espaços nas pontas são ignorados.
+     * @return Os ids das mídias encontradas, em ordem crescente (vazio para consulta vazia).
+     */
+    public int[] search(Field field, String query) {
+        if (query == null) {
+            return NO_IDS;
+        }
+        String folded = TextFolding.fold(query.trim());
+        if (folded.isEmpty()) {
+            return NO_IDS;
+        }
+        FieldIndex index = fields.get(field);
+        if (folded.length() < GRAM) {
+            IntList result = new IntList();
+            for (int id = 0; id < index.values.size(); id++) {
+                if (index.contains(id, folded)) {
+                    result.add(id);
+                }
+            }
+            return result.toArray();
+        }
+
+        List<IntList> lists = new ArrayList<>(folded.length() - GRAM + 1);
+        IntList smallest = null;
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            IntList postings = index.postings.get(GramTable.key(folded, i, GRAM));
+            if (postings == null) {
+                return NO_IDS;
+            }
+            lists.add(postings);
+            if (smallest == null || postings.size() < smallest.size()) {
+                smallest = postings;
+            }
+        }
+
+        IntList result = new IntList();
+        candidates:
+        for (int i = 0; i < smallest.size(); i++) {
+            int id = smallest.get(i);
+            for (IntList postings : lists) {
+                if (postings != smallest && !postings.containsSorted(id)) {
+                    continue candidates;
+                }
+            }
+            if (index.contains(id, folded)) {
+                result.add(id);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Busca as mídias lançadas em um intervalo de anos.
+     *
+     * @param from O primeiro ano (incluído).
+     * @param to   O último ano (incluído).
+     * @return Os ids das mídias encontradas, por ano e, em cada ano, em ordem crescente
+     *         (vazio se {@code from > to}).
+     */
+    public int[] searchYears(int from, int to) {
+        if (from > to) {
+            return NO_IDS;
+        }
+        NavigableMap<Integer, IntList> years = byYear.subMap(from, true, to, true);
+        int count = 0;
+        for (IntList yearIds : years.values()) {
+            count += yearIds.size();
+        }
+        int[] result = new int[count];
+        int position = 0;
+        for (IntList yearIds : years.values()) {
+            position = yearIds.copyTo(result, position);
+        }
+        return result;
+    }
+
+    /**
+     * Busca aproximada de títulos, tolerante a erros de digitação ("interestelar" encontra
+     * "Interstellar"), no título e no título original.
+     *
+     * <p>Usa os mesmos postings de trigramas da busca exata. A similaridade combina a cobertura
+     * do termo (fração dos trigramas distintos do termo presentes no título), que acha o termo
+     * dentro de títulos longos, com o coeficiente de Dice
+     * ({@code 2·comuns / (trigramas do termo + trigramas do título)}), que prefere títulos do
+     * tamanho do termo: {@code (3·cobertura + Dice) / 4}, igual a 1 para o título exato.</p>
+     *
+     * <p>Os postings são percorridos do menor para o maior, e só os menores geram candidatos:
+     * uma mídia que não está em nenhum deles não pode alcançar a similaridade mínima. Nos demais,
+     * os candidatos são conferidos por busca binária, quando isso é mais barato que percorrer a
+     * lista. Termos com menos de 3 caracteres usam a busca por substring.</p>
+     *
+     * @param query     O termo (ignorando acentos e maiúsculas/minúsculas).
+     * @param threshold A similaridade mínima (0 a 1).
+     * @param limit     A quantidade máxima de resultados.
+     * @return As mídias encontradas, da mais para a menos similar (empates pela ordem de cadastro).
+     */
+    public List<Scored> fuzzySearch(String query, float threshold, int limit) {
+        List<Scored> result = new ArrayList<>();
+        String folded = query == null ? "" : TextFolding.fold(query.trim());
+        if (folded.isEmpty() || limit <= 0) {
+            return result;
+        }
+        if (folded.length() < GRAM) {
+            for (int id : search(Field.TITLE, folded)) {
+                CharSequence value = fields.get(Field.TITLE).value(id);
+                result.add(new Scored(id, value.length() == folded.length() ? 1f : 0.75f + 0.25f * folded.length() / value.length()));
+            }
+        } else {
+            float[] best = new float[size];
+            IntList matched = new IntList();
+            scoreTitles(Field.TITLE, folded, threshold, best, matched);
+            scoreTitles(Field.ORIGINAL_TITLE, folded, threshold, best, matched);
+            for (int i = 0; i < matched.size(); i++) {
+                int id = matched.get(i);
+                result.add(new Scored(id, best[id]));
+            }
+        }
+        result.sort((a, b) -> a.score != b.score ? Float.compare(b.score, a.score) : Integer.compare(a.id, b.id));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Pontua os títulos de um campo contra o termo e guarda a melhor similaridade (a partir do
+     * mínimo) por id em {@code best}; os ids pontuados pela primeira vez vão para {@code matched}.
+     */
+    private void scoreTitles(Field field, String folded, float threshold, float[] best, IntList matched) {
+        FieldIndex index = fields.get(field);
+        List<IntList> lists = new ArrayList<>();
+        List<Long> seen = new ArrayList<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            Long gram = GramTable.key(folded, i, GRAM);
+            if (!seen.contains(gram)) {
+                seen.add(gram);
+                IntList postings = index.postings.get(gram);
+                if (postings != null) {
+                    lists.add(postings);
+                }
+            }
+        }
+        int gramCount = seen.size();
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        // Dice <= 1, so reaching the threshold needs coverage >= (4·threshold - 1) / 3
+        float minCoverage = Math.max(0f, (4 * threshold - 1) / 3);
+        int minShared = Math.max(1, (int) Math.ceil(minCoverage * gramCount - 1e-6));
+        int missing = gramCount - lists.size();
+        int generating = Math.max(0, gramCount - minShared + 1 - missing);
+
+        int[] shared = new int[size];
+        IntList candidates = new IntList();
+        for (int l = 0; l < lists.size(); l++) {
+            IntList postings = lists.get(l);
+            if (l < generating) {
+                for (int i = 0; i < postings.size(); i++) {
+                    int id = postings.get(i);
+                    if (shared[id]++ == 0) {
+                        candidates.add(id);
+                    }
+                }
+            } else if (candidates.size() * 16 < postings.size()) {
+                for (int i = 0; i < candidates.size(); i++) {
+                    int id = candidates.get(i);
+                    if (postings.containsSorted(id)) {
+                        shared[id]++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < postings.size(); i++) {
+                    int id = postings.get(i);
+                    if (shared[id] > 0) {
+                        shared[id]++;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < candidates.size(); i++) {
+            int id = candidates.get(i);
+            if (shared[id] < minShared) {
+                continue;
+            }
+            CharSequence value = index.value(id);
+            int valueGrams = Math.max(1, value.length() - GRAM + 1);
+            float coverage = (float) shared[id] / gramCount;
+            float dice = Math.min(1f, 2f * shared[id] / (gramCount + valueGrams));
+            float score = folded.contentEquals(value) ? 1f : Math.min(0.99f, (3 * coverage + dice) / 4);
+            if (score >= threshold && score > best[id]) {
+                if (best[id] == 0) {
+                    matched.add(id);
+                }
+                best[id] = score;
+            }
+        }
+    }
+
+    /**
+     * Retorna o índice de pessoas (autores, diretores, roteiristas e elenco) das mídias indexadas,
+     * com os mesmos ids de mídia deste índice.
+     *
+     * @return O índice de pessoas.
+     */
+    public PersonIndex people() {
+        return people;
+    }
+
+    /**
+     * Retorna o id denso de um gênero.
+     *
+     * @param name O nome do gênero (ignorando acentos e maiúsculas/minúsculas).
+     * @return O id, ou -1 se nenhuma mídia indexada tem o gênero.
+     */
+    public int genreId(String name) {
+        Integer id = genreIds.get(TextFolding.fold(name));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retorna as mídias que têm qualquer um (OU) ou todos (E) os gêneros informados.
+     *
+     * @param names Os nomes dos gêneros (ignorando acentos e maiúsculas/minúsculas); não pode ser vazio.
+     * @param all   {@code true} para exigir todos os gêneros, {@code false} para aceitar qualquer um.
+     * @return Um novo {@link BitSet} com os ids das mídias encontradas.
+     */
+    public BitSet mediaWithGenres(Collection<String> names, boolean all) {
+        BitSet result = null;
+        for (String name : names) {
+            int genreId = genreId(name);
+            if (genreId < 0) {
+                if (all) {
+                    return new BitSet(); // Nobody has a genre no media uses
+                }
+                continue;
+            }
+            BitSet genre = genreMedia.get(genreId);
+            if (result == null) {
+                result = (BitSet) genre.clone();
+            } else if (all) {
+                result.and(genre);
+            } else {
+                result.or(genre);
+            }
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    /**
+     * Retorna a quantidade de mídias indexadas (o próximo id a ser atribuído).
+     *
+     * @return O número de mídias no índice.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void index(Field field, int id, String text) {
+        if (text != null) {
+            indexKey(field, id, TextFolding.fold(text));
+        }
+    }
+
+    /** Indexa um texto já normalizado (as chaves guardadas nas entidades). */
+    private void indexKey(Field field, int id, String key) {
+        if (key != null && !key.isEmpty()) {
+            fields.get(field).append(id, key);
+        }
+    }
+}
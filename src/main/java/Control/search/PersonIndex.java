@@ -0,0 +1,224 @@
+package Control.search;
+
+import Module.TextFolding;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice único das pessoas citadas nas mídias (autores, diretores, roteiristas e elenco), para a
+ * busca por pessoa e a filmografia.
+ *
+ * <p>Cada pessoa é identificada pelo nome normalizado ({@link #normalize(String)}: sem acentos,
+ * em minúsculas, com espaços simples) e guarda seus créditos, o papel e o id da mídia, compactados
+ * em um {@link IntList}. Para a busca por prefixo, cada pessoa também aparece em um
+ * {@link TreeMap} a partir de cada palavra do nome ("frank herbert" e "herbert"), de modo que
+ * "herb" e "frank h" encontrem Frank Herbert em O(log n + k).</p>
+ *
+ * <p>Os ids de mídia são os do {@link MediaIndex}, que mantém este índice; como ele, não é
+ * thread-safe.</p>
+ */
+public class PersonIndex {
+
+    /** Papel de uma pessoa em uma mídia. */
+    public enum Role {
+        AUTHOR, DIRECTOR, SCREENPLAY, CAST
+    }
+
+    /** Recebe os créditos encontrados. */
+    public interface CreditVisitor {
+        /**
+         * @param person  O nome da pessoa, como foi cadastrado pela primeira vez.
+         * @param role    O papel.
+         * @param mediaId O id da mídia.
+         */
+        void credit(String person, Role role, int mediaId);
+    }
+
+    private static final Role[] ROLES = Role.values();
+    /** Bits do papel em um crédito compactado ({@code mediaId << ROLE_BITS | papel}). */
+    private static final int ROLE_BITS = 2;
+
+    private static class Person {
+        final String name;
+        final String key;
+        final IntList credits = new IntList(2);
+
+        Person(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+    }
+
+    private final Map<String, Person> people = new HashMap<>();
+    /** Pessoas pelo nome normalizado a partir de cada palavra. */
+    private final NavigableMap<String, List<Person>> byWord = new TreeMap<>();
+
+    /**
+     * Retorna a forma normalizada de um nome: sem acentos, em minúsculas, sem espaços nas pontas
+     * e com um único espaço entre as palavras.
+     *
+     * @param name O nome (pode ser {@code null}).
+     * @return O nome normalizado ({@code ""} para {@code null}).
+     */
+    public static String normalize(String name) {
+        return TextFolding.foldName(name);
+    }
+
+    /**
+     * Verifica se alguma palavra do nome começa com o prefixo (a mesma regra de {@link #lookup}).
+     *
+     * @param name   O nome, como cadastrado.
+     * @param prefix O prefixo já normalizado com {@link #normalize(String)}.
+     * @return {@code true} se o nome normalizado começar com o prefixo ou tiver uma palavra que comece com ele.
+     */
+    public static boolean matchesPrefix(String name, String prefix) {
+        return keyMatchesPrefix(normalize(name), prefix);
+    }
+
+    /**
+     * Como {@link #matchesPrefix(String, String)}, para um nome já normalizado (as chaves
+     * guardadas nas mídias, como {@link Module.Book#getAuthorKey()}).
+     *
+     * @param key    O nome normalizado.
+     * @param prefix O prefixo já normalizado.
+     * @return {@code true} se a chave começar com o prefixo ou tiver uma palavra que comece com ele.
+     */
+    public static boolean keyMatchesPrefix(String key, String prefix) {
+        if (key.startsWith(prefix)) {
+            return true;
+        }
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            if (key.startsWith(prefix, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registra um crédito.
+     *
+     * @param name    O nome da pessoa; nomes vazios são ignorados.
+     * @param role    O papel.
+     * @param mediaId O id da mídia (crescente entre chamadas para a mesma pessoa, como no {@link MediaIndex}).
+     */
+    public void add(String name, Role role, int mediaId) {
+        add(name, normalize(name), role, mediaId);
+    }
+
+    /**
+     * Registra um crédito cujo nome já foi normalizado (evita normalizar de novo as chaves
+     * guardadas nas mídias).
+     *
+     * @param name    O nome da pessoa, como cadastrado.
+     * @param key     O nome normalizado com {@link #normalize(String)}; chaves vazias são ignoradas.
+     * @param role    O papel.
+     * @param mediaId O id da mídia.
+     */
+    public void add(String name, String key, Role role, int mediaId) {
+        if (key.isEmpty()) {
+            return;
+        }
+        Person person = people.get(key);
+        if (person == null) {
+            person = new Person(name.trim(), key);
+            people.put(key, person);
+            for (int i = 0; i < key.length(); i++) {
+                if (i == 0 || key.charAt(i - 1) == ' ') {
+                    byWord.computeIfAbsent(key.substring(i), word -> new ArrayList<>(1)).add(person);
+                }
+            }
+        }
+        person.credits.addSorted(mediaId << ROLE_BITS | role.ordinal());
+    }
+
+    /**
+     * Percorre os créditos das pessoas com alguma palavra do nome começando pelo prefixo, pessoa
+     * a pessoa em ordem alfabética e, para cada pessoa, pela ordem das mídias.
+     *
+     * @param prefix  O início do nome ou de uma palavra do nome; vazio não encontra nada.
+     * @param visitor Recebe cada crédito.
+     */
+    public void lookup(String prefix, CreditVisitor visitor) {
+        for (Person person : matching(prefix)) {
+            visit(person, visitor);
+        }
+    }
+
+    /**
+     * Percorre os créditos de uma pessoa, pelo nome completo.
+     *
+     * @param name    O nome (ignorando acentos, maiúsculas/minúsculas e espaços extras).
+     * @param visitor Recebe cada crédito.
+     */
+    public void credits(String name, CreditVisitor visitor) {
+        Person person = people.get(normalize(name));
+        if (person != null) {
+            visit(person, visitor);
+        }
+    }
+
+    /**
+     * Retorna as mídias em que alguma pessoa com o prefixo tem crédito.
+     *
+     * @param prefix O início do nome ou de uma palavra do nome.
+     * @return Um novo {@link BitSet} com os ids das mídias.
+     */
+    public BitSet mediaIds(String prefix) {
+        BitSet result = new BitSet();
+        for (Person person : matching(prefix)) {
+            for (int i = 0; i < person.credits.size(); i++) {
+                result.set(person.credits.get(i) >>> ROLE_BITS);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna os nomes das pessoas com o prefixo, em ordem alfabética (para sugestões e para a
+     * escolha da filmografia).
+     *
+     * @param prefix O início do nome ou de uma palavra do nome.
+     * @return Os nomes, como cadastrados.
+     */
+    public List<String> names(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (Person person : matching(prefix)) {
+            names.add(person.name);
+        }
+        return names;
+    }
+
+    private List<Person> matching(String prefix) {
+        String key = normalize(prefix);
+        List<Person> result = new ArrayList<>();
+        if (key.isEmpty()) {
+            return result;
+        }
+        Map<Person, Boolean> seen = new IdentityHashMap<>();
+        // Keys starting with the prefix form one contiguous range of the sorted map
+        for (List<Person> persons : byWord.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (Person person : persons) {
+                if (seen.put(person, Boolean.TRUE) == null) {
+                    result.add(person);
+                }
+            }
+        }
+        result.sort((a, b) -> a.key.compareTo(b.key));
+        return result;
+    }
+
+    private static void visit(Person person, CreditVisitor visitor) {
+        for (int i = 0; i < person.credits.size(); i++) {
+            int credit = person.credits.get(i);
+            visitor.credit(person.name, ROLES[credit & ((1 << ROLE_BITS) - 1)], credit >>> ROLE_BITS);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package Control.search;
+
+import Module.Media;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mídias ordenadas pela avaliação, mantidas ordenadas a cada review para que a listagem por nota
+ * não precise ordenar a biblioteca inteira a cada pedido.
+ *
+ * <p>A ordem é a mesma de {@code WorkManager.sortByRating}: pela nota (decrescente ou crescente)
+ * e, em empate, pelo título ({@link Media#getTitleKey()}, depois o título) e pela ordem de
+ * cadastro. Como o desempate é alfabético nos dois sentidos, a ordem crescente não é a
+ * decrescente invertida; por isso há uma árvore para cada sentido.</p>
+ *
+ * <p>Cada árvore é uma treap (árvore binária de busca com prioridades aleatórias, balanceada em
+ * média) em que cada nó guarda o tamanho da subárvore. Isso permite achar a k-ésima mídia e a
+ * posição de uma mídia em O(log n): as primeiras K mídias, uma página qualquer e o ranking de
+ * uma mídia saem sem percorrer as demais. Uma mudança de nota remove a mídia e a insere de novo,
+ * também em O(log n).</p>
+ *
+ * <p>Não é thread-safe; o {@code WorkManager} o mantém e o usa sob a sua trava de leitura e escrita.</p>
+ */
+public class RatingIndex {
+
+    /** Uma mídia e a nota com que está nas árvores. */
+    private static final class Entry {
+        final Media media;
+        final int sequence;
+        float rating;
+
+        Entry(Media media, int sequence, float rating) {
+            this.media = media;
+            this.sequence = sequence;
+            this.rating = rating;
+        }
+    }
+
+    private static final Comparator<Entry> BY_TITLE = Comparator.<Entry, String>comparing(e -> e.media.getTitleKey())
+            .thenComparing(e -> e.media.getTitle())
+            .thenComparingInt(e -> e.sequence);
+    private static final Comparator<Entry> ASCENDING = Comparator.<Entry>comparingDouble(e -> e.rating).thenComparing(BY_TITLE);
+    private static final Comparator<Entry> DESCENDING = Comparator.<Entry>comparingDouble(e -> -e.rating).thenComparing(BY_TITLE);
+
+    private final Map<Media, Entry> entries = new IdentityHashMap<>();
+    private final Treap ascending = new Treap(ASCENDING);
+    private final Treap descending = new Treap(DESCENDING);
+    private final Random priorities = new Random(0x5EEDL);
+
+    /**
+     * Acrescenta uma mídia (depois das mídias de mesma nota e título já acrescentadas).
+     *
+     * @param media  A mídia; uma mídia já presente é ignorada.
+     * @param rating A nota atual da mídia.
+     */
+    public void add(Media media, float rating) {
+        if (entries.containsKey(media)) {
+            return;
+        }
+        Entry entry = new Entry(media, entries.size(), rating);
+        entries.put(media, entry);
+        ascending.insert(entry, priorities.nextInt());
+        descending.insert(entry, priorities.nextInt());
+    }
+
+    /**
+     * Atualiza a nota de uma mídia, reposicionando-a nas duas ordens.
+     *
+     * @param media  A mídia.
+     * @param rating A nova nota; mídias que não estão no índice são ignoradas.
+     */
+    public void update(Media media, float rating) {
+        Entry entry = entries.get(media);
+        if (entry == null || entry.rating == rating) {
+            return;
+        }
+        ascending.remove(entry);
+        descending.remove(entry);
+        entry.rating = rating;
+        ascending.insert(entry, priorities.nextInt());
+        descending.insert(entry, priorities.nextInt());
+    }
+
+    /**
+     * Retorna a quantidade de mídias.
+     *
+     * @return O número de mídias no índice.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retorna uma página da ordem por nota. Custa O(limit · log n).
+     *
+     * @param descending {@code true} para maior nota primeiro.
+     * @param offset     A posição da primeira mídia da página (0 é a primeira).
+     * @param limit      O tamanho máximo da página.
+     * @return As mídias da página (vazia além do fim).
+     */
+    public List<Media> page(boolean descending, int offset, int limit) {
+        Treap tree = descending ? this.descending : ascending;
+        int from = Math.max(0, offset);
+        int to = (int) Math.min((long) from + Math.max(0, limit), entries.size());
+        List<Media> page = new ArrayList<>(Math.max(0, to - from));
+        for (int position = from; position < to; position++) {
+            page.add(tree.select(position).media);
+        }
+        return page;
+    }
+
+    /**
+     * Copia todas as mídias na ordem por nota, percorrendo a árvore em ordem. Custa O(n).
+     *
+     * @param descending {@code true} para maior nota primeiro.
+     * @return Uma nova lista com todas as mídias.
+     */
+    public List<Media> toList(boolean descending) {
+        List<Media> result = new ArrayList<>(entries.size());
+        (descending ? this.descending : ascending).collect(result);
+        return result;
+    }
+
+    /**
+     * Retorna a posição de uma mídia na ordem por nota. Custa O(log n).
+     *
+     * @param media      A mídia.
+     * @param descending {@code true} para maior nota primeiro.
+     * @return A posição (0 é a primeira), ou -1 se a mídia não estiver no índice.
+     */
+    public int rank(Media media, boolean descending) {
+        Entry entry = entries.get(media);
+        if (entry == null) {
+            return -1;
+        }
+        return (descending ? this.descending : ascending).rank(entry);
+    }
+
+    /** Treap com tamanho de subárvore, ordenada pelo comparador. */
+    private static final class Treap {
+
+        private static final class Node {
+            final Entry entry;
+            final int priority;
+            int size = 1;
+            Node left;
+            Node right;
+
+            Node(Entry entry, int priority) {
+                this.entry = entry;
+                this.priority = priority;
+            }
+        }
+
+        private final Comparator<Entry> order;
+        private Node root;
+
+        Treap(Comparator<Entry> order) {
+            this.order = order;
+        }
+
+        void insert(Entry entry, int priority) {
+            root = insert(root, new Node(entry, priority));
+        }
+
+        void remove(Entry entry) {
+            root = remove(root, entry);
+        }
+
+        Entry select(int position) {
+            Node node = root;
+            while (true) {
+                int leftSize = size(node.left);
+                if (position < leftSize) {
+                    node = node.left;
+                } else if (position == leftSize) {
+                    return node.entry;
+                } else {
+                    position -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        void collect(List<Media> target) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            while (node != null || !path.isEmpty()) {
+                while (node != null) {
+                    path.add(node);
+                    node = node.left;
+                }
+                node = path.remove(path.size() - 1);
+                target.add(node.entry.media);
+                node = node.right;
+            }
+        }
+
+        int rank(Entry entry) {
+            int rank = 0;
+            Node node = root;
+            while (node != null) {
+                int comparison = order.compare(entry, node.entry);
+                if (comparison < 0) {
+                    node = node.left;
+                } else {
+                    rank += size(node.left);
+                    if (comparison == 0) {
+                        return rank;
+                    }
+                    rank++;
+                    node = node.right;
+                }
+            }
+            return -1;
+        }
+
+        private Node insert(Node node, Node inserted) {
+            if (node == null) {
+                return inserted;
+            }
+            if (order.compare(inserted.entry, node.entry) < 0) {
+                node.left = insert(node.left, inserted);
+                if (node.left.priority > node.priority) {
+                    node = rotateRight(node);
+                }
+            } else {
+                node.right = insert(node.right, inserted);
+                if (node.right.priority > node.priority) {
+                    node = rotateLeft(node);
+                }
+            }
+            update(node);
+            return node;
+        }
+
+        private Node remove(Node node, Entry entry) {
+            if (node == null) {
+                return null;
+            }
+            int comparison = order.compare(entry, node.entry);
+            if (comparison < 0) {
+                node.left = remove(node.left, entry);
+            } else if (comparison > 0) {
+                node.right = remove(node.right, entry);
+            } else {
+                return merge(node.left, node.right);
+            }
+            update(node);
+            return node;
+        }
+
+        /** Junta duas treaps em que todas as chaves de {@code left} vêm antes das de {@code right}. */
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                update(left);
+                return left;
+            }
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static void update(Node node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package Control.search;
+
+import Module.TextFolding;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Autocompletar de títulos por prefixo, para os campos em que o usuário escolhe uma mídia
+ * digitando o começo do título.
+ *
+ * <p>Os títulos ficam em um {@link TreeMap} pela chave normalizada (sem acentos, em minúsculas),
+ * de modo que os títulos que começam com um prefixo formam um intervalo contíguo do mapa,
+ * encontrado em O(log n); as {@code limit} primeiras sugestões saem desse intervalo sem percorrer
+ * o resto. Como no {@link PersonIndex}, cada título também aparece a partir de cada palavra
+ * ("senhor dos aneis", "dos aneis", "aneis"), para que "anéis" sugira "O Senhor dos Anéis"; as
+ * sugestões pelo início do título vêm antes.</p>
+ *
+ * <p>Não é thread-safe; o {@code WorkManager} mantém um por biblioteca e o usa sob a sua trava de leitura e escrita.</p>
+ */
+public class TitleCompleter {
+
+    /** Títulos pela chave completa. */
+    private final NavigableMap<String, List<String>> byTitle = new TreeMap<>();
+    /** Títulos a partir de cada palavra depois da primeira. */
+    private final NavigableMap<String, List<String>> byWord = new TreeMap<>();
+
+    /**
+     * Acrescenta um título.
+     *
+     * @param title O título, como cadastrado.
+     * @param key   O título normalizado ({@link Module.Media#getTitleKey()}); vazio é ignorado.
+     */
+    public void add(String title, String key) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        byTitle.computeIfAbsent(key, k -> new ArrayList<>(1)).add(title);
+        for (int i = 1; i < key.length(); i++) {
+            if (key.charAt(i - 1) == ' ' && key.charAt(i) != ' ') {
+                byWord.computeIfAbsent(key.substring(i), k -> new ArrayList<>(1)).add(title);
+            }
+        }
+    }
+
+    /**
+     * Retorna os títulos que começam com o prefixo, ou que têm uma palavra que começa com ele,
+     * em ordem alfabética (primeiro os que começam com o prefixo).
+     *
+     * @param prefix O texto digitado (ignorando acentos e maiúsculas/minúsculas); vazio sugere
+     *               os primeiros títulos em ordem alfabética.
+     * @param limit  A quantidade máxima de sugestões.
+     * @return Os títulos, como cadastrados, sem repetições.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = TextFolding.fold(prefix).trim();
+        Set<String> result = new LinkedHashSet<>();
+        if (limit > 0) {
+            collect(byTitle, key, result, limit);
+            if (!key.isEmpty()) {
+                collect(byWord, key, result, limit);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static void collect(NavigableMap<String, List<String>> map, String key, Set<String> result, int limit) {
+        // Keys starting with the prefix form one contiguous range of the sorted map
+        Map<String, List<String>> range = key.isEmpty() ? map : map.subMap(key, true, key + Character.MAX_VALUE, false);
+        for (List<String> titles : range.values()) {
+            for (String title : titles) {
+                if (result.size() >= limit) {
+                    return;
+                }
+                result.add(title);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package Control.search;
+
+import Module.Media;
+import Module.TextFolding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Mídias em ordem alfabética de título, mantidas ordenadas a cada cadastro para que a listagem
+ * alfabética seja uma cópia em O(n), sem ordenar de novo a cada chamada.
+ *
+ * <p>As mídias ficam em um {@link TreeMap} pela chave normalizada do título
+ * ({@link Media#getTitleKey()}); mídias com a mesma chave ficam juntas, pelo título e, em
+ * empate, pela ordem de cadastro. É a mesma ordem de {@code WorkManager.TITLE_ORDER}. Cada
+ * inserção custa O(log n), e uma página a partir de qualquer posição ({@link #pageFrom},
+ * {@link #pageAfter}) custa O(log n + tamanho da página).</p>
+ *
+ * <p>Não é thread-safe; o {@code WorkManager} o mantém e o usa sob a sua trava de leitura e escrita.</p>
+ */
+public class TitleOrder {
+
+    private final NavigableMap<String, List<Media>> byKey = new TreeMap<>();
+    private int size;
+
+    /**
+     * Acrescenta uma mídia na posição da ordem alfabética.
+     *
+     * @param media A mídia.
+     */
+    public void add(Media media) {
+        List<Media> sameKey = byKey.computeIfAbsent(media.getTitleKey(), key -> new ArrayList<>(1));
+        int position = sameKey.size();
+        while (position > 0 && sameKey.get(position - 1).getTitle().compareTo(media.getTitle()) > 0) {
+            position--; // Usually no step at all: distinct titles rarely share a key
+        }
+        sameKey.add(position, media);
+        size++;
+    }
+
+    /**
+     * Retorna a quantidade de mídias.
+     *
+     * @return O número de mídias acrescentadas.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copia as mídias de um tipo, em ordem alfabética.
+     *
+     * @param type O tipo das mídias ({@code Media.class} para todas).
+     * @param <T>  O tipo das mídias.
+     * @return Uma nova lista com as mídias do tipo.
+     */
+    public <T extends Media> List<T> toList(Class<T> type) {
+        List<T> result = new ArrayList<>(type == Media.class ? size : 16);
+        for (List<Media> sameKey : byKey.values()) {
+            for (Media media : sameKey) {
+                if (type.isInstance(media)) {
+                    result.add(type.cast(media));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna uma página a partir do primeiro título que não vem antes do texto.
+     *
+     * @param title O início da página (ignorando acentos e maiúsculas/minúsculas); vazio começa do primeiro título.
+     * @param limit O tamanho máximo da página.
+     * @return As mídias da página, em ordem alfabética.
+     */
+    public List<Media> pageFrom(String title, int limit) {
+        List<Media> page = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+        fill(byKey.tailMap(TextFolding.fold(title == null ? "" : title.trim()), true), page, limit);
+        return page;
+    }
+
+    /**
+     * Retorna a página seguinte a uma mídia, normalmente a última da página anterior.
+     *
+     * @param last  A mídia que precede a página, ou {@code null} para começar do primeiro título.
+     * @param limit O tamanho máximo da página.
+     * @return As mídias da página, em ordem alfabética (vazia se {@code last} não estiver aqui).
+     */
+    public List<Media> pageAfter(Media last, int limit) {
+        if (last == null) {
+            return pageFrom("", limit);
+        }
+        List<Media> page = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+        List<Media> sameKey = byKey.get(last.getTitleKey());
+        int position = -1;
+        for (int i = 0; sameKey != null && i < sameKey.size(); i++) {
+            if (sameKey.get(i) == last) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            return page;
+        }
+        for (int i = position + 1; i < sameKey.size() && page.size() < limit; i++) {
+            page.add(sameKey.get(i));
+        }
+        fill(byKey.tailMap(last.getTitleKey(), false), page, limit);
+        return page;
+    }
+
+    private static void fill(Map<String, List<Media>> range, List<Media> page, int limit) {
+        for (List<Media> sameKey : range.values()) {
+            for (Media media : sameKey) {
+                if (page.size() >= limit) {
+                    return;
+                }
+                page.add(media);
+            }
+        }
+    }
+}
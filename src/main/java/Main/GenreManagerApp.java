@@ -66,6 +66,11 @@ public class GenreManagerApp extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        workManager.close(); // Writes any pending changes before the JVM exits
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -36,6 +36,11 @@ public class MainJava extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        workManagerInstance.close(); // Writes any pending changes before the JVM exits
+    }
+
     public static void main(String[] args) {
         launch();
     }
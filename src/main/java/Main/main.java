@@ -7,7 +7,7 @@ public class  main {
     public static void main(String[] args) {
 
         WorkManager control = new WorkManager();
-        Screen view = new Screen();
+        Screen view = new Screen(control);
 
         view.start();
     }
@@ -1,5 +1,7 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,6 +21,9 @@ public class AudioVisualMedia extends Media implements Serializable { // Added S
     private final String originalTitle;
     private final List<String> whereWatch;
     private final List<String> cast;
+    /** Título original e elenco normalizados (recalculados na desserialização). */
+    private transient String originalTitleKey;
+    private transient List<String> castKeys;
 
     /**
      * Construtor para criar uma instância de AudioVisualMedia.
@@ -49,6 +54,20 @@ public class AudioVisualMedia extends Media implements Serializable { // Added S
         } else {
             this.cast = new ArrayList<>();
         }
+        foldKeys();
+    }
+
+    private void foldKeys() {
+        originalTitleKey = TextFolding.fold(originalTitle);
+        castKeys = new ArrayList<>(cast.size());
+        for (String person : cast) {
+            castKeys.add(TextFolding.foldName(person));
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        foldKeys();
     }
 
     /**
@@ -61,6 +80,15 @@ public class AudioVisualMedia extends Media implements Serializable { // Added S
         return originalTitle;
     }
 
+    /**
+     * Retorna o título original normalizado: sem acentos e em minúsculas.
+     *
+     * @return A chave do título original.
+     */
+    public String getOriginalTitleKey() {
+        return originalTitleKey;
+    }
+
     /**
      * Retorna uma cópia não modificável da lista de locais onde a mídia pode ser assistida.
      *
@@ -81,6 +109,16 @@ public class AudioVisualMedia extends Media implements Serializable { // Added S
         return Collections.unmodifiableList(cast);
     }
 
+    /**
+     * Retorna os nomes do elenco normalizados ({@link TextFolding#foldName(String)}), na mesma
+     * ordem de {@link #getCast()}.
+     *
+     * @return Uma lista não modificável com as chaves dos nomes.
+     */
+    public List<String> getCastKeys() {
+        return Collections.unmodifiableList(castKeys);
+    }
+
     /**
      * Retorna uma representação em string da mídia audiovisual.
      * Inclui informações da classe Media e adiciona título original, elenco e onde assistir.
@@ -1,5 +1,7 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 
@@ -15,6 +17,9 @@ public class Book extends Media implements Serializable { // Added Serializable
     private final String publisher;
     private final String isbn;
     private final boolean copy;
+    /** Autor e ISBN normalizados (recalculados na desserialização). */
+    private transient String authorKey;
+    private transient String isbnKey;
 
     /**
      * Construtor para criar uma instância de Book.
@@ -44,6 +49,14 @@ public class Book extends Media implements Serializable { // Added Serializable
         this.publisher = (publisher != null) ? publisher.trim() : ""; // Allow empty publisher
         this.isbn = isbn.trim();
         this.copy = copy;
+        this.authorKey = TextFolding.foldName(this.author);
+        this.isbnKey = TextFolding.fold(this.isbn);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        authorKey = TextFolding.foldName(author);
+        isbnKey = TextFolding.fold(isbn);
     }
 
     /**
@@ -56,6 +69,15 @@ public class Book extends Media implements Serializable { // Added Serializable
         return author;
     }
 
+    /**
+     * Retorna o nome do autor normalizado ({@link TextFolding#foldName(String)}).
+     *
+     * @return A chave do nome do autor.
+     */
+    public String getAuthorKey() {
+        return authorKey;
+    }
+
     /**
      * Retorna o nome da editora do livro.
      *
@@ -76,6 +98,15 @@ public class Book extends Media implements Serializable { // Added Serializable
         return isbn;
     }
 
+    /**
+     * Retorna o ISBN normalizado (em minúsculas).
+     *
+     * @return A chave do ISBN.
+     */
+    public String getIsbnKey() {
+        return isbnKey;
+    }
+
     /**
      * Retorna se o usuário possui uma cópia física do livro.
      *
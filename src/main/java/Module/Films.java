@@ -1,5 +1,7 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 
@@ -13,6 +15,9 @@ public class Films extends AudioVisualMedia implements Serializable { // Added S
     private final String direction;
     private final int runningtime;
     private final String screenplay;
+    /** Direção e roteiro normalizados (recalculados na desserialização). */
+    private transient String directionKey;
+    private transient String screenplayKey;
 
     /**
      * Construtor para criar uma instância de Films.
@@ -38,6 +43,14 @@ public class Films extends AudioVisualMedia implements Serializable { // Added S
         this.direction = (direction != null) ? direction.trim() : "";
         this.runningtime = runningtime;
         this.screenplay = (screenplay != null) ? screenplay.trim() : "";
+        this.directionKey = TextFolding.foldName(this.direction);
+        this.screenplayKey = TextFolding.foldName(this.screenplay);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        directionKey = TextFolding.foldName(direction);
+        screenplayKey = TextFolding.foldName(screenplay);
     }
 
     /**
@@ -49,6 +62,15 @@ public class Films extends AudioVisualMedia implements Serializable { // Added S
         return direction;
     }
 
+    /**
+     * Retorna o nome da direção normalizado ({@link TextFolding#foldName(String)}).
+     *
+     * @return A chave do nome da direção.
+     */
+    public String getDirectionKey() {
+        return directionKey;
+    }
+
     /**
      * Retorna a duração do filme em minutos.
      *
@@ -67,6 +89,15 @@ public class Films extends AudioVisualMedia implements Serializable { // Added S
         return screenplay;
     }
 
+    /**
+     * Retorna o nome do roteiro normalizado ({@link TextFolding#foldName(String)}).
+     *
+     * @return A chave do nome do roteiro.
+     */
+    public String getScreenplayKey() {
+        return screenplayKey;
+    }
+
     @Override
     public String toString() {
         return super.toString() + "\n" +
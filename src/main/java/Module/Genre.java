@@ -1,18 +1,22 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * Representa um gênero cultural (ex: Ficção Científica, Drama, Romance).
- * Implementa Comparable para permitir ordenação alfabética (case-insensitive).
+ * Implementa Comparable para permitir ordenação alfabética (ignorando acentos e maiúsculas/minúsculas).
  * Sobrescreve equals e hashCode para comparação e uso em coleções baseadas em hash,
- * tratando nomes de gênero de forma case-insensitive.
+ * comparando a forma normalizada do nome ({@link #getKey()}): "Ação" e "acao" são o mesmo gênero.
  * Esta classe é imutável após a criação.
  */
 public class Genre implements Comparable<Genre>, Serializable { // Added Serializable
     private static final long serialVersionUID = 1L; // Added
     private String genre;
+    /** Nome normalizado ({@link TextFolding#fold(String)}), recalculado na desserialização. */
+    private transient String key;
 
     /**
      * Construtor para criar uma instância de Genre.
@@ -26,6 +30,12 @@ public class Genre implements Comparable<Genre>, Serializable { // Added Seriali
             throw new IllegalArgumentException("Genre name cannot be null or empty.");
         }
         this.genre = genre.trim();
+        this.key = TextFolding.fold(this.genre);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        key = TextFolding.fold(genre);
     }
 
     /**
@@ -37,6 +47,15 @@ public class Genre implements Comparable<Genre>, Serializable { // Added Seriali
         return genre;
     }
 
+    /**
+     * Retorna o nome do gênero normalizado: sem acentos e em minúsculas.
+     *
+     * @return A chave do gênero, usada em equals, hashCode, compareTo e nas buscas.
+     */
+    public String getKey() {
+        return key;
+    }
+
     /**
      * Retorna a representação em string do gênero (o próprio nome).
      *
@@ -48,39 +67,39 @@ public class Genre implements Comparable<Genre>, Serializable { // Added Seriali
     }
 
     /**
-     * Compara este gênero com outro gênero alfabeticamente, ignorando maiúsculas/minúsculas.
+     * Compara este gênero com outro gênero alfabeticamente, ignorando acentos e maiúsculas/minúsculas.
      * Essencial para ordenação (ex: Collections.sort).
      *
      * @param other O outro objeto Genre a ser comparado. Não deve ser nulo.
      * @return um valor negativo se este gênero vier antes de `other`,
-     *         zero se forem considerados iguais (ignorando case),
+     *         zero se forem considerados iguais (mesma chave),
      *         ou um valor positivo se este gênero vier depois de `other`.
      * @throws NullPointerException se `other` for nulo.
      */
     @Override
     public int compareTo(Genre other) {
         Objects.requireNonNull(other, "Cannot compare to a null Genre.");
-        return this.genre.compareToIgnoreCase(other.genre);
+        return this.key.compareTo(other.key);
     }
 
     /**
      * Verifica se este gênero é igual a outro objeto.
-     * A igualdade é baseada no nome do gênero, ignorando maiúsculas/minúsculas.
+     * A igualdade é baseada no nome do gênero, ignorando acentos e maiúsculas/minúsculas.
      * Fundamental para operações como `List.contains()`, `Set.add()`, etc.
      *
      * @param o O objeto a ser comparado com este Genre.
-     * @return `true` se `o` for um objeto Genre com o mesmo nome (ignorando case), `false` caso contrário.
+     * @return `true` se `o` for um objeto Genre com a mesma chave, `false` caso contrário.
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Genre otherGenre = (Genre) o;
-        return this.genre.equalsIgnoreCase(otherGenre.genre);
+        return this.key.equals(otherGenre.key);
     }
 
     /**
-     * Retorna um código hash para este gênero, baseado no nome do gênero em minúsculas.
+     * Retorna um código hash para este gênero, baseado no nome normalizado.
      * Garante que gêneros iguais (pelo método `equals`) tenham o mesmo `hashCode`.
      * Essencial para o bom funcionamento de coleções baseadas em hash como `HashSet` e `HashMap`.
      *
@@ -88,6 +107,6 @@ public class Genre implements Comparable<Genre>, Serializable { // Added Seriali
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.genre.toLowerCase());
+        return key.hashCode();
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,6 +15,9 @@ import java.util.Objects;
  * (tipicamente usada por Livros e Filmes, enquanto Séries usam reviews por temporada).
  * Instâncias desta classe base são imutáveis em seus atributos principais após a criação,
  * mas a lista de reviews pode ser modificada (adicionando reviews).
+ * Como as temporadas de {@link Show}, a lista de reviews é copiada a cada review adicionada e
+ * nunca alterada depois de publicada: {@link #getReviews()} a devolve sem copiar, e quem a
+ * percorre em outra thread não é afetado por reviews adicionadas no meio.
  */
 public class Media implements Serializable { // Added Serializable
     private static final long serialVersionUID = 1L; // Added
@@ -21,7 +26,13 @@ public class Media implements Serializable { // Added Serializable
     private final int yearRelease;
     private final boolean seen;
     private final List<Genre> listGenres;
-    private final List<Review> listReviews;
+    private volatile List<Review> listReviews; // Replaced (never modified) by addReview
+    /** Agregados das reviews diretas, mantidos por {@link #addReview(Review)} (recalculados na desserialização). */
+    private transient double starsSum;
+    private transient int reviewCount;
+    private transient float lastStars;
+    /** Título normalizado ({@link TextFolding#fold(String)}), usado nas comparações e buscas (recalculado na desserialização). */
+    private transient String titleKey;
 
     /**
      * Construtor para criar uma instância base de Media.
@@ -42,10 +53,11 @@ public class Media implements Serializable { // Added Serializable
             throw new IllegalArgumentException("Genres list cannot be null (can be empty).");
         }
         this.title = title.trim();
+        this.titleKey = TextFolding.fold(this.title);
         this.yearRelease = yearRelease;
         this.seen = seen;
         this.listGenres = new ArrayList<>(genres); // Defensive copy
-        this.listReviews = new ArrayList<>();
+        this.listReviews = Collections.emptyList();
     }
 
     /**
@@ -57,6 +69,15 @@ public class Media implements Serializable { // Added Serializable
         return title;
     }
 
+    /**
+     * Retorna o título normalizado: sem acentos e em minúsculas.
+     *
+     * @return A chave do título, usada para comparar títulos e nas buscas.
+     */
+    public String getTitleKey() {
+        return titleKey;
+    }
+
 
     /**
      * Retorna o ano de lançamento da mídia.
@@ -137,16 +158,77 @@ public class Media implements Serializable { // Added Serializable
      */
     public void addReview(Review review) {
         Objects.requireNonNull(review, "Review to add cannot be null.");
-        listReviews.add(review);
+        addReviews(Collections.singletonList(review));
+    }
+
+    /**
+     * Adiciona várias reviews de uma vez, com uma única cópia da lista (usado ao decodificar
+     * uma mídia salva).
+     *
+     * @param reviews As reviews, na ordem em que foram feitas. Nenhuma pode ser nula.
+     * @throws NullPointerException se alguma review for nula.
+     */
+    public void addReviews(List<Review> reviews) {
+        List<Review> updated = new ArrayList<>(listReviews.size() + reviews.size());
+        updated.addAll(listReviews);
+        for (Review review : reviews) {
+            updated.add(Objects.requireNonNull(review, "Review to add cannot be null."));
+            starsSum += review.getStars();
+            reviewCount++;
+            lastStars = review.getStars();
+        }
+        this.listReviews = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * Retorna a quantidade de reviews diretas desta mídia, sem percorrer a lista.
+     *
+     * @return O número de reviews adicionadas com {@link #addReview(Review)}.
+     */
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    /**
+     * Retorna a soma das notas das reviews diretas desta mídia.
+     *
+     * @return A soma das estrelas (0 se não houver reviews).
+     */
+    public double getStarsSum() {
+        return starsSum;
+    }
+
+    /**
+     * Retorna a nota da última review direta adicionada.
+     *
+     * @return A nota da última review, ou 0.0f se não houver reviews.
+     */
+    public float getLastStars() {
+        return lastStars;
+    }
+
+    /**
+     * Restaura os agregados de avaliação, que não fazem parte da forma serializada.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        listReviews = Collections.unmodifiableList(new ArrayList<>(listReviews)); // Older files stored a mutable list
+        titleKey = TextFolding.fold(title);
+        for (Review review : listReviews) {
+            starsSum += review.getStars();
+            reviewCount++;
+            lastStars = review.getStars();
+        }
     }
 
     /**
-     * Retorna uma cópia não modificável da lista de reviews diretas associadas a esta mídia.
+     * Retorna a lista não modificável de reviews diretas associadas a esta mídia.
      * Para séries, as reviews relevantes normalmente estão dentro dos objetos `Season`.
+     * A lista não muda depois de retornada: uma nova review substitui a lista da mídia por outra.
      *
      * @return Uma lista não modificável (`UnmodifiableList`) de objetos Review.
      */
     public List<Review> getReviews() {
-        return Collections.unmodifiableList(listReviews);
+        return listReviews;
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -12,13 +14,18 @@ import java.util.Objects;
  * e uma lista própria de {@link Review} para essa temporada específica.
  * A classe é imutável em seus atributos principais (número, episódios, data),
  * mas a lista de reviews pode ser modificada internamente pela adição de novas reviews.
+ * A lista de reviews é copiada a cada review adicionada e nunca alterada depois de publicada,
+ * como a lista de temporadas de {@link Show}.
  */
 public class Season implements Serializable { // Added Serializable
     private static final long serialVersionUID = 1L; // Added
     private final int seasonNumber;
     private final int episodeCount;
     private final String releaseDate;
-    private final List<Review> listReviews;
+    private volatile List<Review> listReviews; // Replaced (never modified) by addReview
+    /** Agregados das reviews da temporada, mantidos por {@link #addReview(Review)} (recalculados na desserialização). */
+    private transient double starsSum;
+    private transient int reviewCount;
 
     /**
      * Construtor para criar uma instância de Season.
@@ -44,7 +51,7 @@ public class Season implements Serializable { // Added Serializable
         this.seasonNumber = seasonNumber;
         this.episodeCount = episodeCount;
         this.releaseDate = releaseDate.trim();
-        this.listReviews = new ArrayList<>();
+        this.listReviews = Collections.emptyList();
     }
 
     /**
@@ -84,18 +91,67 @@ public class Season implements Serializable { // Added Serializable
      */
     public void addReview(Review review) {
         Objects.requireNonNull(review, "Review cannot be null.");
-        this.listReviews.add(review);
+        addReviews(Collections.singletonList(review));
     }
 
     /**
-     * Retorna uma cópia não modificável da lista de {@link Review} associadas
-     * especificamente a esta temporada. Protege a lista interna contra modificações externas.
+     * Adiciona várias reviews de uma vez, com uma única cópia da lista (usado ao decodificar
+     * uma temporada salva).
+     *
+     * @param reviews As reviews, na ordem em que foram feitas. Nenhuma pode ser nula.
+     * @throws NullPointerException se alguma review for nula.
+     */
+    public void addReviews(List<Review> reviews) {
+        List<Review> updated = new ArrayList<>(listReviews.size() + reviews.size());
+        updated.addAll(listReviews);
+        for (Review review : reviews) {
+            updated.add(Objects.requireNonNull(review, "Review cannot be null."));
+            starsSum += review.getStars();
+            reviewCount++;
+        }
+        this.listReviews = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * Retorna a quantidade de reviews desta temporada, sem percorrer a lista.
+     *
+     * @return O número de reviews da temporada.
+     */
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    /**
+     * Retorna a soma das notas das reviews desta temporada.
+     *
+     * @return A soma das estrelas (0 se não houver reviews).
+     */
+    public double getStarsSum() {
+        return starsSum;
+    }
+
+    /**
+     * Retorna a lista não modificável de {@link Review} associadas especificamente a esta
+     * temporada. A lista não muda depois de retornada: uma nova review substitui a lista da
+     * temporada por outra, então não há cópia a cada chamada.
      *
      * @return Uma lista não modificável (`UnmodifiableList`) de objetos Review.
      *         Pode estar vazia se nenhuma review foi adicionada.
      */
     public List<Review> getReviews() {
-        return Collections.unmodifiableList(listReviews);
+        return listReviews;
+    }
+
+    /**
+     * Restaura os agregados de avaliação, que não fazem parte da forma serializada.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        listReviews = Collections.unmodifiableList(new ArrayList<>(listReviews)); // Older files stored a mutable list
+        for (Review review : listReviews) {
+            starsSum += review.getStars();
+            reviewCount++;
+        }
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package Module;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 
@@ -9,12 +11,14 @@ import java.util.*;
  * que representam as temporadas individuais da série. As {@link Review}s para séries
  * são tipicamente associadas a cada {@code Season} específica.
  * A classe é imutável em seus atributos principais, mas a lista de temporadas pode ser
- * modificada internamente pela adição de novas temporadas.
+ * modificada internamente pela adição de novas temporadas. A lista é copiada a cada temporada
+ * adicionada (raro) e nunca alterada depois de publicada, de modo que {@link #getSeasons()} a
+ * devolve sem copiar e quem a percorre não é afetado por temporadas adicionadas no meio.
  */
 public class Show extends AudioVisualMedia implements Serializable { // Added Serializable
     private static final long serialVersionUID = 1L; // Added
 
-    private List<Season> seasons; // No longer final, to allow modification by addSeason
+    private volatile List<Season> seasons; // Replaced (never modified) by addSeason
     private final int yearEnd;
 
     /**
@@ -39,7 +43,7 @@ public class Show extends AudioVisualMedia implements Serializable { // Added Se
             throw new IllegalArgumentException("Year end cannot be before year release.");
         }
         this.yearEnd = yearEnd;
-        this.seasons = new ArrayList<>(); // Initialized here
+        this.seasons = Collections.emptyList(); // Initialized here
     }
 
     /**
@@ -72,21 +76,29 @@ public class Show extends AudioVisualMedia implements Serializable { // Added Se
                 return;
             }
         }
-        this.seasons.add(season);
-        this.seasons.sort(Comparator.comparingInt(Season::getSeasonNumber)); // Keep sorted
+        List<Season> updated = new ArrayList<>(seasons.size() + 1);
+        updated.addAll(seasons);
+        updated.add(season);
+        updated.sort(Comparator.comparingInt(Season::getSeasonNumber)); // Keep sorted
+        this.seasons = Collections.unmodifiableList(updated);
     }
 
     /**
-     * Retorna uma cópia não modificável da lista de temporadas associadas a esta série,
+     * Retorna a lista não modificável de temporadas associadas a esta série,
      * garantidamente ordenada pelo número da temporada.
-     * Protege a lista interna contra modificações externas.
+     * A lista não muda depois de retornada: uma nova temporada substitui a lista da série por
+     * outra, então não há cópia a cada chamada.
      *
      * @return Uma lista não modificável (`UnmodifiableList`) de objetos {@code Season}.
      *         Pode ser vazia se nenhuma temporada foi adicionada.
      */
     public List<Season> getSeasons() {
-        // Return a defensive copy that is also unmodifiable
-        return Collections.unmodifiableList(new ArrayList<>(seasons));
+        return seasons;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        seasons = seasons == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(seasons)); // Older files stored a mutable list
     }
 
     @Override
@@ -0,0 +1,68 @@
+package Module;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalização de texto usada nas comparações e nos índices de busca: remove acentos
+ * (decomposição NFD sem as marcas combinantes) e converte para minúsculas, de modo que "Ação",
+ * "acao" e "AÇÃO" tenham a mesma forma.
+ *
+ * <p>As entidades guardam a forma normalizada dos seus textos (por exemplo
+ * {@link Media#getTitleKey()} e {@link Genre#getKey()}), calculada uma vez na criação ou na
+ * leitura; as buscas normalizam apenas o termo procurado.</p>
+ */
+public final class TextFolding {
+
+    private TextFolding() {
+    }
+
+    /**
+     * Retorna a forma normalizada (sem acentos, em minúsculas) de um texto.
+     *
+     * @param text O texto original (pode ser {@code null}).
+     * @return O texto normalizado, ou {@code ""} para {@code null}.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Retorna a forma normalizada de um nome de pessoa: como {@link #fold(String)}, sem espaços
+     * nas pontas e com um único espaço entre as palavras.
+     *
+     * @param name O nome (pode ser {@code null}).
+     * @return O nome normalizado ({@code ""} para {@code null}).
+     */
+    public static String foldName(String name) {
+        String folded = fold(name).trim();
+        // The regex only runs when there is something to collapse
+        for (int i = 1; i < folded.length(); i++) {
+            if (Character.isWhitespace(folded.charAt(i)) && (folded.charAt(i) != ' ' || folded.charAt(i - 1) == ' ')) {
+                return folded.replaceAll("\\s+", " ");
+            }
+        }
+        return folded;
+    }
+}
@@ -0,0 +1,81 @@
+package Test;
+
+import Control.WorkManager;
+import Control.io.BulkImporter;
+import Module.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+
+    private WorkManager workManager;
+    private String dataFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataFile = Files.createTempDirectory("diary").resolve("cultural_diary.dat").toString();
+        workManager = new WorkManager(dataFile);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workManager.close();
+    }
+
+    @Test
+    @DisplayName("Importa CSV com campos entre aspas e rejeita linhas inválidas")
+    void testImportCsv() throws IOException {
+        String csv = "type,title,year,genres,seen,author,publisher,isbn,copy,director,running_time\n"
+                + "book,\"Neuromancer, edição \"\"especial\"\"\",1984,Ficção Científica;Cyberpunk,sim,William Gibson,Aleph,ISBN-NEURO,1,,\n"
+                + "film,Sem Ano,,Drama,no,,,,,Alguém,100\n"
+                + "film,Alien,1979,Terror|Ficção Científica,yes,,,,,Ridley Scott,117\r\n";
+        BulkImporter.Report report = new BulkImporter(workManager, 2, 1).importCsv(new StringReader(csv));
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected().size());
+        assertEquals(3, report.getRejected().get(0).getLine());
+
+        List<Book> books = workManager.searchBooksByISBN("ISBN-NEURO");
+        assertEquals(1, books.size());
+        Book book = books.get(0);
+        assertEquals("Neuromancer, edição \"especial\"", book.getTitle());
+        assertEquals(2, book.getGenres().size());
+        assertTrue(workManager.getGenres().contains(new Genre("Cyberpunk")));
+
+        workManager.close(); // Releases the data for the next instance
+        workManager = new WorkManager(dataFile);
+        List<Media> media = workManager.listMediaAlphabetically();
+        assertTrue(media.stream().anyMatch(m -> m instanceof Films && ((Films) m).getDirection().equals("Ridley Scott")));
+    }
+
+    @Test
+    @DisplayName("Importa NDJSON com arrays e relata JSON malformado")
+    void testImportNdjson() throws IOException {
+        String ndjson = "{\"type\": \"show\", \"title\": \"Dark\", \"year\": 2017, \"year_end\": 2020, \"genres\": [\"Mistério\"], "
+                + "\"cast\": [\"Louis Hofmann\", \"Lisa Vicari\"], \"where_watch\": [\"Netflix\"], \"seen\": true}\n"
+                + "\n"
+                + "{\"type\": \"show\", \"title\": \"Quebrada\"\n"
+                + "{\"type\": \"podcast\", \"title\": \"Outro\", \"year\": 2020}\n";
+        BulkImporter.Report report = new BulkImporter(workManager).importNdjson(new StringReader(ndjson));
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals(Arrays.asList(3L, 4L), Arrays.asList(report.getRejected().get(0).getLine(), report.getRejected().get(1).getLine()));
+
+        Show show = (Show) workManager.listMediaAlphabetically().stream()
+                .filter(m -> m.getTitle().equals("Dark")).findFirst().orElseThrow();
+        assertEquals(Arrays.asList("Louis Hofmann", "Lisa Vicari"), show.getCast());
+        assertEquals(2020, show.getYearEnd());
+    }
+}
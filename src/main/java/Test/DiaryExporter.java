@@ -0,0 +1,95 @@
+package Test;
+
+import Control.WorkManager;
+import Control.io.BulkImporter;
+import Control.io.DiaryExporter;
+import Module.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiaryExporterTest {
+
+    private WorkManager workManager;
+    private File directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("diary").toFile();
+        workManager = new WorkManager(new File(directory, "cultural_diary.dat").getPath());
+        workManager.createBook(true, "Livro, \"com aspas\"", Collections.singletonList(new Genre("Drama")), 2020, "Autora", "Editora", "ISBN-EXP", false);
+        workManager.createReviewBook("Livro, \"com aspas\"", "Linha 1\nLinha 2, com vírgula", 5, "01/01/2024");
+    }
+
+    @AfterEach
+    void tearDown() {
+        workManager.close();
+    }
+
+    @Test
+    @DisplayName("Exporta NDJSON que o importador lê de volta")
+    void testNdjsonRoundTrip() throws IOException {
+        StringWriter out = new StringWriter();
+        long written = new DiaryExporter(workManager).writeNdjson(out);
+        int mediaCount = workManager.listMediaAlphabetically().size();
+        assertEquals(mediaCount, written);
+        assertEquals(mediaCount, out.toString().split("\n").length);
+        assertTrue(out.toString().contains("\"comment\":\"Linha 1\\nLinha 2, com vírgula\""));
+
+        WorkManager target = new WorkManager(new File(directory, "copy.dat").getPath());
+        try {
+            BulkImporter.Report report = new BulkImporter(target).importNdjson(new StringReader(out.toString()));
+            assertTrue(report.getRejected().isEmpty(), report.getRejected().toString());
+            assertEquals(mediaCount, report.getImported());
+            assertEquals("Autora", target.searchBooksByISBN("ISBN-EXP").get(0).getAuthor());
+        } finally {
+            target.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Exporta CSV comprimido em partes paralelas por biblioteca")
+    void testCsvGzipParallel() throws IOException {
+        File exportDirectory = new File(directory, "export");
+        List<File> files = new DiaryExporter(workManager).exportTo(exportDirectory, DiaryExporter.Format.CSV, true, true);
+        assertEquals(Arrays.asList("books.csv.gz", "books-reviews.csv.gz", "films.csv.gz", "films-reviews.csv.gz",
+                "shows.csv.gz", "shows-seasons.csv.gz", "shows-reviews.csv.gz"),
+                files.stream().map(File::getName).collect(Collectors.toList()));
+
+        StringBuilder books = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(new File(exportDirectory, "books.csv.gz").toPath())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                books.append(line).append('\n');
+            }
+        }
+        assertTrue(books.toString().contains("book,\"Livro, \"\"com aspas\"\"\",2020,Drama,true,Autora,Editora,ISBN-EXP,false,,,,,,,\n"));
+
+        WorkManager target = new WorkManager(new File(directory, "copy.dat").getPath());
+        try {
+            BulkImporter.Report report = new BulkImporter(target).importCsv(new StringReader(books.toString()));
+            assertTrue(report.getRejected().isEmpty(), report.getRejected().toString());
+            assertEquals(1, target.searchBooksByISBN("ISBN-EXP").size());
+        } finally {
+            target.close();
+        }
+    }
+}
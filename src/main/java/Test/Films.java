@@ -6,6 +6,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -60,4 +64,26 @@ class FilmsTest {
         assertEquals("Derek Kolstad", film.getScreenplay());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Folded search keys are computed on creation and rebuilt after Java serialization")
+    void foldedKeys() throws Exception {
+        Films accented = new Films(Arrays.asList("Fernanda  Montenegro"), true, " Central do Brasil ", filmGenres, 1998,
+                "Estação Central", watchList, "Walter Salles", 113, "João Emanuel Carneiro");
+        assertEquals("central do brasil", accented.getTitleKey());
+        assertEquals("estacao central", accented.getOriginalTitleKey());
+        assertEquals(Collections.singletonList("fernanda montenegro"), accented.getCastKeys());
+        assertEquals("joao emanuel carneiro", accented.getScreenplayKey());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(accented);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Films copy = (Films) in.readObject();
+            assertEquals("central do brasil", copy.getTitleKey());
+            assertEquals("estacao central", copy.getOriginalTitleKey());
+            assertEquals(accented.getCastKeys(), copy.getCastKeys());
+            assertEquals("walter salles", copy.getDirectionKey());
+        }
+    }
+}
@@ -60,4 +60,14 @@ class GenreTest {
         assertEquals(genreAction.hashCode(), genreActionLower.hashCode(), "Hashcodes should be equal for Ação and ação");
         assertNotEquals(genreAction.hashCode(), genreRomance.hashCode(), "Hashcodes should be different for Ação and Romance");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Genres compare by the folded key, ignoring accents")
+    void foldedKey() {
+        Genre unaccented = new Genre("ACAO");
+        assertEquals("acao", genreAction.getKey());
+        assertEquals(genreAction, unaccented);
+        assertEquals(genreAction.hashCode(), unaccented.hashCode());
+        assertTrue(new Genre("Ópera").compareTo(new Genre("Policial")) < 0, "Ópera should sort with the O genres");
+    }
+}
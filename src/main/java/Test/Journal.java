@@ -0,0 +1,135 @@
+package Test;
+
+import Control.io.Journal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private File file;
+
+    /** Registra as chamadas recebidas no replay como strings simples. */
+    private static class RecordingHandler implements Journal.Handler {
+        final List<String> calls = new ArrayList<>();
+
+        public void genre(String name) { calls.add("genre:" + name); }
+        public void book(boolean seen, String title, List<String> genres, int yearRelease, String author, String publisher, String isbn, boolean copy) {
+            calls.add("book:" + title + ":" + genres + ":" + yearRelease + ":" + publisher);
+        }
+        public void film(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, String direction, int runningtime, String screenplay) {
+            calls.add("film:" + title + ":" + cast + ":" + originalTitle + ":" + runningtime);
+        }
+        public void show(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, int yearEnd) {
+            calls.add("show:" + title + ":" + yearEnd);
+        }
+        public void season(String showTitle, int seasonNumber, int episodeCount, String releaseDate) {
+            calls.add("season:" + showTitle + ":" + seasonNumber);
+        }
+        public void bookReview(String title, String comment, int stars, String reviewDate) { calls.add("bookReview:" + title + ":" + stars); }
+        public void filmReview(String title, String comment, int stars, String reviewDate) { calls.add("filmReview:" + title + ":" + stars); }
+        public void showReview(String showTitle, int seasonNumber, String comment, int stars, String reviewDate) {
+            calls.add("showReview:" + showTitle + ":" + seasonNumber + ":" + stars);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("journal").resolve("test.journal").toFile();
+    }
+
+    @Test
+    @DisplayName("Appended records are replayed in order")
+    void testReplayInOrder() throws IOException {
+        Journal journal = new Journal(file);
+        journal.appendGenre("Drama");
+        journal.appendBook(true, "Duna", Arrays.asList("Drama"), 1965, "Frank Herbert", null, "978", true);
+        journal.appendFilm(Arrays.asList("A", "B"), true, "Filme", Arrays.asList("Drama"), 2000, "Film", null, "D", 120, "S");
+        journal.appendShow(null, false, "Serie", Arrays.asList(), 2010, null, null, 0);
+        journal.appendSeason("Serie", 1, 8, "01/01/2010");
+        journal.appendShowReview("Serie", 1, "Boa", 4, "02/01/2010");
+        journal.close();
+
+        RecordingHandler handler = new RecordingHandler();
+        Journal reopened = new Journal(file);
+        assertEquals(6, reopened.replay(0, handler));
+        assertEquals(Arrays.asList(
+                "genre:Drama",
+                "book:Duna:[Drama]:1965:null",
+                "film:Filme:[A, B]:Film:120",
+                "show:Serie:0",
+                "season:Serie:1",
+                "showReview:Serie:1:4"), handler.calls);
+        assertEquals(6, reopened.getRecordCount());
+    }
+
+    @Test
+    @DisplayName("A torn last record is dropped and truncated")
+    void testTornTail() throws IOException {
+        Journal journal = new Journal(file);
+        journal.appendGenre("Drama");
+        journal.appendGenre("Comédia");
+        journal.close();
+        long fullLength = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(fullLength - 3);
+        }
+
+        RecordingHandler handler = new RecordingHandler();
+        assertEquals(1, new Journal(file).replay(0, handler));
+        assertEquals(Arrays.asList("genre:Drama"), handler.calls);
+        assertTrue(file.length() < fullLength - 3);
+    }
+
+    @Test
+    @DisplayName("A log older than the snapshot is discarded after reset")
+    void testStaleGenerationIsDiscarded() throws IOException {
+        Journal journal = new Journal(file);
+        journal.appendGenre("Drama");
+        journal.close();
+
+        RecordingHandler handler = new RecordingHandler();
+        Journal reopened = new Journal(file);
+        assertEquals(0, reopened.replay(1, handler));
+        assertTrue(handler.calls.isEmpty());
+
+        reopened.appendGenre("Romance");
+        reopened.close();
+        RecordingHandler afterAppend = new RecordingHandler();
+        assertEquals(1, new Journal(file).replay(1, afterAppend));
+        assertEquals(Arrays.asList("genre:Romance"), afterAppend.calls);
+
+        reopened.reset(2);
+        assertEquals(0, new Journal(file).replay(2, new RecordingHandler()));
+    }
+
+    @Test
+    @DisplayName("Strings longer than 64 KB are recorded and replayed")
+    void testLongStrings() throws IOException {
+        String comment = "x".repeat(70_000);
+        Journal journal = new Journal(file);
+        journal.appendBookReview("Duna", comment, 5, "01/01/2020");
+        journal.appendBookReview("Duna", "Curta", 4, "02/01/2020");
+        journal.close();
+
+        List<String> comments = new ArrayList<>();
+        RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public void bookReview(String title, String comment, int stars, String reviewDate) {
+                comments.add(comment);
+            }
+        };
+        assertEquals(2, new Journal(file).replay(0, handler));
+        assertEquals(Arrays.asList(comment, "Curta"), comments);
+    }
+}
@@ -69,6 +69,34 @@ class MediaTest {
         assertTrue(mediaSeen.getReviews().contains(review1));
     }
 
+    @Test
+    @DisplayName("Rating aggregates follow addReview")
+    void ratingAggregates() {
+        assertEquals(0, mediaSeen.getReviewCount());
+        assertEquals(0.0f, mediaSeen.getLastStars());
+        mediaSeen.addReview(review1);
+        mediaSeen.addReview(new Review("Meh", 2.5f, "11/10/2024"));
+        assertEquals(2, mediaSeen.getReviewCount());
+        assertEquals(6.5, mediaSeen.getStarsSum());
+        assertEquals(2.5f, mediaSeen.getLastStars());
+    }
+
+    @Test
+    @DisplayName("getReviews should return a list that is not changed by later reviews")
+    void getReviewsIsCopyOnWrite() {
+        mediaSeen.addReview(review1);
+        List<Review> reviews = mediaSeen.getReviews();
+        assertSame(reviews, mediaSeen.getReviews());
+
+        Review second = new Review("Better the second time", 5.0f, "12/10/2024");
+        for (Review review : reviews) { // Adding while iterating does not throw ConcurrentModificationException
+            mediaSeen.addReview(second);
+        }
+        assertEquals(Collections.singletonList(review1), reviews);
+        assertEquals(Arrays.asList(review1, second), mediaSeen.getReviews());
+        assertThrows(UnsupportedOperationException.class, () -> mediaSeen.getReviews().add(review1));
+    }
+
     @Test
     @DisplayName("getReviews should return the list of reviews")
     void getReviews() {
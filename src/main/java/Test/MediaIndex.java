@@ -0,0 +1,132 @@
+package Test;
+
+import Control.search.MediaIndex;
+import Control.search.PersonIndex;
+import Module.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaIndexTest {
+
+    private MediaIndex index;
+    private Book book;
+    private Films film;
+    private Show show;
+
+    @BeforeEach
+    void setUp() {
+        index = new MediaIndex();
+        book = new Book(true, "O Senhor dos Anéis", Arrays.asList(new Genre("Fantasia")), 1954, "J.R.R. Tolkien", "HarperCollins", "978", true);
+        film = new Films(Arrays.asList("Elijah Wood", "Ian McKellen"), true, "A Sociedade do Anel", Arrays.asList(new Genre("Ação")), 2001,
+                "The Fellowship of the Ring", Collections.singletonList("Cinema"), "Peter Jackson", 178, "Fran Walsh");
+        show = new Show(Arrays.asList("Ian McShane"), false, "Deadwood", Collections.emptyList(), 2004,
+                "Deadwood", Collections.singletonList("HBO"), 2006);
+        index.add(book);
+        index.add(film);
+        index.add(show);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar substrings ignorando acentos e maiúsculas/minúsculas")
+    void testFoldedSubstringSearch() {
+        assertArrayEquals(new int[]{0, 1}, index.search(MediaIndex.Field.TITLE, "ANE"));
+        assertArrayEquals(new int[]{1}, index.search(MediaIndex.Field.TITLE, "Anel"));
+        assertArrayEquals(new int[]{0}, index.search(MediaIndex.Field.TITLE, "senhor dos aneis"));
+        assertArrayEquals(new int[]{1}, index.search(MediaIndex.Field.GENRE, "acao"));
+        assertArrayEquals(new int[]{1}, index.search(MediaIndex.Field.DIRECTOR, "jack"));
+        assertArrayEquals(new int[]{0}, index.search(MediaIndex.Field.AUTHOR, " tolkien "));
+    }
+
+    @Test
+    @DisplayName("Consultas curtas devem usar os n-gramas e valores múltiplos não devem se misturar")
+    void testShortQueriesAndMultiValuedFields() {
+        assertArrayEquals(new int[]{1, 2}, index.search(MediaIndex.Field.CAST, "ian"));
+        assertArrayEquals(new int[]{1, 2}, index.search(MediaIndex.Field.CAST, "Ian Mc"));
+        assertArrayEquals(new int[]{2}, index.search(MediaIndex.Field.CAST, "mcshane"));
+        // "Wood" e "Ian" são nomes distintos do elenco: não formam "wood ian"
+        assertEquals(0, index.search(MediaIndex.Field.CAST, "wood ian").length);
+        assertEquals(0, index.search(MediaIndex.Field.CAST, "").length);
+        assertEquals(0, index.search(MediaIndex.Field.TITLE, "xyz").length);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o índice incrementalmente com novas mídias e reviews")
+    void testIncrementalUpdates() {
+        Season season = new Season(1, 10, "01/01/2004");
+        show.addSeason(season);
+        Review review = new Review("Diálogos memoráveis", 5f, "02/02/2020");
+        season.addReview(review);
+        index.addReview(show, review);
+        assertArrayEquals(new int[]{2}, index.search(MediaIndex.Field.COMMENT, "dialogos"));
+
+        Book another = new Book(false, "Anelídeos", Collections.emptyList(), 2020, "Autor", "Editora", "979", false);
+        assertEquals(3, index.add(another));
+        assertArrayEquals(new int[]{1, 3}, index.search(MediaIndex.Field.TITLE, "anel"));
+    }
+
+    @Test
+    @DisplayName("Todas as reviews de uma mídia com muitas reviews devem continuar pesquisáveis")
+    void testManyReviewsOnOneMedia() {
+        for (int i = 0; i < 20_000; i++) {
+            Review review = new Review("Comentário número " + i, 4f, "01/01/2020");
+            book.addReview(review);
+            index.addReview(book, review);
+        }
+        assertArrayEquals(new int[]{0}, index.search(MediaIndex.Field.COMMENT, "numero 0"));
+        assertArrayEquals(new int[]{0}, index.search(MediaIndex.Field.COMMENT, "numero 19999"));
+        assertArrayEquals(new int[]{0}, index.search(MediaIndex.Field.COMMENT, "99"));
+        // Comentários distintos não formam "19999 comentario"
+        assertEquals(0, index.search(MediaIndex.Field.COMMENT, "19999 comentario").length);
+
+        MediaIndex rebuilt = new MediaIndex();
+        rebuilt.add(book);
+        assertArrayEquals(new int[]{0}, rebuilt.search(MediaIndex.Field.COMMENT, "numero 12345"));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar pessoas por prefixo de qualquer palavra, com o papel de cada crédito")
+    void testPersonIndex() {
+        List<String> credits = new ArrayList<>();
+        index.people().lookup("IAN m", (person, role, id) -> credits.add(person + "/" + role + "/" + id));
+        assertEquals(Arrays.asList("Ian McKellen/CAST/1", "Ian McShane/CAST/2"), credits);
+
+        assertEquals(Arrays.asList("J.R.R. Tolkien", "Peter Jackson"), index.people().names("j"));
+        assertTrue(index.people().names("").isEmpty());
+        assertEquals(Collections.singletonList("Peter Jackson"), index.people().names("jack"));
+
+        credits.clear();
+        index.people().credits(" peter   JACKSON ", (person, role, id) -> credits.add(role + "/" + id));
+        assertEquals(Collections.singletonList("DIRECTOR/1"), credits);
+        assertEquals(2, index.people().mediaIds("ian").cardinality());
+        assertTrue(PersonIndex.matchesPrefix("Frän Walsh", "fran w"));
+        assertFalse(PersonIndex.matchesPrefix("Fran Walsh", "alsh"));
+    }
+
+    @Test
+    @DisplayName("A busca aproximada deve tolerar erros de digitação e ordenar pela similaridade")
+    void testFuzzyTitleSearch() {
+        List<MediaIndex.Scored> found = index.fuzzySearch("Sociedade do Anal", MediaIndex.DEFAULT_FUZZY_THRESHOLD, 10);
+        assertEquals(1, found.get(0).getId());
+        assertTrue(found.get(0).getScore() < 1f);
+        assertEquals(1f, index.fuzzySearch("deadwood", MediaIndex.DEFAULT_FUZZY_THRESHOLD, 10).get(0).getScore());
+        // Pelo título original
+        assertEquals(1, index.fuzzySearch("Felowship of the Rng", MediaIndex.DEFAULT_FUZZY_THRESHOLD, 10).get(0).getId());
+        assertEquals(1, index.fuzzySearch("ane", MediaIndex.DEFAULT_FUZZY_THRESHOLD, 1).size());
+        assertTrue(index.fuzzySearch("Interstellar", MediaIndex.DEFAULT_FUZZY_THRESHOLD, 10).isEmpty());
+
+        Films interstellar = new Films(Collections.emptyList(), true, "Interstellar", Collections.emptyList(), 2014,
+                "Interstellar", Collections.emptyList(), "Christopher Nolan", 169, "Jonathan Nolan");
+        index.add(interstellar);
+        found = index.fuzzySearch("interestelar", MediaIndex.DEFAULT_FUZZY_THRESHOLD, 10);
+        assertEquals(1, found.size());
+        assertEquals(3, found.get(0).getId());
+    }
+}
@@ -0,0 +1,77 @@
+package Test;
+
+import Control.MediaQuery;
+import Module.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaQueryTest {
+
+    private Book book;
+    private Films film;
+    private Show show;
+    private List<Media> all;
+
+    @BeforeEach
+    void setUp() {
+        book = new Book(true, "Duna", Arrays.asList(new Genre("Ficção Científica")), 1965, "Frank Herbert", "Aleph", "978-85-7657", true);
+        film = new Films(Arrays.asList("Timothée Chalamet", "Zendaya"), true, "Duna: Parte Dois", Arrays.asList(new Genre("Ficção Científica"), new Genre("Ação")), 2024,
+                "Dune: Part Two", Collections.singletonList("Cinema"), "Denis Villeneuve", 166, "Jon Spaihts");
+        show = new Show(Arrays.asList("Frank Langella"), true, "Dark", Arrays.asList(new Genre("Mistério")), 2017,
+                "Dark", Collections.singletonList("Netflix"), 2020);
+        book.addReview(new Review("Clássico", 4, "d1"));
+        film.addReview(new Review("Épico", 5, "d2"));
+        all = Arrays.asList(book, film, show);
+    }
+
+    @Test
+    @DisplayName("Sem critérios, aceita tudo e ordena por título")
+    void testEmptyQuery() {
+        assertEquals(Arrays.asList(show, book, film), new MediaQuery().run(all, () -> false));
+    }
+
+    @Test
+    @DisplayName("Combina todos os critérios em um único filtro")
+    void testCombinedCriteria() {
+        assertEquals(Arrays.asList(book, film), new MediaQuery().titleOrIsbn("  DUNA ").run(all, () -> false));
+        assertEquals(Collections.singletonList(book), new MediaQuery().titleOrIsbn("85-7657").run(all, () -> false));
+        assertEquals(Collections.singletonList(film), new MediaQuery().genreNames(Arrays.asList("ação")).run(all, () -> false));
+        assertEquals(Arrays.asList(show, book), new MediaQuery().person("frank").run(all, () -> false));
+        assertEquals(Collections.singletonList(show), new MediaQuery().person("frank").types(false, false, true).run(all, () -> false));
+        assertEquals(Collections.singletonList(film), new MediaQuery().genre(new Genre("ficção científica")).year(2024).run(all, () -> false));
+        assertTrue(new MediaQuery().titleOrIsbn("duna").types(false, false, true).run(all, () -> false).isEmpty());
+        assertEquals(Arrays.asList(book, film), new MediaQuery().genreNames(Arrays.asList("ação", "Ficção Científica")).run(all, () -> false));
+        assertEquals(Collections.singletonList(film), new MediaQuery().genreNames(Arrays.asList("ação", "Ficção Científica")).matchAllGenres(true).run(all, () -> false));
+    }
+
+    @Test
+    @DisplayName("Filtra por intervalo de anos digitado pelo usuário")
+    void testYearRange() {
+        assertArrayEquals(new int[]{1990, 1999}, MediaQuery.parseYearRange(" 1990 - 1999 "));
+        assertArrayEquals(new int[]{2017, 2017}, MediaQuery.parseYearRange("2017"));
+        assertArrayEquals(new int[]{2000, Integer.MAX_VALUE}, MediaQuery.parseYearRange("2000.."));
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, 1970}, MediaQuery.parseYearRange("–1970"));
+        assertThrows(IllegalArgumentException.class, () -> MediaQuery.parseYearRange("1999-1990"));
+        assertThrows(IllegalArgumentException.class, () -> MediaQuery.parseYearRange("noventa"));
+        assertThrows(IllegalArgumentException.class, () -> MediaQuery.parseYearRange("-"));
+
+        assertEquals(Arrays.asList(show, film), new MediaQuery().yearRange("2000-").run(all, () -> false));
+        assertEquals(Collections.singletonList(book), new MediaQuery().yearRange(1960, 1969).run(all, () -> false));
+        assertEquals(all.size(), new MediaQuery().yearRange(2000, 2010).year(null).run(all, () -> false).size());
+    }
+
+    @Test
+    @DisplayName("Ordena por avaliação e pode ser cancelada")
+    void testSortAndCancel() {
+        assertEquals(Arrays.asList(film, book, show), new MediaQuery().sort(MediaQuery.SORT_RATING_DESC).run(all, () -> false));
+        assertEquals(Arrays.asList(show, book, film), new MediaQuery().sort(MediaQuery.SORT_RATING_ASC).run(all, () -> false));
+        assertNull(new MediaQuery().run(all, () -> true));
+    }
+}
@@ -0,0 +1,122 @@
+package Test;
+
+import Control.io.Journal;
+import Control.io.PersistenceWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceWriterTest {
+
+    private File file;
+    private Journal journal;
+    private PersistenceWriter writer;
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("writer").resolve("diary.journal").toFile();
+        journal = new Journal(file);
+        writer = new PersistenceWriter(journal, (j, force) -> {
+            batches.incrementAndGet();
+            return false;
+        }, 200);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar uma rajada de mutações em poucas gravações")
+    void testCoalescesBurst() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            String name = "Gênero " + i;
+            writer.submit(j -> j.appendGenre(name));
+        }
+        assertTrue(writer.awaitDurable(5, TimeUnit.SECONDS));
+        assertEquals(100, journal.getRecordCount());
+        assertTrue(batches.get() < 10, "100 mutations took " + batches.get() + " batches");
+    }
+
+    @Test
+    @DisplayName("flush deve gravar sem esperar a janela de agrupamento e preservar a ordem")
+    void testFlushWritesInOrder() throws IOException {
+        writer.submit(j -> j.appendGenre("Drama"));
+        writer.submit(j -> j.appendGenre("Comédia"));
+        long start = System.nanoTime();
+        writer.flush();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 200);
+        writer.close();
+
+        List<String> replayed = new ArrayList<>();
+        new Journal(file).replay(0, new Journal.Handler() {
+            public void genre(String name) { replayed.add(name); }
+            public void book(boolean seen, String title, List<String> genres, int yearRelease, String author, String publisher, String isbn, boolean copy) { }
+            public void film(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, String direction, int runningtime, String screenplay) { }
+            public void show(List<String> cast, boolean seen, String title, List<String> genres, int yearRelease, String originalTitle, List<String> whereWatch, int yearEnd) { }
+            public void season(String showTitle, int seasonNumber, int episodeCount, String releaseDate) { }
+            public void bookReview(String title, String comment, int stars, String reviewDate) { }
+            public void filmReview(String title, String comment, int stars, String reviewDate) { }
+            public void showReview(String showTitle, int seasonNumber, String comment, int stars, String reviewDate) { }
+        });
+        assertEquals(List.of("Drama", "Comédia"), replayed);
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar mutações depois de fechado")
+    void testSubmitAfterClose() throws IOException {
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.submit(j -> j.appendGenre("Drama")));
+    }
+
+    @Test
+    @DisplayName("Uma falha mantém o erro até que uma compactação recupere o journal")
+    void testFailureIsStickyUntilCompaction() throws Exception {
+        AtomicBoolean snapshotWorks = new AtomicBoolean();
+        PersistenceWriter failing = new PersistenceWriter(journal, (j, force) -> force && snapshotWorks.get(), 0);
+        failing.start();
+        try {
+            failing.submit(j -> {
+                throw new IllegalStateException("Task failed");
+            });
+            failing.submit(j -> j.appendGenre("Drama"));
+            assertThrows(IOException.class, failing::flush);
+            failing.submit(j -> j.appendGenre("Comédia"));
+            assertThrows(IOException.class, failing::flush); // Still failed: nothing recovered it
+            assertThrows(IOException.class, () -> failing.awaitDurable(1, TimeUnit.SECONDS));
+            assertEquals(0, journal.getRecordCount()); // An incomplete journal receives nothing more
+
+            snapshotWorks.set(true);
+            failing.runCompactor();
+            failing.flush();
+            assertTrue(failing.awaitDurable(1, TimeUnit.SECONDS));
+        } finally {
+            failing.close();
+        }
+    }
+
+    @Test
+    @DisplayName("flush não deve esperar para sempre se a thread de gravação morrer")
+    void testFlushWhenWriterThreadDied() {
+        writer.submit(j -> {
+            throw new Error("Writer thread killed");
+        });
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(IOException.class, writer::flush));
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -64,6 +68,19 @@ class SeasonTest {
         assertTrue(season1.getReviews().contains(reviewS1_2));
     }
 
+    @Test
+    @DisplayName("getReviews should return a list that is not changed by later reviews")
+    void getReviewsIsCopyOnWrite() {
+        season1.addReview(reviewS1_1);
+        List<Review> reviews = season1.getReviews();
+        assertSame(reviews, season1.getReviews());
+
+        season1.addReview(reviewS1_2);
+        assertEquals(List.of(reviewS1_1), reviews);
+        assertEquals(List.of(reviewS1_1, reviewS1_2), season1.getReviews());
+        assertThrows(UnsupportedOperationException.class, () -> season1.getReviews().add(reviewS1_1));
+    }
+
     @Test
     @DisplayName("getReviews should return the correct list of reviews for the season")
     void getReviews() {
@@ -75,4 +92,23 @@ class SeasonTest {
         assertEquals(2, reviews.size());
         assertIterableEquals(Arrays.asList(reviewS1_1, reviewS1_2), reviews);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Rating aggregates follow addReview and survive Java serialization")
+    void ratingAggregates() throws Exception {
+        season1.addReview(reviewS1_1);
+        season1.addReview(reviewS1_2);
+        assertEquals(2, season1.getReviewCount());
+        assertEquals(7.5, season1.getStarsSum());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(season1);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Season copy = (Season) in.readObject();
+            assertEquals(2, copy.getReviewCount());
+            assertEquals(7.5, copy.getStarsSum());
+        }
+    }
+}
@@ -92,5 +92,17 @@ class ShowTest {
         assertIterableEquals(Arrays.asList(season1, season2), seasons);
     }
 
+    @Test
+    @DisplayName("getSeasons should return the same unmodifiable list until a season is added")
+    void getSeasonsIsCopyOnWrite() {
+        show.addSeason(season1);
+        List<Season> seasons = show.getSeasons();
+        assertSame(seasons, show.getSeasons());
+        assertThrows(UnsupportedOperationException.class, () -> seasons.add(season2));
+        show.addSeason(season2);
+        assertEquals(1, seasons.size());
+        assertEquals(2, show.getSeasons().size());
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package Test;
+
+import Control.io.codec.DatConverter;
+import Control.io.codec.DiarySnapshot;
+import Control.io.codec.LazyList;
+import Control.io.codec.SnapshotFormat;
+import Module.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFormatTest {
+
+    private File dir;
+    private DiarySnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("snapshot").toFile();
+
+        Genre drama = new Genre("Drama");
+        Genre scifi = new Genre("Ficção Científica");
+        Genre orphan = new Genre("Fora da Biblioteca"); // usado por uma mídia, mas não cadastrado
+
+        Book book = new Book(true, "Duna", Arrays.asList(scifi, orphan), 1965, "Frank Herbert", "Aleph", "9788576573135", true);
+        book.addReview(new Review("Clássico", 4.5f, "01/02/2024"));
+
+        Films film = new Films(Arrays.asList("Ator A", "Atriz B"), false, "Filme", Collections.singletonList(drama), 1999,
+                "Original", Collections.singletonList("Cinema"), "Diretora", 120, "Roteirista");
+
+        Show show = new Show(Collections.singletonList("Elenco"), true, "Série", Arrays.asList(drama, scifi), 2010,
+                "Original Show", Arrays.asList("HBO", "Netflix"), 2015);
+        Season season = new Season(1, 10, "01/01/2010");
+        season.addReview(new Review("Ótima temporada", 5f, "02/02/2010"));
+        show.addSeason(season);
+        show.addSeason(new Season(2, 8, "01/01/2011"));
+
+        snapshot = new DiarySnapshot(new ArrayList<>(Arrays.asList(drama, scifi)), Collections.singletonList(book),
+                Collections.singletonList(film), Collections.singletonList(show), 7L);
+    }
+
+    @Test
+    @DisplayName("Deve gravar e ler um snapshot binário preservando todos os campos")
+    void testRoundTrip() throws IOException {
+        File file = new File(dir, "diary.dat");
+        SnapshotFormat.write(file, snapshot);
+
+        assertTrue(SnapshotFormat.isBinary(file));
+        assertSnapshotEquals(snapshot, SnapshotFormat.read(file));
+    }
+
+    @Test
+    @DisplayName("Deve abrir o snapshot mapeado decodificando cada mídia apenas no primeiro acesso")
+    void testOpenIsLazy() throws IOException {
+        File file = new File(dir, "diary.dat");
+        SnapshotFormat.write(file, snapshot);
+
+        DiarySnapshot opened = SnapshotFormat.open(file);
+        LazyList<Show> shows = (LazyList<Show>) opened.getShows();
+        assertEquals(1, shows.size());
+        assertEquals(0, shows.hydratedCount());
+
+        Show show = shows.get(0);
+        assertEquals(1, shows.hydratedCount());
+        assertSame(show, shows.get(0));
+        assertSnapshotEquals(snapshot, opened);
+
+        Show added = new Show(Collections.singletonList("Elenco"), false, "Nova", Collections.emptyList(), 2020,
+                "Nova", Collections.singletonList("HBO"), 2021);
+        shows.add(added);
+        assertEquals(2, shows.size());
+        assertSame(added, shows.get(1));
+    }
+
+    @Test
+    @DisplayName("Deve converter um arquivo .dat antigo (ObjectOutputStream) para o formato binário")
+    void testConvertLegacyFile() throws IOException {
+        File file = new File(dir, "legacy.dat");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
+            oos.writeObject(new ArrayList<>(snapshot.getGenres()));
+            oos.writeObject(new ArrayList<>(snapshot.getBooks()));
+            oos.writeObject(new ArrayList<>(snapshot.getFilms()));
+            oos.writeObject(new ArrayList<>(snapshot.getShows()));
+            oos.writeLong(snapshot.getJournalGeneration());
+        }
+        assertFalse(SnapshotFormat.isBinary(file));
+
+        DatConverter.convert(file, null);
+
+        assertTrue(SnapshotFormat.isBinary(file));
+        assertTrue(new File(dir, "legacy.dat.bak").exists());
+        assertSnapshotEquals(snapshot, SnapshotFormat.read(file));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar snapshot truncado com IOException")
+    void testTruncatedSnapshot() throws IOException {
+        File file = new File(dir, "diary.dat");
+        SnapshotFormat.write(file, snapshot);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 5);
+        assertThrows(IOException.class, () -> SnapshotFormat.read(ByteBuffer.wrap(truncated)));
+    }
+
+    private static void assertSnapshotEquals(DiarySnapshot expected, DiarySnapshot actual) {
+        assertEquals(expected.getJournalGeneration(), actual.getJournalGeneration());
+        assertEquals(expected.getGenres(), actual.getGenres());
+        assertEquals(expected.getBooks().size(), actual.getBooks().size());
+        assertEquals(expected.getFilms().size(), actual.getFilms().size());
+        assertEquals(expected.getShows().size(), actual.getShows().size());
+
+        Book book = actual.getBooks().get(0);
+        assertEquals(expected.getBooks().get(0).toString(), book.toString());
+        assertEquals(expected.getBooks().get(0).getGenres(), book.getGenres());
+        assertEquals(1, book.getReviews().size());
+        assertEquals(4.5f, book.getReviews().get(0).getStars());
+
+        Films film = actual.getFilms().get(0);
+        assertEquals(expected.getFilms().get(0).toString(), film.toString());
+        assertEquals(Arrays.asList("Ator A", "Atriz B"), film.getCast());
+        assertEquals(120, film.getRunningtime());
+
+        Show show = actual.getShows().get(0);
+        assertEquals(expected.getShows().get(0).toString(), show.toString());
+        assertEquals(2015, show.getYearEnd());
+        assertEquals(2, show.getSeasons().size());
+        assertEquals("Ótima temporada", show.getSeasons().get(0).getReviews().get(0).comment);
+        assertEquals(8, show.getSeasons().get(1).getEpisodeCount());
+    }
+}
@@ -1,20 +1,43 @@
 package Test;
 
+import Control.LibraryEvent;
+import Control.LibraryListener;
+import Control.LibrarySnapshot;
+import Control.MediaQuery;
+import Control.TitleMatch;
 import Control.WorkManager;
 import Module.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class WorkManagerTest {
 
     private WorkManager workManager;
+    private String dataFile;
     private Genre genreAction;
     private Genre genreComedy;
     private Genre genreDrama;
@@ -26,8 +49,9 @@ class WorkManagerTest {
     private Season season1_2;
 
     @BeforeEach
-    void setUp() {
-        workManager = new WorkManager();
+    void setUp() throws IOException {
+        dataFile = Files.createTempDirectory("diary").resolve("cultural_diary.dat").toString();
+        workManager = new WorkManager(dataFile);
 
         genreAction = new Genre("Action");
         genreComedy = new Genre("Comedy");
@@ -49,6 +73,11 @@ class WorkManagerTest {
         workManager.createSeason(show1.getTitle(), season1_2.getSeasonNumber(), season1_2.getEpisodeCount(), season1_2.getReleaseDate());
     }
 
+    @AfterEach
+    void tearDown() {
+        workManager.close();
+    }
+
     @Test
     @DisplayName("addGenre should add genre and sort library")
     void testAddGenre() {
@@ -178,4 +207,546 @@ class WorkManagerTest {
         assertEquals(3.0f, WorkManager.calculateAverage(workManager.searchByTitle(show1.getTitle()).get(0)), 0.01f);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Mutations are replayed from the journal on restart")
+    void testJournalReplayOnRestart() throws IOException {
+        workManager.createReviewBook(book1.getTitle(), "Journal review", 4, "d1");
+        workManager.createReviewShow(show1.getTitle(), 2, "Season review", 2, "d2");
+        workManager.flush();
+
+        WorkManager reopened = openCopy();
+        assertEquals(workManager.listMediaAlphabetically().size(), reopened.listMediaAlphabetically().size());
+        assertEquals(workManager.getGenres().size(), reopened.getGenres().size());
+        Book book = reopened.searchBooksByISBN(book1.getIsbn()).get(0);
+        assertEquals(1, book.getReviews().size());
+        assertEquals(2, reopened.getSeasonsByShowName(show1.getTitle()).size());
+        assertEquals(2.0f, WorkManager.calculateAverage(reopened.searchShowsByCast("Actor Z").get(0)), 0.01f);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("The journal records the lists as they were at creation, not as the caller left them")
+    void testJournalCopiesCallerLists() throws IOException {
+        List<Genre> genres = new ArrayList<>(Collections.singletonList(workManager.getGenres().get(0)));
+        List<String> cast = new ArrayList<>(Arrays.asList("Reused Actor"));
+        List<String> whereWatch = new ArrayList<>(Arrays.asList("Reused Platform"));
+        workManager.createFilm(cast, true, "Reused Lists Film", genres, 2010, null, whereWatch, "D", 100, "S");
+        genres.clear(); // Before the persistence thread writes the mutation
+        cast.set(0, "Other Actor");
+        whereWatch.clear();
+        workManager.flush();
+
+        WorkManager reopened = openCopy();
+        Films film = reopened.searchFilmsByCast("Reused Actor").get(0);
+        assertEquals("Reused Lists Film", film.getTitle());
+        assertEquals(1, film.getGenres().size());
+        assertEquals(Collections.singletonList("Reused Platform"), film.getWhereWatch());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("A review longer than 64 KB is persisted with the rest of its batch")
+    void testLongReviewIsPersisted() {
+        String longComment = "a".repeat(70_000);
+        workManager.inTransaction(manager -> {
+            assertEquals(0, manager.createReviewBook(book1.getTitle(), longComment, 5, "d1"));
+            assertEquals(0, manager.createReviewBook(book1.getTitle(), "Short", 3, "d2"));
+        });
+        workManager.close();
+
+        WorkManager reopened = new WorkManager(dataFile);
+        List<Review> reviews = reopened.searchBooksByISBN(book1.getIsbn()).get(0).getReviews();
+        reopened.close();
+        assertEquals(2, reviews.size());
+        assertTrue(reviews.get(0).toString().startsWith(longComment + " ("));
+        assertEquals(3.0f, reviews.get(1).getStars());
+    }
+
+    @Test
+    @DisplayName("A batch is applied in memory at once and persisted only at commit")
+    void testBatchPersistsAtCommit() throws IOException {
+        assertEquals(1, workManager.searchByTitle("test book").size()); // Builds the search index
+        workManager.beginBatch();
+        workManager.createBook(true, "Batch One", Collections.emptyList(), 2001, "Batch Author", "P", "BATCH-1", false);
+        workManager.createBook(true, "Batch Two", Collections.emptyList(), 2002, "Batch Author", "P", "BATCH-2", false);
+        assertEquals(0, workManager.createReviewBook("batch one", "Reviewed inside the batch", 5, "d1"));
+        assertEquals(2, workManager.searchBooksByAuthor("batch author").size());
+        workManager.flush();
+
+        WorkManager duringBatch = openCopy();
+        assertTrue(duringBatch.searchBooksByISBN("BATCH-1").isEmpty());
+        duringBatch.close();
+
+        workManager.commit();
+        workManager.flush();
+        WorkManager afterCommit = openCopy();
+        assertEquals(2, afterCommit.searchBooksByAuthor("Batch Author").size());
+        assertEquals(1, afterCommit.searchBooksByISBN("BATCH-1").get(0).getReviews().size());
+        afterCommit.close();
+
+        assertThrows(IllegalStateException.class, () -> workManager.commit());
+    }
+
+    @Test
+    @DisplayName("Mutations from other threads wait for a batch to commit instead of joining it")
+    void testBatchBelongsToItsThread() throws Exception {
+        List<List<LibraryEvent>> deliveries = Collections.synchronizedList(new ArrayList<>());
+        workManager.addListener(deliveries::add);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            workManager.beginBatch();
+            workManager.createBook(true, "Owned Batch Book", Collections.emptyList(), 2001, "Owner", "P", "OWNED-1", false);
+            Future<?> outside = other.submit(() ->
+                    workManager.createBook(true, "Outside Book", Collections.emptyList(), 2002, "Outsider", "P", "OUTSIDE-1", false));
+            assertThrows(java.util.concurrent.TimeoutException.class, () -> outside.get(200, TimeUnit.MILLISECONDS));
+            assertTrue(workManager.searchBooksByISBN("OUTSIDE-1").isEmpty()); // Reads are not blocked by the batch
+            assertTrue(deliveries.isEmpty());
+
+            workManager.commit();
+            outside.get(5, TimeUnit.SECONDS);
+            assertEquals(1, workManager.snapshot().getBooks().stream().filter(b -> b.getTitle().equals("Outside Book")).count());
+            List<String> added = deliveries.stream().flatMap(List::stream) // The batch, then the outside mutation
+                    .map(event -> ((LibraryEvent.MediaAdded) event).getMedia().getTitle()).collect(Collectors.toList());
+            assertEquals(Arrays.asList("Owned Batch Book", "Outside Book"), added);
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Searches are accent-insensitive and see media and reviews created after the first search")
+    void testIndexedSearchWM() {
+        assertEquals(1, workManager.searchByTitle("test book seen").size());
+        workManager.createFilm(Collections.singletonList("Fernanda Montenegro"), true, "Central do Brasil", Collections.emptyList(), 1998,
+                "Central Station", Collections.singletonList("Globoplay"), "Walter Salles", 113, "João Emanuel Carneiro");
+        assertEquals(1, workManager.searchByTitle("CENTRAL").size());
+        assertEquals(1, workManager.searchFilmsByCast("montenegro").size());
+        assertEquals("Central do Brasil", workManager.query(new MediaQuery().titleOrIsbn("BRASÍL").person("joao")).get(0).getTitle());
+        assertEquals(0, workManager.searchShowsByCast("montenegro").size());
+
+        workManager.createReviewFilm("Central do Brasil", "Emocionante, uma obra-prima", 5, "d1");
+        assertEquals("Central do Brasil", workManager.searchByReviewComment("obra-prima").get(0).getTitle());
+        assertEquals(1, workManager.searchByReviewComment("EMOCIONANTE").size());
+    }
+
+    @Test
+    @DisplayName("Year range searches use the year index and see media created later")
+    void testSearchByYearRangeWM() {
+        assertEquals(Arrays.asList(book1.getTitle(), film1.getTitle()), titles(workManager.query(new MediaQuery().yearRange(2022, 2023))));
+        assertEquals(Collections.singletonList(show1.getTitle()), titles(workManager.searchByYearRange(2021, 2021).stream()
+                .filter(m -> m.getTitle().startsWith("Test")).collect(Collectors.toList())));
+        workManager.createBook(false, "Test Book Later", Collections.singletonList(genreDrama), 2022, "Author B", "P", "ISBN-LATER", false);
+        assertTrue(titles(workManager.searchByYear(2022)).contains("Test Book Later"));
+        assertTrue(workManager.searchByYearRange(2023, 2022).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Multi-genre queries combine the genre bitmaps with OR (any of) or AND (all of)")
+    void testGenreBitmapQueryWM() {
+        workManager.createFilm(Arrays.asList("Actor Q"), false, "Test Film Both", Arrays.asList(genreAction, genreComedy), 2022, "Both",
+                Collections.singletonList("Net"), "Director Q", 95, "Writer Q");
+        List<String> names = Arrays.asList("action", "COMEDY");
+        assertEquals(Arrays.asList("Test Book Seen", "Test Film Both", "Test Film Seen"), titles(workManager.query(new MediaQuery().genreNames(names))));
+        assertEquals(Collections.singletonList("Test Film Both"), titles(workManager.query(new MediaQuery().genreNames(names).matchAllGenres(true))));
+        assertEquals(Collections.singletonList("Test Film Both"), titles(workManager.query(new MediaQuery().genreNames(names).yearRange(2022, 2022).types(false, true, false).matchAllGenres(true))));
+        assertTrue(workManager.query(new MediaQuery().genreNames(Arrays.asList("action", "No Such Genre")).matchAllGenres(true)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Person search returns role-tagged credits from one lookup, and the filmography groups a person's media")
+    void testPersonSearchWM() {
+        workManager.createShow(Arrays.asList("Director D"), false, "Test Show Cameo", Collections.singletonList(genreDrama), 2024, "Cameo",
+                Collections.singletonList("HBO"), 2024);
+        List<String> credits = workManager.searchPeople("direc").stream()
+                .filter(credit -> credit.getMedia().getTitle().startsWith("Test"))
+                .map(credit -> credit.getRole() + ":" + credit.getMedia().getTitle()).collect(Collectors.toList());
+        assertEquals(Arrays.asList("DIRECTOR:Test Film Seen", "CAST:Test Show Cameo"), credits);
+        assertEquals(2, workManager.getFilmography("director d").size());
+        assertEquals(Collections.singletonList("Test Film Seen"), titles(workManager.query(new MediaQuery().person("writer"))));
+    }
+
+    @Test
+    @DisplayName("Fuzzy title search tolerates typos and ranks the closest titles first")
+    void testFuzzyTitleSearchWM() {
+        workManager.createFilm(Collections.emptyList(), true, "Test Filmes Seen Again", Collections.singletonList(genreDrama), 2020, "Again",
+                Collections.singletonList("Net"), "Director E", 100, "Writer E");
+        List<TitleMatch> matches = workManager.searchByTitleFuzzy("tset film seen", 10);
+        assertEquals("Test Film Seen", matches.get(0).getMedia().getTitle());
+        assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+        assertEquals(Arrays.asList("Test Film Seen", "Test Filmes Seen Again"),
+                titles(workManager.query(new MediaQuery().titleOrIsbn("test flm seen").fuzzyTitle(true).types(false, true, false)
+                        .sort(MediaQuery.SORT_RELEVANCE))));
+        assertTrue(workManager.query(new MediaQuery().titleOrIsbn("test flm seen")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Refining a query while typing narrows the previous result and still sees media created since")
+    void testRefineQueryWM() {
+        MediaQuery.Result first = workManager.refine(new MediaQuery().titleOrIsbn("test"), null, () -> false);
+        assertEquals(Arrays.asList("Test Book Seen", "Test Film Seen", "Test Show Seen"), titles(first.getMedia()));
+
+        workManager.createFilm(Collections.emptyList(), false, "Test Filme Novo", Collections.singletonList(genreDrama), 2024, "New",
+                Collections.singletonList("Net"), "Director N", 90, "Writer N");
+        MediaQuery.Result narrowed = workManager.refine(new MediaQuery().titleOrIsbn("test fi"), first, () -> false);
+        assertEquals(Arrays.asList("Test Film Seen", "Test Filme Novo"), titles(narrowed.getMedia()));
+
+        // Deleting letters widens the query: it must not be limited to the previous result
+        MediaQuery.Result widened = workManager.refine(new MediaQuery().titleOrIsbn("test"), narrowed, () -> false);
+        assertEquals(4, titles(widened.getMedia()).size());
+        MediaQuery.Result person = workManager.refine(new MediaQuery().titleOrIsbn("test").person("dir"), widened, () -> false);
+        assertEquals(titles(workManager.query(new MediaQuery().titleOrIsbn("test").person("dir"))), titles(person.getMedia()));
+        assertNull(workManager.refine(new MediaQuery().titleOrIsbn("test"), person, () -> true));
+    }
+
+    @Test
+    @DisplayName("Title autocompletion suggests title prefixes first, then word prefixes, and sees new media")
+    void testCompleteTitlesWM() {
+        assertEquals(Collections.singletonList("Test Book Seen"), workManager.completeBookTitles("TEST b", 10));
+        workManager.createBook(false, "Ótimo Livro de Teste", Collections.emptyList(), 2020, "Author O", "P", "ISBN-OTIMO", false);
+        workManager.createBook(false, "Test Book Two", Collections.emptyList(), 2020, "Author T", "P", "ISBN-TWO", false);
+        assertEquals(Arrays.asList("Test Book Seen", "Test Book Two", "Ótimo Livro de Teste"), workManager.completeBookTitles("te", 10));
+        assertEquals(Collections.singletonList("Ótimo Livro de Teste"), workManager.completeBookTitles("otimo", 10));
+        assertEquals(2, workManager.completeBookTitles("te", 2).size());
+        assertEquals(Collections.singletonList("Test Show Seen"), workManager.completeShowTitles("test", 10));
+        assertTrue(workManager.completeFilmTitles("xyz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("The maintained title order lists and pages media alphabetically, including media created later")
+    void testTitleOrderPagingWM() {
+        List<Media> before = workManager.listMediaAlphabetically();
+        workManager.createBook(false, "Ábaco", Collections.emptyList(), 2020, "Author A", "P", "ISBN-ABACO", false);
+        workManager.createBook(false, "Test Book Seen", Collections.emptyList(), 2020, "Author B", "P", "ISBN-SAME", false);
+
+        List<Media> all = workManager.listMediaAlphabetically();
+        assertEquals(before.size() + 2, all.size());
+        List<String> sorted = all.stream().map(Media::getTitle).collect(Collectors.toList());
+        List<String> expected = new ArrayList<>(sorted);
+        expected.sort(Comparator.comparing((String title) -> TextFolding.fold(title)).thenComparing(Comparator.naturalOrder()));
+        assertEquals(expected, sorted);
+        assertEquals("Ábaco", workManager.listMediaPage("abac", 1).get(0).getTitle());
+
+        List<Media> paged = new ArrayList<>();
+        for (List<Media> page = workManager.listMediaPageAfter(null, 7); !page.isEmpty(); page = workManager.listMediaPageAfter(page.get(page.size() - 1), 7)) {
+            paged.addAll(page);
+        }
+        assertEquals(all, paged);
+        assertEquals(Arrays.asList("Test Book Seen", "Test Book Seen", "Test Film Seen"),
+                titles(workManager.listMediaPage("test", 3)));
+        assertTrue(workManager.getBooksName().contains("Ábaco"));
+    }
+
+    @Test
+    @DisplayName("Top rated, rating pages and ranks follow reviews and match sortByRating")
+    void testRatingOrderWM() {
+        assertEquals(workManager.listMediaAlphabetically().size(), workManager.listByRating(true, 0, Integer.MAX_VALUE).size());
+        workManager.createBook(true, "Rated Low", Collections.emptyList(), 2020, "Author A", "P", "ISBN-LOW", false);
+        workManager.createBook(true, "Rated High", Collections.emptyList(), 2020, "Author B", "P", "ISBN-HIGH", false);
+        assertEquals(0, workManager.createReviewBook("Rated Low", "meh", 1, "d1"));
+        assertEquals(0, workManager.createReviewBook("Rated High", "great", 5, "d1"));
+        assertEquals(0, workManager.createReviewBook("Rated High", "good", 5, "d2"));
+
+        List<Media> expectedDesc = workManager.listMediaAlphabetically();
+        WorkManager.sortByRating(expectedDesc, true);
+        List<Media> expectedAsc = workManager.listMediaAlphabetically();
+        WorkManager.sortByRating(expectedAsc, false);
+        assertEquals(expectedDesc, workManager.listByRating(true, 0, Integer.MAX_VALUE));
+        assertEquals(expectedAsc, workManager.listByRating(false, 0, Integer.MAX_VALUE));
+        assertEquals(expectedDesc.subList(2, 5), workManager.listByRating(true, 2, 3));
+        assertEquals(expectedDesc.subList(0, 2), workManager.getTopRated(2));
+
+        Media low = workManager.searchBooksByISBN("ISBN-LOW").get(0);
+        assertEquals(expectedDesc.indexOf(low), workManager.getRatingRank(low, true));
+        assertEquals(expectedAsc.indexOf(low), workManager.getRatingRank(low, false));
+
+        assertEquals(0, workManager.createReviewBook("Rated Low", "better on reread", 5, "d3"));
+        expectedDesc = workManager.listMediaAlphabetically();
+        WorkManager.sortByRating(expectedDesc, true);
+        assertEquals(expectedDesc, workManager.listByRating(true, 0, Integer.MAX_VALUE));
+        assertEquals(expectedDesc, workManager.getFilteredAndSortedMedia(null, null, MediaQuery.SORT_RATING_DESC));
+        assertEquals(expectedDesc.indexOf(low), workManager.getRatingRank(low, true));
+    }
+
+    private static List<String> titles(List<Media> media) {
+        return media.stream().map(Media::getTitle).filter(title -> title.startsWith("Test")).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Title and ISBN lookups are case-insensitive and see media created after the first lookup")
+    void testKeyLookupsWM() {
+        workManager.createBook(true, "Dom Casmurro", Collections.emptyList(), 1899, "Machado de Assis", "Garnier", "978-85-01", false);
+        assertEquals("Dom Casmurro", workManager.searchBooksByISBN(" 978-85-01 ").get(0).getTitle());
+        assertEquals(0, workManager.createReviewBook("DOM CASMURRO", "Capitu", 5, "d1"));
+        assertEquals(0, workManager.createReviewBook("Dóm Casmurro", "Bentinho", 4, "d2"));
+        assertEquals(1, workManager.createReviewBook("Memórias Póstumas", "x", 5, "d1"));
+
+        workManager.createShow(Collections.emptyList(), true, "Cidade Invisível", Collections.emptyList(), 2021,
+                "Invisible City", Collections.singletonList("Netflix"), 2023);
+        assertEquals(0, workManager.createSeason("cidade invisível", 1, 7, "2021"));
+        assertEquals(Collections.singletonList(1), workManager.getSeasonsByShowName("CIDADE INVISÍVEL"));
+    }
+
+    @Test
+    @DisplayName("Snapshots are immutable point-in-time views published after each commit")
+    void testLibrarySnapshotWM() {
+        LibrarySnapshot before = workManager.snapshot();
+        assertSame(before, workManager.snapshot());
+        int books = before.getBooks().size();
+        int media = before.getMedia().size();
+
+        workManager.createBook(true, "Snapshot Book", Collections.emptyList(), 2020, "Author S", "P", "ISBN-SNAP", false);
+        LibrarySnapshot after = workManager.snapshot();
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(books, before.getBooks().size());
+        assertEquals(books + 1, after.getBooks().size());
+        assertEquals("Snapshot Book", after.getMedia().get(media).getTitle());
+        assertThrows(UnsupportedOperationException.class, () -> after.getBooks().add(null));
+
+        workManager.beginBatch();
+        for (int i = 0; i < 1100; i++) { // Deep enough for three levels of the persistent list
+            workManager.createFilm(Collections.emptyList(), false, "Snapshot Film " + i, Collections.emptyList(), 2000,
+                    null, Collections.emptyList(), "D", 90, "S");
+        }
+        assertSame(after, workManager.snapshot()); // Not published until the batch commits
+        workManager.commit();
+
+        LibrarySnapshot committed = workManager.snapshot();
+        assertEquals(after.getFilms().size() + 1100, committed.getFilms().size());
+        assertEquals(after.getMedia().size() + 1100, committed.getMedia().size());
+        for (int i = 0; i < 1100; i++) {
+            assertEquals("Snapshot Film " + i, committed.getFilms().get(after.getFilms().size() + i).getTitle());
+        }
+        List<String> visited = new ArrayList<>();
+        workManager.forEachFilm(film -> visited.add(film.getTitle()));
+        assertEquals(committed.getFilms().stream().map(Media::getTitle).collect(Collectors.toList()), visited);
+
+        workManager.addGenre("Snapshot Genre");
+        assertFalse(committed.getGenres().stream().anyMatch(g -> g.getGenre().equals("Snapshot Genre")));
+        assertTrue(workManager.getGenres().stream().anyMatch(g -> g.getGenre().equals("Snapshot Genre")));
+    }
+
+    @Test
+    @DisplayName("Listeners receive typed change events in order, one delivery per mutation or batch")
+    void testLibraryEventsWM() {
+        List<List<LibraryEvent>> deliveries = new ArrayList<>();
+        LibraryListener listener = deliveries::add;
+        workManager.addListener(listener);
+
+        workManager.addGenre("Event Genre");
+        workManager.addGenre("event genre"); // Duplicate: nothing changes, nothing is delivered
+        workManager.createBook(true, "Event Book", Collections.emptyList(), 2020, "Author E", "P", "ISBN-EVENT", false);
+        workManager.createReviewBook("Event Book", "Good", 4, "01/01/2024");
+        workManager.createReviewBook("Missing Book", "Good", 4, "01/01/2024"); // Not found: no event
+        workManager.createSeason(show1.getTitle(), 3, 6, "01/01/2024");
+        workManager.createReviewShow(show1.getTitle(), 3, "Fine", 3, "02/01/2024");
+
+        assertEquals(5, deliveries.size());
+        LibraryEvent.GenreAdded genre = (LibraryEvent.GenreAdded) deliveries.get(0).get(0);
+        assertEquals("Event Genre", genre.getGenre().getGenre());
+        LibraryEvent.MediaAdded book = (LibraryEvent.MediaAdded) deliveries.get(1).get(0);
+        assertEquals("Event Book", book.getMedia().getTitle());
+        LibraryEvent.ReviewAdded bookReview = (LibraryEvent.ReviewAdded) deliveries.get(2).get(0);
+        assertSame(book.getMedia(), bookReview.getMedia());
+        assertNull(bookReview.getSeason());
+        assertEquals(4, bookReview.getReview().getStars());
+        LibraryEvent.SeasonAdded season = (LibraryEvent.SeasonAdded) deliveries.get(3).get(0);
+        assertEquals(show1.getTitle(), season.getShow().getTitle());
+        assertEquals(3, season.getSeason().getSeasonNumber());
+        LibraryEvent.ReviewAdded seasonReview = (LibraryEvent.ReviewAdded) deliveries.get(4).get(0);
+        assertSame(season.getShow(), seasonReview.getMedia());
+        assertSame(season.getSeason(), seasonReview.getSeason());
+        for (int i = 1; i < deliveries.size(); i++) {
+            assertTrue(deliveries.get(i).get(0).getVersion() > deliveries.get(i - 1).get(0).getVersion());
+        }
+        assertEquals(workManager.snapshot().getVersion(), seasonReview.getVersion());
+
+        deliveries.clear();
+        workManager.inTransaction(wm -> {
+            wm.createFilm(Collections.emptyList(), true, "Event Film 1", Collections.emptyList(), 2001, null, Collections.emptyList(), "D", 90, "S");
+            wm.createFilm(Collections.emptyList(), true, "Event Film 2", Collections.emptyList(), 2002, null, Collections.emptyList(), "D", 90, "S");
+            wm.createReviewFilm("Event Film 1", "Ok", 5, "03/01/2024");
+            assertTrue(deliveries.isEmpty()); // Nothing is delivered before the commit
+        });
+        assertEquals(1, deliveries.size());
+        assertEquals(Arrays.asList("MediaAdded(Event Film 1)", "MediaAdded(Event Film 2)", "ReviewAdded(Event Film 1)"),
+                deliveries.get(0).stream().map(LibraryEvent::toString).collect(Collectors.toList()));
+        assertThrows(UnsupportedOperationException.class, () -> deliveries.get(0).clear());
+
+        workManager.removeListener(listener);
+        workManager.addGenre("After Removal");
+        assertEquals(1, deliveries.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent readers and writers see consistent indexes and lose no mutation")
+    void testConcurrentReadersAndWritersWM() throws Exception {
+        int writers = 4;
+        int perWriter = 150;
+        int initial = workManager.listMediaAlphabetically().size();
+        ExecutorService pool = Executors.newFixedThreadPool(writers * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        String title = "Stress " + writer + "-" + i;
+                        workManager.createBook(true, title, Collections.singletonList(genreDrama), 1990 + i % 30,
+                                "Stress Author " + writer, "P", "STRESS-" + writer + "-" + i, false);
+                        assertEquals(0, workManager.createReviewBook(title, "stress review", 1 + i % 5, "01/01/2024"));
+                    }
+                    return null;
+                }));
+            }
+            for (int r = 0; r < writers; r++) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    do {
+                        for (Media found : workManager.searchByTitle("stress")) {
+                            assertTrue(found.getTitle().startsWith("Stress "));
+                        }
+                        for (Book book : workManager.searchBooksByAuthor("Stress Author")) {
+                            assertSame(book, workManager.searchBooksByISBN(book.getIsbn()).get(0));
+                        }
+                        List<Media> sorted = workManager.listMediaAlphabetically();
+                        for (int i = 1; i < sorted.size(); i++) {
+                            assertTrue(sorted.get(i - 1).getTitleKey().compareTo(sorted.get(i).getTitleKey()) <= 0);
+                        }
+                        assertTrue(workManager.getTopRated(10).size() <= 10);
+                        workManager.getFilteredAndSortedMedia(null, genreDrama, MediaQuery.SORT_RATING_DESC);
+                    } while (writing.get());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < writers; i++) {
+                tasks.get(i).get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS); // Rethrows any reader failure
+            }
+        } finally {
+            writing.set(false);
+            pool.shutdownNow();
+        }
+
+        int total = writers * perWriter;
+        assertEquals(total, workManager.searchBooksByAuthor("Stress Author").size());
+        List<Media> all = workManager.listMediaAlphabetically();
+        assertEquals(initial + total, all.size());
+        List<Media> expected = new ArrayList<>(all);
+        WorkManager.sortByRating(expected, true);
+        assertEquals(expected, workManager.listByRating(true, 0, Integer.MAX_VALUE));
+        for (int w = 0; w < writers; w++) {
+            for (int i = 0; i < perWriter; i++) {
+                Book book = workManager.searchBooksByISBN("STRESS-" + w + "-" + i).get(0);
+                assertEquals("Stress " + w + "-" + i, book.getTitle());
+                assertEquals(expected.indexOf(book), workManager.getRatingRank(book, true));
+                assertTrue(workManager.searchByYear(book.getYearRelease()).contains(book));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A compaction inside an open batch waits for the commit, so reopening does not replay the batch twice")
+    void testCompactionAcrossBatch() {
+        workManager.beginBatch();
+        workManager.createBook(true, "Batched", Collections.emptyList(), 2020, "Batch Author", "P", "ISBN-BATCHED", false);
+        workManager.compact(); // Deferred: the batch's journal records are only written at commit
+        assertEquals(Collections.emptyList(), snapshotFiles());
+        workManager.commit();
+        workManager.createBook(true, "After Batch", Collections.emptyList(), 2021, "Batch Author", "P", "ISBN-AFTER", false);
+        workManager.close();
+
+        WorkManager reopened = new WorkManager(dataFile);
+        assertEquals(1, snapshotFiles().size()); // The deferred compaction ran after the commit
+        assertEquals(Arrays.asList("Batched", "After Batch"), reopened.searchBooksByAuthor("Batch Author").stream()
+                .map(Book::getTitle).collect(Collectors.toList()));
+        assertEquals(workManager.listMediaAlphabetically().size(), reopened.listMediaAlphabetically().size());
+
+        reopened.compact(); // Outside a batch it runs right away
+        reopened.close();
+        WorkManager compacted = new WorkManager(dataFile);
+        assertEquals(2, compacted.searchBooksByAuthor("Batch Author").size());
+        compacted.close();
+    }
+
+    @Test
+    @DisplayName("Compacting after a memory-mapped load writes a new snapshot file instead of replacing the mapped one")
+    void testCompactionAfterMappedLoadWM() {
+        workManager.compact();
+        workManager.close();
+        List<String> first = snapshotFiles();
+        assertEquals(1, first.size());
+
+        WorkManager reopened = new WorkManager(dataFile); // Maps the snapshot just written
+        reopened.createBook(true, "After Mapping", Collections.emptyList(), 2024, "Mapped Author", "P", "ISBN-MAPPED", false);
+        reopened.compact();
+        List<String> second = snapshotFiles();
+        assertEquals(1, second.size()); // The older, mapped generation could be deleted here (not on Windows)
+        assertNotEquals(first, second);
+        assertEquals("Test Book Seen", reopened.searchBooksByISBN("ISBN-BOOK1").get(0).getTitle()); // Still readable
+        int size = reopened.listMediaAlphabetically().size();
+        reopened.close();
+
+        WorkManager compacted = new WorkManager(dataFile);
+        assertEquals(size, compacted.listMediaAlphabetically().size());
+        assertEquals(1, compacted.searchBooksByAuthor("Mapped Author").size());
+        compacted.close();
+    }
+
+    // Opens a copy of the persisted files: the data of an open WorkManager is locked against a second instance
+    private WorkManager openCopy() throws IOException {
+        Path source = Paths.get(dataFile);
+        Path target = Files.createTempDirectory("diary-copy");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(source.getParent())) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().endsWith(".lock")) {
+                    Files.copy(file, target.resolve(file.getFileName()));
+                }
+            }
+        }
+        return new WorkManager(target.resolve(source.getFileName()).toString());
+    }
+
+    @Test
+    @DisplayName("A second WorkManager cannot open data that is already open")
+    void testSecondInstanceIsRejected() {
+        workManager.createBook(true, "Only Once", Collections.emptyList(), 2001, "Author", "P", "ONCE-1", false);
+        assertThrows(IllegalStateException.class, () -> new WorkManager(dataFile));
+        workManager.close();
+
+        WorkManager reopened = new WorkManager(dataFile); // Released by close()
+        assertEquals(1, reopened.searchByTitle("Only Once").size());
+        reopened.close();
+    }
+
+    // Snapshot files written by compaction (dataFile + "." + generation), sorted by name
+    private List<String> snapshotFiles() {
+        File file = new File(dataFile);
+        String[] names = file.getParentFile().list((dir, name) -> name.matches(Pattern.quote(file.getName()) + "\\.\\d+"));
+        List<String> result = names == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(names));
+        Collections.sort(result);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Bursts of mutations become durable in the background, including compaction")
+    void testBackgroundPersistence() {
+        for (int i = 0; i < 600; i++) { // Crosses the compaction threshold
+            workManager.createBook(true, "Bulk " + i, Collections.emptyList(), 2000, "Bulk Author", "P", "BULK-" + i, false);
+        }
+        assertTrue(workManager.awaitDurable(10, TimeUnit.SECONDS));
+        workManager.close();
+
+        WorkManager reopened = new WorkManager(dataFile);
+        assertEquals(600, reopened.searchBooksByAuthor("Bulk Author").size());
+        assertEquals(workManager.listMediaAlphabetically().size(), reopened.listMediaAlphabetically().size());
+        reopened.close();
+    }
+
+}
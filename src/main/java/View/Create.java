@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 
 /**
@@ -147,7 +148,7 @@ public class Create {
      *
      * @return `true` se o usuário responder 'Sim' (opção 1), `false` se responder 'Não' (opção 2).
      */
-    public void addAnotherMedia_Question() {
+    public boolean addAnotherMedia_Question() {
         while (true) {
             System.out.println("Would you like to add another?");
             System.out.println("[1] - Yes");
@@ -157,24 +158,42 @@ public class Create {
             String input = scanner.nextLine();
 
             if (input.equals("1")) {
-                createBook();
+                return true;
             } else if (input.equals("2")) {
-                break;
+                return false;
             } else {
                 System.out.println("⚠️ Invalid option. Please try again.");
             }
         }
     }
 
+    /**
+     * Registra uma mídia digitada em um lote próprio ({@link WorkManager#inTransaction}), assim que
+     * os seus dados são coletados: o lote fica aberto só durante o cadastro, e não enquanto o
+     * usuário digita, e o que já foi digitado não se perde se a sessão for interrompida depois.
+     *
+     * @param entry O cadastro a fazer.
+     */
+    private void save(Consumer<WorkManager> entry) {
+        workManager.inTransaction(entry);
+    }
+
 
     /**
      * Gerencia o processo completo de coleta de dados do usuário para criar um novo livro.
      * Inclui título, título original, gêneros, ano, autor, editora, ISBN, posse e status de leitura.
      * Chama o {@link WorkManager#createBook} para registrar o livro.
-     * Permite ao usuário adicionar múltiplos livros em sequência antes de retornar ao menu anterior.
+     * Permite ao usuário adicionar múltiplos livros em sequência antes de retornar ao menu anterior;
+     * cada um é registrado assim que é digitado (veja {@link #save(Consumer)}).
      */
     public void createBook() {
+        do {
+            save(readBook());
+        } while (addAnotherMedia_Question());
+    }
 
+    /** Coleta os dados de um livro e retorna o cadastro correspondente, ainda não executado. */
+    private Consumer<WorkManager> readBook() {
         System.out.println("<----------------------------->");
         System.out.println("Enter the book title:");
         String title = scanner.nextLine();
@@ -213,8 +232,7 @@ public class Create {
         System.out.println("Have you read the book?");
         boolean seen = confirmationBoolean();
 
-        workManager.createBook(seen, title, genres, yearRelease, author, publisher, isbn, copy);
-        addAnotherMedia_Question();
+        return manager -> manager.createBook(seen, title, genres, yearRelease, author, publisher, isbn, copy);
     }
 
     /**
@@ -222,9 +240,16 @@ public class Create {
      * Inclui título, título original, gêneros, ano, duração, direção, roteiro, elenco,
      * onde assistir e status de visualização.
      * Chama o {@link WorkManager#createFilm} para registrar o filme.
-     * Permite ao usuário adicionar múltiplos filmes em sequência.
+     * Permite ao usuário adicionar múltiplos filmes em sequência, cada um registrado ao ser digitado.
      */
     public void createFilm() {
+        do {
+            save(readFilm());
+        } while (addAnotherMedia_Question());
+    }
+
+    /** Coleta os dados de um filme e retorna o cadastro correspondente, ainda não executado. */
+    private Consumer<WorkManager> readFilm() {
         System.out.println("<----------------------------->");
         System.out.println("Enter the movie title:");
         String title_films = scanner.nextLine();
@@ -268,9 +293,7 @@ public class Create {
         System.out.println("Have you watched the movie?");
         boolean seen = confirmationBoolean();
 
-        workManager.createFilm(cast, seen, title_films, genres_films, yearRelease_films, originalTitle_films, whereWatch, direction_films, runningtime_films, screenplay_films);
-
-        addAnotherMedia_Question();
+        return manager -> manager.createFilm(cast, seen, title_films, genres_films, yearRelease_films, originalTitle_films, whereWatch, direction_films, runningtime_films, screenplay_films);
     }
 
     /**
@@ -317,9 +340,16 @@ public class Create {
      * Inclui título, título original, gêneros, elenco, ano de início e fim,
      * onde assistir e status de visualização.
      * Chama o {@link WorkManager#createShow} para registrar a série.
-     * Permite ao usuário adicionar múltiplas séries em sequência.
+     * Permite ao usuário adicionar múltiplas séries em sequência, cada uma registrada ao ser digitada.
      */
     public void createShow() {
+        do {
+            save(readShow());
+        } while (addAnotherMedia_Question());
+    }
+
+    /** Coleta os dados de uma série e retorna o cadastro correspondente, ainda não executado. */
+    private Consumer<WorkManager> readShow() {
         System.out.println("<----------------------------->");
         System.out.println("Enter the title of the series:");
         String title = scanner.nextLine();
@@ -355,8 +385,7 @@ public class Create {
         System.out.println("Have you watched the series?");
         boolean seen = confirmationBoolean();
 
-        workManager.createShow(cast, seen, title, genres, yearRelease, originalTitle, whereWatch, yearEnd);
-
+        return manager -> manager.createShow(cast, seen, title, genres, yearRelease, originalTitle, whereWatch, yearEnd);
     }
 
     /**
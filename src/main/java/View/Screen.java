@@ -16,11 +16,31 @@ import java.util.Scanner;
  */
 public class Screen {
 
-    WorkManager workManager = new WorkManager();
-    Search search = new Search(workManager);
-    Create create = new Create(workManager);
-    CreateReview createReview = new CreateReview(workManager);
+    WorkManager workManager;
+    Search search;
+    Create create;
+    CreateReview createReview;
 
+    /**
+     * Construtor da classe Screen com um {@link WorkManager} próprio, sobre o arquivo de dados padrão.
+     */
+    public Screen() {
+        this(new WorkManager());
+    }
+
+    /**
+     * Construtor da classe Screen sobre um {@link WorkManager} já aberto (os mesmos dados não
+     * podem ser abertos por duas instâncias). Cria as outras classes da View
+     * (`Search`, `Create`, `CreateReview`) com ele.
+     *
+     * @param workManager O WorkManager usado pelos menus; fechado ao sair.
+     */
+    public Screen(WorkManager workManager) {
+        this.workManager = workManager;
+        this.search = new Search(workManager);
+        this.create = new Create(workManager);
+        this.createReview = new CreateReview(workManager);
+    }
 
     /**
      * Construtor da classe Screen.
@@ -61,6 +81,7 @@ public class Screen {
                     break;
                 case 4:
                     System.out.println("Exiting the program.");
+                    workManager.close(); // Writes any pending changes before exiting
                     break;
                 default:
                     System.out.println("Invalid option.");
@@ -1,6 +1,10 @@
 package View;
 
+import Control.MediaQuery;
+import Control.PersonCredit;
+import Control.TitleMatch;
 import Control.WorkManager;
+import Control.search.PersonIndex;
 import Module.*;
 
 import java.util.List;
@@ -17,6 +21,11 @@ import java.util.stream.Collectors;
  */
 public class Search {
 
+    /** Quantidade máxima de sugestões da busca aproximada de títulos. */
+    private static final int FUZZY_RESULTS = 10;
+    /** Mídias por página na listagem alfabética. */
+    private static final int LIST_PAGE_SIZE = 20;
+
     final WorkManager workManager;
     private Scanner scanner;
 
@@ -38,7 +47,7 @@ public class Search {
 
     /**
      * Exibe e gerencia o menu principal de busca específica.
-     * Permite ao usuário escolher um critério (Título, Gênero, Ano, Pessoa, ISBN)
+     * Permite ao usuário escolher um critério (Título, Gênero, Ano, Pessoa, ISBN) ou ver a filmografia de uma pessoa
      * para buscar mídias na biblioteca. Chama os métodos auxiliares correspondentes
      * para realizar a busca e exibir os resultados.
      * O loop continua até o usuário escolher retornar ao menu anterior (Search/List Menu).
@@ -58,6 +67,7 @@ public class Search {
             System.out.println("3 - Release Year");
             System.out.println("4 - Person (Author, Director, Cast)");
             System.out.println("5 - ISBN (Books Only)");
+            System.out.println("6 - Person Filmography");
             System.out.println("<--------------------------------->");
             System.out.print("Option: ");
             System.out.println("<------------------------------->");
@@ -80,6 +90,9 @@ public class Search {
                 case 5: // ISBN
                     searchByIsbnOption();
                     break;
+                case 6: // Filmography
+                    filmographyOption();
+                    break;
                 case 0:
                     System.out.println("🔙 Returning to previous menu...");
                     ClearScreen.clear();
@@ -97,12 +110,24 @@ public class Search {
      * Método auxiliar privado que lida com a busca por título.
      * Solicita o termo de busca ao usuário, chama o {@link WorkManager#searchByTitle},
      * e exibe os resultados encontrados em formato de tabela usando {@link #printMediaTable}.
+     * Se nada for encontrado, sugere títulos parecidos com {@link WorkManager#searchByTitleFuzzy}.
      */
     private void searchByTitleOption() {
         System.out.print("Enter the title: ");
         String title = scanner.nextLine();
         System.out.println("\nSearching by title: '" + title + "'...");
         List<Media> results = workManager.searchByTitle(title);
+        if (results.isEmpty() && !title.trim().isEmpty()) {
+            // No exact match: offer titles that look alike (typos, original titles)
+            List<TitleMatch> similar = workManager.searchByTitleFuzzy(title, FUZZY_RESULTS);
+            if (!similar.isEmpty()) {
+                System.out.println("No exact match. Did you mean:");
+                for (TitleMatch match : similar) {
+                    System.out.printf("  %3.0f%%  %s (%d)%n", match.getScore() * 100, match.getMedia().getTitle(), match.getMedia().getYearRelease());
+                }
+                results = similar.stream().map(TitleMatch::getMedia).collect(Collectors.toList());
+            }
+        }
         printMediaTable(results);
         pauseForUser();
     }
@@ -124,37 +149,47 @@ public class Search {
 
     /**
      * Método auxiliar privado que lida com a busca por ano de lançamento.
-     * Solicita o ano ao usuário, chama o {@link WorkManager#searchByYear},
-     * e exibe os resultados em formato de tabela.
+     * Solicita o ano ou um intervalo de anos (ex.: 1990-1999) ao usuário, chama o
+     * {@link WorkManager#searchByYearRange}, e exibe os resultados em formato de tabela.
      */
     private void searchByYearOption() {
-        System.out.print("Enter the release year: ");
-        int year;
+        System.out.print("Enter the release year or a range (e.g. 1990-1999): ");
+        int[] range;
         try {
-            year = Integer.parseInt(scanner.nextLine().trim());
-        } catch (NumberFormatException e) {
+            range = MediaQuery.parseYearRange(scanner.nextLine());
+        } catch (IllegalArgumentException e) {
             System.out.println("Invalid year. Search cancelled.");
             return;
         }
-        System.out.println("\nSearching by year: " + year + "...");
-        List<Media> results = workManager.searchByYear(year);
+        System.out.println("\nSearching by year: " + describeYearRange(range) + "...");
+        List<Media> results = workManager.searchByYearRange(range[0], range[1]);
         printMediaTable(results);
         pauseForUser();
     }
 
     /**
-     * Método auxiliar privado que lida com a busca por pessoa (Autor, Diretor, Elenco).
+     * Formata um intervalo de anos de {@link MediaQuery#parseYearRange(String)} para exibição.
+     */
+    private static String describeYearRange(int[] range) {
+        if (range[0] == range[1]) {
+            return String.valueOf(range[0]);
+        }
+        return (range[0] == Integer.MIN_VALUE ? "" : range[0]) + " - " + (range[1] == Integer.MAX_VALUE ? "" : range[1]);
+    }
+
+    /**
+     * Método auxiliar privado que lida com a busca por pessoa (Autor, Diretor, Roteirista, Elenco).
      * Solicita o nome da pessoa e o escopo da busca (tipo de mídia/papel).
-     * Chama os métodos de busca apropriados no {@link WorkManager}, combina os resultados,
-     * remove duplicatas e exibe a lista final em formato de tabela.
+     * Faz uma única consulta com {@link WorkManager#searchPeople}, mantém os créditos do escopo
+     * escolhido, remove duplicatas e exibe a lista final em formato de tabela.
      */
     private void searchByPersonOption() {
-        System.out.print("Enter the person's name (Author, Director, Actor/Actress): ");
+        System.out.print("Enter the person's name (Author, Director, Screenwriter, Actor/Actress): ");
         String personName = scanner.nextLine();
 
         System.out.println("Search for '" + personName + "' in which category(s)?");
         System.out.println("1 - Books only (Author)");
-        System.out.println("2 - Movies only (Director/Cast)");
+        System.out.println("2 - Movies only (Director/Screenplay/Cast)");
         System.out.println("3 - Series only (Cast)");
         System.out.println("4 - All");
         System.out.print("Option: ");
@@ -164,18 +199,18 @@ public class Search {
         System.out.println("\nSearching by person: '" + personName + "'...");
         List<Media> combinedResults = new java.util.ArrayList<>();
 
-        if (scopeOption == 1 || scopeOption == 4) {
-            combinedResults.addAll(workManager.searchBooksByAuthor(personName));
-        }
-        if (scopeOption == 2 || scopeOption == 4) {
-            combinedResults.addAll(workManager.searchFilmsByDirector(personName));
-            combinedResults.addAll(workManager.searchFilmsByCast(personName));
-        }
-        if (scopeOption == 3 || scopeOption == 4) {
-            combinedResults.addAll(workManager.searchShowsByCast(personName));
-        }
         if (scopeOption < 1 || scopeOption > 4) {
             System.out.println("Invalid scope option. No search by person performed.");
+        } else {
+            for (PersonCredit credit : workManager.searchPeople(personName)) {
+                Media media = credit.getMedia();
+                if (scopeOption == 4
+                        || (scopeOption == 1 && media instanceof Book)
+                        || (scopeOption == 2 && media instanceof Films)
+                        || (scopeOption == 3 && media instanceof Show)) {
+                    combinedResults.add(media);
+                }
+            }
         }
 
         List<Media> uniqueResults = combinedResults.stream()
@@ -186,6 +221,63 @@ public class Search {
         pauseForUser();
     }
 
+    /**
+     * Método auxiliar privado que exibe a filmografia de uma pessoa: todas as mídias em que ela
+     * aparece, agrupadas pelo papel (autor, diretor, roteirista, elenco).
+     * Se o nome digitado corresponder a mais de uma pessoa, o usuário escolhe qual.
+     */
+    private void filmographyOption() {
+        System.out.print("Enter the person's name: ");
+        List<String> names = workManager.searchPersonNames(scanner.nextLine());
+        if (names.isEmpty()) {
+            System.out.println("No person found.");
+            pauseForUser();
+            return;
+        }
+        String person = names.get(0);
+        if (names.size() > 1) {
+            System.out.println("Which person?");
+            for (int i = 0; i < names.size(); i++) {
+                System.out.println((i + 1) + " - " + names.get(i));
+            }
+            System.out.print("Option: ");
+            int choice = readIntInput();
+            if (choice < 1 || choice > names.size()) {
+                System.out.println("Invalid option. Filmography cancelled.");
+                return;
+            }
+            person = names.get(choice - 1);
+        }
+
+        List<PersonCredit> credits = workManager.getFilmography(person);
+        System.out.println("\n<--- Filmography: " + person + " --->");
+        for (PersonIndex.Role role : PersonIndex.Role.values()) {
+            List<Media> roleMedia = credits.stream()
+                    .filter(credit -> credit.getRole() == role)
+                    .map(PersonCredit::getMedia)
+                    .collect(Collectors.toList());
+            if (!roleMedia.isEmpty()) {
+                System.out.println("\n" + roleLabel(role) + ":");
+                printMediaTable(roleMedia);
+            }
+        }
+        pauseForUser();
+    }
+
+    private static String roleLabel(PersonIndex.Role role) {
+        switch (role) {
+            case AUTHOR:
+                return "Author";
+            case DIRECTOR:
+                return "Director";
+            case SCREENPLAY:
+                return "Screenplay";
+            case CAST:
+            default:
+                return "Cast";
+        }
+    }
+
     // Helper para distinct em Streams (requer import java.util.function.Function e java.util.concurrent.ConcurrentHashMap)
     /**
      * Predicado auxiliar estático que pode ser usado com {@code Stream.filter()}
@@ -246,9 +338,7 @@ public class Search {
             switch (option) {
                 case 1 -> {
                     ClearScreen.clear();
-                    List<Media> list = workManager.listMediaAlphabetically();
-                    printDetailedMediaList(list, "Lista Completa em Ordem Alfabética");
-                    printMediaTable(list);
+                    alphabeticalListOption(scanner);
                 }
                 case 2 -> {
                     ClearScreen.clear();
@@ -263,9 +353,43 @@ public class Search {
     }
 
     /**
-     * Gerencia a coleta de opções de filtragem (por ano, por gênero) e
+     * Lista todas as mídias em ordem alfabética, página a página ({@link #LIST_PAGE_SIZE} por vez).
+     * Cada página continua da última mídia exibida ({@link WorkManager#listMediaPageAfter(Media, int)}),
+     * sem copiar nem ordenar a lista inteira. O usuário pode ir para a próxima página, começar de
+     * uma letra ou título, ou voltar ao menu.
+     *
+     * @param scanner O scanner do menu.
+     */
+    private void alphabeticalListOption(Scanner scanner) {
+        List<Media> page = workManager.listMediaPageAfter(null, LIST_PAGE_SIZE);
+        int pageNumber = 1;
+        while (true) {
+            if (page.isEmpty()) {
+                System.out.println("No more media to list.");
+                return;
+            }
+            printDetailedMediaList(page, "Lista Completa em Ordem Alfabética (página " + pageNumber + ")");
+            printMediaTable(page);
+            System.out.print("Enter for the next page, a letter or title to jump to, or 0 to return: ");
+            String answer = scanner.nextLine().trim();
+            if (answer.equals("0")) {
+                return;
+            }
+            if (answer.isEmpty()) {
+                page = workManager.listMediaPageAfter(page.get(page.size() - 1), LIST_PAGE_SIZE);
+                pageNumber++;
+            } else {
+                page = workManager.listMediaPage(answer, LIST_PAGE_SIZE);
+                pageNumber = 1;
+            }
+            ClearScreen.clear();
+        }
+    }
+
+    /**
+     * Gerencia a coleta de opções de filtragem (por ano ou intervalo de anos, por gênero) e
      * ordenação (por avaliação, alfabética) do usuário para a listagem avançada.
-     * Chama o {@link WorkManager#getFilteredAndSortedMedia} com as opções selecionadas
+     * Monta uma {@link MediaQuery} com as opções selecionadas, executa com {@link WorkManager#query(MediaQuery)}
      * e exibe a lista resultante formatada em tabela usando {@link #printMediaTable}.
      */
     public void sortingAndFilter() {
@@ -274,7 +398,7 @@ public class Search {
         Scanner scanner = new Scanner(System.in);
         int optionYear, sortOption;
         String optionGenre;
-        Integer filterYear = null;
+        int[] filterYears = null;
         Genre filterGenre = null;
 
         System.out.println("Would you like to filter the list by release year?");
@@ -285,9 +409,12 @@ public class Search {
         scanner.nextLine();
 
         if (optionYear == 1) {
-            System.out.println("\nWhich year would you like to search for?");
-            filterYear = scanner.nextInt();
-            scanner.nextLine();
+            System.out.println("\nWhich year (or range, e.g. 1990-1999) would you like to search for?");
+            try {
+                filterYears = MediaQuery.parseYearRange(scanner.nextLine());
+            } catch (IllegalArgumentException e) {
+                System.out.println(">> Invalid year. Year filter will not be applied.");
+            }
         }
 
         System.out.println("\nWould you like to filter the list by genre?");
@@ -315,7 +442,11 @@ public class Search {
         scanner.nextLine();
 
         ClearScreen.clear();
-        List<Media> resultList = workManager.getFilteredAndSortedMedia(filterYear, filterGenre, sortOption);
+        MediaQuery query = new MediaQuery().genre(filterGenre).sort(sortOption);
+        if (filterYears != null) {
+            query.yearRange(filterYears[0], filterYears[1]);
+        }
+        List<Media> resultList = workManager.query(query);
         printMediaTable(resultList);
     }
 
@@ -332,7 +463,7 @@ public class Search {
         ClearScreen.clear();
         System.out.println("Which genre would you like to search for?");
         System.out.print("Please enter the genre: \n");
-        List<Genre> allGenres = workManager.getGenres();
+        List<Genre> allGenres = workManager.snapshot().getGenres();
         if (allGenres.isEmpty()) return null;
         System.out.println("\n0 - None");
         for (int i = 0; i < allGenres.size(); i++) {
@@ -480,10 +611,11 @@ public class Search {
                 printStringList(show.getWhereWatch(), "  Where to Watch: ");
 
 
-                if (show.getSeasons() != null && !show.getSeasons().isEmpty()) {
-                    System.out.println("  Seasons (" + show.getSeasons().size() + "):");
+                List<Season> seasons = show.getSeasons(); // Immutable: the same list for the count and the loop
+                if (!seasons.isEmpty()) {
+                    System.out.println("  Seasons (" + seasons.size() + "):");
 
-                    for (Season season : show.getSeasons()) {
+                    for (Season season : seasons) {
                         if (season != null) {
                             System.out.println("    - Season " + season.getSeasonNumber() + ":");
                             System.out.println("      Episodes: " + season.getEpisodeCount());
@@ -1,5 +1,6 @@
 package ViewFX;
 
+import Control.LibraryEvent;
 import Control.WorkManager;
 import Module.Genre;
 import javafx.fxml.FXML;
@@ -32,6 +33,8 @@ public class GenreController {
     // This method will be called by the MenuController.
     public void setWorkManager(WorkManager workManager) {
         this.workManager = workManager;
+        // New genres (from this screen or any other thread) are inserted as they are confirmed
+        LibraryEventBatcher.attach(workManager, genreListView, this::applyLibraryChanges);
         // After workManager is set, call the method to populate the data.
         setupData();
     }
@@ -57,8 +60,7 @@ public class GenreController {
 
         // Checks if workManager is not null before using it
         if (workManager != null) {
-            workManager.addGenre(newGenreName);
-            populateGenre();
+            workManager.addGenre(newGenreName); // The list gets the new genre through applyLibraryChanges
             clearAllForms();
             showAlert("Success", "Genre '" + newGenreName + "' added successfully!");
         } else {
@@ -84,6 +86,16 @@ public class GenreController {
     }
 
 
+    // Inserts each new genre at its place instead of reloading the whole list
+    private void applyLibraryChanges(List<LibraryEvent> events) {
+        for (LibraryEvent event : events) {
+            if (event instanceof LibraryEvent.GenreAdded) {
+                String name = ((LibraryEvent.GenreAdded) event).getGenre().getGenre();
+                LibraryEventBatcher.insertSorted(genreListView.getItems(), name, LibraryEventBatcher.GENRE_ORDER);
+            }
+        }
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
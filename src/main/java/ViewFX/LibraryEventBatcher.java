@@ -0,0 +1,94 @@
+package ViewFX;
+
+import Control.LibraryEvent;
+import Control.LibraryListener;
+import Control.WorkManager;
+import Module.TextFolding;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Hands the WorkManager's change events to a screen on the FX Application Thread, one batch per
+ * pulse, so the screen can patch its lists instead of reloading them.
+ *
+ * <p>Events can arrive from any thread (the form that saved the media, a background import).
+ * They are queued, and only the first event of a batch schedules a {@link Platform#runLater};
+ * everything that arrives before that runs is applied together, so a burst of a thousand
+ * imported rows costs one UI update, not a thousand.</p>
+ *
+ * <p>The listener stays registered while the screen is shown: once its owner node leaves the
+ * scene (the menu loaded another screen), it is removed from the WorkManager.</p>
+ */
+final class LibraryEventBatcher implements LibraryListener {
+
+    // The orders the WorkManager lists names in (genres by Genre.getKey(), titles as in getShowName()),
+    // so a new name can be inserted by binary search into a list filled from it
+    static final Comparator<String> GENRE_ORDER = Comparator.comparing(TextFolding::fold);
+    static final Comparator<String> TITLE_ORDER = Comparator.comparing(TextFolding::fold).thenComparing(Comparator.naturalOrder());
+
+    private final Consumer<List<LibraryEvent>> handler;
+    private final Queue<LibraryEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private LibraryEventBatcher(Consumer<List<LibraryEvent>> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Registers a handler for the WorkManager's changes while {@code owner} is part of a scene.
+     * Called when the screen gets its WorkManager, before it reads the current data, so no
+     * change falls between the read and the registration.
+     *
+     * @param workManager The WorkManager to follow.
+     * @param owner       A node of the screen; when it is removed from the scene, the handler is unregistered.
+     * @param handler     Receives each batch on the FX thread, in order.
+     */
+    static void attach(WorkManager workManager, Node owner, Consumer<List<LibraryEvent>> handler) {
+        LibraryEventBatcher batcher = new LibraryEventBatcher(handler);
+        workManager.addListener(batcher);
+        owner.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                workManager.removeListener(batcher);
+            }
+        });
+    }
+
+    @Override
+    public void libraryChanged(List<LibraryEvent> events) {
+        queue.addAll(events);
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false); // Events queued from now on schedule the next batch
+        List<LibraryEvent> batch = new ArrayList<>();
+        for (LibraryEvent event; (event = queue.poll()) != null; ) {
+            batch.add(event);
+        }
+        if (!batch.isEmpty()) {
+            handler.accept(batch);
+        }
+    }
+
+    /**
+     * Inserts an item at its place in a sorted list: a binary search and a single insertion,
+     * instead of re-setting the whole list. An item that is already there is not added again.
+     */
+    static <T> void insertSorted(List<T> items, T item, Comparator<? super T> order) {
+        int position = Collections.binarySearch(items, item, order);
+        if (position < 0) {
+            items.add(-position - 1, item);
+        }
+    }
+}
@@ -138,15 +138,15 @@ public class MediaDetailsController {
             ObservableList<String> seasonInfoList = FXCollections.observableArrayList();
             List<Review> allShowReviews = new ArrayList<>();
 
-            if (show.getSeasons().isEmpty()) {
+            // Seasons and reviews are immutable lists replaced on each addition: read each once
+            List<Season> seasons = show.getSeasons();
+            if (seasons.isEmpty()) {
                 seasonInfoList.add("No seasons registered.");
             } else {
-                for (Season season : show.getSeasons()) {
+                for (Season season : seasons) {
                     seasonInfoList.add("Season " + season.getSeasonNumber() + " (Episodes: " + season.getEpisodeCount() + ", Release: " + season.getReleaseDate() + ")");
                     // Collect reviews for display in the main review list
-                    if (!season.getReviews().isEmpty()) {
-                        allShowReviews.addAll(season.getReviews());
-                    }
+                    allShowReviews.addAll(season.getReviews());
                 }
             }
             seasonsListView.setItems(seasonInfoList);
@@ -1,7 +1,9 @@
 package ViewFX;
 
+import Control.LibraryEvent;
 import Control.WorkManager;
 import Module.Genre;
+import Module.Show;
 import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -85,6 +87,8 @@ public class NewMediaViewController {
     // Setter for WorkManager - called by MenuController
     public void setWorkManager(WorkManager workManager) {
         this.workManager = workManager;
+        // New genres and shows are added to the combo boxes as they are confirmed, not reloaded after each save
+        LibraryEventBatcher.attach(workManager, seasonShowComboBox, this::applyLibraryChanges);
         setupData();
     }
 
@@ -238,6 +242,24 @@ public class NewMediaViewController {
         }
     }
 
+    /**
+     * Applies a batch of library changes: each new genre goes into the three genre combo boxes and
+     * each new show into the season form's show list, at their sorted place.
+     */
+    private void applyLibraryChanges(List<LibraryEvent> events) {
+        for (LibraryEvent event : events) {
+            if (event instanceof LibraryEvent.GenreAdded) {
+                String name = ((LibraryEvent.GenreAdded) event).getGenre().getGenre();
+                LibraryEventBatcher.insertSorted(bookGenreCheckComboBox.getItems(), name, LibraryEventBatcher.GENRE_ORDER);
+                LibraryEventBatcher.insertSorted(movieGenreCheckComboBox.getItems(), name, LibraryEventBatcher.GENRE_ORDER);
+                LibraryEventBatcher.insertSorted(showGenreCheckComboBox.getItems(), name, LibraryEventBatcher.GENRE_ORDER);
+            } else if (event instanceof LibraryEvent.MediaAdded && ((LibraryEvent.MediaAdded) event).getMedia() instanceof Show) {
+                String title = ((LibraryEvent.MediaAdded) event).getMedia().getTitle();
+                LibraryEventBatcher.insertSorted(seasonShowComboBox.getItems(), title, LibraryEventBatcher.TITLE_ORDER);
+            }
+        }
+    }
+
     /**
      * Single method called by the "Save Media" button.
      * It decides which validator to use and which saving method to call.
@@ -364,7 +386,6 @@ public class NewMediaViewController {
                     Integer.parseInt(showYearEndField.getText())
             );
             showAlert("Success", "Show '" + showTitleField.getText() + "' saved successfully!");
-            populateShowCheckComboBoxesForSeason();
             clearAllForms();
         } catch (Exception e) {
             showAlert("Error", "An error occurred while saving the show: " + e.getMessage());
@@ -394,7 +415,6 @@ public class NewMediaViewController {
 
             if (result == 0) {
                 showAlert("Success", "Season saved successfully!");
-                populateShowCheckComboBoxesForSeason();
                 clearAllForms();
             } else if (result == 1) {
                 showAlert("Error", "Show '" + selectedShowName + "' not found. Please check the title.");
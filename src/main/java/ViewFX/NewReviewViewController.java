@@ -1,9 +1,12 @@
 package ViewFX;
 
+import Control.LibraryEvent;
 import Control.WorkManager;
+import Module.TextFolding;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
+import org.controlsfx.control.textfield.TextFields;
 import net.synedra.validatorfx.ValidationMessage; // Importar ValidationMessage
 import net.synedra.validatorfx.Validator;
 
@@ -33,20 +36,23 @@ public class NewReviewViewController {
     @FXML private VBox showFormPane;
 
 
+    // Suggestions shown under a title field while typing
+    private static final int TITLE_SUGGESTIONS = 15;
+
     // --- Book Form Components ---
-    @FXML private ComboBox <String> bookNamesComboBox;
+    @FXML private TextField bookTitleField;
     @FXML private TextArea reviewBookTextArea;
     @FXML private Slider bookRatingSlider;
     @FXML private Label bookRatingValueLabel;
 
     // --- Film Form Components ---
-    @FXML private ComboBox <String> movieNamesComboBox;
+    @FXML private TextField movieTitleField;
     @FXML private TextArea reviewMovieTextArea;
     @FXML private Slider movieRatingSlider;
     @FXML private Label movieRatingValueLabel;
 
     // --- Show and Season Form Components ---
-    @FXML private ComboBox <String> showNamesComboBox;
+    @FXML private TextField showTitleField;
     @FXML private ComboBox <Integer> seasonNamesComboBox;
     @FXML private TextArea reviewShowTextArea;
     @FXML private Slider showRatingSlider;
@@ -59,6 +65,8 @@ public class NewReviewViewController {
     // Setter for WorkManager - called by MenuController
     public void setWorkManager(WorkManager workManager) {
         this.workManager = workManager;
+        // A season added while this screen is open shows up in the season list of its show
+        LibraryEventBatcher.attach(workManager, seasonNamesComboBox, this::applyLibraryChanges);
         // Call setupData() once workManager is set
         setupData();
     }
@@ -75,13 +83,13 @@ public class NewReviewViewController {
 
         seasonNamesComboBox.setDisable(true);
 
-        showNamesComboBox.valueProperty().addListener((obs, oldShow, newShow) -> {
-            if (newShow != null) {
-                // If a new show is selected, populate seasons
+        showTitleField.textProperty().addListener((obs, oldShow, newShow) -> {
+            // The seasons follow the typed title: an O(1) lookup, so it is fine on every keystroke
+            if (newShow != null && !newShow.trim().isEmpty() && workManager != null) {
                 populateSeasonComboBox(newShow);
-                seasonNamesComboBox.setDisable(false); // And enable the Season ComboBox
+                seasonNamesComboBox.setDisable(seasonNamesComboBox.getItems().isEmpty());
             } else {
-                // If no show is selected, clear and disable the Season ComboBox
+                // If no show is typed, clear and disable the Season ComboBox
                 seasonNamesComboBox.getItems().clear();
                 seasonNamesComboBox.setDisable(true);
             }
@@ -93,9 +101,9 @@ public class NewReviewViewController {
      */
     public void setupData() {
         if (workManager != null) {
-            populateAllComboBoxes();
+            setupTitleAutoCompletion();
         } else {
-            System.err.println("WorkManager is null. Cannot populate combo boxes.");
+            System.err.println("WorkManager is null. Cannot set up title suggestions.");
             showAlert("Error", "System not initialized correctly. Please restart.");
         }
     }
@@ -135,15 +143,15 @@ public class NewReviewViewController {
 
     private void setupAllValidations() {
         // Validation for Book - removed .decorates() calls
-        bookValidator.createCheck().dependsOn("value", bookNamesComboBox.valueProperty()).withMethod(c -> { if (c.get("value") == null) c.error("Please select a book."); });
+        bookValidator.createCheck().dependsOn("text", bookTitleField.textProperty()).withMethod(c -> { if (((String) c.get("text")).trim().isEmpty()) c.error("Please select a book."); });
         bookValidator.createCheck().dependsOn("text", reviewBookTextArea.textProperty()).withMethod(c -> { if (((String) c.get("text")).trim().isEmpty()) c.error("The review cannot be empty."); });
 
         // Validation for Film - removed .decorates() calls
-        movieValidator.createCheck().dependsOn("value", movieNamesComboBox.valueProperty()).withMethod(c -> { if (c.get("value") == null) c.error("Please select a film."); });
+        movieValidator.createCheck().dependsOn("text", movieTitleField.textProperty()).withMethod(c -> { if (((String) c.get("text")).trim().isEmpty()) c.error("Please select a film."); });
         movieValidator.createCheck().dependsOn("text", reviewMovieTextArea.textProperty()).withMethod(c -> { if (((String) c.get("text")).trim().isEmpty()) c.error("The review cannot be empty."); });
 
         // Validation for Show/Season - removed .decorates() calls
-        showValidator.createCheck().dependsOn("value", showNamesComboBox.valueProperty()).withMethod(c -> { if (c.get("value") == null) c.error("Please select a show."); });
+        showValidator.createCheck().dependsOn("text", showTitleField.textProperty()).withMethod(c -> { if (((String) c.get("text")).trim().isEmpty()) c.error("Please select a show."); });
         showValidator.createCheck().dependsOn("value", seasonNamesComboBox.valueProperty()).withMethod(c -> { if (c.get("value") == null) c.error("Please select a season."); });
         showValidator.createCheck().dependsOn("text", reviewShowTextArea.textProperty()).withMethod(c -> { if (((String) c.get("text")).trim().isEmpty()) c.error("The review cannot be empty."); });
     }
@@ -157,15 +165,13 @@ public class NewReviewViewController {
         showRatingSlider.valueProperty().addListener((obs, oldVal, newVal) -> showRatingValueLabel.setText(String.format("%.0f", newVal)));
     }
 
-    private void populateAllComboBoxes() {
-        if (workManager != null) {
-            bookNamesComboBox.getItems().setAll(workManager.getBooksName());
-            movieNamesComboBox.getItems().setAll(workManager.getFilmName());
-            showNamesComboBox.getItems().setAll(workManager.getShowName());
-        } else {
-            System.err.println("WorkManager is null in populateAllComboBoxes. Cannot populate combo boxes.");
-            showAlert("Error", "System not initialized correctly. Please restart.");
-        }
+    // The title fields suggest matching titles while typing instead of listing the whole library.
+    // ControlsFX asks for suggestions on a background thread; the WorkManager answers from its
+    // title completers (a sorted prefix map), so each keystroke costs O(log n + TITLE_SUGGESTIONS).
+    private void setupTitleAutoCompletion() {
+        TextFields.bindAutoCompletion(bookTitleField, request -> workManager.completeBookTitles(request.getUserText(), TITLE_SUGGESTIONS));
+        TextFields.bindAutoCompletion(movieTitleField, request -> workManager.completeFilmTitles(request.getUserText(), TITLE_SUGGESTIONS));
+        TextFields.bindAutoCompletion(showTitleField, request -> workManager.completeShowTitles(request.getUserText(), TITLE_SUGGESTIONS));
     }
 
     private void populateSeasonComboBox(String showName) {
@@ -178,6 +184,24 @@ public class NewReviewViewController {
         }
     }
 
+    // Adds new seasons of the show typed in the show form; other changes do not affect this screen
+    private void applyLibraryChanges(List<LibraryEvent> events) {
+        String typedShow = showTitleField.getText();
+        if (typedShow == null || typedShow.trim().isEmpty()) {
+            return;
+        }
+        String showKey = TextFolding.fold(typedShow.trim()); // Same key the WorkManager looks shows up by
+        for (LibraryEvent event : events) {
+            if (event instanceof LibraryEvent.SeasonAdded) {
+                LibraryEvent.SeasonAdded added = (LibraryEvent.SeasonAdded) event;
+                if (added.getShow().getTitleKey().equals(showKey)) {
+                    LibraryEventBatcher.insertSorted(seasonNamesComboBox.getItems(), added.getSeason().getSeasonNumber(), Integer::compare);
+                    seasonNamesComboBox.setDisable(false);
+                }
+            }
+        }
+    }
+
     /**
      * Single method called by the "Save Media" button.
      * It decides which validator to use and which saving method to call.
@@ -232,13 +256,13 @@ public class NewReviewViewController {
     private void saveBookReview() {
         try {
             int result = workManager.createReviewBook(
-                    bookNamesComboBox.getValue(),
+                    bookTitleField.getText(),
                     reviewBookTextArea.getText(),
                     (int) bookRatingSlider.getValue(),
                     dateNow()
             );
             if (result == 0) {
-                showAlert("Success", "Review for book '" + bookNamesComboBox.getValue() + "' saved successfully!");
+                showAlert("Success", "Review for book '" + bookTitleField.getText() + "' saved successfully!");
                 clearAllForms();
             } else if (result == 1) {
                 showAlert("Error", "Book not found.");
@@ -256,13 +280,13 @@ public class NewReviewViewController {
     private void saveMovieReview() {
         try {
             int result = workManager.createReviewFilm(
-                    movieNamesComboBox.getValue(),
+                    movieTitleField.getText(),
                     reviewMovieTextArea.getText(),
                     (int) movieRatingSlider.getValue(),
                     dateNow()
             );
             if (result == 0) {
-                showAlert("Success", "Review for film '" + movieNamesComboBox.getValue() + "' saved successfully!");
+                showAlert("Success", "Review for film '" + movieTitleField.getText() + "' saved successfully!");
                 clearAllForms();
             } else if (result == 1) {
                 showAlert("Error", "Film not found.");
@@ -280,14 +304,14 @@ public class NewReviewViewController {
     private void saveShowReview() {
         try {
             int result = workManager.createReviewShow(
-                    showNamesComboBox.getValue(),
+                    showTitleField.getText(),
                     seasonNamesComboBox.getValue(),
                     reviewShowTextArea.getText(),
                     (int) showRatingSlider.getValue(),
                     dateNow()
             );
             if (result == 0) {
-                showAlert("Success", "Review for season " + seasonNamesComboBox.getValue() + " of '" + showNamesComboBox.getValue() + "' saved successfully!");
+                showAlert("Success", "Review for season " + seasonNamesComboBox.getValue() + " of '" + showTitleField.getText() + "' saved successfully!");
                 clearAllForms();
             } else if (result == 1) {
                 showAlert("Error", "Show not found.");
@@ -306,15 +330,15 @@ public class NewReviewViewController {
 
     private void clearAllForms() {
         reviewBookTextArea.clear();
-        bookNamesComboBox.getSelectionModel().clearSelection();
+        bookTitleField.clear();
         bookRatingSlider.setValue(1);
 
         reviewMovieTextArea.clear();
-        movieNamesComboBox.getSelectionModel().clearSelection();
+        movieTitleField.clear();
         movieRatingSlider.setValue(1);
 
         reviewShowTextArea.clear();
-        showNamesComboBox.getSelectionModel().clearSelection();
+        showTitleField.clear();
         seasonNamesComboBox.getSelectionModel().clearSelection();
         seasonNamesComboBox.setDisable(true);
         showRatingSlider.setValue(1);
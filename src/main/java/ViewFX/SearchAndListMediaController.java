@@ -1,16 +1,23 @@
 package ViewFX;
 
+import Control.LibraryEvent;
+import Control.MediaQuery;
+import Control.PersonCredit;
 import Control.WorkManager;
+import Control.search.PersonIndex;
 import Module.Book;
 import Module.Films;
 import Module.Genre;
 import Module.Media;
 import Module.Review;
 import Module.Show;
+import javafx.animation.PauseTransition;
 import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -24,10 +31,12 @@ import javafx.util.Duration;
 import org.controlsfx.control.CheckComboBox;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
-import java.util.Comparator;
 
 public class SearchAndListMediaController {
 
@@ -46,10 +55,16 @@ public class SearchAndListMediaController {
     @FXML
     private TextField titleIsbnFilterField;
     @FXML
+    private CheckBox fuzzyTitleCheckBox;
+    @FXML
     private TextField yearFilterField;
     @FXML
     private CheckComboBox<String> genreFilterCheckComboBox;
     @FXML
+    private RadioButton genreMatchAllRadio;
+    @FXML
+    private RadioButton genreMatchAnyRadio;
+    @FXML
     private TextField personFilterField;
     @FXML
     private CheckBox filterBookCheckBox;
@@ -66,14 +81,35 @@ public class SearchAndListMediaController {
     @FXML
     private RadioButton sortTitleAscRadio;
 
-    private ObservableList<Media> masterMediaList = FXCollections.observableArrayList();
     private ObservableList<Media> filteredAndSortedMediaList = FXCollections.observableArrayList();
 
     private static final double SIDEBAR_WIDTH = 200.0;
 
+    // Filtering and sorting run here, off the FX Application Thread. A single daemon thread is enough:
+    // a newer query cancels the previous one, so at most one task does real work at a time.
+    private static final ExecutorService FILTER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "media-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The running (or queued) filter task and the number of the latest query; both only touched on the FX thread
+    private Task<Void> filterTask;
+    private long filterGeneration;
+
+    // Typing in the title/ISBN or person field filters after this pause, so a fast typist starts one query, not one per key
+    private static final Duration LIVE_SEARCH_DELAY = Duration.millis(250);
+    private final PauseTransition liveSearchDelay = new PauseTransition(LIVE_SEARCH_DELAY);
+    // Result of the last completed query (FX thread only); a query that only adds letters refines it instead of rescanning
+    private MediaQuery.Result lastResult;
+    // The query the table currently follows (FX thread only); re-run when the library changes
+    private MediaQuery lastQuery;
+
     // Setter for WorkManager - called by MenuController
     public void setWorkManager(WorkManager workManager) {
         this.workManager = workManager;
+        // New media, reviews and genres update the table and the genre filter in place
+        LibraryEventBatcher.attach(workManager, mediaTableView, this::applyLibraryChanges);
         // Call setupData() once workManager is set
         setupData();
     }
@@ -97,14 +133,19 @@ public class SearchAndListMediaController {
 
         // FIX: Make columns fill the table width
         mediaTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        // Search as you type: each keystroke restarts the pause, and the query runs when it ends
+        liveSearchDelay.setOnFinished(event -> applyFiltersAndSort(true));
+        titleIsbnFilterField.textProperty().addListener((observable, oldText, newText) -> liveSearchDelay.playFromStart());
+        personFilterField.textProperty().addListener((observable, oldText, newText) -> liveSearchDelay.playFromStart());
     }
 
     // New method to set up data-dependent components, called after workManager is injected.
     public void setupData() {
         if (workManager != null) { // Defensive check
             populateGenreCheckComboBox();
-            loadAllMedia();
-            applyFiltersAndSort(); // This also triggers initial data display
+            mediaTableView.setItems(filteredAndSortedMediaList);
+            applyFiltersAndSort(false); // This also triggers initial data display
         } else {
             System.err.println("WorkManager is null. Cannot populate initial data for Search and List.");
             showAlert("Error", "System not initialized correctly. Please restart.");
@@ -233,7 +274,7 @@ public class SearchAndListMediaController {
 
     private void populateGenreCheckComboBox() {
         if (workManager != null) { // Defensive check
-            List<String> genreNames = workManager.getGenres().stream()
+            List<String> genreNames = workManager.snapshot().getGenres().stream() // Point-in-time, no lock
                     .map(Genre::getGenre)
                     .collect(Collectors.toList());
             genreFilterCheckComboBox.getItems().setAll(genreNames);
@@ -242,124 +283,177 @@ public class SearchAndListMediaController {
         }
     }
 
-    private void loadAllMedia() {
-        if (workManager != null) { // Defensive check
-            masterMediaList.setAll(workManager.listMediaAlphabetically());
-            // mediaTableView.setItems(masterMediaList); // applyFiltersAndSort will set the items
-        } else {
-            System.err.println("WorkManager is null in loadAllMedia. Cannot load media.");
-        }
-    }
-
     @FXML
     private void handleApplyFilters() {
-        applyFiltersAndSort();
+        applyFiltersAndSort(false);
     }
 
     @FXML
     private void handleClearFilters() {
         titleIsbnFilterField.clear();
+        fuzzyTitleCheckBox.setSelected(false);
         yearFilterField.clear();
         genreFilterCheckComboBox.getCheckModel().clearChecks();
+        genreMatchAnyRadio.setSelected(true);
         personFilterField.clear();
         filterBookCheckBox.setSelected(false);
         filterFilmCheckBox.setSelected(false);
         filterShowCheckBox.setSelected(false);
         sortTitleAscRadio.setSelected(true); // Default sort
-        applyFiltersAndSort();
+        applyFiltersAndSort(false);
     }
 
-    private void applyFiltersAndSort() {
+    // Reads the filter controls on the FX thread and hands the actual work to a background Task.
+    // Only the last query counts: starting a new one cancels the previous task, and a result
+    // that arrives after a newer query started is discarded. Live queries (fired while typing)
+    // stay quiet: no alert for an unfinished year or for an empty result.
+    private void applyFiltersAndSort(boolean live) {
+        liveSearchDelay.stop(); // This query already reads the latest text
         if (workManager == null) { // Defensive check
             System.err.println("WorkManager is null in applyFiltersAndSort. Cannot filter/sort.");
             filteredAndSortedMediaList.clear(); // Clear table if no data source
             return;
         }
 
-        List<Media> currentList = workManager.listMediaAlphabetically();
+        // The query copies the state of the controls: the task must not touch UI nodes
+        MediaQuery query = new MediaQuery();
+        try {
+            query.yearRange(yearFilterField.getText()); // A single year or a range such as 1990-1999
+        } catch (IllegalArgumentException e) {
+            if (live) {
+                return; // Wait for Apply to complain about the year
+            }
+            showAlert("Invalid Input", "Release year must be a year or a range such as 1990-1999.");
+            yearFilterField.clear();
+            return; // Stop processing if year is invalid
+        }
+        boolean fuzzy = fuzzyTitleCheckBox.isSelected();
+        query.titleOrIsbn(titleIsbnFilterField.getText())
+                .fuzzyTitle(fuzzy)
+                .genreNames(genreFilterCheckComboBox.getCheckModel().getCheckedItems())
+                .matchAllGenres(genreMatchAllRadio.isSelected())
+                .person(personFilterField.getText())
+                .types(filterBookCheckBox.isSelected(), filterFilmCheckBox.isSelected(), filterShowCheckBox.isSelected())
+                .sort(sortRatingDescRadio.isSelected() ? MediaQuery.SORT_RATING_DESC
+                        : sortRatingAscRadio.isSelected() ? MediaQuery.SORT_RATING_ASC
+                        : fuzzy ? MediaQuery.SORT_RELEVANCE // Best matches first instead of A-Z
+                        : MediaQuery.SORT_TITLE);
+        runQuery(query, live);
+    }
 
-        // 1. Filter by Title/ISBN
-        String titleIsbnSearchTerm = titleIsbnFilterField.getText().trim().toLowerCase();
-        if (!titleIsbnSearchTerm.isEmpty()) {
-            currentList = currentList.stream()
-                    .filter(media -> media.getTitle().toLowerCase().contains(titleIsbnSearchTerm) ||
-                            (media instanceof Book && ((Book) media).getIsbn().toLowerCase().contains(titleIsbnSearchTerm)))
-                    .collect(Collectors.toList());
+    // Runs a query in the background and patches the table with the rows that changed
+    private void runQuery(MediaQuery query, boolean live) {
+        lastQuery = query;
+        if (filterTask != null) {
+            filterTask.cancel(); // Stale query: stop it mid-scan
         }
+        long generation = ++filterGeneration;
+        List<Media> displayed = new ArrayList<>(filteredAndSortedMediaList);
+        MediaQuery.Result previous = lastResult;
 
-        // 2. Filter by Year
-        String yearText = yearFilterField.getText().trim();
-        if (!yearText.isEmpty()) {
-            try {
-                int year = Integer.parseInt(yearText);
-                currentList = currentList.stream()
-                        .filter(media -> media.getYearRelease() == year)
-                        .collect(Collectors.toList());
-            } catch (NumberFormatException e) {
-                showAlert("Invalid Input", "Release year must be a valid number.");
-                yearFilterField.clear();
-                return; // Stop processing if year is invalid
+        Task<Void> task = new Task<Void>() {
+            @Override
+            protected Void call() {
+                MediaQuery.Result result = workManager.refine(query, previous, this::isCancelled);
+                if (result == null || isCancelled()) {
+                    return null;
+                }
+                ListDiff diff = ListDiff.between(displayed, result.getMedia());
+                Platform.runLater(() -> {
+                    if (isCancelled() || generation != filterGeneration) {
+                        return; // A newer query is already running
+                    }
+                    lastResult = result;
+                    diff.applyTo(filteredAndSortedMediaList);
+                    if (filteredAndSortedMediaList.isEmpty() && !live) {
+                        showAlert("No Results", "No media found with the selected filters and search criteria.");
+                    }
+                });
+                return null;
             }
-        }
+        };
+        task.setOnFailed(event -> {
+            Throwable error = task.getException();
+            if (error != null) {
+                error.printStackTrace();
+            }
+            showAlert("Error", "Could not filter the media list. Check console for details.");
+        });
+        filterTask = task;
+        FILTER_EXECUTOR.execute(task);
+    }
 
-        // 3. Filter by Genre
-        List<String> selectedGenreNames = genreFilterCheckComboBox.getCheckModel().getCheckedItems();
-        if (!selectedGenreNames.isEmpty()) {
-            currentList = currentList.stream()
-                    .filter(media -> media.getGenres().stream()
-                            .anyMatch(genre -> selectedGenreNames.contains(genre.getGenre())))
-                    .collect(Collectors.toList());
+    // A batch of library changes (one per FX pulse): new genres are inserted into the genre filter,
+    // and new media or reviews re-run the current query once. That query refines the last result
+    // (only it and the media added since are filtered again, see WorkManager.refine) and ListDiff
+    // patches the rows that moved, so the table is not reloaded.
+    private void applyLibraryChanges(List<LibraryEvent> events) {
+        boolean mediaChanged = false;
+        boolean reviewed = false;
+        for (LibraryEvent event : events) {
+            if (event instanceof LibraryEvent.GenreAdded) {
+                String name = ((LibraryEvent.GenreAdded) event).getGenre().getGenre();
+                LibraryEventBatcher.insertSorted(genreFilterCheckComboBox.getItems(), name, LibraryEventBatcher.GENRE_ORDER);
+            } else if (event instanceof LibraryEvent.MediaAdded) {
+                mediaChanged = true;
+            } else if (event instanceof LibraryEvent.ReviewAdded) {
+                mediaChanged = true;
+                reviewed = true;
+            }
         }
-
-        // 4. Filter by Person (Author, Director, Cast)
-        String personSearchTerm = personFilterField.getText().trim().toLowerCase();
-        if (!personSearchTerm.isEmpty()) {
-            currentList = currentList.stream()
-                    .filter(media -> {
-                        if (media instanceof Book) {
-                            return ((Book) media).getAuthor().toLowerCase().contains(personSearchTerm);
-                        } else if (media instanceof Films) {
-                            Films film = (Films) media;
-                            return film.getDirection().toLowerCase().contains(personSearchTerm) ||
-                                    film.getCast().stream().anyMatch(castMember -> castMember.toLowerCase().contains(personSearchTerm));
-                        } else if (media instanceof Show) {
-                            Show show = (Show) media;
-                            return show.getCast().stream().anyMatch(castMember -> castMember.toLowerCase().contains(personSearchTerm));
-                        }
-                        return false;
-                    })
-                    .collect(Collectors.toList());
+        if (mediaChanged && lastQuery != null) {
+            runQuery(lastQuery, true);
         }
+        if (reviewed) {
+            mediaTableView.refresh(); // Rows that keep their place still show a new average rating
+        }
+    }
 
-        // 5. Filter by Media Type (checkboxes)
-        boolean filterBook = filterBookCheckBox.isSelected();
-        boolean filterFilm = filterFilmCheckBox.isSelected();
-        boolean filterShow = filterShowCheckBox.isSelected();
-
-        if (filterBook || filterFilm || filterShow) { // Only apply type filter if at least one checkbox is selected
-            currentList = currentList.stream()
-                    .filter(media -> (filterBook && media instanceof Book) ||
-                            (filterFilm && media instanceof Films) ||
-                            (filterShow && media instanceof Show))
-                    .collect(Collectors.toList());
+    // Difference between the displayed rows and a new result: the unchanged rows at both ends are
+    // kept and only the middle range is replaced, so the table updates (and keeps its scroll
+    // position) without rebuilding every row. Computed off the FX thread, applied on it.
+    static final class ListDiff {
+        private final int from;
+        private final int removedTo;
+        private final List<Media> added;
+
+        private ListDiff(int from, int removedTo, List<Media> added) {
+            this.from = from;
+            this.removedTo = removedTo;
+            this.added = added;
         }
 
-        // 6. Sort the filtered list
-        Comparator<Media> comparator;
-        if (sortRatingDescRadio.isSelected()) {
-            comparator = Comparator.comparingDouble(WorkManager::calculateAverage).reversed();
-        } else if (sortRatingAscRadio.isSelected()) {
-            comparator = Comparator.comparingDouble(WorkManager::calculateAverage);
-        } else { // Default to sortTitleAscRadio
-            comparator = Comparator.comparing(Media::getTitle, String.CASE_INSENSITIVE_ORDER);
+        static ListDiff between(List<Media> oldList, List<Media> newList) {
+            int prefix = 0;
+            int max = Math.min(oldList.size(), newList.size());
+            while (prefix < max && oldList.get(prefix) == newList.get(prefix)) {
+                prefix++;
+            }
+            int suffix = 0;
+            while (suffix < max - prefix
+                    && oldList.get(oldList.size() - 1 - suffix) == newList.get(newList.size() - 1 - suffix)) {
+                suffix++;
+            }
+            return new ListDiff(prefix, oldList.size() - suffix,
+                    new ArrayList<>(newList.subList(prefix, newList.size() - suffix)));
         }
-        currentList.sort(comparator);
 
-        filteredAndSortedMediaList.setAll(currentList);
-        mediaTableView.setItems(filteredAndSortedMediaList);
+        boolean isEmpty() {
+            return from == removedTo && added.isEmpty();
+        }
 
-        if (filteredAndSortedMediaList.isEmpty()) {
-            showAlert("No Results", "No media found with the selected filters and search criteria.");
+        void applyTo(ObservableList<Media> list) {
+            if (isEmpty()) {
+                return;
+            }
+            if (from == 0 && removedTo == list.size()) {
+                list.setAll(added); // Nothing in common: a single replace
+                return;
+            }
+            if (removedTo > from) {
+                list.remove(from, removedTo);
+            }
+            list.addAll(from, added);
         }
     }
 
@@ -384,6 +478,75 @@ public class SearchAndListMediaController {
         transition.play();
     }
 
+    // Filmography of the person typed in the person filter: every credit (author, director,
+    // screenplay, cast) from one lookup in the person index, shown in a modal table
+    @FXML
+    private void handleShowFilmography() {
+        if (workManager == null) {
+            return;
+        }
+        List<String> names = workManager.searchPersonNames(personFilterField.getText());
+        if (names.isEmpty()) {
+            showAlert("Filmography", "Type (part of) a person's name in \"Search by Person\" first.");
+            return;
+        }
+        String person = names.get(0);
+        if (names.size() > 1) {
+            ChoiceDialog<String> dialog = new ChoiceDialog<>(person, names);
+            dialog.setTitle("Filmography");
+            dialog.setHeaderText("More than one person matches. Which one?");
+            person = dialog.showAndWait().orElse(null);
+            if (person == null) {
+                return;
+            }
+        }
+
+        TableView<PersonCredit> creditsTable = new TableView<>(FXCollections.observableArrayList(workManager.getFilmography(person)));
+        TableColumn<PersonCredit, String> roleColumn = new TableColumn<>("Role");
+        roleColumn.setCellValueFactory(cellData -> new SimpleStringProperty(roleLabel(cellData.getValue().getRole())));
+        TableColumn<PersonCredit, String> titleColumn = new TableColumn<>("Title");
+        titleColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getMedia().getTitle()));
+        TableColumn<PersonCredit, String> typeColumn = new TableColumn<>("Type");
+        typeColumn.setCellValueFactory(cellData -> new SimpleStringProperty(typeLabel(cellData.getValue().getMedia())));
+        TableColumn<PersonCredit, String> yearColumn = new TableColumn<>("Year");
+        yearColumn.setCellValueFactory(cellData -> new SimpleStringProperty(String.valueOf(cellData.getValue().getMedia().getYearRelease())));
+        creditsTable.getColumns().addAll(List.of(roleColumn, titleColumn, typeColumn, yearColumn));
+        creditsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        creditsTable.setRowFactory(table -> {
+            TableRow<PersonCredit> row = new TableRow<>();
+            row.setOnMouseClicked(event -> {
+                if (event.getClickCount() == 2 && !row.isEmpty()) {
+                    openReviewDetailsModal(row.getItem().getMedia());
+                }
+            });
+            return row;
+        });
+
+        Stage stage = new Stage();
+        stage.setTitle("Filmography of " + person);
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setScene(new Scene(creditsTable, 520, 360));
+        stage.showAndWait();
+    }
+
+    private static String roleLabel(PersonIndex.Role role) {
+        switch (role) {
+            case AUTHOR:
+                return "Author";
+            case DIRECTOR:
+                return "Director";
+            case SCREENPLAY:
+                return "Screenplay";
+            case CAST:
+            default:
+                return "Cast";
+        }
+    }
+
+    private static String typeLabel(Media media) {
+        return media instanceof Book ? "Book" : media instanceof Films ? "Film" : "Show";
+    }
+
     private void openReviewDetailsModal(Media media) {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/MediaDetailsView.fxml"));